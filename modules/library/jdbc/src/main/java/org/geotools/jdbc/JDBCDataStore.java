@@ -75,6 +75,8 @@ import org.geotools.filter.FilterCapabilities;
 import org.geotools.geometry.jts.ReferencedEnvelope;
 import org.geotools.jdbc.JoinInfo.JoinPart;
 import org.geotools.referencing.CRS;
+import org.geotools.referencing.operation.LinearTransform;
+import org.geotools.renderer.ScreenMap;
 import org.geotools.util.Converters;
 import org.opengis.feature.FeatureVisitor;
 import org.opengis.feature.simple.SimpleFeature;
@@ -94,6 +96,7 @@ import org.opengis.filter.sort.SortBy;
 import org.opengis.filter.sort.SortOrder;
 import org.opengis.referencing.FactoryException;
 import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.referencing.operation.Matrix;
 import org.opengis.referencing.operation.TransformException;
 
 import com.vividsolutions.jts.geom.Envelope;
@@ -250,6 +253,17 @@ public final class JDBCDataStore extends ContentDataStore
      * to 0 to disable fetch size limit and grab all the records in one shot.
      */
     protected int fetchSize;
+
+    /**
+     * The number of inserts and updates sent to the database in a single JDBC batch,
+     * defaulting to 1 (no batching).
+     */
+    protected int batchWriteSize = 1;
+
+    /**
+     * Remembers the last keys of the pages read, when keyset paging is enabled, or null
+     */
+    KeysetPaging keysetPaging;
     
     /**
      * flag controlling whether primary key columns of a table are exposed via the 
@@ -369,6 +383,59 @@ public final class JDBCDataStore extends ContentDataStore
         this.fetchSize = fetchSize;
     }
 
+    /**
+     * The number of inserts and updates sent to the database in a single JDBC batch. Values
+     * greater than one save a round trip to the database per feature written, at the price
+     * of reporting errors only when the batch is executed. Inserts are batched only when the
+     * primary key values can be computed before the insert.
+     */
+    public int getBatchWriteSize() {
+        return batchWriteSize;
+    }
+
+    /**
+     * Changes the number of inserts and updates sent to the database in a single JDBC batch.
+     * @param batchWriteSize
+     */
+    public void setBatchWriteSize(int batchWriteSize) {
+        this.batchWriteSize = batchWriteSize;
+    }
+
+    /**
+     * Returns true if keyset paging is enabled. When enabled, paged queries sorted by
+     * primary key remember the key of the last feature returned, and the query asking for
+     * the next page selects the features following that key, instead of skipping the
+     * previous ones with an OFFSET. This makes deep pages as fast as the first one.
+     * Keyset paging is used only outside of transactions, and when the whole query filter
+     * can be encoded in SQL.
+     */
+    public boolean isKeysetPagingEnabled() {
+        return keysetPaging != null;
+    }
+
+    /**
+     * Enables or disables keyset paging, see {@link #isKeysetPagingEnabled()}
+     * @param keysetPagingEnabled
+     */
+    public void setKeysetPagingEnabled(boolean keysetPagingEnabled) {
+        if (!keysetPagingEnabled) {
+            keysetPaging = null;
+        } else if (keysetPaging == null) {
+            keysetPaging = new KeysetPaging();
+        }
+    }
+
+    /**
+     * Forgets the keys recorded by keyset paging, called after every write and commit, as
+     * the pages of any table or view might have shifted
+     */
+    void clearPageKeys() {
+        KeysetPaging paging = keysetPaging;
+        if (paging != null) {
+            paging.clear();
+        }
+    }
+
     /**
      * Determines if the datastore creates feature types which include those columns / attributes
      * which compose the primary key.
@@ -1474,6 +1541,9 @@ public final class JDBCDataStore extends ContentDataStore
         // first to figure out what the id will be, then the insert statement
         synchronized (this) {
             Statement st = null;
+            PreparedStatement ps = null;
+            String psSQL = null;
+            int batched = 0;
 
             try {
                 if ( !(dialect instanceof PreparedStatementSQLDialect) ) {
@@ -1483,6 +1553,10 @@ public final class JDBCDataStore extends ContentDataStore
                 // figure out if we should determine what the fid is pre or post insert
                 boolean postInsert = dialect.lookupGeneratedValuesPostInsert() && isGenerated(key);
                 
+                // batch the inserts only if the keys are known before the insert, the
+                // generated ones can be grabbed only right after the insert
+                boolean batch = batchWriteSize > 1 && !postInsert;
+                
                 for (Iterator f = features.iterator(); f.hasNext();) {
                     SimpleFeature feature = (SimpleFeature) f.next();
                     
@@ -1495,22 +1569,52 @@ public final class JDBCDataStore extends ContentDataStore
                     }
                     
 
-                    if ( dialect instanceof PreparedStatementSQLDialect ) {
-                        PreparedStatement ps = insertSQLPS( featureType, feature, keyValues, cx );
+                    if ( dialect instanceof PreparedStatementSQLDialect && batch ) {
+                        // features with the same statement end up in the same batch
+                        String sql = insertSQLPSText(featureType, feature);
+                        if ( ps != null && !sql.equals(psSQL) ) {
+                            if ( batched > 0 ) {
+                                ps.executeBatch();
+                                batched = 0;
+                            }
+                            closeSafe( ps );
+                            ps = null;
+                        }
+                        if ( ps == null ) {
+                            LOGGER.log(Level.FINE, "Inserting new features in batch with ps: {0}", sql);
+                            ps = cx.prepareStatement(sql);
+                            psSQL = sql;
+                        }
+                        setInsertValues(ps, featureType, feature, keyValues, cx);
+                        ((PreparedStatementSQLDialect)dialect).onInsert(ps, cx, featureType);
+                        ps.addBatch();
+                        if ( ++batched >= batchWriteSize ) {
+                            ps.executeBatch();
+                            batched = 0;
+                        }
+                    } else if ( dialect instanceof PreparedStatementSQLDialect ) {
+                        PreparedStatement single = insertSQLPS( featureType, feature, keyValues, cx );
                         try {
-                            ((PreparedStatementSQLDialect)dialect).onInsert(ps, cx, featureType);
-                            ps.execute();
+                            ((PreparedStatementSQLDialect)dialect).onInsert(single, cx, featureType);
+                            single.execute();
                         } finally {
-                            closeSafe( ps );
+                            closeSafe( single );
                         }
                     } else {
                         String sql = insertSQL(featureType, feature, keyValues, cx);
                         
-                        //TODO: execute in batch to improve performance?
                         ((BasicSQLDialect)dialect).onInsert(st, cx, featureType);
                         
                         LOGGER.log(Level.FINE, "Inserting new feature: {0}", sql);
-                        st.execute(sql);
+                        if ( batch ) {
+                            st.addBatch(sql);
+                            if ( ++batched >= batchWriteSize ) {
+                                st.executeBatch();
+                                batched = 0;
+                            }
+                        } else {
+                            st.execute(sql);
+                        }
                     }
                     
                     if ( keyValues == null ) {
@@ -1523,12 +1627,20 @@ public final class JDBCDataStore extends ContentDataStore
                     feature.getUserData().put("fid", fid);
                 }
 
-                //st.executeBatch();
+                if ( batched > 0 ) {
+                    if ( ps != null ) {
+                        ps.executeBatch();
+                    } else {
+                        st.executeBatch();
+                    }
+                }
             } catch (SQLException e) {
                 String msg = "Error inserting features";
                 throw (IOException) new IOException(msg).initCause(e);
             } finally {
+                closeSafe(ps);
                 closeSafe(st);
+                clearPageKeys();
             }
         }
     }
@@ -1563,6 +1675,7 @@ public final class JDBCDataStore extends ContentDataStore
                 }
                 finally {
                     closeSafe( ps );
+                    clearPageKeys();
                 }
             } 
             catch (SQLException e) {
@@ -1583,6 +1696,7 @@ public final class JDBCDataStore extends ContentDataStore
                 }
                 finally {
                     closeSafe(st);
+                    clearPageKeys();
                 }
             } catch (SQLException e) {
                 String msg = "Error occured updating features";
@@ -1591,6 +1705,87 @@ public final class JDBCDataStore extends ContentDataStore
         }
     }
 
+    /**
+     * Updates a list of features, each one with its own attributes, values and filter, in
+     * batches of {@link #getBatchWriteSize()} statements. Consecutive updates with the same
+     * SQL share the same prepared statement.
+     */
+    protected void batchUpdate(SimpleFeatureType featureType,
+        List<AttributeDescriptor[]> attributes, List<Object[]> values, List<Filter> filters,
+        Connection cx) throws IOException, SQLException {
+        final int batchSize = Math.max(1, batchWriteSize);
+        int batched = 0;
+        if ( dialect instanceof PreparedStatementSQLDialect ) {
+            PreparedStatement ps = null;
+            String psSQL = null;
+            try {
+                for (int i = 0; i < attributes.size(); i++) {
+                    AttributeDescriptor[] atts = attributes.get(i);
+                    if (atts.length == 0) {
+                        continue;
+                    }
+                    Filter filter = filters.get(i);
+                    PreparedFilterToSQL toSQL = null;
+                    if (filter != null && !Filter.INCLUDE.equals(filter)) {
+                        toSQL = createPreparedFilterToSQL(featureType);
+                    }
+                    String sql = updateSQLPSText(featureType, atts, values.get(i), filter, toSQL);
+                    if ( ps != null && !sql.equals(psSQL) ) {
+                        if ( batched > 0 ) {
+                            ps.executeBatch();
+                            batched = 0;
+                        }
+                        closeSafe( ps );
+                        ps = null;
+                    }
+                    if ( ps == null ) {
+                        LOGGER.log(Level.FINE, "Updating features in batch with prepared statement: {0}", sql);
+                        ps = cx.prepareStatement(sql);
+                        psSQL = sql;
+                    }
+                    setUpdateValues(ps, featureType, atts, values.get(i), toSQL, cx);
+                    ((PreparedStatementSQLDialect)dialect).onUpdate(ps, cx, featureType);
+                    ps.addBatch();
+                    if ( ++batched >= batchSize ) {
+                        ps.executeBatch();
+                        batched = 0;
+                    }
+                }
+                if ( batched > 0 ) {
+                    ps.executeBatch();
+                }
+            } finally {
+                closeSafe( ps );
+                clearPageKeys();
+            }
+        } else {
+            Statement st = cx.createStatement();
+            try {
+                for (int i = 0; i < attributes.size(); i++) {
+                    AttributeDescriptor[] atts = attributes.get(i);
+                    if (atts.length == 0) {
+                        continue;
+                    }
+                    String sql = updateSQL(featureType, atts, values.get(i), filters.get(i));
+                    ((BasicSQLDialect)dialect).onUpdate(st, cx, featureType);
+                    
+                    LOGGER.log(Level.FINE, "Updating feature: {0}", sql);
+                    st.addBatch(sql);
+                    if ( ++batched >= batchSize ) {
+                        st.executeBatch();
+                        batched = 0;
+                    }
+                }
+                if ( batched > 0 ) {
+                    st.executeBatch();
+                }
+            } finally {
+                closeSafe(st);
+                clearPageKeys();
+            }
+        }
+    }
+
     /**
      * Deletes an existing feature in the database for a particular feature type / fid.
      */
@@ -1628,6 +1823,7 @@ public final class JDBCDataStore extends ContentDataStore
             }
             finally {
                 closeSafe(st);
+                clearPageKeys();
             }
         } catch (SQLException e) {
             String msg = "Error occured during delete";
@@ -2964,6 +3160,7 @@ public final class JDBCDataStore extends ContentDataStore
     protected String selectSQL(SimpleFeatureType featureType, Query query) throws IOException, SQLException {
         StringBuffer sql = new StringBuffer();
         sql.append("SELECT ");
+        encodeScreenMapDistinct(featureType, query, sql);
 
         //column names
         selectColumns(featureType, null, query, sql);
@@ -3027,6 +3224,38 @@ public final class JDBCDataStore extends ContentDataStore
         return sql.toString();
     }
 
+    /**
+     * Encodes the clause returning a single point per screen pixel, if the query carries a
+     * {@link Hints#SCREENMAP}, the dialect supports it, and the query is a plain point one
+     * whose data to screen transform is a scale and translate.
+     */
+    void encodeScreenMapDistinct(SimpleFeatureType featureType, Query query, StringBuffer sql) {
+        if (!dialect.isScreenMapDistinctSupported() || query.getHints() == null) {
+            return;
+        }
+        ScreenMap screenMap = (ScreenMap) query.getHints().get(Hints.SCREENMAP);
+        if (screenMap == null || !(screenMap.getTransform() instanceof LinearTransform)) {
+            return;
+        }
+        // the distinct clause would conflict with the sorting
+        if (query.getSortBy() != null && query.getSortBy().length > 0) {
+            return;
+        }
+        GeometryDescriptor gatt = featureType.getGeometryDescriptor();
+        if (gatt == null || gatt.getType().getBinding() != Point.class) {
+            return;
+        }
+        Matrix matrix = ((LinearTransform) screenMap.getTransform()).getMatrix();
+        if (matrix.getNumRow() != 3 || matrix.getNumCol() != 3 || matrix.getElement(0, 1) != 0
+                || matrix.getElement(1, 0) != 0) {
+            return;
+        }
+
+        dialect.encodeScreenMapDistinct(gatt, null, matrix.getElement(0, 0),
+                matrix.getElement(0, 2), matrix.getElement(1, 1), matrix.getElement(1, 2), sql);
+        sql.append(" ");
+    }
+
     void selectColumns(SimpleFeatureType featureType, String prefix, Query query, StringBuffer sql) 
         throws IOException {
         
@@ -3163,6 +3392,7 @@ public final class JDBCDataStore extends ContentDataStore
         
         StringBuffer sql = new StringBuffer();
         sql.append("SELECT ");
+        encodeScreenMapDistinct(featureType, query, sql);
 
         //column names
         selectColumns(featureType, null, query, sql);
@@ -3731,6 +3961,21 @@ public final class JDBCDataStore extends ContentDataStore
      */
     protected PreparedStatement insertSQLPS(SimpleFeatureType featureType, SimpleFeature feature, List keyValues, Connection cx) 
         throws IOException, SQLException {
+        String sql = insertSQLPSText(featureType, feature);
+        LOGGER.log(Level.FINE, "Inserting new feature with ps: {0}", sql);
+        
+        //create the prepared statement
+        PreparedStatement ps = cx.prepareStatement(sql);
+        setInsertValues(ps, featureType, feature, keyValues, cx);
+        return ps;
+    }
+
+    /**
+     * Generates the SQL of an 'INSERT' prepared statement for the specified feature. Features
+     * whose statements have the same SQL can be inserted in the same batch.
+     */
+    String insertSQLPSText(SimpleFeatureType featureType, SimpleFeature feature)
+        throws IOException {
         PreparedStatementSQLDialect dialect = (PreparedStatementSQLDialect) getSQLDialect();
         
         // grab the primary key and collect the pk column names 
@@ -3799,11 +4044,19 @@ public final class JDBCDataStore extends ContentDataStore
         
         sql.setLength(sql.length()-1);
         sql.append(")");
-        LOGGER.log(Level.FINE, "Inserting new feature with ps: {0}", sql);
-        
-        //create the prepared statement
-        PreparedStatement ps = cx.prepareStatement(sql.toString());
-        
+        return sql.toString();
+    }
+
+    /**
+     * Sets the parameters of a prepared statement built from {@link #insertSQLPSText}.
+     */
+    void setInsertValues(PreparedStatement ps, SimpleFeatureType featureType,
+        SimpleFeature feature, List keyValues, Connection cx) throws IOException, SQLException {
+        PreparedStatementSQLDialect dialect = (PreparedStatementSQLDialect) getSQLDialect();
+        PrimaryKey key = getPrimaryKey(featureType);
+        Set<String> pkColumnNames = getColumnNames(key);
+        boolean useExisting = Boolean.TRUE.equals(feature.getUserData().get(Hints.USE_PROVIDED_FID));
+
         //set the attribute values
         int i = 1;
         for(AttributeDescriptor att : featureType.getAttributeDescriptors()) {
@@ -3852,8 +4105,6 @@ public final class JDBCDataStore extends ContentDataStore
                 }
             }
         }
-        
-        return ps;
     }
     
     /**
@@ -3976,6 +4227,25 @@ public final class JDBCDataStore extends ContentDataStore
      */
     protected PreparedStatement updateSQLPS(SimpleFeatureType featureType, AttributeDescriptor[] attributes,
             Object[] values, Filter filter, Connection cx ) throws IOException, SQLException {
+        PreparedFilterToSQL toSQL = null;
+        if (filter != null  && !Filter.INCLUDE.equals(filter)) {
+            toSQL = createPreparedFilterToSQL(featureType);
+        }
+        String sql = updateSQLPSText(featureType, attributes, values, filter, toSQL);
+        
+        PreparedStatement ps = cx.prepareStatement(sql);
+        LOGGER.log(Level.FINE, "Updating features with prepared statement: {0}", sql);
+        
+        setUpdateValues(ps, featureType, attributes, values, toSQL, cx);
+        return ps;
+    }
+
+    /**
+     * Generates the SQL of an 'UPDATE' prepared statement, encoding the filter with
+     * {@code toSQL}, if not null. Updates with the same SQL can be executed in the same batch.
+     */
+    String updateSQLPSText(SimpleFeatureType featureType, AttributeDescriptor[] attributes,
+            Object[] values, Filter filter, PreparedFilterToSQL toSQL) throws IOException {
         PreparedStatementSQLDialect dialect = (PreparedStatementSQLDialect) getSQLDialect();
         
         // grab the primary key and collect the pk column names 
@@ -4017,20 +4287,26 @@ public final class JDBCDataStore extends ContentDataStore
         sql.setLength(sql.length() - 1);
         sql.append(" ");
 
-        PreparedFilterToSQL toSQL = null;
-        if (filter != null  && !Filter.INCLUDE.equals(filter)) {
+        if (toSQL != null) {
             //encode filter
             try {
-                toSQL = createPreparedFilterToSQL(featureType);
                 sql.append(" ").append(toSQL.encodeToString(filter));
             } catch (FilterToSQLException e) {
                 throw new RuntimeException(e);
             }
         }
-        
-        PreparedStatement ps = cx.prepareStatement(sql.toString());
-        LOGGER.log(Level.FINE, "Updating features with prepared statement: {0}", sql);
-        
+        return sql.toString();
+    }
+
+    /**
+     * Sets the parameters of a prepared statement built from {@link #updateSQLPSText}.
+     */
+    void setUpdateValues(PreparedStatement ps, SimpleFeatureType featureType,
+            AttributeDescriptor[] attributes, Object[] values, PreparedFilterToSQL toSQL,
+            Connection cx) throws IOException, SQLException {
+        PreparedStatementSQLDialect dialect = (PreparedStatementSQLDialect) getSQLDialect();
+        Set<String> pkColumnNames = getColumnNames(getPrimaryKey(featureType));
+
         int i = 0;
         int j = 0;
         for (; i < attributes.length; i++) {
@@ -4067,7 +4343,6 @@ public final class JDBCDataStore extends ContentDataStore
             //}
         }
         
-        return ps;
     }
 
     /**
@@ -4443,6 +4718,21 @@ public final class JDBCDataStore extends ContentDataStore
     protected boolean isSimplificationRequired(Hints hints, GeometryDescriptor gatt) {
     	return isGeometryReduceRequired(hints, gatt, Hints.GEOMETRY_SIMPLIFICATION);    	
     }
+    /**
+     * Checks if geometry clipping or snapping to grid is required and makes sense
+     * 
+     * @param hints     hints passed in
+     * @param gatt      Geometry attribute descriptor
+     * @return          true to indicate clipping or snapping
+     */
+    protected boolean isClipRequired(Hints hints, GeometryDescriptor gatt) {
+        if (!dialect.isGeometryClipSupported()) {
+            return false;
+        }
+        return isGeometryReduceRequired(hints, gatt, Hints.GEOMETRY_CLIP)
+                || isGeometryReduceRequired(hints, gatt, Hints.GEOMETRY_SNAP_TO_GRID);
+    }
+
     /**
      * Checks if reduction required and makes sense
      *       
@@ -4486,6 +4776,18 @@ public final class JDBCDataStore extends ContentDataStore
     		return;    		
     	}
 
+        if (isClipRequired(hints, gatt)) {
+            Envelope clip = (Envelope) hints.get(Hints.GEOMETRY_CLIP);
+            Double gridSize = (Double) hints.get(Hints.GEOMETRY_SNAP_TO_GRID);
+            if (gridSize != null && gridSize <= 0) {
+                gridSize = null;
+            }
+            if (clip != null || gridSize != null) {
+                dialect.encodeGeometryColumnClipped(gatt, prefix, srid, hints, clip, gridSize, sql);
+                return;
+            }
+        }
+
         dialect.encodeGeometryColumn(gatt,prefix,srid, hints, sql);
     }
     
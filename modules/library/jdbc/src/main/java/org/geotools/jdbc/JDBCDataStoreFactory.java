@@ -97,6 +97,14 @@ public abstract class JDBCDataStoreFactory extends AbstractDataStoreFactory {
     public static final Param FETCHSIZE = new Param("fetch size", Integer.class,
             "number of records read with each iteraction with the dbms", false, 1000);
     
+    /** Number of inserts and updates sent to the dbms in a single batch */
+    public static final Param BATCH_WRITE_SIZE = new Param("Batch write size", Integer.class,
+            "number of inserts and updates sent to the dbms in a single batch", false, 1);
+    
+    /** Whether deep pages are read seeking past the last key of the previous page */
+    public static final Param KEYSET_PAGING = new Param("Keyset paging", Boolean.class,
+            "read the pages of queries sorted by primary key starting after the last key of the previous page, instead of using an offset", false, Boolean.FALSE);
+    
     /** Maximum amount of time the pool will wait when trying to grab a new connection **/
     public static final Param MAXWAIT = new Param("Connection timeout", Integer.class,
             "number of seconds the connection pool will wait before timing out attempting to get a new connection (default, 20 seconds)", false, 20);
@@ -180,6 +188,16 @@ public abstract class JDBCDataStoreFactory extends AbstractDataStoreFactory {
         Integer fetchSize = (Integer) FETCHSIZE.lookUp(params);
         if(fetchSize != null && fetchSize > 0)
             dataStore.setFetchSize(fetchSize);
+        
+        // batch write size
+        Integer batchWriteSize = (Integer) BATCH_WRITE_SIZE.lookUp(params);
+        if(batchWriteSize != null && batchWriteSize > 0)
+            dataStore.setBatchWriteSize(batchWriteSize);
+
+        // keyset paging
+        Boolean keysetPaging = (Boolean) KEYSET_PAGING.lookUp(params);
+        if(keysetPaging != null)
+            dataStore.setKeysetPagingEnabled(keysetPaging);
 
         // namespace
         String namespace = (String) NAMESPACE.lookUp(params);
@@ -308,6 +326,8 @@ public abstract class JDBCDataStoreFactory extends AbstractDataStoreFactory {
         parameters.put(MAXCONN.key, MAXCONN);
         parameters.put(MINCONN.key, MINCONN);
         parameters.put(FETCHSIZE.key, FETCHSIZE);
+        parameters.put(BATCH_WRITE_SIZE.key, BATCH_WRITE_SIZE);
+        parameters.put(KEYSET_PAGING.key, KEYSET_PAGING);
         parameters.put(MAXWAIT.key, MAXWAIT);
         if(getValidationQuery() != null)
             parameters.put(VALIDATECONN.key, VALIDATECONN);
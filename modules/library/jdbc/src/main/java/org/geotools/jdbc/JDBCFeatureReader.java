@@ -76,6 +76,12 @@ public class JDBCFeatureReader implements  FeatureReader<SimpleFeatureType, Simp
      */
     protected static final Boolean TRACE_ENABLED = "true".equalsIgnoreCase(System.getProperty("gt2.jdbc.trace"));
 
+    /**
+     * The fetch size used when streaming is requested but neither the query nor the store
+     * set one, as a zero fetch size makes some drivers read the whole result set in memory
+     */
+    static final int DEFAULT_STREAMING_FETCH_SIZE = 1000;
+
     /**
      * The feature source the reader originated from. 
      */
@@ -126,6 +132,18 @@ public class JDBCFeatureReader implements  FeatureReader<SimpleFeatureType, Simp
      * offset/column index to start reading from result set
      */
     protected int offset = 0;
+
+    /**
+     * The fetch size used by the statement, and whether the results are being streamed
+     */
+    protected int fetchSize;
+    protected boolean streaming;
+
+    /**
+     * Number of rows read so far, and the time the query was started, for logging purposes
+     */
+    protected long rowCount;
+    protected long startTime;
     
     public JDBCFeatureReader( String sql, Connection cx, JDBCFeatureSource featureSource, SimpleFeatureType featureType, Hints hints ) 
         throws SQLException {
@@ -134,9 +152,10 @@ public class JDBCFeatureReader implements  FeatureReader<SimpleFeatureType, Simp
         //create the result set
         this.cx = cx;
         st = cx.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
-        st.setFetchSize(featureSource.getDataStore().getFetchSize());
+        setupFetch(st, cx, hints);
         
         ((BasicSQLDialect)featureSource.getDataStore().getSQLDialect()).onSelect(st, cx, featureType);
+        startTime = System.currentTimeMillis();
         rs = st.executeQuery(sql);
     }
     
@@ -148,11 +167,19 @@ public class JDBCFeatureReader implements  FeatureReader<SimpleFeatureType, Simp
         //create the result set
         this.cx = cx;
         this.st = st;
+        setupFetch(st, cx, hints);
         
         ((PreparedStatementSQLDialect)featureSource.getDataStore().getSQLDialect()).onSelect(st, cx, featureType);
+        startTime = System.currentTimeMillis();
         rs = st.executeQuery();
     }
     
+    /**
+     * Builds a reader on top of a result set the caller already executed. The
+     * {@link Hints#JDBC_FETCH_SIZE} and {@link Hints#JDBC_STREAMING} hints are not honored, as
+     * they can only be applied before the statement is executed: the reader reports the fetch
+     * size of the result set, and times the reads starting from its own creation.
+     */
     public JDBCFeatureReader(ResultSet rs, Connection cx, int offset, JDBCFeatureSource featureSource, 
         SimpleFeatureType featureType, Hints hints) throws SQLException {
         init(featureSource, featureType, hints);
@@ -161,6 +188,8 @@ public class JDBCFeatureReader implements  FeatureReader<SimpleFeatureType, Simp
         this.st = rs.getStatement();
         this.rs = rs;
         this.offset = offset;
+        this.fetchSize = rs.getFetchSize();
+        this.startTime = System.currentTimeMillis();
     }
     protected void init( JDBCFeatureSource featureSource, SimpleFeatureType featureType, Hints hints ) {
         // init the tracer if we need to debug a connection leak
@@ -209,6 +238,55 @@ public class JDBCFeatureReader implements  FeatureReader<SimpleFeatureType, Simp
 
     }
 
+    /**
+     * Sets the fetch size of the statement, honoring {@link Hints#JDBC_FETCH_SIZE}, and
+     * enables streaming if {@link Hints#JDBC_STREAMING} is set
+     */
+    protected void setupFetch(Statement st, Connection cx, Hints hints) throws SQLException {
+        fetchSize = dataStore.getFetchSize();
+        Integer hinted = hints == null ? null : (Integer) hints.get(Hints.JDBC_FETCH_SIZE);
+        if (hinted != null && hinted > 0) {
+            fetchSize = hinted;
+        }
+        streaming = isStreaming(hints);
+        if (streaming) {
+            if (fetchSize <= 0) {
+                fetchSize = DEFAULT_STREAMING_FETCH_SIZE;
+            }
+            dataStore.getSQLDialect().setStreamingEnabled(st, cx, fetchSize);
+        } else {
+            st.setFetchSize(fetchSize);
+        }
+    }
+
+    /**
+     * Returns true if the hints ask for the results to be streamed
+     */
+    static boolean isStreaming(Hints hints) {
+        return hints != null && Boolean.TRUE.equals(hints.get(Hints.JDBC_STREAMING));
+    }
+
+    /**
+     * Returns the number of rows read so far
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Returns the fetch size used to read the results
+     */
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    /**
+     * Returns true if the results are being streamed
+     */
+    public boolean isStreaming() {
+        return streaming;
+    }
+
     public JDBCFeatureReader( JDBCFeatureReader other ) {
         this.featureType = other.featureType;
         this.dataStore = other.dataStore;
@@ -219,6 +297,8 @@ public class JDBCFeatureReader implements  FeatureReader<SimpleFeatureType, Simp
         this.builder = other.builder;
         this.st = other.st;
         this.rs = other.rs;
+        this.fetchSize = other.fetchSize;
+        this.streaming = other.streaming;
     }
 
     public void setNext(Boolean next) {
@@ -239,6 +319,9 @@ public class JDBCFeatureReader implements  FeatureReader<SimpleFeatureType, Simp
         if (next == null) {
             try {
                 next = Boolean.valueOf(rs.next());
+                if (next) {
+                    rowCount++;
+                }
             } catch (SQLException e) {
                 throw new RuntimeException(e);
             }
@@ -389,6 +472,12 @@ public class JDBCFeatureReader implements  FeatureReader<SimpleFeatureType, Simp
 
     public void close() throws IOException {
         if ( dataStore != null ) {
+            if (startTime > 0 && LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.fine("Read " + rowCount + " rows of " + featureType.getTypeName() + " in "
+                        + (System.currentTimeMillis() - startTime) + "ms, fetch size "
+                        + fetchSize + (streaming ? ", streaming" : ""));
+            }
+
             //clean up
             dataStore.closeSafe( rs );
             dataStore.closeSafe( st );
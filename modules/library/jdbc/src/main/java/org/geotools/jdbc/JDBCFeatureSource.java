@@ -51,6 +51,7 @@ import org.geotools.filter.visitor.PostPreProcessFilterSplittingVisitor;
 import org.geotools.filter.visitor.SimplifyingFilterVisitor;
 import org.geotools.geometry.jts.ReferencedEnvelope;
 import org.geotools.referencing.CRS;
+import org.geotools.renderer.ScreenMap;
 import org.geotools.util.logging.Logging;
 import org.opengis.feature.Association;
 import org.opengis.feature.FeatureVisitor;
@@ -107,6 +108,18 @@ public class JDBCFeatureSource extends ContentFeatureSource {
         // mark the features as detached, that is, the user can directly alter them
         // without altering the state of the datastore
         hints.add(Hints.FEATURE_DETACHED);
+        // we can skip the features falling in pixels already painted
+        if (getDataStore().getSQLDialect().isScreenMapDistinctSupported()) {
+            hints.add(Hints.SCREENMAP);
+        }
+        // the fetch size and streaming can be controlled per query
+        hints.add(Hints.JDBC_FETCH_SIZE);
+        hints.add(Hints.JDBC_STREAMING);
+        // we can clip and snap to grid the geometries before sending them over the wire
+        if (getDataStore().getSQLDialect().isGeometryClipSupported()) {
+            hints.add(Hints.GEOMETRY_CLIP);
+            hints.add(Hints.GEOMETRY_SNAP_TO_GRID);
+        }
         getDataStore().getSQLDialect().addSupportedHints(hints);
     }
 
@@ -545,6 +558,43 @@ public class JDBCFeatureSource extends ContentFeatureSource {
         // rebuild a new query with the same params, but just the pre-filter
         DefaultQuery preQuery = new DefaultQuery(query);
         preQuery.setFilter(preFilter);
+        // the screen map can be pushed down only if the database sees all the features that
+        // are going to be returned
+        ScreenMap screenMap = null;
+        if (getDataStore().getSQLDialect().isScreenMapDistinctSupported()
+                && query.getHints() != null) {
+            screenMap = (ScreenMap) query.getHints().get(Hints.SCREENMAP);
+            if (screenMap != null && postFilter != null && postFilter != Filter.INCLUDE) {
+                Hints preHints = new Hints(query.getHints());
+                preHints.remove(Hints.SCREENMAP);
+                preQuery.setHints(preHints);
+            }
+        }
+
+        // deep pages of queries sorted by primary key can be read seeking past the last key
+        // of the previous page, provided the database sees all the features that are returned
+        KeysetPaging paging = getDataStore().keysetPaging;
+        List<Object> pageSignature = null;
+        PrimaryKey pageKey = null;
+        long pageGeneration = 0;
+        if (paging != null && query.getStartIndex() != null && query.getJoins().isEmpty()
+                && (postFilter == null || postFilter == Filter.INCLUDE) && screenMap == null
+                && getState().getTransaction() == Transaction.AUTO_COMMIT
+                && getDataStore().getSQLDialect().isLimitOffsetSupported()) {
+            pageKey = getDataStore().getPrimaryKey(getSchema());
+            pageGeneration = paging.getGeneration();
+            pageSignature = paging.getSignature(getEntry().getTypeName(), preQuery, pageKey);
+            if (pageSignature != null) {
+                Filter seek = paging.getSeekFilter(pageSignature, preQuery, pageKey);
+                if (seek != null) {
+                    Filter filter = preFilter == null || preFilter == Filter.INCLUDE ? seek
+                            : KeysetPaging.FF.and(preFilter, seek);
+                    preQuery = new DefaultQuery(preQuery);
+                    preQuery.setFilter(filter);
+                    preQuery.setStartIndex(null);
+                }
+            }
+        }
 
         // Build the feature type returned by this query. Also build an eventual extra feature type
         // containing the attributes we might need in order to evaluate the post filter
@@ -562,9 +612,11 @@ public class JDBCFeatureSource extends ContentFeatureSource {
         try {            
             SQLDialect dialect = getDataStore().getSQLDialect();
 
-            // allow dialect to override this if needed
+            // allow dialect to override this if needed, but streaming needs a transaction
+            // for the driver to keep the cursor open
             if(getState().getTransaction() == Transaction.AUTO_COMMIT) {
-                cx.setAutoCommit(dialect.isAutoCommitQuery());
+                cx.setAutoCommit(dialect.isAutoCommitQuery()
+                        && !JDBCFeatureReader.isStreaming(query.getHints()));
             }
 
             if (query.getJoins().isEmpty()) {
@@ -619,6 +671,18 @@ public class JDBCFeatureSource extends ContentFeatureSource {
                 reader = new ReTypeFeatureReader(reader, returnedSchema);
         }
 
+        // remember where the page ended
+        if (pageSignature != null) {
+            reader = paging.record(reader, getDataStore(), pageKey, pageSignature,
+                    query.getStartIndex(), pageGeneration);
+        }
+
+        // skip the features falling in pixels already used, the database might have
+        // already removed the points, but not the other geometries
+        if (screenMap != null && query.getJoins().isEmpty()) {
+            reader = new ScreenMapFeatureReader(reader, screenMap);
+        }
+
         return reader;
     }
 
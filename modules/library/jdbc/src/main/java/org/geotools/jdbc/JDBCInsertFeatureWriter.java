@@ -20,13 +20,18 @@ import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.geotools.data.FeatureWriter;
 import org.geotools.data.store.ContentEntry;
 import org.geotools.data.store.ContentState;
 import org.geotools.factory.Hints;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.geotools.filter.identity.FeatureIdImpl;
 import org.opengis.feature.simple.SimpleFeature;
 import org.opengis.feature.simple.SimpleFeatureType;
+import org.opengis.filter.identity.FeatureId;
 
 /**
  * 
@@ -38,6 +43,16 @@ public class JDBCInsertFeatureWriter extends JDBCFeatureReader implements Featur
     
     ResultSetFeature last;
     
+    /**
+     * Copies of the features waiting to be inserted, when batching is enabled
+     */
+    List<SimpleFeature> pending = new ArrayList<SimpleFeature>();
+    
+    /**
+     * The identifiers handed out for the pending features, set once they are inserted
+     */
+    List<FeatureId> pendingIds = new ArrayList<FeatureId>();
+    
     public JDBCInsertFeatureWriter(String sql, Connection cx,
             JDBCFeatureSource featureSource, Hints hints) throws SQLException, IOException {
         super(sql, cx, featureSource, featureSource.getSchema(), hints);
@@ -71,6 +86,17 @@ public class JDBCInsertFeatureWriter extends JDBCFeatureReader implements Featur
     }
 
     public void write() throws IOException {
+        if (dataStore.getBatchWriteSize() > 1) {
+            // queue a copy, as the feature is reused for the next write
+            SimpleFeature copy = SimpleFeatureBuilder.copy(last);
+            copy.getUserData().putAll(last.getUserData());
+            pending.add(copy);
+            pendingIds.add(last.getIdentifier());
+            if (pending.size() >= dataStore.getBatchWriteSize()) {
+                flush();
+            }
+            return;
+        }
         try {
             //do the insert
             dataStore.insert(last, featureType, st.getConnection());
@@ -87,7 +113,37 @@ public class JDBCInsertFeatureWriter extends JDBCFeatureReader implements Featur
         }
     }
 
+    /**
+     * Inserts the queued features, then updates their identifiers and notifies the listeners
+     */
+    void flush() throws IOException {
+        if (pending.isEmpty()) {
+            return;
+        }
+        try {
+            dataStore.insert(pending, featureType, st.getConnection());
+            
+            ContentEntry entry = featureSource.getEntry();
+            ContentState state = entry.getState( this.tx );
+            for (int i = 0; i < pending.size(); i++) {
+                SimpleFeature feature = pending.get(i);
+                String fid = (String) feature.getUserData().get( "fid" );
+                ((FeatureIdImpl) pendingIds.get(i)).setID( fid );
+                ((FeatureIdImpl) feature.getIdentifier()).setID( fid );
+                state.fireFeatureAdded( featureSource, feature );
+            }
+        } catch (SQLException e) {
+            throw (IOException) new IOException().initCause(e);
+        } finally {
+            pending.clear();
+            pendingIds.clear();
+        }
+    }
+
     public void close() throws IOException {
+        if (dataStore != null) {
+            flush();
+        }
         super.close();
         
         if ( last != null ) {
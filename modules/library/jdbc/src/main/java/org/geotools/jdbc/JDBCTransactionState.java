@@ -87,7 +87,9 @@ final class JDBCTransactionState implements State {
             } catch (SQLException e) {
                 String msg = "Error occured on commit";
                 throw (IOException) new IOException(msg).initCause(e);
-            }        
+            } finally {
+                dataStore.clearPageKeys();
+            }
         }
     }
 
@@ -33,6 +33,7 @@ import org.geotools.geometry.jts.ReferencedEnvelope;
 import org.opengis.feature.simple.SimpleFeature;
 import org.opengis.feature.simple.SimpleFeatureType;
 import org.opengis.feature.type.AttributeDescriptor;
+import org.opengis.filter.Filter;
 import org.opengis.filter.Id;
 
 /**
@@ -46,6 +47,13 @@ public class JDBCUpdateFeatureWriter extends JDBCFeatureReader implements
     ResultSetFeature last;
     ReferencedEnvelope lastBounds;
     
+    /**
+     * The updates waiting to be sent to the database, when batching is enabled
+     */
+    List<AttributeDescriptor[]> pendingAttributes = new ArrayList<AttributeDescriptor[]>();
+    List<Object[]> pendingValues = new ArrayList<Object[]>();
+    List<Filter> pendingFilters = new ArrayList<Filter>();
+    
     public JDBCUpdateFeatureWriter(String sql, Connection cx,
             JDBCFeatureSource featureSource, Hints hints) throws SQLException, IOException {
         
@@ -83,6 +91,7 @@ public class JDBCUpdateFeatureWriter extends JDBCFeatureReader implements
     
     public void remove() throws IOException {
         try {
+            flush();
             dataStore.delete(featureType, last.getID(), st.getConnection());
             
             // issue notification
@@ -117,8 +126,17 @@ public class JDBCUpdateFeatureWriter extends JDBCFeatureReader implements
                 }
             }
 
-            // do the write
-            dataStore.update(featureType, changed, values, filter, st.getConnection());
+            // do the write, or queue it if batching
+            if (dataStore.getBatchWriteSize() > 1) {
+                pendingAttributes.add(changed.toArray(new AttributeDescriptor[changed.size()]));
+                pendingValues.add(values.toArray());
+                pendingFilters.add(filter);
+                if (pendingAttributes.size() >= dataStore.getBatchWriteSize()) {
+                    flush();
+                }
+            } else {
+                dataStore.update(featureType, changed, values, filter, st.getConnection());
+            }
             
             // issue notification
             ContentEntry entry = featureSource.getEntry();
@@ -131,7 +149,29 @@ public class JDBCUpdateFeatureWriter extends JDBCFeatureReader implements
         }
     }
 
+    /**
+     * Sends the queued updates to the database
+     */
+    void flush() throws IOException {
+        if (pendingAttributes.isEmpty()) {
+            return;
+        }
+        try {
+            dataStore.batchUpdate(featureType, pendingAttributes, pendingValues, pendingFilters,
+                    st.getConnection());
+        } catch (SQLException e) {
+            throw (IOException) new IOException().initCause(e);
+        } finally {
+            pendingAttributes.clear();
+            pendingValues.clear();
+            pendingFilters.clear();
+        }
+    }
+
     public void close() throws IOException {
+        if (dataStore != null) {
+            flush();
+        }
         super.close();
         if ( last != null ) {
             last.close();
@@ -55,6 +55,7 @@ public class JDBCUpdateInsertFeatureWriter extends JDBCUpdateFeatureWriter {
         boolean hasNext = super.hasNext();
         if ( !hasNext ) {
             //update phase is up, switch to insert mode
+            flush();
             inserter = new JDBCInsertFeatureWriter( this );
             return inserter.hasNext();
         }
@@ -95,6 +96,7 @@ public class JDBCUpdateInsertFeatureWriter extends JDBCUpdateFeatureWriter {
             // from this reader... super will deal with it.
             // AA: yet, make it throw away all references so that we won't get
             // false positive information about connection leaks
+            inserter.flush();
             inserter.cleanup();
             inserter = null;
         }
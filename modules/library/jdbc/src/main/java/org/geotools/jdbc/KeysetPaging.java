@@ -0,0 +1,280 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2013, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.jdbc;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.geotools.data.DelegatingFeatureReader;
+import org.geotools.data.FeatureReader;
+import org.geotools.data.Query;
+import org.geotools.factory.CommonFactoryFinder;
+import org.geotools.factory.Hints;
+import org.geotools.util.logging.Logging;
+import org.opengis.feature.simple.SimpleFeature;
+import org.opengis.feature.simple.SimpleFeatureType;
+import org.opengis.filter.Filter;
+import org.opengis.filter.FilterFactory;
+import org.opengis.filter.expression.PropertyName;
+import org.opengis.filter.sort.SortBy;
+import org.opengis.filter.sort.SortOrder;
+
+/**
+ * Keyset (seek) pagination support. Remembers the primary key of the last feature returned
+ * by paged queries sorted by primary key, so that the query asking for the following page can
+ * be run filtering out the features up to that key, instead of having the database skip them
+ * with an OFFSET, which gets slower and slower as the start index grows.
+ * <p>
+ * The keys are remembered per table, filter, sort and SQL view parameters, in a bounded least
+ * recently used cache. The data store clears them after every write and commit, the keys
+ * recorded by readers opened before the clear are discarded.
+ * </p>
+ *
+ * @source $URL$
+ */
+class KeysetPaging {
+
+    static final Logger LOGGER = Logging.getLogger(KeysetPaging.class);
+
+    /**
+     * The maximum number of page keys remembered
+     */
+    static final int MAX_PAGE_KEYS = 1000;
+
+    static final FilterFactory FF = CommonFactoryFinder.getFilterFactory(null);
+
+    /**
+     * Incremented on every clear, guarded by the page keys lock
+     */
+    long generation;
+
+    final Map<List<Object>, List<Object>> pageKeys = new LinkedHashMap<List<Object>, List<Object>>(
+            16, 0.75f, true) {
+        protected boolean removeEldestEntry(Map.Entry<List<Object>, List<Object>> eldest) {
+            return size() > MAX_PAGE_KEYS;
+        }
+    };
+
+    /**
+     * Returns the signature identifying the paging session of the query, or null if the query
+     * is not sorted by primary key, and thus cannot be paged by key.
+     */
+    List<Object> getSignature(String typeName, Query query, PrimaryKey key) {
+        if (key == null || key instanceof NullPrimaryKey || key.getColumns().isEmpty()) {
+            return null;
+        }
+        if (getDirection(query.getSortBy(), key) == null) {
+            return null;
+        }
+        Object viewParameters = query.getHints() != null ? query.getHints().get(
+                Hints.VIRTUAL_TABLE_PARAMETERS) : null;
+        return Arrays.asList(typeName, query.getFilter(), Arrays.asList(query.getSortBy()),
+                viewParameters);
+    }
+
+    /**
+     * Returns the sort order if the sort is either the natural one, or lists the primary key
+     * columns in order, in the same direction. Returns null otherwise.
+     */
+    SortOrder getDirection(SortBy[] sort, PrimaryKey key) {
+        if (sort == null || sort.length == 0) {
+            return null;
+        }
+        if (sort.length == 1 && SortBy.NATURAL_ORDER.equals(sort[0])) {
+            return SortOrder.ASCENDING;
+        }
+        if (sort.length == 1 && SortBy.REVERSE_ORDER.equals(sort[0])) {
+            return SortOrder.DESCENDING;
+        }
+        if (sort.length != key.getColumns().size()) {
+            return null;
+        }
+        SortOrder order = sort[0].getSortOrder();
+        for (int i = 0; i < sort.length; i++) {
+            PropertyName property = sort[i].getPropertyName();
+            if (property == null || sort[i].getSortOrder() != order
+                    || !key.getColumns().get(i).getName().equals(property.getPropertyName())) {
+                return null;
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Returns the filter selecting the features following the ones already returned up to the
+     * start index of the query, or null if the key of the feature preceding the start index is
+     * not known.
+     */
+    Filter getSeekFilter(List<Object> signature, Query query, PrimaryKey key) {
+        Integer startIndex = query.getStartIndex();
+        if (startIndex == null || startIndex <= 0) {
+            return null;
+        }
+        List<Object> values;
+        synchronized (pageKeys) {
+            values = pageKeys.get(getPageKey(signature, startIndex));
+        }
+        if (values == null) {
+            return null;
+        }
+
+        // for keys (k1, k2, ...) and values (v1, v2, ...) build
+        // k1 > v1 or (k1 = v1 and k2 > v2) or ...
+        boolean descending = getDirection(query.getSortBy(), key) == SortOrder.DESCENDING;
+        List<Filter> alternatives = new ArrayList<Filter>();
+        for (int i = 0; i < values.size(); i++) {
+            List<Filter> conditions = new ArrayList<Filter>();
+            for (int j = 0; j < i; j++) {
+                conditions.add(FF.equals(FF.property(key.getColumns().get(j).getName()),
+                        FF.literal(values.get(j))));
+            }
+            PropertyName property = FF.property(key.getColumns().get(i).getName());
+            if (descending) {
+                conditions.add(FF.less(property, FF.literal(values.get(i))));
+            } else {
+                conditions.add(FF.greater(property, FF.literal(values.get(i))));
+            }
+            alternatives.add(conditions.size() == 1 ? conditions.get(0) : FF.and(conditions));
+        }
+        return alternatives.size() == 1 ? alternatives.get(0) : FF.or(alternatives);
+    }
+
+    /**
+     * Wraps the reader so that the key of the last feature read is remembered, once the reader
+     * is closed, as the key preceding the next page
+     */
+    FeatureReader<SimpleFeatureType, SimpleFeature> record(
+            FeatureReader<SimpleFeatureType, SimpleFeature> reader, JDBCDataStore store,
+            PrimaryKey key, List<Object> signature, int startIndex, long generation) {
+        return new RecordingReader(reader, store, key, signature, startIndex, generation);
+    }
+
+    /**
+     * Returns the current generation of the keys, to be grabbed before running a paged query
+     * so that the keys it records can be discarded if a write happens meanwhile
+     */
+    long getGeneration() {
+        synchronized (pageKeys) {
+            return generation;
+        }
+    }
+
+    /**
+     * Remembers the key preceding the specified index, unless the keys have been cleared
+     * after the specified generation
+     */
+    void put(List<Object> signature, int index, List<Object> values, long generation) {
+        synchronized (pageKeys) {
+            if (generation == this.generation) {
+                pageKeys.put(getPageKey(signature, index), values);
+            }
+        }
+    }
+
+    void clear() {
+        synchronized (pageKeys) {
+            pageKeys.clear();
+            generation++;
+        }
+    }
+
+    List<Object> getPageKey(List<Object> signature, int index) {
+        List<Object> pageKey = new ArrayList<Object>(signature);
+        pageKey.add(index);
+        return pageKey;
+    }
+
+    class RecordingReader implements DelegatingFeatureReader<SimpleFeatureType, SimpleFeature> {
+
+        FeatureReader<SimpleFeatureType, SimpleFeature> delegate;
+
+        JDBCDataStore store;
+
+        PrimaryKey key;
+
+        List<Object> signature;
+
+        int startIndex;
+
+        long generation;
+
+        int count;
+
+        String lastId;
+
+        RecordingReader(FeatureReader<SimpleFeatureType, SimpleFeature> delegate,
+                JDBCDataStore store, PrimaryKey key, List<Object> signature, int startIndex,
+                long generation) {
+            this.delegate = delegate;
+            this.store = store;
+            this.key = key;
+            this.signature = signature;
+            this.startIndex = startIndex;
+            this.generation = generation;
+        }
+
+        public FeatureReader<SimpleFeatureType, SimpleFeature> getDelegate() {
+            return delegate;
+        }
+
+        public SimpleFeatureType getFeatureType() {
+            return delegate.getFeatureType();
+        }
+
+        public boolean hasNext() throws IOException {
+            return delegate.hasNext();
+        }
+
+        public SimpleFeature next() throws IOException, IllegalArgumentException,
+                NoSuchElementException {
+            SimpleFeature feature = delegate.next();
+            if (feature != null) {
+                count++;
+                lastId = feature.getID();
+            }
+            return feature;
+        }
+
+        public void close() throws IOException {
+            try {
+                String typeName = delegate.getFeatureType().getTypeName();
+                delegate.close();
+                if (lastId != null) {
+                    String fid = lastId;
+                    if (fid.startsWith(typeName + ".")) {
+                        fid = fid.substring(typeName.length() + 1);
+                    }
+                    put(signature, startIndex + count, store.decodeFID(key, fid, true),
+                            generation);
+                }
+            } catch (IllegalArgumentException e) {
+                // a key whose values cannot be told apart in the fid, the next page will
+                // use an offset
+                LOGGER.log(Level.FINE, "Could not decode the last key of the page", e);
+            } finally {
+                lastId = null;
+            }
+        }
+    }
+}
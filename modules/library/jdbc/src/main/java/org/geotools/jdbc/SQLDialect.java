@@ -23,6 +23,7 @@ import java.sql.DatabaseMetaData;
 import java.sql.Date;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Time;
 import java.sql.Timestamp;
 import java.sql.Types;
@@ -1150,6 +1151,74 @@ public abstract class SQLDialect {
     public void applyLimitOffset(StringBuffer sql, int limit, int offset) {
         throw new UnsupportedOperationException("Ovveride this method when isLimitOffsetSupported returns true");
     }
+
+    /**
+     * Returns true if this dialect can thin out point layers in the database, returning a single
+     * point for each screen pixel, see
+     * {@link #encodeScreenMapDistinct(GeometryDescriptor, String, double, double, double, double, StringBuffer)}.
+     * When true the feature sources advertise support for {@link Hints#SCREENMAP}.
+     */
+    public boolean isScreenMapDistinctSupported() {
+        return false;
+    }
+
+    /**
+     * Encodes the clause, placed right after the <code>SELECT</code> keyword, making the query
+     * return a single row for each screen pixel hit by a point column. The pixel containing a
+     * point is <code>floor(x * scaleX + translateX), floor(y * scaleY + translateY)</code>.
+     * <p>
+     * Example:
+     * </p>
+     * <pre>
+     *   <code>
+     *   sql.append("DISTINCT ON (floor(ST_X(");
+     *   encodeColumnName(prefix, gatt.getLocalName(), sql);
+     *   sql.append(") * " + scaleX + " + " + translateX + "), ...)");
+     *   </code>
+     * </pre>
+     * Only called if {@link #isScreenMapDistinctSupported()} returns true.
+     */
+    public void encodeScreenMapDistinct(GeometryDescriptor gatt, String prefix, double scaleX,
+            double translateX, double scaleY, double translateY, StringBuffer sql) {
+        throw new UnsupportedOperationException("Override this method when isScreenMapDistinctSupported returns true");
+    }
+
+    /**
+     * Returns true if this dialect can clip the geometries to an envelope and snap them to a
+     * grid while fetching them, see
+     * {@link #encodeGeometryColumnClipped(GeometryDescriptor, String, int, Hints, Envelope, Double, StringBuffer)}.
+     * When true the feature sources advertise support for {@link Hints#GEOMETRY_CLIP} and
+     * {@link Hints#GEOMETRY_SNAP_TO_GRID}.
+     */
+    public boolean isGeometryClipSupported() {
+        return false;
+    }
+
+    /**
+     * Encodes the name of a geometry column in a SELECT statement, clipping the geometry to
+     * the specified envelope and/or snapping its coordinates to a grid of the specified size.
+     * One of <code>clip</code> and <code>gridSize</code> may be null, not both. Both are
+     * expressed in the native CRS of the column. Dialects lacking a snap to grid function may
+     * ignore <code>gridSize</code>.
+     * <p>
+     * The geometry must be wrapped in the same functions used by
+     * {@link #encodeGeometryColumn(GeometryDescriptor, String, int, Hints, StringBuffer)},
+     * so that {@link #decodeGeometryValue(GeometryDescriptor, ResultSet, String, GeometryFactory, Connection)}
+     * can read it back. Example:
+     * </p>
+     * <pre>
+     *   <code>
+     *   sql.append("ST_AsBinary(ST_SnapToGrid(ST_ClipByBox2D(");
+     *   encodeColumnName(prefix, gatt.getLocalName(), sql);
+     *   sql.append(", ...), " + gridSize + "))");
+     *   </code>
+     * </pre>
+     * Only called if {@link #isGeometryClipSupported()} returns true.
+     */
+    public void encodeGeometryColumnClipped(GeometryDescriptor gatt, String prefix, int srid,
+            Hints hints, Envelope clip, Double gridSize, StringBuffer sql) {
+        throw new UnsupportedOperationException("Override this method when isGeometryClipSupported returns true");
+    }
     
     /**
      * Add hints to the JDBC Feature Source. A subclass 
@@ -1193,4 +1262,19 @@ public abstract class SQLDialect {
     public boolean isAutoCommitQuery() {
         return false;
     }
+
+    /**
+     * Sets up a statement so that its results are streamed, keeping in memory at most
+     * <code>fetchSize</code> rows at a time. Called before the statement is executed for
+     * queries carrying {@link Hints#JDBC_STREAMING}. The connection is not in auto commit mode,
+     * as many drivers (e.g., PostgreSQL) use a server side cursor only within a transaction.
+     * <p>
+     * The default implementation sets the fetch size, subclasses can override for drivers
+     * needing more to stream.
+     * </p>
+     */
+    public void setStreamingEnabled(Statement st, Connection cx, int fetchSize)
+            throws SQLException {
+        st.setFetchSize(fetchSize);
+    }
 }
@@ -0,0 +1,122 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2013, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+
+package org.geotools.jdbc;
+
+import java.io.IOException;
+import java.util.NoSuchElementException;
+
+import org.geotools.data.DelegatingFeatureReader;
+import org.geotools.data.FeatureReader;
+import org.geotools.renderer.ScreenMap;
+import org.opengis.feature.simple.SimpleFeature;
+import org.opengis.feature.simple.SimpleFeatureType;
+import org.opengis.referencing.operation.TransformException;
+
+import com.vividsolutions.jts.geom.Envelope;
+import com.vividsolutions.jts.geom.Geometry;
+import com.vividsolutions.jts.geom.Point;
+
+/**
+ * Feature reader skipping the features whose default geometry falls in a pixel already used
+ * according to a {@link ScreenMap}, and replacing the ones smaller than a pixel with a
+ * simplified shape, in the same way the shapefile readers do.
+ *
+ * @source $URL$
+ */
+class ScreenMapFeatureReader implements DelegatingFeatureReader<SimpleFeatureType, SimpleFeature> {
+
+    FeatureReader<SimpleFeatureType, SimpleFeature> delegate;
+
+    ScreenMap screenMap;
+
+    SimpleFeature next;
+
+    public ScreenMapFeatureReader(FeatureReader<SimpleFeatureType, SimpleFeature> delegate,
+            ScreenMap screenMap) {
+        this.delegate = delegate;
+        this.screenMap = screenMap;
+    }
+
+    public FeatureReader<SimpleFeatureType, SimpleFeature> getDelegate() {
+        return delegate;
+    }
+
+    public SimpleFeatureType getFeatureType() {
+        return delegate.getFeatureType();
+    }
+
+    public boolean hasNext() throws IOException {
+        if (next != null) {
+            return true;
+        }
+
+        while (delegate.hasNext()) {
+            SimpleFeature peek = delegate.next();
+            if (peek != null && accept(peek)) {
+                next = peek;
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    boolean accept(SimpleFeature feature) throws IOException {
+        Object value = feature.getDefaultGeometry();
+        if (!(value instanceof Geometry)) {
+            return true;
+        }
+
+        Geometry geometry = (Geometry) value;
+        Envelope envelope = geometry.getEnvelopeInternal();
+        if (!screenMap.canSimplify(envelope)) {
+            return true;
+        }
+        try {
+            if (screenMap.checkAndSet(envelope)) {
+                return false;
+            }
+        } catch (TransformException e) {
+            throw (IOException) new IOException("Failed to check the screen map").initCause(e);
+        }
+        // a point is already as simple as it gets
+        if (!(geometry instanceof Point)) {
+            Geometry simplified = screenMap.getSimplifiedShape(envelope.getMinX(),
+                    envelope.getMinY(), envelope.getMaxX(), envelope.getMaxY(),
+                    geometry.getFactory(), geometry.getClass());
+            simplified.setUserData(geometry.getUserData());
+            feature.setDefaultGeometry(simplified);
+        }
+        return true;
+    }
+
+    public SimpleFeature next() throws IOException, IllegalArgumentException,
+            NoSuchElementException {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more features");
+        }
+
+        SimpleFeature f = next;
+        next = null;
+        return f;
+    }
+
+    public void close() throws IOException {
+        delegate.close();
+    }
+}
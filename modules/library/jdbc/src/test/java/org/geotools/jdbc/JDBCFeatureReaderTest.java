@@ -17,9 +17,11 @@
 package org.geotools.jdbc;
 
 import org.geotools.data.DefaultQuery;
+import org.geotools.data.DelegatingFeatureReader;
 import org.geotools.data.FeatureReader;
 import org.geotools.data.Query;
 import org.geotools.data.Transaction;
+import org.geotools.factory.Hints;
 import org.opengis.feature.simple.SimpleFeature;
 import org.opengis.referencing.crs.CoordinateReferenceSystem;
 
@@ -46,4 +48,31 @@ public abstract class JDBCFeatureReaderTest extends JDBCTestSupport {
         reader.close();
     }
 
+    public void testStreaming() throws Exception {
+        Query query = new DefaultQuery( tname("ft1") );
+        Hints hints = new Hints(Hints.JDBC_STREAMING, Boolean.TRUE);
+        hints.put(Hints.JDBC_FETCH_SIZE, 1);
+        query.setHints(hints);
+        FeatureReader reader = dataStore.getFeatureSource( tname("ft1") ).getReader( query );
+        try {
+            int count = 0;
+            while ( reader.hasNext() ) {
+                assertNotNull( reader.next() );
+                count++;
+            }
+            assertEquals( 3, count );
+            FeatureReader unwrapped = reader;
+            while ( unwrapped instanceof DelegatingFeatureReader ) {
+                unwrapped = ((DelegatingFeatureReader) unwrapped).getDelegate();
+            }
+            assertTrue( unwrapped instanceof JDBCFeatureReader );
+            JDBCFeatureReader jdbcReader = (JDBCFeatureReader) unwrapped;
+            assertTrue( jdbcReader.isStreaming() );
+            assertEquals( 1, jdbcReader.getFetchSize() );
+            assertEquals( 3, jdbcReader.getRowCount() );
+        } finally {
+            reader.close();
+        }
+    }
+
 }
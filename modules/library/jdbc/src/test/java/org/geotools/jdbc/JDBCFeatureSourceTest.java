@@ -17,6 +17,11 @@
 package org.geotools.jdbc;
 
 import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 
 import org.geotools.data.Query;
@@ -33,6 +38,8 @@ import org.geotools.feature.FeatureIterator;
 import org.geotools.geometry.jts.LiteCoordinateSequenceFactory;
 import org.geotools.geometry.jts.ReferencedEnvelope;
 import org.geotools.referencing.CRS;
+import org.geotools.referencing.operation.transform.AffineTransform2D;
+import org.geotools.renderer.ScreenMap;
 import org.opengis.feature.Feature;
 import org.opengis.feature.FeatureVisitor;
 import org.opengis.feature.simple.SimpleFeature;
@@ -43,6 +50,7 @@ import org.opengis.filter.FilterFactory;
 import org.opengis.filter.FilterFactory2;
 import org.opengis.filter.PropertyIsEqualTo;
 import org.opengis.filter.PropertyIsLike;
+import org.opengis.filter.expression.Expression;
 import org.opengis.filter.expression.Subtract;
 import org.opengis.filter.sort.SortBy;
 import org.opengis.filter.sort.SortOrder;
@@ -313,6 +321,157 @@ public abstract class JDBCFeatureSourceTest extends JDBCTestSupport {
         }        
     }
     
+    public void testKeysetPaging() throws Exception {
+        Query all = new Query(featureSource.getSchema().getTypeName());
+        all.setSortBy(new SortBy[] { SortBy.NATURAL_ORDER });
+        List<String> expected = readIds(all);
+        assertEquals(3, expected.size());
+
+        dataStore.setKeysetPagingEnabled(true);
+        // twice, the first round records the page keys, the second one uses them
+        for (int round = 0; round < 2; round++) {
+            List<String> actual = new ArrayList<String>();
+            for (int i = 0; i < 3; i++) {
+                Query page = new Query(all);
+                page.setStartIndex(i);
+                page.setMaxFeatures(1);
+                actual.addAll(readIds(page));
+            }
+            assertEquals(expected, actual);
+        }
+        assertFalse(dataStore.keysetPaging.pageKeys.isEmpty());
+    }
+
+    public void testKeysetPagingUsesSeekFilter() throws Exception {
+        Query all = new Query(featureSource.getSchema().getTypeName());
+        all.setSortBy(new SortBy[] { SortBy.NATURAL_ORDER });
+        List<String> expected = readIds(all);
+        dataStore.setKeysetPagingEnabled(true);
+        for (int i = 0; i < 3; i++) {
+            readIds(page(all, i));
+        }
+
+        // make the second page start after the key closing it, a query using the offset
+        // would not notice
+        Map<List<Object>, List<Object>> pageKeys = dataStore.keysetPaging.pageKeys;
+        List<Object> second = null;
+        List<Object> third = null;
+        for (List<Object> pageKey : pageKeys.keySet()) {
+            if (Integer.valueOf(1).equals(pageKey.get(pageKey.size() - 1))) {
+                second = pageKey;
+            } else if (Integer.valueOf(2).equals(pageKey.get(pageKey.size() - 1))) {
+                third = pageKey;
+            }
+        }
+        assertNotNull(second);
+        assertNotNull(third);
+        pageKeys.put(second, pageKeys.get(third));
+
+        assertEquals(expected.subList(2, 3), readIds(page(all, 1)));
+    }
+
+    public void testKeysetPagingAfterWrite() throws Exception {
+        Query all = new Query(featureSource.getSchema().getTypeName());
+        all.setSortBy(new SortBy[] { SortBy.NATURAL_ORDER });
+        List<String> before = readIds(all);
+        dataStore.setKeysetPagingEnabled(true);
+        assertEquals(before.subList(0, 1), readIds(page(all, 0)));
+        assertFalse(dataStore.keysetPaging.pageKeys.isEmpty());
+
+        // removing the first feature shifts the following pages
+        JDBCFeatureStore store = (JDBCFeatureStore) featureSource;
+        FilterFactory ff = dataStore.getFilterFactory();
+        store.removeFeatures(ff.id(Collections.singleton(ff.featureId(before.get(0)))));
+        assertTrue(dataStore.keysetPaging.pageKeys.isEmpty());
+        assertEquals(before.subList(2, 3), readIds(page(all, 1)));
+
+        // same for writes committed through a transaction
+        assertEquals(before.subList(1, 2), readIds(page(all, 0)));
+        assertFalse(dataStore.keysetPaging.pageKeys.isEmpty());
+        Transaction t = new DefaultTransaction();
+        try {
+            store.setTransaction(t);
+            store.removeFeatures(ff.id(Collections.singleton(ff.featureId(before.get(1)))));
+            // a page read by another connection before the commit would record a key
+            KeysetPaging paging = dataStore.keysetPaging;
+            paging.put(Arrays.<Object>asList(store.getSchema().getTypeName()), 1,
+                    Arrays.<Object>asList(0), paging.getGeneration());
+            assertFalse(paging.pageKeys.isEmpty());
+            t.commit();
+        } finally {
+            store.setTransaction(Transaction.AUTO_COMMIT);
+            t.close();
+        }
+        assertTrue(dataStore.keysetPaging.pageKeys.isEmpty());
+        assertEquals(before.subList(2, 3), readIds(page(all, 0)));
+        assertTrue(readIds(page(all, 1)).isEmpty());
+    }
+
+    public void testScreenMap() throws Exception {
+        if (!featureSource.getSupportedHints().contains(Hints.SCREENMAP)) {
+            return;
+        }
+
+        // all the points fall in the same pixel, the database returns only one of them
+        Query query = new Query(tname("ft1"));
+        query.setHints(new Hints(Hints.SCREENMAP, createScreenMap()));
+        assertEquals(1, readIds(query).size());
+        if (dataStore.getSQLDialect() instanceof BasicSQLDialect) {
+            String sql = dataStore.selectSQL(featureSource.getSchema(), query);
+            assertTrue(sql, sql.contains("DISTINCT"));
+        }
+
+        // pixels already used are skipped after the database query
+        ScreenMap used = createScreenMap();
+        used.checkAndSet(0, 0);
+        query.setHints(new Hints(Hints.SCREENMAP, used));
+        assertTrue(readIds(query).isEmpty());
+    }
+
+    public void testScreenMapPostFilter() throws Exception {
+        if (!featureSource.getSupportedHints().contains(Hints.SCREENMAP)) {
+            return;
+        }
+
+        // a filter that cannot be encoded in SQL, the database must not thin out the
+        // points before it is evaluated, or it would keep a single, arbitrary one
+        FilterFactory ff = dataStore.getFilterFactory();
+        EqualsFunction equals = new EqualsFunction();
+        equals.setParameters(Arrays.<Expression> asList(ff.property(aname("intProperty")),
+                ff.literal(2)));
+        Query query = new Query(tname("ft1"), ff.equals(equals, ff.literal(true)));
+        query.setHints(new Hints(Hints.SCREENMAP, createScreenMap()));
+        assertEquals(Arrays.asList(tname("ft1") + ".2"), readIds(query));
+    }
+
+    ScreenMap createScreenMap() {
+        // a single pixel covering the whole ft1 extent
+        ScreenMap screenMap = new ScreenMap(0, 0, 1, 1, new AffineTransform2D(0.1, 0, 0, 0.1,
+                0, 0));
+        screenMap.setSpans(10, 10);
+        return screenMap;
+    }
+
+    Query page(Query query, int index) {
+        Query page = new Query(query);
+        page.setStartIndex(index);
+        page.setMaxFeatures(1);
+        return page;
+    }
+
+    List<String> readIds(Query query) throws Exception {
+        List<String> ids = new ArrayList<String>();
+        SimpleFeatureIterator it = featureSource.getFeatures(query).features();
+        try {
+            while (it.hasNext()) {
+                ids.add(it.next().getID());
+            }
+        } finally {
+            it.close();
+        }
+        return ids;
+    }
+
     public void testGetFeaturesWithOffset() throws Exception {
         Query q = new Query(featureSource.getSchema().getTypeName());
         q.setSortBy(new SortBy[] {dataStore.getFilterFactory().sort(aname("intProperty"), SortOrder.ASCENDING)});
@@ -29,6 +29,7 @@ import java.util.List;
 import org.geotools.data.CollectionFeatureReader;
 import org.geotools.data.DefaultTransaction;
 import org.geotools.data.FeatureReader;
+import org.geotools.data.FeatureWriter;
 import org.geotools.data.Transaction;
 import org.geotools.data.FeatureEvent.Type;
 import org.geotools.data.simple.SimpleFeatureCollection;
@@ -112,6 +113,12 @@ public abstract class JDBCFeatureStoreTest extends JDBCTestSupport {
         }
     }
     
+    public void testAddFeaturesInBatch() throws IOException {
+        // two features in the first batch, one left for the flush on close
+        dataStore.setBatchWriteSize(2);
+        testAddFeatures();
+    }
+    
     public void testAddFeaturesUseProvidedFid() throws IOException {
         // check we advertise the ability to reuse feature ids
         assertTrue(featureStore.getQueryCapabilities().isUseProvidedFIDSupported());
@@ -305,6 +312,32 @@ public abstract class JDBCFeatureStoreTest extends JDBCTestSupport {
         }
     }
     
+    public void testModifyFeaturesInBatch() throws IOException {
+        dataStore.setBatchWriteSize(2);
+        FeatureWriter<SimpleFeatureType, SimpleFeature> w = dataStore.getFeatureWriter(
+                tname("ft1"), Filter.INCLUDE, Transaction.AUTO_COMMIT);
+        try {
+            while (w.hasNext()) {
+                SimpleFeature f = w.next();
+                f.setAttribute(aname("stringProperty"), "batched");
+                w.write();
+            }
+        } finally {
+            w.close();
+        }
+        
+        SimpleFeatureIterator i = featureStore.getFeatures().features();
+        try {
+            assertTrue(i.hasNext());
+            while (i.hasNext()) {
+                assertEquals("batched", i.next().getAttribute(aname("stringProperty")));
+            }
+        }
+        finally {
+            i.close();
+        }
+    }
+    
     public void testModifyGeometry() throws IOException {
         // GEOT-2371
         SimpleFeatureType t = featureStore.getSchema();
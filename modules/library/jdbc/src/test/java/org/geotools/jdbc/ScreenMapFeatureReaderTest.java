@@ -0,0 +1,109 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2013, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.jdbc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.geotools.data.DataUtilities;
+import org.geotools.data.FeatureReader;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.geotools.referencing.operation.transform.AffineTransform2D;
+import org.geotools.renderer.ScreenMap;
+import org.opengis.feature.simple.SimpleFeature;
+import org.opengis.feature.simple.SimpleFeatureType;
+
+import com.vividsolutions.jts.geom.Geometry;
+import com.vividsolutions.jts.io.WKTReader;
+
+/**
+ * Tests {@link ScreenMapFeatureReader}
+ *
+ * @source $URL$
+ */
+public class ScreenMapFeatureReaderTest extends TestCase {
+
+    SimpleFeatureType type;
+
+    ScreenMap screenMap;
+
+    @Override
+    protected void setUp() throws Exception {
+        type = DataUtilities.createType("test", "geom:Geometry,name:String");
+        // one pixel every ten units, 10x10 pixels
+        screenMap = new ScreenMap(0, 0, 10, 10, new AffineTransform2D(0.1, 0, 0, 0.1, 0, 0));
+        screenMap.setSpans(10, 10);
+    }
+
+    public void testThinPoints() throws Exception {
+        List<SimpleFeature> features = read("POINT(1 1)", "POINT(2 2)", "POINT(15 15)",
+                "POINT(16 16)", "POINT(35 5)");
+        // one feature per pixel, the first one found
+        assertEquals(3, features.size());
+        assertEquals("f0", features.get(0).getAttribute("name"));
+        assertEquals("f2", features.get(1).getAttribute("name"));
+        assertEquals("f4", features.get(2).getAttribute("name"));
+    }
+
+    public void testPixelAlreadyUsed() throws Exception {
+        // the pixel has been painted by a previous query, or layer
+        screenMap.checkAndSet(0, 0);
+        List<SimpleFeature> features = read("POINT(1 1)", "POINT(15 15)");
+        assertEquals(1, features.size());
+        assertEquals("f1", features.get(0).getAttribute("name"));
+    }
+
+    public void testSimplifySmallGeometries() throws Exception {
+        List<SimpleFeature> features = read("POLYGON((1 1, 1 3, 3 3, 3 1, 1 1))",
+                "POLYGON((2 2, 2 4, 4 4, 4 2, 2 2))",
+                "POLYGON((20 20, 20 50, 50 50, 50 20, 20 20))");
+        assertEquals(2, features.size());
+
+        // smaller than a pixel, replaced by a simplified shape
+        Geometry small = (Geometry) features.get(0).getDefaultGeometry();
+        assertTrue(small.getNumPoints() <= 5);
+        assertTrue(small.getEnvelopeInternal().contains(1, 1));
+
+        // larger than a pixel, left alone
+        Geometry large = (Geometry) features.get(1).getDefaultGeometry();
+        assertEquals(new WKTReader().read("POLYGON((20 20, 20 50, 50 50, 50 20, 20 20))"),
+                large);
+    }
+
+    List<SimpleFeature> read(String... wkts) throws Exception {
+        WKTReader reader = new WKTReader();
+        SimpleFeature[] features = new SimpleFeature[wkts.length];
+        for (int i = 0; i < wkts.length; i++) {
+            features[i] = SimpleFeatureBuilder.build(type,
+                    new Object[] { reader.read(wkts[i]), "f" + i }, "test." + i);
+        }
+
+        List<SimpleFeature> result = new ArrayList<SimpleFeature>();
+        FeatureReader<SimpleFeatureType, SimpleFeature> fr = new ScreenMapFeatureReader(
+                DataUtilities.reader(features), screenMap);
+        try {
+            while (fr.hasNext()) {
+                result.add(fr.next());
+            }
+        } finally {
+            fr.close();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,510 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2013, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.geometry.jts;
+
+import java.awt.Rectangle;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
+
+import com.vividsolutions.jts.geom.CoordinateSequence;
+import com.vividsolutions.jts.geom.Envelope;
+import com.vividsolutions.jts.geom.Geometry;
+import com.vividsolutions.jts.geom.GeometryCollection;
+import com.vividsolutions.jts.geom.LineString;
+import com.vividsolutions.jts.geom.Point;
+import com.vividsolutions.jts.geom.Polygon;
+
+/**
+ * A reusable {@link Shape} holding geometries transformed to screen space.
+ * <p>
+ * Unlike {@link LiteShape2} the source geometry is never cloned nor modified: its coordinates are
+ * copied in a primitive buffer, transformed in bulk, generalized in screen space, coarsely clipped
+ * (components whose envelope falls fully outside of the clip area are dropped) and stored as
+ * single precision path segments. All the buffers are kept and grown as needed, so a path that
+ * gets {@link #reset()} and reused for many geometries performs no allocation once the buffers
+ * have reached the size of the largest geometry.
+ * </p>
+ * <p>
+ * Polygons are recorded as separate parts, see {@link #getPolygonCount()} and
+ * {@link #getPolygon(int)}, so that multipolygons with overlapping components can be filled one
+ * polygon at a time. The path uses the even-odd winding rule.
+ * </p>
+ * <p>
+ * The class is not thread safe, but can be built in one thread and painted in another as long as
+ * the hand-off is properly synchronized (e.g., via a blocking queue).
+ * </p>
+ *
+ * @source $URL$
+ */
+public final class ScreenPath implements Shape {
+
+    /**
+     * Transformed coordinates, before generalization
+     */
+    private double[] buffer = new double[64];
+
+    /**
+     * The path coordinates, as x/y pairs
+     */
+    private float[] coords = new float[64];
+
+    /**
+     * The path segment types
+     */
+    private byte[] types = new byte[32];
+
+    private int numCoords;
+
+    private int numTypes;
+
+    /**
+     * Starting segment of each polygon
+     */
+    private int[] polygonTypes = new int[4];
+
+    /**
+     * Starting coordinate of each polygon
+     */
+    private int[] polygonCoords = new int[4];
+
+    /**
+     * Ending segment (exclusive) of each polygon
+     */
+    private int[] polygonEnds = new int[4];
+
+    private int numPolygons;
+
+    private int skippedPoints;
+
+    private float minX, minY, maxX, maxY;
+
+    /**
+     * Creates a new, empty, path
+     */
+    public ScreenPath() {
+        reset();
+    }
+
+    /**
+     * Empties the path, keeping its buffers around for reuse
+     */
+    public void reset() {
+        numCoords = 0;
+        numTypes = 0;
+        numPolygons = 0;
+        skippedPoints = 0;
+        minX = minY = Float.POSITIVE_INFINITY;
+        maxX = maxY = Float.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Returns true if the path contains no segment
+     */
+    public boolean isEmpty() {
+        return numTypes == 0;
+    }
+
+    /**
+     * Returns the number of coordinates the path can hold without growing its buffers
+     */
+    public int getCapacity() {
+        return coords.length / 2;
+    }
+
+    /**
+     * Returns the number of points dropped by generalization since the last reset
+     */
+    public int getSkippedPoints() {
+        return skippedPoints;
+    }
+
+    /**
+     * Appends the geometry to the path
+     *
+     * @param geometry
+     *            the geometry to be appended, it won't be modified
+     * @param transform
+     *            the two dimensional transformation from the geometry coordinates to screen
+     *            coordinates, or null if the geometry is already expressed in screen coordinates
+     * @param distance
+     *            the generalization distance in pixels, points closer than this to the previous
+     *            one along both axes are skipped. Use zero to disable generalization
+     * @param clip
+     *            the clip area, in screen coordinates, components fully outside of it are
+     *            skipped. Use null to disable clipping
+     * @return true if anything was added to the path
+     * @throws TransformException
+     */
+    public boolean append(Geometry geometry, MathTransform transform, double distance,
+            Envelope clip) throws TransformException {
+        if (transform != null) {
+            if (transform.getSourceDimensions() != 2 || transform.getTargetDimensions() != 2) {
+                throw new IllegalArgumentException("Expected a two dimensional transform, got "
+                        + transform);
+            }
+            if (transform.isIdentity()) {
+                transform = null;
+            }
+        }
+        int startTypes = numTypes;
+        appendGeometry(geometry, transform, distance, clip);
+        return numTypes > startTypes;
+    }
+
+    private void appendGeometry(Geometry geometry, MathTransform transform, double distance,
+            Envelope clip) throws TransformException {
+        if (geometry == null || geometry.isEmpty()) {
+            return;
+        }
+        if (geometry instanceof Polygon) {
+            Polygon polygon = (Polygon) geometry;
+            int startTypes = numTypes;
+            int startCoords = numCoords;
+            if (appendSequence(polygon.getExteriorRing().getCoordinateSequence(), transform,
+                    distance, clip, true)) {
+                for (int i = 0; i < polygon.getNumInteriorRing(); i++) {
+                    appendSequence(polygon.getInteriorRingN(i).getCoordinateSequence(),
+                            transform, distance, clip, true);
+                }
+                addPolygon(startTypes, startCoords);
+            }
+        } else if (geometry instanceof LineString) {
+            appendSequence(((LineString) geometry).getCoordinateSequence(), transform, distance,
+                    clip, false);
+        } else if (geometry instanceof Point) {
+            appendSequence(((Point) geometry).getCoordinateSequence(), transform, 0, clip, false);
+        } else if (geometry instanceof GeometryCollection) {
+            for (int i = 0; i < geometry.getNumGeometries(); i++) {
+                appendGeometry(geometry.getGeometryN(i), transform, distance, clip);
+            }
+        } else {
+            throw new IllegalArgumentException("Unsupported geometry type "
+                    + geometry.getClass().getName());
+        }
+    }
+
+    private boolean appendSequence(CoordinateSequence cs, MathTransform transform,
+            double distance, Envelope clip, boolean ring) throws TransformException {
+        final int size = cs.size();
+        if (size == 0) {
+            return false;
+        }
+
+        // copy and transform in bulk
+        if (buffer.length < size * 2) {
+            buffer = new double[Math.max(size * 2, buffer.length * 2)];
+        }
+        for (int i = 0, j = 0; i < size; i++) {
+            buffer[j++] = cs.getX(i);
+            buffer[j++] = cs.getY(i);
+        }
+        if (transform != null) {
+            transform.transform(buffer, 0, buffer, 0, size);
+        }
+
+        // coarse clipping
+        if (clip != null) {
+            double bx1 = Double.POSITIVE_INFINITY, by1 = Double.POSITIVE_INFINITY;
+            double bx2 = Double.NEGATIVE_INFINITY, by2 = Double.NEGATIVE_INFINITY;
+            for (int j = 0; j < size * 2; j += 2) {
+                final double x = buffer[j];
+                final double y = buffer[j + 1];
+                if (x < bx1) bx1 = x;
+                if (x > bx2) bx2 = x;
+                if (y < by1) by1 = y;
+                if (y > by2) by2 = y;
+            }
+            if (bx2 < clip.getMinX() || bx1 > clip.getMaxX() || by2 < clip.getMinY()
+                    || by1 > clip.getMaxY()) {
+                return false;
+            }
+        }
+
+        // generalize in screen space, always keeping the first and last point
+        ensureCapacity(size + 1, size);
+        double lastX = buffer[0];
+        double lastY = buffer[1];
+        addSegment(PathIterator.SEG_MOVETO, lastX, lastY);
+        final int last = size - 1;
+        for (int i = 1, j = 2; i < size; i++, j += 2) {
+            final double x = buffer[j];
+            final double y = buffer[j + 1];
+            if (i == last || Math.abs(x - lastX) > distance || Math.abs(y - lastY) > distance) {
+                addSegment(PathIterator.SEG_LINETO, x, y);
+                lastX = x;
+                lastY = y;
+            } else {
+                skippedPoints++;
+            }
+        }
+        if (ring) {
+            types[numTypes++] = PathIterator.SEG_CLOSE;
+        }
+
+        return true;
+    }
+
+    private void ensureCapacity(int segments, int points) {
+        if (types.length < numTypes + segments) {
+            byte[] newTypes = new byte[Math.max(numTypes + segments, types.length * 2)];
+            System.arraycopy(types, 0, newTypes, 0, numTypes);
+            types = newTypes;
+        }
+        if (coords.length < numCoords + points * 2) {
+            float[] newCoords = new float[Math.max(numCoords + points * 2, coords.length * 2)];
+            System.arraycopy(coords, 0, newCoords, 0, numCoords);
+            coords = newCoords;
+        }
+    }
+
+    private void addSegment(int type, double x, double y) {
+        final float fx = (float) x;
+        final float fy = (float) y;
+        types[numTypes++] = (byte) type;
+        coords[numCoords++] = fx;
+        coords[numCoords++] = fy;
+        if (fx < minX) minX = fx;
+        if (fx > maxX) maxX = fx;
+        if (fy < minY) minY = fy;
+        if (fy > maxY) maxY = fy;
+    }
+
+    private void addPolygon(int startTypes, int startCoords) {
+        if (polygonTypes.length == numPolygons) {
+            polygonTypes = grow(polygonTypes);
+            polygonCoords = grow(polygonCoords);
+            polygonEnds = grow(polygonEnds);
+        }
+        polygonTypes[numPolygons] = startTypes;
+        polygonCoords[numPolygons] = startCoords;
+        polygonEnds[numPolygons] = numTypes;
+        numPolygons++;
+    }
+
+    private int[] grow(int[] array) {
+        int[] result = new int[array.length * 2];
+        System.arraycopy(array, 0, result, 0, array.length);
+        return result;
+    }
+
+    /**
+     * Returns the number of polygons in the path
+     */
+    public int getPolygonCount() {
+        return numPolygons;
+    }
+
+    /**
+     * Returns a view of the i-th polygon in the path. The view is backed by this path, so it
+     * becomes invalid as soon as the path is reset
+     *
+     * @param i
+     */
+    public Shape getPolygon(int i) {
+        if (i < 0 || i >= numPolygons) {
+            throw new IndexOutOfBoundsException("Polygon index " + i + " out of range, there are "
+                    + numPolygons + " polygons in the path");
+        }
+        return new Part(polygonTypes[i], polygonEnds[i], polygonCoords[i]);
+    }
+
+    // ----------------------------------------------------------------------------------------
+    // Shape implementation
+    // ----------------------------------------------------------------------------------------
+
+    public Rectangle getBounds() {
+        return getBounds2D().getBounds();
+    }
+
+    public Rectangle2D getBounds2D() {
+        if (numTypes == 0) {
+            return new Rectangle2D.Float();
+        }
+        return new Rectangle2D.Float(minX, minY, maxX - minX, maxY - minY);
+    }
+
+    public boolean contains(double x, double y) {
+        return Path2D.contains(getPathIterator(null), x, y);
+    }
+
+    public boolean contains(Point2D p) {
+        return Path2D.contains(getPathIterator(null), p);
+    }
+
+    public boolean intersects(double x, double y, double w, double h) {
+        return Path2D.intersects(getPathIterator(null), x, y, w, h);
+    }
+
+    public boolean intersects(Rectangle2D r) {
+        return Path2D.intersects(getPathIterator(null), r);
+    }
+
+    public boolean contains(double x, double y, double w, double h) {
+        return Path2D.contains(getPathIterator(null), x, y, w, h);
+    }
+
+    public boolean contains(Rectangle2D r) {
+        return Path2D.contains(getPathIterator(null), r);
+    }
+
+    public PathIterator getPathIterator(AffineTransform at) {
+        return new ScreenPathIterator(0, numTypes, 0, at);
+    }
+
+    public PathIterator getPathIterator(AffineTransform at, double flatness) {
+        // the path is made of straight segments only
+        return getPathIterator(at);
+    }
+
+    /**
+     * A view over a single polygon of the path
+     */
+    private final class Part implements Shape {
+        final int startType;
+
+        final int endType;
+
+        final int startCoord;
+
+        Part(int startType, int endType, int startCoord) {
+            this.startType = startType;
+            this.endType = endType;
+            this.startCoord = startCoord;
+        }
+
+        public Rectangle getBounds() {
+            return getBounds2D().getBounds();
+        }
+
+        public Rectangle2D getBounds2D() {
+            float x1 = Float.POSITIVE_INFINITY, y1 = Float.POSITIVE_INFINITY;
+            float x2 = Float.NEGATIVE_INFINITY, y2 = Float.NEGATIVE_INFINITY;
+            int c = startCoord;
+            for (int i = startType; i < endType; i++) {
+                if (types[i] != PathIterator.SEG_CLOSE) {
+                    final float x = coords[c++];
+                    final float y = coords[c++];
+                    if (x < x1) x1 = x;
+                    if (x > x2) x2 = x;
+                    if (y < y1) y1 = y;
+                    if (y > y2) y2 = y;
+                }
+            }
+            return new Rectangle2D.Float(x1, y1, x2 - x1, y2 - y1);
+        }
+
+        public boolean contains(double x, double y) {
+            return Path2D.contains(getPathIterator(null), x, y);
+        }
+
+        public boolean contains(Point2D p) {
+            return Path2D.contains(getPathIterator(null), p);
+        }
+
+        public boolean intersects(double x, double y, double w, double h) {
+            return Path2D.intersects(getPathIterator(null), x, y, w, h);
+        }
+
+        public boolean intersects(Rectangle2D r) {
+            return Path2D.intersects(getPathIterator(null), r);
+        }
+
+        public boolean contains(double x, double y, double w, double h) {
+            return Path2D.contains(getPathIterator(null), x, y, w, h);
+        }
+
+        public boolean contains(Rectangle2D r) {
+            return Path2D.contains(getPathIterator(null), r);
+        }
+
+        public PathIterator getPathIterator(AffineTransform at) {
+            return new ScreenPathIterator(startType, endType, startCoord, at);
+        }
+
+        public PathIterator getPathIterator(AffineTransform at, double flatness) {
+            return getPathIterator(at);
+        }
+    }
+
+    /**
+     * Iterates over a range of the path segments
+     */
+    private final class ScreenPathIterator implements PathIterator {
+        final int endType;
+
+        final AffineTransform at;
+
+        int type;
+
+        int coord;
+
+        ScreenPathIterator(int startType, int endType, int startCoord, AffineTransform at) {
+            this.type = startType;
+            this.endType = endType;
+            this.coord = startCoord;
+            this.at = at == null || at.isIdentity() ? null : at;
+        }
+
+        public int getWindingRule() {
+            return WIND_EVEN_ODD;
+        }
+
+        public boolean isDone() {
+            return type >= endType;
+        }
+
+        public void next() {
+            if (types[type] != SEG_CLOSE) {
+                coord += 2;
+            }
+            type++;
+        }
+
+        public int currentSegment(float[] target) {
+            final byte segment = types[type];
+            if (segment != SEG_CLOSE) {
+                if (at == null) {
+                    target[0] = coords[coord];
+                    target[1] = coords[coord + 1];
+                } else {
+                    at.transform(coords, coord, target, 0, 1);
+                }
+            }
+            return segment;
+        }
+
+        public int currentSegment(double[] target) {
+            final byte segment = types[type];
+            if (segment != SEG_CLOSE) {
+                if (at == null) {
+                    target[0] = coords[coord];
+                    target[1] = coords[coord + 1];
+                } else {
+                    at.transform(coords, coord, target, 0, 1);
+                }
+            }
+            return segment;
+        }
+    }
+}
@@ -91,6 +91,13 @@ public class ScreenMap {
         this.mt = mt;
     }
 
+    /**
+     * Returns the full transform from data to screen, or null if not set
+     */
+    public MathTransform getTransform() {
+        return mt;
+    }
+
     public boolean checkAndSet(Envelope envelope) throws TransformException {
         if (!canSimplify(envelope)) {
             return false;
@@ -0,0 +1,139 @@
+package org.geotools.geometry.jts;
+
+import static org.junit.Assert.*;
+
+import java.awt.geom.AffineTransform;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Rectangle2D;
+
+import org.geotools.referencing.operation.transform.AffineTransform2D;
+import org.junit.Test;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.Envelope;
+import com.vividsolutions.jts.geom.Geometry;
+import com.vividsolutions.jts.io.WKTReader;
+
+/**
+ *
+ *
+ * @source $URL$
+ */
+public class ScreenPathTest {
+
+    WKTReader reader = new WKTReader();
+
+    @Test
+    public void testTransformLine() throws Exception {
+        Geometry line = reader.read("LINESTRING(0 0, 10 0, 10 10)");
+        Coordinate[] original = line.getCoordinates();
+        ScreenPath path = new ScreenPath();
+        AffineTransform at = AffineTransform.getScaleInstance(2, -2);
+        assertTrue(path.append(line, new AffineTransform2D(at), 0, null));
+
+        float[] coords = new float[2];
+        PathIterator pi = path.getPathIterator(null);
+        assertEquals(PathIterator.WIND_EVEN_ODD, pi.getWindingRule());
+        assertEquals(PathIterator.SEG_MOVETO, pi.currentSegment(coords));
+        assertEquals(0, coords[0], 0d);
+        assertEquals(0, coords[1], 0d);
+        pi.next();
+        assertEquals(PathIterator.SEG_LINETO, pi.currentSegment(coords));
+        assertEquals(20, coords[0], 0d);
+        assertEquals(0, coords[1], 0d);
+        pi.next();
+        assertEquals(PathIterator.SEG_LINETO, pi.currentSegment(coords));
+        assertEquals(20, coords[0], 0d);
+        assertEquals(-20, coords[1], 0d);
+        pi.next();
+        assertTrue(pi.isDone());
+
+        // the source geometry has not been touched
+        assertArrayEquals(original, line.getCoordinates());
+        assertEquals(new Rectangle2D.Float(0, -20, 20, 20), path.getBounds2D());
+    }
+
+    @Test
+    public void testGeneralize() throws Exception {
+        Geometry line = reader.read("LINESTRING(0 0, 0.1 0.1, 0.2 0.2, 5 5, 5.1 5.1)");
+        ScreenPath path = new ScreenPath();
+        assertTrue(path.append(line, null, 1, null));
+        // first, the one far enough from it, and the last one
+        assertEquals(3, countSegments(path));
+        assertEquals(2, path.getSkippedPoints());
+
+        path.reset();
+        assertEquals(0, path.getSkippedPoints());
+        assertTrue(path.append(line, null, 0, null));
+        assertEquals(0, path.getSkippedPoints());
+    }
+
+    @Test
+    public void testClip() throws Exception {
+        Geometry mp = reader.read("MULTIPOLYGON(((0 0, 0 10, 10 10, 10 0, 0 0)), "
+                + "((100 100, 100 110, 110 110, 110 100, 100 100)))");
+        ScreenPath path = new ScreenPath();
+        assertTrue(path.append(mp, null, 0, new Envelope(-5, 20, -5, 20)));
+        assertEquals(1, path.getPolygonCount());
+        assertEquals(6, countSegments(path));
+        assertTrue(path.contains(5, 5));
+        assertFalse(path.contains(105, 105));
+
+        // fully outside
+        path.reset();
+        assertFalse(path.append(mp, null, 0, new Envelope(200, 300, 200, 300)));
+        assertTrue(path.isEmpty());
+    }
+
+    @Test
+    public void testPolygonParts() throws Exception {
+        Geometry mp = reader.read("MULTIPOLYGON(((0 0, 0 10, 10 10, 10 0, 0 0), "
+                + "(2 2, 2 8, 8 8, 8 2, 2 2)), ((5 5, 5 15, 15 15, 15 5, 5 5)))");
+        ScreenPath path = new ScreenPath();
+        assertTrue(path.append(mp, null, 0, null));
+        assertEquals(2, path.getPolygonCount());
+        assertEquals(new Rectangle2D.Float(0, 0, 10, 10), path.getPolygon(0).getBounds2D());
+        assertEquals(new Rectangle2D.Float(5, 5, 10, 10), path.getPolygon(1).getBounds2D());
+        // the first polygon has a hole
+        assertFalse(path.getPolygon(0).contains(5, 5));
+        assertTrue(path.getPolygon(1).contains(6, 6));
+        assertEquals(12, countSegments(path.getPolygon(0).getPathIterator(null)));
+    }
+
+    @Test
+    public void testReuse() throws Exception {
+        ScreenPath path = new ScreenPath();
+        // force the buffers to grow
+        StringBuilder sb = new StringBuilder("LINESTRING(");
+        for (int i = 0; i < 1000; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(i).append(" ").append(i % 2);
+        }
+        sb.append(")");
+        assertTrue(path.append(reader.read(sb.toString()), null, 0, null));
+        assertEquals(1000, countSegments(path));
+        int capacity = path.getCapacity();
+        assertTrue(capacity >= 1000);
+
+        path.reset();
+        assertTrue(path.isEmpty());
+        assertTrue(path.append(reader.read("LINESTRING(0 0, 10 10)"), null, 0, null));
+        assertEquals(2, countSegments(path));
+        assertEquals(capacity, path.getCapacity());
+    }
+
+    int countSegments(ScreenPath path) {
+        return countSegments(path.getPathIterator(null));
+    }
+
+    int countSegments(PathIterator pi) {
+        int count = 0;
+        while (!pi.isDone()) {
+            count++;
+            pi.next();
+        }
+        return count;
+    }
+}
@@ -624,6 +624,26 @@ public class Hints extends RenderingHints {
 
      */
     public static final Key GEOMETRY_SIMPLIFICATION = new Key(Double.class);
+
+    /**
+     * Asks a datastore to clip the geometries to the given
+     * {@link com.vividsolutions.jts.geom.Envelope}, expressed in the native CRS of the data.
+     * The returned geometries are meant for display only, they are not guaranteed to be
+     * valid and no longer describe the full feature.
+     *
+     * @since 11.0
+     */
+    public static final Key GEOMETRY_CLIP = new ClassKey("com.vividsolutions.jts.geom.Envelope");
+
+    /**
+     * Asks a datastore to snap the coordinates of the geometries to a grid of the
+     * specified size, expressed in the native units of the data, and to remove the
+     * consecutive points that fall on the same grid node. As for {@link #GEOMETRY_CLIP}
+     * the returned geometries are meant for display only.
+     *
+     * @since 11.0
+     */
+    public static final Key GEOMETRY_SNAP_TO_GRID = new Key(Double.class);
     
     /**
      * The rendering aid used to avoid painting tiny features over and over in the same pixel
@@ -677,6 +697,24 @@ public class Hints extends RenderingHints {
     public static final ClassKey VIRTUAL_TABLE_PARAMETERS = new ClassKey(
             "java.util.Map");
 
+    /**
+     * The number of rows a JDBC data store fetches from the database at each round trip
+     * while reading the results of a query, overriding the store wide fetch size.
+     * The value of the hint must be a positive Integer.
+     *
+     * @since 11.0
+     */
+    public static final Key JDBC_FETCH_SIZE = new Key(Integer.class);
+
+    /**
+     * Asks a JDBC data store to stream the results of a query, keeping in memory only the
+     * rows of the current fetch, no matter what driver is in use. Meant for reading very
+     * large tables, e.g., exports.
+     *
+     * @since 11.0
+     */
+    public static final Key JDBC_STREAMING = new Key(Boolean.class);
+
     ////////////////////////////////////////////////////////////////////////
     ////////                                                        ////////
     ////////                     Grid Coverages                     ////////
@@ -0,0 +1,603 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2013, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.util;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * A pool of objects which are expensive to create, optimized for concurrent lookups.
+ * <p>
+ * Lookups of objects already in the pool do not acquire any global lock. Objects are retained
+ * by strong references up to the amount specified at construction time; when more objects are
+ * added, the least recently used ones are retained through a {@linkplain WeakReference weak}
+ * or {@linkplain SoftReference soft} reference instead, and will be discarded once not in use
+ * anywhere else in the Java virtual machine. The least recently used objects are approximated
+ * with the "second chance" algorithm: the strongly referenced objects are kept in a queue in
+ * the order they have been added, and an object used since it has been queued is queued again
+ * instead of being demoted to a weak or soft reference.
+ * <p>
+ * The {@link #getOrCreate getOrCreate} method makes sure an object is built only once even
+ * when many threads ask for the same key at the same time: the first thread builds it while
+ * the others wait for the result, threads working on different keys never wait on each other.
+ * <p>
+ * The pool keeps track of the number of hits, misses and of the time spent creating objects,
+ * which can be used to tune the amount of strong references.
+ *
+ * @param <K> The type of keys.
+ * @param <V> The type of pooled objects.
+ *
+ * @since 11.0
+ *
+ * @source $URL$
+ */
+public final class ConcurrentObjectPool<K,V> {
+    /**
+     * Builds the object to be associated to a key.
+     *
+     * @param <V> The type of the object built.
+     * @param <E> The type of exception thrown when the object can not be built.
+     */
+    public interface Builder<V, E extends Exception> {
+        /**
+         * Builds the object, or returns {@code null} if there is no object for the key.
+         */
+        V create() throws E;
+    }
+
+    /**
+     * A value in the pool. The entry is initially pending, and becomes available once the
+     * object has been built. The changes to the {@link #strong} and {@link #reference} fields
+     * happen while holding the entry lock, {@link #strong} is not null only while the entry
+     * is accounted in {@link ConcurrentObjectPool#strongCount}.
+     */
+    private static final class Entry<K,V> {
+        /**
+         * The key of this entry.
+         */
+        final K key;
+
+        /**
+         * The object retained by strong reference, or {@code null}.
+         */
+        volatile V strong;
+
+        /**
+         * The object retained by weak or soft reference, or {@code null}.
+         */
+        volatile Reference<V> reference;
+
+        /**
+         * Whether the object has been used since the entry was queued in
+         * {@link ConcurrentObjectPool#strongEntries}.
+         */
+        volatile boolean used;
+
+        /**
+         * The thread building the object, or {@code null} once it has been built.
+         */
+        volatile Thread builder;
+
+        /**
+         * Released once the object has been built, or the build failed.
+         */
+        final CountDownLatch built;
+
+        Entry(final K key, final V value) {
+            this.key = key;
+            strong = value;
+            built = null;
+        }
+
+        Entry(final K key, final Thread builder) {
+            this.key = key;
+            this.builder = builder;
+            built = new CountDownLatch(1);
+        }
+
+        /**
+         * Returns {@code true} if the object is still being built.
+         */
+        boolean isPending() {
+            return built != null && built.getCount() > 0;
+        }
+
+        /**
+         * Returns the object, or {@code null} if it has been garbage collected or
+         * is not built yet.
+         */
+        V get() {
+            V value = strong;
+            if (value == null) {
+                final Reference<V> ref = reference;
+                if (ref != null) {
+                    value = ref.get();
+                }
+            }
+            return value;
+        }
+
+        /**
+         * Waits until the object has been built, without giving up on interruption.
+         */
+        void await() {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    built.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * A weak reference to a pooled object, remembering its entry so that the entry can be
+     * removed from the pool once the object has been garbage collected.
+     */
+    private static final class WeakValue<K,V> extends WeakReference<V> {
+        final Entry<K,V> entry;
+
+        WeakValue(final V value, final ReferenceQueue<V> queue, final Entry<K,V> entry) {
+            super(value, queue);
+            this.entry = entry;
+        }
+    }
+
+    /**
+     * A soft reference to a pooled object, remembering its entry so that the entry can be
+     * removed from the pool once the object has been garbage collected.
+     */
+    private static final class SoftValue<K,V> extends SoftReference<V> {
+        final Entry<K,V> entry;
+
+        SoftValue(final V value, final ReferenceQueue<V> queue, final Entry<K,V> entry) {
+            super(value, queue);
+            this.entry = entry;
+        }
+    }
+
+    /**
+     * The pooled objects.
+     */
+    private final ConcurrentHashMap<K, Entry<K,V>> pool = new ConcurrentHashMap<K, Entry<K,V>>();
+
+    /**
+     * The entries retained by strong reference, in the order they have been queued. May also
+     * contain entries removed from the pool in the meantime, which are dropped when reached.
+     */
+    private final ConcurrentLinkedQueue<Entry<K,V>> strongEntries =
+            new ConcurrentLinkedQueue<Entry<K,V>>();
+
+    /**
+     * The length of {@link #strongEntries}, tracked separately as the queue size is not a
+     * constant time operation.
+     */
+    private final AtomicInteger queueLength = new AtomicInteger();
+
+    /**
+     * The number of objects retained by strong reference.
+     */
+    private final AtomicInteger strongCount = new AtomicInteger();
+
+    /**
+     * The weak or soft references whose object has been garbage collected.
+     */
+    private final ReferenceQueue<V> collected = new ReferenceQueue<V>();
+
+    /**
+     * The maximum number of objects to keep by strong reference.
+     */
+    private final int maxStrongReferences;
+
+    /**
+     * Whether objects exceeding {@link #maxStrongReferences} are retained by soft references
+     * rather than weak ones.
+     */
+    private final boolean soft;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong creations = new AtomicLong();
+
+    private final AtomicLong creationTime = new AtomicLong();
+
+    /**
+     * Creates a pool which will retain the specified amount of objects by strong references,
+     * and the other ones by weak references.
+     *
+     * @param maxStrongReferences The maximum number of objects to keep by strong reference.
+     */
+    public ConcurrentObjectPool(final int maxStrongReferences) {
+        this(maxStrongReferences, false);
+    }
+
+    /**
+     * Creates a pool which will retain the specified amount of objects by strong references,
+     * and the other ones by weak or soft references.
+     *
+     * @param maxStrongReferences The maximum number of objects to keep by strong reference.
+     * @param soft {@code true} for retaining the other objects by soft references,
+     *        {@code false} for weak references.
+     */
+    public ConcurrentObjectPool(final int maxStrongReferences, final boolean soft) {
+        if (maxStrongReferences < 0) {
+            throw new IllegalArgumentException("The maximum number of strong references "
+                    + "cannot be negative, got " + maxStrongReferences);
+        }
+        this.maxStrongReferences = maxStrongReferences;
+        this.soft = soft;
+    }
+
+    /**
+     * Returns the object associated to the specified key, or {@code null} if none. Objects
+     * still being built by {@link #getOrCreate getOrCreate} are not waited for.
+     *
+     * @param key The key whose associated object is to be returned.
+     * @return The object, or {@code null} if the pool contains none for the given key.
+     */
+    public V get(final K key) {
+        final Entry<K,V> entry = pool.get(key);
+        final V value = (entry != null) ? entry.get() : null;
+        if (value == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        touch(entry, value);
+        return value;
+    }
+
+    /**
+     * Returns the object associated to the specified key, or {@code null} if none, without
+     * updating the statistics nor the recently used objects. This method is meant for checking
+     * the pool again after having acquired a lock, as in the following example:
+     *
+     * <blockquote><pre>
+     * value = pool.get(key);
+     * if (value == null) {
+     *     synchronized (lock) {
+     *         value = pool.peek(key);
+     *         if (value == null) {
+     *             long start = System.nanoTime();
+     *             value = ...;
+     *             pool.put(key, value, System.nanoTime() - start);
+     *         }
+     *     }
+     * }
+     * </pre></blockquote>
+     *
+     * @param key The key whose associated object is to be returned.
+     * @return The object, or {@code null} if the pool contains none for the given key.
+     */
+    public V peek(final K key) {
+        final Entry<K,V> entry = pool.get(key);
+        return (entry != null) ? entry.get() : null;
+    }
+
+    /**
+     * Returns the object associated to the specified key, building it with the specified
+     * builder if the pool contains none. If another thread is already building the object
+     * for the same key, waits for it to complete and returns its result instead of building
+     * the object a second time.
+     *
+     * @param  key The key whose associated object is to be returned.
+     * @param  builder The builder for the object, invoked only if it is not in the pool.
+     * @return The object associated to the key.
+     * @throws E if the builder failed to build the object.
+     */
+    public <E extends Exception> V getOrCreate(final K key, final Builder<? extends V, E> builder)
+            throws E
+    {
+        while (true) {
+            final Entry<K,V> entry = pool.get(key);
+            if (entry != null) {
+                if (entry.isPending()) {
+                    if (entry.builder == Thread.currentThread()) {
+                        // Recursive invocation for the same key, waiting would never end.
+                        misses.incrementAndGet();
+                        return create(builder);
+                    }
+                    entry.await();
+                    // The build may have failed, loop and check again.
+                    continue;
+                }
+                final V value = entry.get();
+                if (value != null) {
+                    hits.incrementAndGet();
+                    touch(entry, value);
+                    return value;
+                }
+            }
+            /*
+             * Reserves the key before building the object, so that concurrent requests for
+             * the same key wait for us. If another thread did the same in the meantime, loop.
+             */
+            final Entry<K,V> pending = new Entry<K,V>(key, Thread.currentThread());
+            if (entry == null ? pool.putIfAbsent(key, pending) != null
+                              : !pool.replace(key, entry, pending))
+            {
+                continue;
+            }
+            misses.incrementAndGet();
+            boolean success = false;
+            try {
+                final V value = create(builder);
+                if (value != null) {
+                    synchronized (pending) {
+                        // Not retained if the entry has been removed or replaced meanwhile.
+                        if (pool.get(key) == pending) {
+                            pending.strong = value;
+                            queue(pending);
+                        }
+                    }
+                    release();
+                    success = true;
+                }
+                return value;
+            } finally {
+                pending.builder = null;
+                if (!success) {
+                    pool.remove(key, pending);
+                }
+                pending.built.countDown();
+            }
+        }
+    }
+
+    /**
+     * Invokes the builder, keeping track of the time spent doing so.
+     */
+    private <E extends Exception> V create(final Builder<? extends V, E> builder) throws E {
+        final long start = System.nanoTime();
+        final V value = builder.create();
+        creationTime.addAndGet(System.nanoTime() - start);
+        creations.incrementAndGet();
+        return value;
+    }
+
+    /**
+     * Puts an object into the pool, replacing the previous one associated to the same key.
+     *
+     * @param key The key of the object.
+     * @param value The object to add to the pool.
+     */
+    public void put(final K key, final V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("The pooled object cannot be null");
+        }
+        final Entry<K,V> entry = new Entry<K,V>(key, value);
+        queue(entry);
+        final Entry<K,V> old = pool.put(key, entry);
+        if (old != null) {
+            discard(old);
+        }
+        release();
+    }
+
+    /**
+     * Puts an object built by the caller into the pool, replacing the previous one associated
+     * to the same key, and records the time spent building it in the statistics.
+     *
+     * @param key The key of the object.
+     * @param value The object to add to the pool.
+     * @param creationTime The time spent building the object, in nanoseconds.
+     */
+    public void put(final K key, final V value, final long creationTime) {
+        put(key, value);
+        this.creationTime.addAndGet(creationTime);
+        creations.incrementAndGet();
+    }
+
+    /**
+     * Removes the object associated to the specified key, if any.
+     *
+     * @param key The key of the object to remove.
+     */
+    public void remove(final K key) {
+        final Entry<K,V> old = pool.remove(key);
+        if (old != null) {
+            discard(old);
+        }
+    }
+
+    /**
+     * Removes all the objects from the pool. Objects being built while this method is
+     * invoked may still be added.
+     */
+    public void clear() {
+        pool.clear();
+        Entry<K,V> entry;
+        while ((entry = strongEntries.poll()) != null) {
+            queueLength.decrementAndGet();
+            discard(entry);
+        }
+    }
+
+    /**
+     * Marks the entry as recently used, and makes the object strongly referenced again
+     * if it was retained by a weak or soft reference.
+     */
+    private void touch(final Entry<K,V> entry, final V value) {
+        if (entry.strong != null) {
+            if (!entry.used) {
+                // Avoids writing to the shared entry when not needed.
+                entry.used = true;
+            }
+            return;
+        }
+        synchronized (entry) {
+            if (entry.strong != null || pool.get(entry.key) != entry) {
+                return;
+            }
+            entry.strong = value;
+            entry.reference = null;
+            queue(entry);
+        }
+        release();
+    }
+
+    /**
+     * Accounts a newly strongly referenced entry, and queues it after the other ones.
+     * The caller must have set {@link Entry#strong} already.
+     */
+    private void queue(final Entry<K,V> entry) {
+        entry.used = false;
+        strongCount.incrementAndGet();
+        queueLength.incrementAndGet();
+        strongEntries.offer(entry);
+    }
+
+    /**
+     * Replaces the strong reference of the given entry by a weak or soft one.
+     * The caller must hold the entry lock.
+     */
+    private void demote(final Entry<K,V> entry) {
+        final V value = entry.strong;
+        entry.reference = soft ? new SoftValue<K,V>(value, collected, entry)
+                               : new WeakValue<K,V>(value, collected, entry);
+        entry.strong = null;
+        strongCount.decrementAndGet();
+    }
+
+    /**
+     * Releases the strong reference of an entry which has been removed from the pool. The
+     * entry is left in {@link #strongEntries}, and will be dropped by {@link #release}.
+     */
+    private void discard(final Entry<K,V> entry) {
+        synchronized (entry) {
+            if (entry.strong != null) {
+                demote(entry);
+            }
+        }
+    }
+
+    /**
+     * Replaces the strong references of the least recently used objects by weak or soft
+     * references, until no more than {@link #maxStrongReferences} objects are strongly
+     * referenced, and drops the discarded entries from the queue once they outnumber the
+     * strongly referenced ones. Each entry is visited at most twice, so that concurrent
+     * uses of the objects can not keep this method looping. Also removes the entries whose
+     * object has been garbage collected.
+     */
+    @SuppressWarnings("unchecked")
+    private void release() {
+        for (int i = 2 * queueLength.get(); i > 0; i--) {
+            final int count = strongCount.get();
+            if (count <= maxStrongReferences && queueLength.get() <= 2 * count + 16) {
+                break;
+            }
+            final Entry<K,V> entry = strongEntries.poll();
+            if (entry == null) {
+                break;
+            }
+            queueLength.decrementAndGet();
+            synchronized (entry) {
+                if (entry.strong == null) {
+                    // Removed from the pool, drop it.
+                    continue;
+                }
+                if (strongCount.get() > maxStrongReferences) {
+                    if (!entry.used) {
+                        demote(entry);
+                        continue;
+                    }
+                    // Second chance.
+                    entry.used = false;
+                }
+                queueLength.incrementAndGet();
+                strongEntries.offer(entry);
+            }
+        }
+        Reference<? extends V> ref;
+        while ((ref = collected.poll()) != null) {
+            final Entry<K,V> entry = (ref instanceof WeakValue)
+                    ? ((WeakValue<K,V>) ref).entry : ((SoftValue<K,V>) ref).entry;
+            synchronized (entry) {
+                if (entry.reference == ref) {
+                    pool.remove(entry.key, entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of entries in the pool, including the ones retained by weak or soft
+     * references which may have been garbage collected already.
+     */
+    public int size() {
+        return pool.size();
+    }
+
+    /**
+     * Returns the maximum number of objects kept by strong reference.
+     */
+    public int getMaxStrongReferences() {
+        return maxStrongReferences;
+    }
+
+    /**
+     * The number of lookups that found an object in the pool.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * The number of lookups that did not find an object in the pool.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * The number of objects built, either by {@link #getOrCreate getOrCreate}
+     * or by the callers of {@link #put(Object, Object, long)}.
+     */
+    public long getCreations() {
+        return creations.get();
+    }
+
+    /**
+     * The total time spent building objects, in nanoseconds.
+     */
+    public long getCreationTime() {
+        return creationTime.get();
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrentObjectPool[size=" + size() + ", strong=" + maxStrongReferences
+                + ", hits=" + getHits() + ", misses=" + getMisses() + ", creations="
+                + getCreations() + ", creationTime=" + (getCreationTime() / 1000000) + "ms]";
+    }
+}
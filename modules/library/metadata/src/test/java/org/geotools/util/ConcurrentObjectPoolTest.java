@@ -0,0 +1,188 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2013, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+
+/**
+ * Tests {@link ConcurrentObjectPool}.
+ *
+ *
+ *
+ * @source $URL$
+ */
+public final class ConcurrentObjectPoolTest {
+    /**
+     * Tests lookups, replacements and removals.
+     */
+    @Test
+    public void testPutGet() {
+        final ConcurrentObjectPool<String,String> pool = new ConcurrentObjectPool<String,String>(10);
+        assertNull(pool.get("a"));
+        pool.put("a", "A");
+        pool.put("b", "B");
+        assertEquals("A", pool.get("a"));
+        assertEquals("B", pool.get("b"));
+        pool.put("a", "AA");
+        assertEquals("AA", pool.get("a"));
+        pool.remove("a");
+        assertNull(pool.get("a"));
+        assertEquals(1, pool.size());
+        assertEquals(3, pool.getHits());
+        assertEquals(2, pool.getMisses());
+
+        // peek does not alter the statistics
+        assertEquals("B", pool.peek("b"));
+        assertEquals(3, pool.getHits());
+        pool.clear();
+        assertEquals(0, pool.size());
+    }
+
+    /**
+     * Tests that the objects exceeding the amount of strong references can still be
+     * retrieved as long as they are in use somewhere else.
+     */
+    @Test
+    public void testStrongReferences() {
+        final ConcurrentObjectPool<Integer,Object> pool = new ConcurrentObjectPool<Integer,Object>(2);
+        final List<Object> values = new ArrayList<Object>();
+        for (int i=0; i<10; i++) {
+            final Object value = new Object();
+            values.add(value);
+            pool.put(i, value);
+        }
+        for (int i=0; i<10; i++) {
+            assertSame(values.get(i), pool.peek(i));
+        }
+        values.clear();
+        // the last two added values are kept by strong references
+        System.gc();
+        assertNotNull(pool.get(8));
+        assertNotNull(pool.get(9));
+    }
+
+    /**
+     * Tests that the objects used since they have been added are kept by strong references
+     * rather than the oldest ones.
+     */
+    @Test
+    public void testRecentlyUsed() {
+        final ConcurrentObjectPool<Integer,Object> pool = new ConcurrentObjectPool<Integer,Object>(2);
+        pool.put(0, new Object());
+        pool.put(1, new Object());
+        assertNotNull(pool.get(0));
+        // the least recently used value is the second one
+        pool.put(2, new Object());
+        System.gc();
+        assertNotNull(pool.get(0));
+        assertNotNull(pool.get(2));
+    }
+
+    /**
+     * Tests that replacing the same key over and over does not make the pool grow.
+     */
+    @Test
+    public void testReplace() {
+        final ConcurrentObjectPool<String,Object> pool = new ConcurrentObjectPool<String,Object>(2);
+        for (int i=0; i<1000; i++) {
+            pool.put("a", new Object());
+        }
+        assertEquals(1, pool.size());
+        assertNotNull(pool.get("a"));
+    }
+
+    /**
+     * Tests that an object is built only once when many threads ask for it concurrently.
+     */
+    @Test
+    public void testCreateOnce() throws Exception {
+        final ConcurrentObjectPool<String,String> pool = new ConcurrentObjectPool<String,String>(10);
+        final AtomicInteger builds = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        final ConcurrentObjectPool.Builder<String,IOException> builder =
+                new ConcurrentObjectPool.Builder<String,IOException>() {
+            public String create() throws IOException {
+                builds.incrementAndGet();
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    throw new IOException("Interrupted");
+                }
+                return "value";
+            }
+        };
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<String>> results = new ArrayList<Future<String>>();
+            for (int i=0; i<8; i++) {
+                results.add(executor.submit(new Callable<String>() {
+                    public String call() throws Exception {
+                        start.await();
+                        return pool.getOrCreate("key", builder);
+                    }
+                }));
+            }
+            start.countDown();
+            for (final Future<String> result : results) {
+                assertEquals("value", result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, builds.get());
+        assertEquals(1, pool.getCreations());
+        assertEquals(8, pool.getHits() + pool.getMisses());
+        assertTrue(pool.getCreationTime() > 0);
+    }
+
+    /**
+     * Tests that a failed build is not cached.
+     */
+    @Test
+    public void testCreateFailure() throws Exception {
+        final ConcurrentObjectPool<String,String> pool = new ConcurrentObjectPool<String,String>(10);
+        try {
+            pool.getOrCreate("key", new ConcurrentObjectPool.Builder<String,IOException>() {
+                public String create() throws IOException {
+                    throw new IOException("Failed");
+                }
+            });
+            fail("Should have thrown an exception");
+        } catch (IOException e) {
+            assertEquals("Failed", e.getMessage());
+        }
+        assertEquals(0, pool.size());
+        assertEquals("value", pool.getOrCreate("key", new ConcurrentObjectPool.Builder<String,IOException>() {
+            public String create() {
+                return "value";
+            }
+        }));
+        assertEquals(1, pool.size());
+    }
+}
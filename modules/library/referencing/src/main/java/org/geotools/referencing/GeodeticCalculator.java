@@ -26,6 +26,11 @@ import java.awt.geom.Line2D;
 import java.awt.geom.Point2D;
 import java.awt.geom.GeneralPath;
 import java.text.Format;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import javax.measure.unit.NonSI;
 import static java.lang.Math.*;
 
@@ -87,6 +92,9 @@ import org.geotools.util.logging.Logging;
  * <p>
  * Note: This class is not thread-safe. If geodetic calculations are needed in a multi-threads
  * environment, create one distinct instance of {@code GeodeticCalculator} for each thread.
+ * The exception are the {@link #getOrthodromicDistances(double, double, double[], int, double[],
+ * double[], int, int) getOrthodromicDistances} batch methods, which work on arrays of points
+ * without touching the state of the calculator.
  *
  * @since 2.1
  *
@@ -217,6 +225,11 @@ public class GeodeticCalculator {
      */
     private boolean antipodal;
 
+    /**
+     * Work array for {@link #computeDirection()}, holding the distance and the azimuth.
+     */
+    private final double[] direction = new double[2];
+
     /**
      * Constructs a new geodetic calculator associated with the WGS84 ellipsoid.
      */
@@ -456,9 +469,10 @@ public class GeodeticCalculator {
 
     /**
      * Returns a localized "No convergence" error message. The error message
-     * includes informations about starting and destination points.
+     * includes informations about starting and destination points, in radians.
      */
-    private String getNoConvergenceErrorMessage() {
+    private static String getNoConvergenceErrorMessage(final double long1, final double lat1,
+            final double long2, final double lat2) {
         final CoordinateFormat cf = new CoordinateFormat();
         return Errors.format(ErrorKeys.NO_CONVERGENCE_$2,
                              format(cf, long1, lat1), format(cf, long2, lat2));
@@ -833,6 +847,176 @@ public class GeodeticCalculator {
         return true;
     }
 
+    /**
+     * Computes the orthodromic distances and azimuths from one starting point to many
+     * destination points. Coordinates are (<var>longitude</var>,<var>latitude</var>) pairs
+     * in decimal degrees, as for {@link #setDestinationGeographicPoint(double,double)}.
+     * Results are the same than the ones of {@link #getOrthodromicDistance()} and
+     * {@link #getAzimuth()}, except that {@link Double#NaN NaN} is stored for the pairs
+     * where the computation does not converge.
+     * <p>
+     * This method neither uses nor changes the starting and destination points of this
+     * calculator, so it can be invoked concurrently from many threads on the same instance.
+     *
+     * @param longitude    The starting point longitude in decimal degrees.
+     * @param latitude     The starting point latitude in decimal degrees.
+     * @param destinations The destination points.
+     * @param destOffset   The index of the first destination point ordinate.
+     * @param distances    Where to store the distances, or {@code null} if not needed.
+     * @param azimuths     Where to store the azimuths in decimal degrees, or {@code null}
+     *                     if not needed.
+     * @param resultOffset The index where to store the first distance and azimuth.
+     * @param numPoints    The number of destination points.
+     * @throws IllegalArgumentException if a longitude or a latitude is out of bounds.
+     *
+     * @since 11.0
+     */
+    public void getOrthodromicDistances(final double longitude, final double latitude,
+            final double[] destinations, final int destOffset, final double[] distances,
+            final double[] azimuths, final int resultOffset, final int numPoints)
+            throws IllegalArgumentException
+    {
+        final double long1 = checkLongitude(longitude);
+        final double lat1  = checkLatitude (latitude);
+        final double[] buffer = new double[2];
+        for (int i=0; i<numPoints; i++) {
+            final int j = destOffset + 2*i;
+            computeDirection(long1, lat1, checkLongitude(destinations[j]),
+                    checkLatitude(destinations[j+1]), buffer, distances, azimuths, resultOffset + i);
+        }
+    }
+
+    /**
+     * Computes the orthodromic distances and azimuths between pairs of points. The distance
+     * at index <var>i</var> is from the starting point <var>i</var> to the destination point
+     * <var>i</var>. Coordinates and results are as in
+     * {@link #getOrthodromicDistances(double, double, double[], int, double[], double[], int, int)},
+     * and this method can be invoked concurrently as well.
+     *
+     * @param starts       The starting points.
+     * @param startOffset  The index of the first starting point ordinate.
+     * @param destinations The destination points.
+     * @param destOffset   The index of the first destination point ordinate.
+     * @param distances    Where to store the distances, or {@code null} if not needed.
+     * @param azimuths     Where to store the azimuths in decimal degrees, or {@code null}
+     *                     if not needed.
+     * @param resultOffset The index where to store the first distance and azimuth.
+     * @param numPairs     The number of pairs of points.
+     * @throws IllegalArgumentException if a longitude or a latitude is out of bounds.
+     *
+     * @since 11.0
+     */
+    public void getOrthodromicDistances(final double[] starts, final int startOffset,
+            final double[] destinations, final int destOffset, final double[] distances,
+            final double[] azimuths, final int resultOffset, final int numPairs)
+            throws IllegalArgumentException
+    {
+        final double[] buffer = new double[2];
+        for (int i=0; i<numPairs; i++) {
+            final int s = startOffset + 2*i;
+            final int d = destOffset  + 2*i;
+            computeDirection(checkLongitude(starts[s]), checkLatitude(starts[s+1]),
+                    checkLongitude(destinations[d]), checkLatitude(destinations[d+1]),
+                    buffer, distances, azimuths, resultOffset + i);
+        }
+    }
+
+    /**
+     * Computes the orthodromic distances and azimuths from every starting point to every
+     * destination point. The result for the starting point <var>i</var> and the destination
+     * point <var>j</var> is stored at index <var>i</var>&times;{@code numDestinations}+<var>j</var>.
+     * Coordinates and results are as in
+     * {@link #getOrthodromicDistances(double, double, double[], int, double[], double[], int, int)}.
+     *
+     * @param starts          The starting points.
+     * @param numStarts       The number of starting points.
+     * @param destinations    The destination points.
+     * @param numDestinations The number of destination points.
+     * @param distances       Where to store the distances, or {@code null} if not needed.
+     * @param azimuths        Where to store the azimuths in decimal degrees, or {@code null}
+     *                        if not needed.
+     * @param executor        The executor computing the rows in parallel, or {@code null}
+     *                        for computing them in the current thread.
+     * @throws IllegalArgumentException if a longitude or a latitude is out of bounds.
+     * @throws InterruptedException if the current thread has been interrupted while waiting
+     *         for the executor to complete.
+     *
+     * @since 11.0
+     */
+    public void getOrthodromicDistanceMatrix(final double[] starts, final int numStarts,
+            final double[] destinations, final int numDestinations, final double[] distances,
+            final double[] azimuths, final ExecutorService executor)
+            throws IllegalArgumentException, InterruptedException
+    {
+        if (executor == null) {
+            for (int i=0; i<numStarts; i++) {
+                getOrthodromicDistances(starts[2*i], starts[2*i+1], destinations, 0,
+                        distances, azimuths, i*numDestinations, numDestinations);
+            }
+            return;
+        }
+        final List<Future<?>> rows = new ArrayList<Future<?>>(numStarts);
+        try {
+            for (int i=0; i<numStarts; i++) {
+                final int row = i;
+                rows.add(executor.submit(new Runnable() {
+                    public void run() {
+                        getOrthodromicDistances(starts[2*row], starts[2*row+1], destinations, 0,
+                                distances, azimuths, row*numDestinations, numDestinations);
+                    }
+                }));
+            }
+            for (final Future<?> row : rows) {
+                try {
+                    row.get();
+                } catch (ExecutionException e) {
+                    final Throwable cause = e.getCause();
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    }
+                    if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+                    throw new IllegalStateException(cause);
+                }
+            }
+        } finally {
+            for (final Future<?> row : rows) {
+                row.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Computes the distance and azimuth between the specified points in radians, and stores
+     * them in degrees in the given arrays (if non-null) at the given index.
+     */
+    private void computeDirection(final double long1, final double lat1,
+            final double long2, final double lat2, final double[] buffer,
+            final double[] distances, final double[] azimuths, final int index)
+    {
+        double distance, azimuth;
+        try {
+            final boolean antipodal = computeDirection(long1, lat1, long2, lat2, buffer, 0);
+            distance = buffer[0];
+            azimuth  = toDegrees(buffer[1]);
+            if (antipodal && ellipsoid instanceof DefaultEllipsoid) {
+                // Same as getOrthodromicDistance()
+                distance = ((DefaultEllipsoid) ellipsoid).orthodromicDistance(
+                        toDegrees(long1), toDegrees(lat1), toDegrees(long2), toDegrees(lat2));
+            }
+        } catch (ArithmeticException e) {
+            distance = Double.NaN;
+            azimuth  = Double.NaN;
+        }
+        if (distances != null) {
+            distances[index] = distance;
+        }
+        if (azimuths != null) {
+            azimuths[index] = azimuth;
+        }
+    }
+
     /**
      * Computes the destination point from the {@linkplain #getStartingGeographicPoint starting
      * point}, the {@linkplain #getAzimuth azimuth} and the {@linkplain #getOrthodromicDistance
@@ -972,11 +1156,26 @@ public class GeodeticCalculator {
         if (!destinationValid) {
             throw new IllegalStateException(Errors.format(ErrorKeys.DESTINATION_NOT_SET));
         }
-        // Protect internal variables from change.
-        final double long1 = this.long1;
-        final double lat1  = this.lat1;
-        final double long2 = this.long2;
-        final double lat2  = this.lat2;
+        antipodal = computeDirection(long1, lat1, long2, lat2, direction, 0);
+        distance  = direction[0];
+        azimuth   = direction[1];
+        directionValid = true;
+    }
+
+    /**
+     * Computes the orthodromic distance and the azimuth (in radians) between the specified
+     * points, given in radians. This method uses only the ellipsoid parameters, so it can be
+     * invoked concurrently.
+     *
+     * @return {@code true} if the points are almost antipodal, in which case the result is
+     *         likely to be innacurate.
+     * @throws ArithmeticException if the computation does not converge.
+     */
+    private boolean computeDirection(final double long1, final double lat1,
+                                     final double long2, final double lat2,
+                                     final double[] result, final int offset)
+            throws ArithmeticException
+    {
         /*
          * Solution of the geodetic inverse problem after T.Vincenty.
          * Modified Rainsford's method with Helmert's elliptical terms.
@@ -997,13 +1196,11 @@ public class GeodeticCalculator {
         final double dlon = castToAngleRange(long2 - long1);
         final double ss = abs(dlon);
         if (ss < TOLERANCE_1) {
-            distance = getMeridianArcLengthRadians(lat1, lat2);
-            azimuth = (lat2 > lat1) ? 0.0 : PI;
-            directionValid = true;
-            antipodal = false;
-            return;
+            result[offset]     = getMeridianArcLengthRadians(lat1, lat2);
+            result[offset + 1] = (lat2 > lat1) ? 0.0 : PI;
+            return false;
         }
-        antipodal = (PI - ss < 2*TOLERANCE_3) && (abs(lat1 + lat2) < 2*TOLERANCE_3);
+        final boolean antipodal = (PI - ss < 2*TOLERANCE_3) && (abs(lat1 + lat2) < 2*TOLERANCE_3);
         /*
          * Computes the limit in longitude (alimit), it is equal
          * to twice  the distance from the equator to the pole,
@@ -1023,7 +1220,7 @@ public class GeodeticCalculator {
             int iter = 0;
             do {
                 if (++iter > 8) {
-                    throw new ArithmeticException(getNoConvergenceErrorMessage());
+                    throw new ArithmeticException(getNoConvergenceErrorMessage(long1, lat1, long2, lat2));
                 }
                 S = cos(AZ);
                 final double C2 = S*S;
@@ -1036,7 +1233,7 @@ public class GeodeticCalculator {
             } while (abs(S - AZ_TEMP) >= TOLERANCE_2);
 
             final double AZ1 = (dlon < 0.0) ? 2.0*PI - S : S;
-            azimuth = castToAngleRange(AZ1);
+            final double azimuth = castToAngleRange(AZ1);
             S = cos(AZ1);
 
             // Equatorial - geodesic(S-s) SMS
@@ -1051,9 +1248,9 @@ public class GeodeticCalculator {
                               -0.01068115234375*U8;
             S = sin(AZ1);
             final double SMS = semiMajorAxis*PI*(1.0 - f*abs(S)*AO - BO*fo);
-            distance = semiMajorAxis*ss - SMS;
-            directionValid = true;
-            return;
+            result[offset]     = semiMajorAxis*ss - SMS;
+            result[offset + 1] = azimuth;
+            return antipodal;
         }
 
         // the reduced latitudes
@@ -1067,7 +1264,7 @@ public class GeodeticCalculator {
         int kcount = 0;
         do {
             if (++kcount > 12) {
-                throw new ArithmeticException(getNoConvergenceErrorMessage());
+                throw new ArithmeticException(getNoConvergenceErrorMessage(long1, lat1, long2, lat2));
             }
             clon = cos(ab);
             slon = sin(ab);
@@ -1110,7 +1307,7 @@ public class GeodeticCalculator {
         final double b6 =                                  z*z*z*(-1.0/1536.0 + z*(  5.0/ 6144.0));
 
         // The distance in ellispoid axis units.
-        distance = semiMinorAxis * (bo*sig + b2*ssig*q2 + b4*r2*q4 + b6*r3*q6);
+        result[offset] = semiMinorAxis * (bo*sig + b2*ssig*q2 + b4*r2*q4 + b6*r3*q6);
         double az1 = (dlon < 0) ? PI*(3.0/2.0) : PI/2;
 
         // now compute the az1 & az2 for latitudes not on the equator
@@ -1121,9 +1318,8 @@ public class GeodeticCalculator {
             // azimuths from north,longitudes positive east
             az1 = atan2(sina1, sina1/tana1);
         }
-        azimuth = castToAngleRange(az1);
-        directionValid = true;
-        return;
+        result[offset + 1] = castToAngleRange(az1);
+        return antipodal;
     }
 
     /**
@@ -19,15 +19,12 @@
  */
 package org.geotools.referencing.factory;
 
-import java.lang.ref.Reference;
 import java.lang.ref.WeakReference;
 import java.util.Map;
 import java.util.Set;
-import java.util.Iterator;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.WeakHashMap;
-import java.util.LinkedHashMap;
 import java.util.logging.LogRecord;
 import java.util.logging.Level;
 import javax.measure.unit.Unit;
@@ -47,6 +44,7 @@ import org.opengis.util.InternationalString;
 
 import org.geotools.factory.Hints;
 import org.geotools.factory.BufferedFactory;
+import org.geotools.util.ConcurrentObjectPool;
 import org.geotools.util.Utilities;
 import org.geotools.resources.i18n.Errors;
 import org.geotools.resources.i18n.ErrorKeys;
@@ -67,6 +65,11 @@ import org.geotools.resources.i18n.LoggingKeys;
  * one. This means that this buffered factory will continue to returns them as long as
  * they are in use somewhere else in the Java virtual machine, but will be discarted
  * (and recreated on the fly if needed) otherwise.
+ * <p>
+ * Cached objects are looked up without locking, so that concurrent threads asking for the
+ * same objects do not contend. Objects not in the cache are created one at a time, and only
+ * once for each code. The maximum amount of objects kept by strong references defaults to
+ * 20, and can be changed with the {@value #DEFAULT_MAX_KEY} system property.
  *
  * @since 2.1
  *
@@ -77,9 +80,16 @@ import org.geotools.resources.i18n.LoggingKeys;
  */
 public class BufferedAuthorityFactory extends AbstractAuthorityFactory implements BufferedFactory {
     /**
-     * The default value for {@link #maxStrongReferences}.
+     * The system property controlling the default number of objects kept by strong reference,
+     * {@value #DEFAULT_MAX_KEY}.
+     */
+    public static final String DEFAULT_MAX_KEY = "org.geotools.referencing.factory.cacheSize";
+
+    /**
+     * The default number of objects to keep by strong reference, 20 unless specified otherwise
+     * with the {@value #DEFAULT_MAX_KEY} system property.
      */
-    static final int DEFAULT_MAX = 20;
+    static final int DEFAULT_MAX = getDefaultMaxStrongReferences();
 
     /**
      * The underlying authority factory. This field may be {@code null} if this object was
@@ -93,17 +103,11 @@ public class BufferedAuthorityFactory extends AbstractAuthorityFactory implement
     volatile AbstractAuthorityFactory backingStore;
 
     /**
-     * The pool of cached objects.
-     */
-    private final LinkedHashMap<Object,Object> pool =
-            new LinkedHashMap<Object,Object>(32, 0.75f, true);
-
-    /**
-     * The maximum number of objects to keep by strong reference. If a greater amount of
-     * objects are created, then the strong references for the oldest ones are replaced by
-     * weak references.
+     * The pool of cached objects. Lookups in the pool do not require any lock, while the
+     * creation of new objects is serialized on this factory, since the backing stores are
+     * not required to be thread safe.
      */
-    private final int maxStrongReferences;
+    private final ConcurrentObjectPool<Object,Object> pool;
 
     /**
      * The pool of objects identified by {@link #find}.
@@ -145,8 +149,8 @@ public class BufferedAuthorityFactory extends AbstractAuthorityFactory implement
         while (factory instanceof BufferedAuthorityFactory) {
             factory = ((BufferedAuthorityFactory) factory).backingStore;
         }
-        this.backingStore        = factory;
-        this.maxStrongReferences = maxStrongReferences;
+        this.backingStore = factory;
+        this.pool = new ConcurrentObjectPool<Object,Object>(maxStrongReferences);
         completeHints();
     }
 
@@ -164,10 +168,48 @@ public class BufferedAuthorityFactory extends AbstractAuthorityFactory implement
      */
     BufferedAuthorityFactory(final int priority, final int maxStrongReferences) {
         super(priority);
-        this.maxStrongReferences = maxStrongReferences;
+        this.pool = new ConcurrentObjectPool<Object,Object>(maxStrongReferences);
         // completeHints() will be invoked by DeferredAuthorityFactory.getBackingStore()
     }
 
+    /**
+     * Returns the default number of objects to keep by strong reference.
+     */
+    static int getDefaultMaxStrongReferences() {
+        final Integer max = Integer.getInteger(DEFAULT_MAX_KEY);
+        return (max != null && max >= 0) ? max : 20;
+    }
+
+    /**
+     * Returns the number of {@code createFoo(String)} invocations that found the
+     * requested object in the cache.
+     *
+     * @since 11.0
+     */
+    public long getCacheHits() {
+        return pool.getHits();
+    }
+
+    /**
+     * Returns the number of {@code createFoo(String)} invocations that did not find the
+     * requested object in the cache.
+     *
+     * @since 11.0
+     */
+    public long getCacheMisses() {
+        return pool.getMisses();
+    }
+
+    /**
+     * Returns the total time spent creating the objects that were not found in the cache,
+     * in nanoseconds.
+     *
+     * @since 11.0
+     */
+    public long getCreationTime() {
+        return pool.getCreationTime();
+    }
+
     /**
      * Completes the set of hints according the value currently set in this object. This method
      * is invoked by {@code BufferedAuthorityFactory} or by {@code DeferredAuthorityFactory} at
@@ -351,19 +393,22 @@ public class BufferedAuthorityFactory extends AbstractAuthorityFactory implement
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized IdentifiedObject createObject(final String code)
+    public IdentifiedObject createObject(final String code)
             throws FactoryException
     {
-        final IdentifiedObject object;
         final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof IdentifiedObject) {
-            object = (IdentifiedObject) cached;
-        } else {
-            object = getBackingStore().createObject(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof IdentifiedObject)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof IdentifiedObject)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createObject(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        put(key, object);
-        return object;
+        return (IdentifiedObject) cached;
     }
 
     /**
@@ -372,19 +417,22 @@ public class BufferedAuthorityFactory extends AbstractAuthorityFactory implement
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized Datum createDatum(final String code)
+    public Datum createDatum(final String code)
             throws FactoryException
     {
-        final Datum datum;
         final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof Datum) {
-            datum = (Datum) cached;
-        } else {
-            datum = getBackingStore().createDatum(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof Datum)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof Datum)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createDatum(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        put(key, datum);
-        return datum;
+        return (Datum) cached;
     }
 
     /**
@@ -393,19 +441,22 @@ public class BufferedAuthorityFactory extends AbstractAuthorityFactory implement
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized EngineeringDatum createEngineeringDatum(final String code)
+    public EngineeringDatum createEngineeringDatum(final String code)
             throws FactoryException
     {
-        final EngineeringDatum datum;
         final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof EngineeringDatum) {
-            datum = (EngineeringDatum) cached;
-        } else {
-            datum = getBackingStore().createEngineeringDatum(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof EngineeringDatum)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof EngineeringDatum)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createEngineeringDatum(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        put(key, datum);
-        return datum;
+        return (EngineeringDatum) cached;
     }
 
     /**
@@ -414,19 +465,22 @@ public class BufferedAuthorityFactory extends AbstractAuthorityFactory implement
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized ImageDatum createImageDatum(final String code)
+    public ImageDatum createImageDatum(final String code)
             throws FactoryException
     {
-        final ImageDatum datum;
         final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof ImageDatum) {
-            datum = (ImageDatum) cached;
-        } else {
-            datum = getBackingStore().createImageDatum(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof ImageDatum)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof ImageDatum)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createImageDatum(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        put(key, datum);
-        return datum;
+        return (ImageDatum) cached;
     }
 
     /**
@@ -435,19 +489,22 @@ public class BufferedAuthorityFactory extends AbstractAuthorityFactory implement
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized VerticalDatum createVerticalDatum(final String code)
+    public VerticalDatum createVerticalDatum(final String code)
             throws FactoryException
     {
-        final VerticalDatum datum;
         final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof VerticalDatum) {
-            datum = (VerticalDatum) cached;
-        } else {
-            datum = getBackingStore().createVerticalDatum(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof VerticalDatum)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof VerticalDatum)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createVerticalDatum(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        put(key, datum);
-        return datum;
+        return (VerticalDatum) cached;
     }
 
     /**
@@ -456,19 +513,22 @@ public class BufferedAuthorityFactory extends AbstractAuthorityFactory implement
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized TemporalDatum createTemporalDatum(final String code)
+    public TemporalDatum createTemporalDatum(final String code)
             throws FactoryException
     {
-        final TemporalDatum datum;
         final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof TemporalDatum) {
-            datum = (TemporalDatum) cached;
-        } else {
-            datum = getBackingStore().createTemporalDatum(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof TemporalDatum)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof TemporalDatum)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createTemporalDatum(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        put(key, datum);
-        return datum;
+        return (TemporalDatum) cached;
     }
 
     /**
@@ -477,19 +537,22 @@ public class BufferedAuthorityFactory extends AbstractAuthorityFactory implement
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized GeodeticDatum createGeodeticDatum(final String code)
+    public GeodeticDatum createGeodeticDatum(final String code)
             throws FactoryException
     {
-        final GeodeticDatum datum;
         final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof GeodeticDatum) {
-            datum = (GeodeticDatum) cached;
-        } else {
-            datum = getBackingStore().createGeodeticDatum(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof GeodeticDatum)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof GeodeticDatum)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createGeodeticDatum(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        put(key, datum);
-        return datum;
+        return (GeodeticDatum) cached;
     }
 
     /**
@@ -498,19 +561,22 @@ public class BufferedAuthorityFactory extends AbstractAuthorityFactory implement
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized Ellipsoid createEllipsoid(final String code)
+    public Ellipsoid createEllipsoid(final String code)
             throws FactoryException
     {
-        final Ellipsoid ellipsoid;
         final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof Ellipsoid) {
-            ellipsoid = (Ellipsoid) cached;
-        } else {
-            ellipsoid = getBackingStore().createEllipsoid(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof Ellipsoid)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof Ellipsoid)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createEllipsoid(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        put(key, ellipsoid);
-        return ellipsoid;
+        return (Ellipsoid) cached;
     }
 
     /**
@@ -519,19 +585,22 @@ public class BufferedAuthorityFactory extends AbstractAuthorityFactory implement
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized PrimeMeridian createPrimeMeridian(final String code)
+    public PrimeMeridian createPrimeMeridian(final String code)
             throws FactoryException
     {
-        final PrimeMeridian meridian;
         final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof PrimeMeridian) {
-            meridian = (PrimeMeridian) cached;
-        } else {
-            meridian = getBackingStore().createPrimeMeridian(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof PrimeMeridian)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof PrimeMeridian)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createPrimeMeridian(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        put(key, meridian);
-        return meridian;
+        return (PrimeMeridian) cached;
     }
 
     /**
@@ -540,19 +609,22 @@ public class BufferedAuthorityFactory extends AbstractAuthorityFactory implement
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized Extent createExtent(final String code)
+    public Extent createExtent(final String code)
             throws FactoryException
     {
-        final Extent extent;
         final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof Extent) {
-            extent = (Extent) cached;
-        } else {
-            extent = getBackingStore().createExtent(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof Extent)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof Extent)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createExtent(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        put(key, extent);
-        return extent;
+        return (Extent) cached;
     }
 
     /**
@@ -561,19 +633,22 @@ public class BufferedAuthorityFactory extends AbstractAuthorityFactory implement
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized CoordinateSystem createCoordinateSystem(final String code)
+    public CoordinateSystem createCoordinateSystem(final String code)
             throws FactoryException
     {
-        final CoordinateSystem cs;
         final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof CoordinateSystem) {
-            cs = (CoordinateSystem) cached;
-        } else {
-            cs = getBackingStore().createCoordinateSystem(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof CoordinateSystem)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof CoordinateSystem)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createCoordinateSystem(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        put(key, cs);
-        return cs;
+        return (CoordinateSystem) cached;
     }
 
     /**
@@ -582,19 +657,22 @@ public class BufferedAuthorityFactory extends AbstractAuthorityFactory implement
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized CartesianCS createCartesianCS(final String code)
+    public CartesianCS createCartesianCS(final String code)
             throws FactoryException
     {
-        final CartesianCS cs;
         final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof CartesianCS) {
-            cs = (CartesianCS) cached;
-        } else {
-            cs = getBackingStore().createCartesianCS(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof CartesianCS)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof CartesianCS)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createCartesianCS(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        put(key, cs);
-        return cs;
+        return (CartesianCS) cached;
     }
 
     /**
@@ -603,19 +681,22 @@ public class BufferedAuthorityFactory extends AbstractAuthorityFactory implement
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized PolarCS createPolarCS(final String code)
+    public PolarCS createPolarCS(final String code)
             throws FactoryException
     {
-        final PolarCS cs;
         final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof PolarCS) {
-            cs = (PolarCS) cached;
-        } else {
-            cs = getBackingStore().createPolarCS(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof PolarCS)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof PolarCS)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createPolarCS(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        put(key, cs);
-        return cs;
+        return (PolarCS) cached;
     }
 
     /**
@@ -624,19 +705,22 @@ public class BufferedAuthorityFactory extends AbstractAuthorityFactory implement
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized CylindricalCS createCylindricalCS(final String code)
+    public CylindricalCS createCylindricalCS(final String code)
             throws FactoryException
     {
-        final CylindricalCS cs;
         final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof CylindricalCS) {
-            cs = (CylindricalCS) cached;
-        } else {
-            cs = getBackingStore().createCylindricalCS(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof CylindricalCS)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof CylindricalCS)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createCylindricalCS(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        put(key, cs);
-        return cs;
+        return (CylindricalCS) cached;
     }
 
     /**
@@ -645,19 +729,22 @@ public class BufferedAuthorityFactory extends AbstractAuthorityFactory implement
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized SphericalCS createSphericalCS(final String code)
+    public SphericalCS createSphericalCS(final String code)
             throws FactoryException
     {
-        final SphericalCS cs;
         final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof SphericalCS) {
-            cs = (SphericalCS) cached;
-        } else {
-            cs = getBackingStore().createSphericalCS(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof SphericalCS)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof SphericalCS)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createSphericalCS(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        put(key, cs);
-        return cs;
+        return (SphericalCS) cached;
     }
 
     /**
@@ -666,19 +753,22 @@ public class BufferedAuthorityFactory extends AbstractAuthorityFactory implement
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized EllipsoidalCS createEllipsoidalCS(final String code)
+    public EllipsoidalCS createEllipsoidalCS(final String code)
             throws FactoryException
     {
-        final EllipsoidalCS cs;
         final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof EllipsoidalCS) {
-            cs = (EllipsoidalCS) cached;
-        } else {
-            cs = getBackingStore().createEllipsoidalCS(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof EllipsoidalCS)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof EllipsoidalCS)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createEllipsoidalCS(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        put(key, cs);
-        return cs;
+        return (EllipsoidalCS) cached;
     }
 
     /**
@@ -687,19 +777,22 @@ public class BufferedAuthorityFactory extends AbstractAuthorityFactory implement
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized VerticalCS createVerticalCS(final String code)
+    public VerticalCS createVerticalCS(final String code)
             throws FactoryException
     {
-        final VerticalCS cs;
         final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof VerticalCS) {
-            cs = (VerticalCS) cached;
-        } else {
-            cs = getBackingStore().createVerticalCS(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof VerticalCS)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof VerticalCS)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createVerticalCS(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        put(key, cs);
-        return cs;
+        return (VerticalCS) cached;
     }
 
     /**
@@ -708,19 +801,22 @@ public class BufferedAuthorityFactory extends AbstractAuthorityFactory implement
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized TimeCS createTimeCS(final String code)
+    public TimeCS createTimeCS(final String code)
             throws FactoryException
     {
-        final TimeCS cs;
         final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof TimeCS) {
-            cs = (TimeCS) cached;
-        } else {
-            cs = getBackingStore().createTimeCS(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof TimeCS)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof TimeCS)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createTimeCS(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        put(key, cs);
-        return cs;
+        return (TimeCS) cached;
     }
 
     /**
@@ -729,19 +825,22 @@ public class BufferedAuthorityFactory extends AbstractAuthorityFactory implement
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized CoordinateSystemAxis createCoordinateSystemAxis(final String code)
+    public CoordinateSystemAxis createCoordinateSystemAxis(final String code)
             throws FactoryException
     {
-        final CoordinateSystemAxis axis;
         final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof CoordinateSystemAxis) {
-            axis = (CoordinateSystemAxis) cached;
-        } else {
-            axis = getBackingStore().createCoordinateSystemAxis(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof CoordinateSystemAxis)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof CoordinateSystemAxis)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createCoordinateSystemAxis(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        put(key, axis);
-        return axis;
+        return (CoordinateSystemAxis) cached;
     }
 
     /**
@@ -750,19 +849,22 @@ public class BufferedAuthorityFactory extends AbstractAuthorityFactory implement
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized Unit<?> createUnit(final String code)
+    public Unit<?> createUnit(final String code)
             throws FactoryException
     {
-        final Unit<?> unit;
         final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof Unit) {
-            unit = (Unit) cached;
-        } else {
-            unit = getBackingStore().createUnit(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof Unit)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof Unit)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createUnit(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        put(key, unit);
-        return unit;
+        return (Unit) cached;
     }
 
     /**
@@ -771,19 +873,22 @@ public class BufferedAuthorityFactory extends AbstractAuthorityFactory implement
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized CoordinateReferenceSystem createCoordinateReferenceSystem(final String code)
+    public CoordinateReferenceSystem createCoordinateReferenceSystem(final String code)
             throws FactoryException
     {
-        final CoordinateReferenceSystem crs;
         final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof CoordinateReferenceSystem) {
-            crs = (CoordinateReferenceSystem) cached;
-        } else {
-            crs = getBackingStore().createCoordinateReferenceSystem(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof CoordinateReferenceSystem)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof CoordinateReferenceSystem)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createCoordinateReferenceSystem(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        put(key, crs);
-        return crs;
+        return (CoordinateReferenceSystem) cached;
     }
 
     /**
@@ -792,19 +897,22 @@ public class BufferedAuthorityFactory extends AbstractAuthorityFactory implement
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized CompoundCRS createCompoundCRS(final String code)
+    public CompoundCRS createCompoundCRS(final String code)
             throws FactoryException
     {
-        final CompoundCRS crs;
         final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof CompoundCRS) {
-            crs = (CompoundCRS) cached;
-        } else {
-            crs = getBackingStore().createCompoundCRS(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof CompoundCRS)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof CompoundCRS)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createCompoundCRS(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        put(key, crs);
-        return crs;
+        return (CompoundCRS) cached;
     }
 
     /**
@@ -813,19 +921,22 @@ public class BufferedAuthorityFactory extends AbstractAuthorityFactory implement
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized DerivedCRS createDerivedCRS(final String code)
+    public DerivedCRS createDerivedCRS(final String code)
             throws FactoryException
     {
-        final DerivedCRS crs;
         final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof DerivedCRS) {
-            crs = (DerivedCRS) cached;
-        } else {
-            crs = getBackingStore().createDerivedCRS(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof DerivedCRS)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof DerivedCRS)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createDerivedCRS(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        put(key, crs);
-        return crs;
+        return (DerivedCRS) cached;
     }
 
     /**
@@ -834,19 +945,22 @@ public class BufferedAuthorityFactory extends AbstractAuthorityFactory implement
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized EngineeringCRS createEngineeringCRS(final String code)
+    public EngineeringCRS createEngineeringCRS(final String code)
             throws FactoryException
     {
-        final EngineeringCRS crs;
         final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof EngineeringCRS) {
-            crs = (EngineeringCRS) cached;
-        } else {
-            crs = getBackingStore().createEngineeringCRS(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof EngineeringCRS)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof EngineeringCRS)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createEngineeringCRS(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        put(key, crs);
-        return crs;
+        return (EngineeringCRS) cached;
     }
 
     /**
@@ -855,19 +969,22 @@ public class BufferedAuthorityFactory extends AbstractAuthorityFactory implement
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized GeographicCRS createGeographicCRS(final String code)
+    public GeographicCRS createGeographicCRS(final String code)
             throws FactoryException
     {
-        final GeographicCRS crs;
         final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof GeographicCRS) {
-            crs = (GeographicCRS) cached;
-        } else {
-            crs = getBackingStore().createGeographicCRS(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof GeographicCRS)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof GeographicCRS)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createGeographicCRS(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        put(key, crs);
-        return crs;
+        return (GeographicCRS) cached;
     }
 
     /**
@@ -876,19 +993,22 @@ public class BufferedAuthorityFactory extends AbstractAuthorityFactory implement
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized GeocentricCRS createGeocentricCRS(final String code)
+    public GeocentricCRS createGeocentricCRS(final String code)
             throws FactoryException
     {
-        final GeocentricCRS crs;
         final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof GeocentricCRS) {
-            crs = (GeocentricCRS) cached;
-        } else {
-            crs = getBackingStore().createGeocentricCRS(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof GeocentricCRS)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof GeocentricCRS)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createGeocentricCRS(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        put(key, crs);
-        return crs;
+        return (GeocentricCRS) cached;
     }
 
     /**
@@ -897,19 +1017,22 @@ public class BufferedAuthorityFactory extends AbstractAuthorityFactory implement
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized ImageCRS createImageCRS(final String code)
+    public ImageCRS createImageCRS(final String code)
             throws FactoryException
     {
-        final ImageCRS crs;
         final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof ImageCRS) {
-            crs = (ImageCRS) cached;
-        } else {
-            crs = getBackingStore().createImageCRS(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof ImageCRS)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof ImageCRS)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createImageCRS(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        put(key, crs);
-        return crs;
+        return (ImageCRS) cached;
     }
 
     /**
@@ -918,19 +1041,22 @@ public class BufferedAuthorityFactory extends AbstractAuthorityFactory implement
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized ProjectedCRS createProjectedCRS(final String code)
+    public ProjectedCRS createProjectedCRS(final String code)
             throws FactoryException
     {
-        final ProjectedCRS crs;
         final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof ProjectedCRS) {
-            crs = (ProjectedCRS) cached;
-        } else {
-            crs = getBackingStore().createProjectedCRS(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof ProjectedCRS)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof ProjectedCRS)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createProjectedCRS(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        put(key, crs);
-        return crs;
+        return (ProjectedCRS) cached;
     }
 
     /**
@@ -939,19 +1065,22 @@ public class BufferedAuthorityFactory extends AbstractAuthorityFactory implement
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized TemporalCRS createTemporalCRS(final String code)
+    public TemporalCRS createTemporalCRS(final String code)
             throws FactoryException
     {
-        final TemporalCRS crs;
         final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof TemporalCRS) {
-            crs = (TemporalCRS) cached;
-        } else {
-            crs = getBackingStore().createTemporalCRS(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof TemporalCRS)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof TemporalCRS)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createTemporalCRS(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        put(key, crs);
-        return crs;
+        return (TemporalCRS) cached;
     }
 
     /**
@@ -960,19 +1089,22 @@ public class BufferedAuthorityFactory extends AbstractAuthorityFactory implement
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized VerticalCRS createVerticalCRS(final String code)
+    public VerticalCRS createVerticalCRS(final String code)
             throws FactoryException
     {
-        final VerticalCRS crs;
         final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof VerticalCRS) {
-            crs = (VerticalCRS) cached;
-        } else {
-            crs = getBackingStore().createVerticalCRS(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof VerticalCRS)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof VerticalCRS)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createVerticalCRS(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        put(key, crs);
-        return crs;
+        return (VerticalCRS) cached;
     }
 
     /**
@@ -983,19 +1115,22 @@ public class BufferedAuthorityFactory extends AbstractAuthorityFactory implement
      * @since 2.2
      */
     @Override
-    public synchronized ParameterDescriptor createParameterDescriptor(final String code)
+    public ParameterDescriptor createParameterDescriptor(final String code)
             throws FactoryException
     {
-        final ParameterDescriptor parameter;
         final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof ParameterDescriptor) {
-            parameter = (ParameterDescriptor) cached;
-        } else {
-            parameter = getBackingStore().createParameterDescriptor(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof ParameterDescriptor)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof ParameterDescriptor)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createParameterDescriptor(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        put(key, parameter);
-        return parameter;
+        return (ParameterDescriptor) cached;
     }
 
     /**
@@ -1006,19 +1141,22 @@ public class BufferedAuthorityFactory extends AbstractAuthorityFactory implement
      * @since 2.2
      */
     @Override
-    public synchronized OperationMethod createOperationMethod(final String code)
+    public OperationMethod createOperationMethod(final String code)
             throws FactoryException
     {
-        final OperationMethod method;
         final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof OperationMethod) {
-            method = (OperationMethod) cached;
-        } else {
-            method = getBackingStore().createOperationMethod(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof OperationMethod)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof OperationMethod)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createOperationMethod(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        put(key, method);
-        return method;
+        return (OperationMethod) cached;
     }
 
     /**
@@ -1029,19 +1167,22 @@ public class BufferedAuthorityFactory extends AbstractAuthorityFactory implement
      * @since 2.2
      */
     @Override
-    public synchronized CoordinateOperation createCoordinateOperation(final String code)
+    public CoordinateOperation createCoordinateOperation(final String code)
             throws FactoryException
     {
-        final CoordinateOperation operation;
         final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof CoordinateOperation) {
-            operation = (CoordinateOperation) cached;
-        } else {
-            operation = getBackingStore().createCoordinateOperation(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof CoordinateOperation)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof CoordinateOperation)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createCoordinateOperation(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        put(key, operation);
-        return operation;
+        return (CoordinateOperation) cached;
     }
 
     /**
@@ -1052,21 +1193,24 @@ public class BufferedAuthorityFactory extends AbstractAuthorityFactory implement
      * @since 2.2
      */
     @Override
-    public synchronized Set<CoordinateOperation> createFromCoordinateReferenceSystemCodes(
+    public Set<CoordinateOperation> createFromCoordinateReferenceSystemCodes(
                         final String sourceCRS, final String targetCRS)
             throws FactoryException
     {
-        final Set<CoordinateOperation> operations;
         final CodePair key = new CodePair(trimAuthority(sourceCRS), trimAuthority(targetCRS));
-        final Object cached = get(key);
-        if (cached instanceof Set) {
-            operations = (Set<CoordinateOperation>) cached;
-        } else {
-            operations = Collections.unmodifiableSet(getBackingStore()
-                         .createFromCoordinateReferenceSystemCodes(sourceCRS, targetCRS));
+        Object cached = pool.get(key);
+        if (!(cached instanceof Set)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof Set)) {
+                    final long start = System.nanoTime();
+                    cached = Collections.unmodifiableSet(getBackingStore()
+                                 .createFromCoordinateReferenceSystemCodes(sourceCRS, targetCRS));
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        put(key, operations);
-        return operations;
+        return (Set<CoordinateOperation>) cached;
     }
 
     /**
@@ -1204,48 +1348,4 @@ public class BufferedAuthorityFactory extends AbstractAuthorityFactory implement
         findPool.clear();
         super.dispose();
     }
-
-    /**
-     * Returns an object from the pool for the specified code. If the object was retained as a
-     * {@linkplain Reference weak reference}, the {@link Reference#get referent} is returned.
-     *
-     * @todo Consider logging a message here to the finer or finest level.
-     */
-    private Object get(final Object key) {
-        assert Thread.holdsLock(this);
-        Object object = pool.get(key);
-        if (object instanceof Reference) {
-            object = ((Reference<?>) object).get();
-        }
-        return object;
-    }
-
-    /**
-     * Put an element in the pool. This method is invoked everytime a {@code createFoo(...)}
-     * method is invoked, even if an object was already in the pool for the given code, for
-     * the following reasons: 1) Replaces weak reference by strong reference (if applicable)
-     * and 2) Alters the linked hash set order, so that this object is declared as the last
-     * one used.
-     */
-    private void put(final Object key, final Object object) {
-        assert Thread.holdsLock(this);
-        pool.put(key, object);
-        int toReplace = pool.size() - maxStrongReferences;
-        if (toReplace > 0) {
-            for (final Iterator<Map.Entry<Object,Object>> it=pool.entrySet().iterator(); it.hasNext();) {
-                final Map.Entry<Object,Object> entry = it.next();
-                final Object value = entry.getValue();
-                if (value instanceof Reference) {
-                    if (((Reference) value).get() == null) {
-                        it.remove();
-                    }
-                    continue;
-                }
-                entry.setValue(new WeakReference<Object>(value));
-                if (--toReplace == 0) {
-                    break;
-                }
-            }
-        }
-    }
 }
@@ -43,6 +43,7 @@ import org.opengis.util.InternationalString;
 
 import org.geotools.factory.Hints;
 import org.geotools.factory.BufferedFactory;
+import org.geotools.util.ConcurrentObjectPool;
 import org.geotools.util.Utilities;
 import org.geotools.resources.i18n.Errors;
 import org.geotools.resources.i18n.ErrorKeys;
@@ -63,6 +64,10 @@ import org.geotools.resources.i18n.LoggingKeys;
  * of a strong one. This means that this buffered factory will continue to returns them
  * as long as they are in use somewhere else in the Java virtual machine, but will be
  * discarted (and recreated on the fly if needed) otherwise.
+ * <p>
+ * Cached objects are looked up without locking, so that concurrent threads asking for the
+ * same objects do not contend. Objects not in the cache are created one at a time, and only
+ * once for each code.
  *
  * @since 2.4
  *
@@ -73,9 +78,10 @@ import org.geotools.resources.i18n.LoggingKeys;
  */
 public class ThreadedAuthorityFactory extends AbstractAuthorityFactory implements BufferedFactory {
     /**
-     * The default value for {@link #maxStrongReferences}.
+     * The default number of objects to keep by strong reference, see
+     * {@link BufferedAuthorityFactory#DEFAULT_MAX_KEY}.
      */
-    static final int DEFAULT_MAX = 20;
+    static final int DEFAULT_MAX = BufferedAuthorityFactory.getDefaultMaxStrongReferences();
 
     /**
      * The underlying authority factory. This field may be {@code null} if this object was
@@ -89,9 +95,11 @@ public class ThreadedAuthorityFactory extends AbstractAuthorityFactory implement
     AbstractAuthorityFactory backingStore;
 
     /**
-     * The cache for referencing objects.
+     * The cache for referencing objects. Lookups in the cache do not require any lock, while
+     * the creation of new objects is serialized on this factory, since the backing stores are
+     * not required to be thread safe.
      */
-    private final OldReferencingObjectCache objectCache;
+    private final ConcurrentObjectPool<Object,Object> pool;
 
     /**
      * The pool of objects identified by {@link find}.
@@ -135,7 +143,7 @@ public class ThreadedAuthorityFactory extends AbstractAuthorityFactory implement
             factory = ((ThreadedAuthorityFactory) factory).backingStore;
         }
         this.backingStore = factory;
-        this.objectCache = new OldReferencingObjectCache(maxStrongReferences);
+        this.pool = new ConcurrentObjectPool<Object,Object>(maxStrongReferences);
         completeHints();
     }
 
@@ -153,10 +161,40 @@ public class ThreadedAuthorityFactory extends AbstractAuthorityFactory implement
      */
     ThreadedAuthorityFactory(final int priority, final int maxStrongReferences) {
         super(priority);
-        this.objectCache = new OldReferencingObjectCache(maxStrongReferences);
+        this.pool = new ConcurrentObjectPool<Object,Object>(maxStrongReferences);
         // completeHints() will be invoked by DeferredAuthorityFactory.getBackingStore()
     }
 
+    /**
+     * Returns the number of {@code createFoo(String)} invocations that found the
+     * requested object in the cache.
+     *
+     * @since 11.0
+     */
+    public long getCacheHits() {
+        return pool.getHits();
+    }
+
+    /**
+     * Returns the number of {@code createFoo(String)} invocations that did not find the
+     * requested object in the cache.
+     *
+     * @since 11.0
+     */
+    public long getCacheMisses() {
+        return pool.getMisses();
+    }
+
+    /**
+     * Returns the total time spent creating the objects that were not found in the cache,
+     * in nanoseconds.
+     *
+     * @since 11.0
+     */
+    public long getCreationTime() {
+        return pool.getCreationTime();
+    }
+
     /**
      * Completes the set of hints according the value currently set in this object. This method
      * is invoked by {@code BufferedAuthorityFactory} or by {@code DeferredAuthorityFactory} at
@@ -339,648 +377,750 @@ public class ThreadedAuthorityFactory extends AbstractAuthorityFactory implement
      * Returns an arbitrary object from a code.
      */
     @Override
-    public synchronized IdentifiedObject createObject(final String code)
+    public IdentifiedObject createObject(final String code)
             throws FactoryException
     {
-        final IdentifiedObject object;
         final String key = trimAuthority(code);
-        final Object cached = objectCache.get(key);
-        if (cached instanceof IdentifiedObject) {
-            object = (IdentifiedObject) cached;
-        } else {
-            object = getBackingStore().createObject(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof IdentifiedObject)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof IdentifiedObject)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createObject(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        objectCache.put(key, object);
-        return object;
+        return (IdentifiedObject) cached;
     }
 
     /**
      * Returns an arbitrary datum from a code.
      */
     @Override
-    public synchronized Datum createDatum(final String code)
+    public Datum createDatum(final String code)
             throws FactoryException
     {
-        final Datum datum;
         final String key = trimAuthority(code);
-        final Object cached = objectCache.get(key);
-        if (cached instanceof Datum) {
-            datum = (Datum) cached;
-        } else {
-            datum = getBackingStore().createDatum(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof Datum)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof Datum)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createDatum(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        objectCache.put(key, datum);
-        return datum;
+        return (Datum) cached;
     }
 
     /**
      * Returns an engineering datum from a code.
      */
     @Override
-    public synchronized EngineeringDatum createEngineeringDatum(final String code)
+    public EngineeringDatum createEngineeringDatum(final String code)
             throws FactoryException
     {
-        final EngineeringDatum datum;
         final String key = trimAuthority(code);
-        final Object cached = objectCache.get(key);
-        if (cached instanceof EngineeringDatum) {
-            datum = (EngineeringDatum) cached;
-        } else {
-            datum = getBackingStore().createEngineeringDatum(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof EngineeringDatum)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof EngineeringDatum)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createEngineeringDatum(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        objectCache.put(key, datum);
-        return datum;
+        return (EngineeringDatum) cached;
     }
 
     /**
      * Returns an image datum from a code.
      */
     @Override
-    public synchronized ImageDatum createImageDatum(final String code)
+    public ImageDatum createImageDatum(final String code)
             throws FactoryException
     {
-        final ImageDatum datum;
         final String key = trimAuthority(code);
-        final Object cached = objectCache.get(key);
-        if (cached instanceof ImageDatum) {
-            datum = (ImageDatum) cached;
-        } else {
-            datum = getBackingStore().createImageDatum(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof ImageDatum)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof ImageDatum)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createImageDatum(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        objectCache.put(key, datum);
-        return datum;
+        return (ImageDatum) cached;
     }
 
     /**
      * Returns a vertical datum from a code.
      */
     @Override
-    public synchronized VerticalDatum createVerticalDatum(final String code)
+    public VerticalDatum createVerticalDatum(final String code)
             throws FactoryException
     {
-        final VerticalDatum datum;
         final String key = trimAuthority(code);
-        final Object cached = objectCache.get(key);
-        if (cached instanceof VerticalDatum) {
-            datum = (VerticalDatum) cached;
-        } else {
-            datum = getBackingStore().createVerticalDatum(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof VerticalDatum)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof VerticalDatum)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createVerticalDatum(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        objectCache.put(key, datum);
-        return datum;
+        return (VerticalDatum) cached;
     }
 
     /**
      * Returns a temporal datum from a code.
      */
     @Override
-    public synchronized TemporalDatum createTemporalDatum(final String code)
+    public TemporalDatum createTemporalDatum(final String code)
             throws FactoryException
     {
-        final TemporalDatum datum;
         final String key = trimAuthority(code);
-        final Object cached = objectCache.get(key);
-        if (cached instanceof TemporalDatum) {
-            datum = (TemporalDatum) cached;
-        } else {
-            datum = getBackingStore().createTemporalDatum(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof TemporalDatum)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof TemporalDatum)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createTemporalDatum(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        objectCache.put(key, datum);
-        return datum;
+        return (TemporalDatum) cached;
     }
 
     /**
      * Returns a geodetic datum from a code.
      */
     @Override
-    public synchronized GeodeticDatum createGeodeticDatum(final String code)
+    public GeodeticDatum createGeodeticDatum(final String code)
             throws FactoryException
     {
-        final GeodeticDatum datum;
         final String key = trimAuthority(code);
-        final Object cached = objectCache.get(key);
-        if (cached instanceof GeodeticDatum) {
-            datum = (GeodeticDatum) cached;
-        } else {
-            datum = getBackingStore().createGeodeticDatum(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof GeodeticDatum)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof GeodeticDatum)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createGeodeticDatum(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        objectCache.put(key, datum);
-        return datum;
+        return (GeodeticDatum) cached;
     }
 
     /**
      * Returns an ellipsoid from a code.
      */
     @Override
-    public synchronized Ellipsoid createEllipsoid(final String code)
+    public Ellipsoid createEllipsoid(final String code)
             throws FactoryException
     {
-        final Ellipsoid ellipsoid;
         final String key = trimAuthority(code);
-        final Object cached = objectCache.get(key);
-        if (cached instanceof Ellipsoid) {
-            ellipsoid = (Ellipsoid) cached;
-        } else {
-            ellipsoid = getBackingStore().createEllipsoid(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof Ellipsoid)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof Ellipsoid)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createEllipsoid(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        objectCache.put(key, ellipsoid);
-        return ellipsoid;
+        return (Ellipsoid) cached;
     }
 
     /**
      * Returns a prime meridian from a code.
      */
     @Override
-    public synchronized PrimeMeridian createPrimeMeridian(final String code)
+    public PrimeMeridian createPrimeMeridian(final String code)
             throws FactoryException
     {
-        final PrimeMeridian meridian;
         final String key = trimAuthority(code);
-        final Object cached = objectCache.get(key);
-        if (cached instanceof PrimeMeridian) {
-            meridian = (PrimeMeridian) cached;
-        } else {
-            meridian = getBackingStore().createPrimeMeridian(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof PrimeMeridian)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof PrimeMeridian)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createPrimeMeridian(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        objectCache.put(key, meridian);
-        return meridian;
+        return (PrimeMeridian) cached;
     }
 
     /**
      * Returns an extent (usually an area of validity) from a code.
      */
     @Override
-    public synchronized Extent createExtent(final String code)
+    public Extent createExtent(final String code)
             throws FactoryException
     {
-        final Extent extent;
         final String key = trimAuthority(code);
-        final Object cached = objectCache.get(key);
-        if (cached instanceof Extent) {
-            extent = (Extent) cached;
-        } else {
-            extent = getBackingStore().createExtent(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof Extent)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof Extent)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createExtent(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        objectCache.put(key, extent);
-        return extent;
+        return (Extent) cached;
     }
 
     /**
      * Returns an arbitrary coordinate system from a code.
      */
     @Override
-    public synchronized CoordinateSystem createCoordinateSystem(final String code)
+    public CoordinateSystem createCoordinateSystem(final String code)
             throws FactoryException
     {
-        final CoordinateSystem cs;
         final String key = trimAuthority(code);
-        final Object cached = objectCache.get(key);
-        if (cached instanceof CoordinateSystem) {
-            cs = (CoordinateSystem) cached;
-        } else {
-            cs = getBackingStore().createCoordinateSystem(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof CoordinateSystem)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof CoordinateSystem)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createCoordinateSystem(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        objectCache.put(key, cs);
-        return cs;
+        return (CoordinateSystem) cached;
     }
 
     /**
      * Returns a cartesian coordinate system from a code.
      */
     @Override
-    public synchronized CartesianCS createCartesianCS(final String code)
+    public CartesianCS createCartesianCS(final String code)
             throws FactoryException
     {
-        final CartesianCS cs;
         final String key = trimAuthority(code);
-        final Object cached = objectCache.get(key);
-        if (cached instanceof CartesianCS) {
-            cs = (CartesianCS) cached;
-        } else {
-            cs = getBackingStore().createCartesianCS(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof CartesianCS)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof CartesianCS)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createCartesianCS(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        objectCache.put(key, cs);
-        return cs;
+        return (CartesianCS) cached;
     }
 
     /**
      * Returns a polar coordinate system from a code.
      */
     @Override
-    public synchronized PolarCS createPolarCS(final String code)
+    public PolarCS createPolarCS(final String code)
             throws FactoryException
     {
-        final PolarCS cs;
         final String key = trimAuthority(code);
-        final Object cached = objectCache.get(key);
-        if (cached instanceof PolarCS) {
-            cs = (PolarCS) cached;
-        } else {
-            cs = getBackingStore().createPolarCS(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof PolarCS)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof PolarCS)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createPolarCS(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        objectCache.put(key, cs);
-        return cs;
+        return (PolarCS) cached;
     }
 
     /**
      * Returns a cylindrical coordinate system from a code.
      */
     @Override
-    public synchronized CylindricalCS createCylindricalCS(final String code)
+    public CylindricalCS createCylindricalCS(final String code)
             throws FactoryException
     {
-        final CylindricalCS cs;
         final String key = trimAuthority(code);
-        final Object cached = objectCache.get(key);
-        if (cached instanceof CylindricalCS) {
-            cs = (CylindricalCS) cached;
-        } else {
-            cs = getBackingStore().createCylindricalCS(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof CylindricalCS)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof CylindricalCS)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createCylindricalCS(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        objectCache.put(key, cs);
-        return cs;
+        return (CylindricalCS) cached;
     }
 
     /**
      * Returns a spherical coordinate system from a code.
      */
     @Override
-    public synchronized SphericalCS createSphericalCS(final String code)
+    public SphericalCS createSphericalCS(final String code)
             throws FactoryException
     {
-        final SphericalCS cs;
         final String key = trimAuthority(code);
-        final Object cached = objectCache.get(key);
-        if (cached instanceof SphericalCS) {
-            cs = (SphericalCS) cached;
-        } else {
-            cs = getBackingStore().createSphericalCS(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof SphericalCS)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof SphericalCS)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createSphericalCS(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        objectCache.put(key, cs);
-        return cs;
+        return (SphericalCS) cached;
     }
 
     /**
      * Returns an ellipsoidal coordinate system from a code.
      */
     @Override
-    public synchronized EllipsoidalCS createEllipsoidalCS(final String code)
+    public EllipsoidalCS createEllipsoidalCS(final String code)
             throws FactoryException
     {
-        final EllipsoidalCS cs;
         final String key = trimAuthority(code);
-        final Object cached = objectCache.get(key);
-        if (cached instanceof EllipsoidalCS) {
-            cs = (EllipsoidalCS) cached;
-        } else {
-            cs = getBackingStore().createEllipsoidalCS(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof EllipsoidalCS)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof EllipsoidalCS)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createEllipsoidalCS(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        objectCache.put(key, cs);
-        return cs;
+        return (EllipsoidalCS) cached;
     }
 
     /**
      * Returns a vertical coordinate system from a code.
      */
     @Override
-    public synchronized VerticalCS createVerticalCS(final String code)
+    public VerticalCS createVerticalCS(final String code)
             throws FactoryException
     {
-        final VerticalCS cs;
         final String key = trimAuthority(code);
-        final Object cached = objectCache.get(key);
-        if (cached instanceof VerticalCS) {
-            cs = (VerticalCS) cached;
-        } else {
-            cs = getBackingStore().createVerticalCS(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof VerticalCS)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof VerticalCS)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createVerticalCS(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        objectCache.put(key, cs);
-        return cs;
+        return (VerticalCS) cached;
     }
 
     /**
      * Returns a temporal coordinate system from a code.
      */
     @Override
-    public synchronized TimeCS createTimeCS(final String code)
+    public TimeCS createTimeCS(final String code)
             throws FactoryException
     {
-        final TimeCS cs;
         final String key = trimAuthority(code);
-        final Object cached = objectCache.get(key);
-        if (cached instanceof TimeCS) {
-            cs = (TimeCS) cached;
-        } else {
-            cs = getBackingStore().createTimeCS(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof TimeCS)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof TimeCS)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createTimeCS(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        objectCache.put(key, cs);
-        return cs;
+        return (TimeCS) cached;
     }
 
     /**
      * Returns a coordinate system axis from a code.
      */
     @Override
-    public synchronized CoordinateSystemAxis createCoordinateSystemAxis(final String code)
+    public CoordinateSystemAxis createCoordinateSystemAxis(final String code)
             throws FactoryException
     {
-        final CoordinateSystemAxis axis;
         final String key = trimAuthority(code);
-        final Object cached = objectCache.get(key);
-        if (cached instanceof CoordinateSystemAxis) {
-            axis = (CoordinateSystemAxis) cached;
-        } else {
-            axis = getBackingStore().createCoordinateSystemAxis(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof CoordinateSystemAxis)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof CoordinateSystemAxis)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createCoordinateSystemAxis(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        objectCache.put(key, axis);
-        return axis;
+        return (CoordinateSystemAxis) cached;
     }
 
     /**
      * Returns an unit from a code.
      */
     @Override
-    public synchronized Unit<?> createUnit(final String code)
+    public Unit<?> createUnit(final String code)
             throws FactoryException
     {
-        final Unit<?> unit;
         final String key = trimAuthority(code);
-        final Object cached = objectCache.get(key);
-        if (cached instanceof Unit) {
-            unit = (Unit) cached;
-        } else {
-            unit = getBackingStore().createUnit(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof Unit)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof Unit)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createUnit(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        objectCache.put(key, unit);
-        return unit;
+        return (Unit) cached;
     }
 
     /**
      * Returns an arbitrary coordinate reference system from a code.
      */
     @Override
-    public synchronized CoordinateReferenceSystem createCoordinateReferenceSystem(final String code)
+    public CoordinateReferenceSystem createCoordinateReferenceSystem(final String code)
             throws FactoryException
     {
-        final CoordinateReferenceSystem crs;
         final String key = trimAuthority(code);
-        final Object cached = objectCache.get(key);
-        if (cached instanceof CoordinateReferenceSystem) {
-            crs = (CoordinateReferenceSystem) cached;
-        } else {
-            crs = getBackingStore().createCoordinateReferenceSystem(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof CoordinateReferenceSystem)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof CoordinateReferenceSystem)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createCoordinateReferenceSystem(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        objectCache.put(key, crs);
-        return crs;
+        return (CoordinateReferenceSystem) cached;
     }
 
     /**
      * Returns a 3D coordinate reference system from a code.
      */
     @Override
-    public synchronized CompoundCRS createCompoundCRS(final String code)
+    public CompoundCRS createCompoundCRS(final String code)
             throws FactoryException
     {
-        final CompoundCRS crs;
         final String key = trimAuthority(code);
-        final Object cached = objectCache.get(key);
-        if (cached instanceof CompoundCRS) {
-            crs = (CompoundCRS) cached;
-        } else {
-            crs = getBackingStore().createCompoundCRS(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof CompoundCRS)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof CompoundCRS)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createCompoundCRS(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        objectCache.put(key, crs);
-        return crs;
+        return (CompoundCRS) cached;
     }
 
     /**
      * Returns a derived coordinate reference system from a code.
      */
     @Override
-    public synchronized DerivedCRS createDerivedCRS(final String code)
+    public DerivedCRS createDerivedCRS(final String code)
             throws FactoryException
     {
-        final DerivedCRS crs;
         final String key = trimAuthority(code);
-        final Object cached = objectCache.get(key);
-        if (cached instanceof DerivedCRS) {
-            crs = (DerivedCRS) cached;
-        } else {
-            crs = getBackingStore().createDerivedCRS(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof DerivedCRS)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof DerivedCRS)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createDerivedCRS(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        objectCache.put(key, crs);
-        return crs;
+        return (DerivedCRS) cached;
     }
 
     /**
      * Returns an engineering coordinate reference system from a code.
      */
     @Override
-    public synchronized EngineeringCRS createEngineeringCRS(final String code)
+    public EngineeringCRS createEngineeringCRS(final String code)
             throws FactoryException
     {
-        final EngineeringCRS crs;
         final String key = trimAuthority(code);
-        final Object cached = objectCache.get(key);
-        if (cached instanceof EngineeringCRS) {
-            crs = (EngineeringCRS) cached;
-        } else {
-            crs = getBackingStore().createEngineeringCRS(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof EngineeringCRS)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof EngineeringCRS)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createEngineeringCRS(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        objectCache.put(key, crs);
-        return crs;
+        return (EngineeringCRS) cached;
     }
 
     /**
      * Returns a geographic coordinate reference system from a code.
      */
     @Override
-    public synchronized GeographicCRS createGeographicCRS(final String code)
+    public GeographicCRS createGeographicCRS(final String code)
             throws FactoryException
     {
-        final GeographicCRS crs;
         final String key = trimAuthority(code);
-        final Object cached = objectCache.get(key);
-        if (cached instanceof GeographicCRS) {
-            crs = (GeographicCRS) cached;
-        } else {
-            crs = getBackingStore().createGeographicCRS(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof GeographicCRS)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof GeographicCRS)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createGeographicCRS(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        objectCache.put(key, crs);
-        return crs;
+        return (GeographicCRS) cached;
     }
 
     /**
      * Returns a geocentric coordinate reference system from a code.
      */
     @Override
-    public synchronized GeocentricCRS createGeocentricCRS(final String code)
+    public GeocentricCRS createGeocentricCRS(final String code)
             throws FactoryException
     {
-        final GeocentricCRS crs;
         final String key = trimAuthority(code);
-        final Object cached = objectCache.get(key);
-        if (cached instanceof GeocentricCRS) {
-            crs = (GeocentricCRS) cached;
-        } else {
-            crs = getBackingStore().createGeocentricCRS(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof GeocentricCRS)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof GeocentricCRS)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createGeocentricCRS(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        objectCache.put(key, crs);
-        return crs;
+        return (GeocentricCRS) cached;
     }
 
     /**
      * Returns an image coordinate reference system from a code.
      */
     @Override
-    public synchronized ImageCRS createImageCRS(final String code)
+    public ImageCRS createImageCRS(final String code)
             throws FactoryException
     {
-        final ImageCRS crs;
         final String key = trimAuthority(code);
-        final Object cached = objectCache.get(key);
-        if (cached instanceof ImageCRS) {
-            crs = (ImageCRS) cached;
-        } else {
-            crs = getBackingStore().createImageCRS(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof ImageCRS)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof ImageCRS)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createImageCRS(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        objectCache.put(key, crs);
-        return crs;
+        return (ImageCRS) cached;
     }
 
     /**
      * Returns a projected coordinate reference system from a code.
      */
     @Override
-    public synchronized ProjectedCRS createProjectedCRS(final String code)
+    public ProjectedCRS createProjectedCRS(final String code)
             throws FactoryException
     {
-        final ProjectedCRS crs;
         final String key = trimAuthority(code);
-        final Object cached = objectCache.get(key);
-        if (cached instanceof ProjectedCRS) {
-            crs = (ProjectedCRS) cached;
-        } else {
-            crs = getBackingStore().createProjectedCRS(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof ProjectedCRS)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof ProjectedCRS)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createProjectedCRS(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        objectCache.put(key, crs);
-        return crs;
+        return (ProjectedCRS) cached;
     }
 
     /**
      * Returns a temporal coordinate reference system from a code.
      */
     @Override
-    public synchronized TemporalCRS createTemporalCRS(final String code)
+    public TemporalCRS createTemporalCRS(final String code)
             throws FactoryException
     {
-        final TemporalCRS crs;
         final String key = trimAuthority(code);
-        final Object cached = objectCache.get(key);
-        if (cached instanceof TemporalCRS) {
-            crs = (TemporalCRS) cached;
-        } else {
-            crs = getBackingStore().createTemporalCRS(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof TemporalCRS)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof TemporalCRS)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createTemporalCRS(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        objectCache.put(key, crs);
-        return crs;
+        return (TemporalCRS) cached;
     }
 
     /**
      * Returns a vertical coordinate reference system from a code.
      */
     @Override
-    public synchronized VerticalCRS createVerticalCRS(final String code)
+    public VerticalCRS createVerticalCRS(final String code)
             throws FactoryException
     {
-        final VerticalCRS crs;
         final String key = trimAuthority(code);
-        final Object cached = objectCache.get(key);
-        if (cached instanceof VerticalCRS) {
-            crs = (VerticalCRS) cached;
-        } else {
-            crs = getBackingStore().createVerticalCRS(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof VerticalCRS)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof VerticalCRS)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createVerticalCRS(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        objectCache.put(key, crs);
-        return crs;
+        return (VerticalCRS) cached;
     }
 
     /**
      * Returns a parameter descriptor from a code.
      */
     @Override
-    public synchronized ParameterDescriptor createParameterDescriptor(final String code)
+    public ParameterDescriptor createParameterDescriptor(final String code)
             throws FactoryException
     {
-        final ParameterDescriptor parameter;
         final String key = trimAuthority(code);
-        final Object cached = objectCache.get(key);
-        if (cached instanceof ParameterDescriptor) {
-            parameter = (ParameterDescriptor) cached;
-        } else {
-            parameter = getBackingStore().createParameterDescriptor(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof ParameterDescriptor)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof ParameterDescriptor)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createParameterDescriptor(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        objectCache.put(key, parameter);
-        return parameter;
+        return (ParameterDescriptor) cached;
     }
 
     /**
      * Returns an operation method from a code.
      */
     @Override
-    public synchronized OperationMethod createOperationMethod(final String code)
+    public OperationMethod createOperationMethod(final String code)
             throws FactoryException
     {
-        final OperationMethod method;
         final String key = trimAuthority(code);
-        final Object cached = objectCache.get(key);
-        if (cached instanceof OperationMethod) {
-            method = (OperationMethod) cached;
-        } else {
-            method = getBackingStore().createOperationMethod(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof OperationMethod)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof OperationMethod)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createOperationMethod(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        objectCache.put(key, method);
-        return method;
+        return (OperationMethod) cached;
     }
 
     /**
      * Returns an operation from a single operation code.
      */
     @Override
-    public synchronized CoordinateOperation createCoordinateOperation(final String code)
+    public CoordinateOperation createCoordinateOperation(final String code)
             throws FactoryException
     {
-        final CoordinateOperation operation;
         final String key = trimAuthority(code);
-        final Object cached = objectCache.get(key);
-        if (cached instanceof CoordinateOperation) {
-            operation = (CoordinateOperation) cached;
-        } else {
-            operation = getBackingStore().createCoordinateOperation(code);
+        Object cached = pool.get(key);
+        if (!(cached instanceof CoordinateOperation)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof CoordinateOperation)) {
+                    final long start = System.nanoTime();
+                    cached = getBackingStore().createCoordinateOperation(code);
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        objectCache.put(key, operation);
-        return operation;
+        return (CoordinateOperation) cached;
     }
 
     /**
      * Returns an operation from coordinate reference system codes.
      */
     @Override
-    public synchronized Set<CoordinateOperation> createFromCoordinateReferenceSystemCodes(
+    public Set<CoordinateOperation> createFromCoordinateReferenceSystemCodes(
                         final String sourceCode, final String targetCode)
             throws FactoryException
     {
-        final Set<CoordinateOperation> operations;
         final CodePair key = new CodePair(trimAuthority(sourceCode), trimAuthority(targetCode));
-        final Object cached = objectCache.get(key);
-        if (cached instanceof CoordinateOperation) {
-            operations = (Set<CoordinateOperation>) cached;
-        } else {
-            operations = Collections.unmodifiableSet(getBackingStore()
-                         .createFromCoordinateReferenceSystemCodes(sourceCode, targetCode));
+        Object cached = pool.get(key);
+        if (!(cached instanceof CoordinateOperation)) {
+            synchronized (this) {
+                cached = pool.peek(key);
+                if (!(cached instanceof CoordinateOperation)) {
+                    final long start = System.nanoTime();
+                    cached = Collections.unmodifiableSet(getBackingStore()
+                                 .createFromCoordinateReferenceSystemCodes(sourceCode, targetCode));
+                    pool.put(key, cached, System.nanoTime() - start);
+                }
+            }
         }
-        objectCache.put(key, operations);
-        return operations;
+        return (Set<CoordinateOperation>) cached;
     }
 
     /**
@@ -1108,7 +1248,7 @@ public class ThreadedAuthorityFactory extends AbstractAuthorityFactory implement
             backingStore.dispose();
             backingStore = null;
         }
-        objectCache.clear();
+        pool.clear();
         super.dispose();
     }
 }
@@ -2941,10 +2941,18 @@ public abstract class DirectEpsgFactory extends DirectAuthorityFactory
         /**
          * Returns a set of authority codes that <strong>may</strong> identify the same object
          * than the specified one. This implementation tries to get a smaller set than what
-         * {@link DirectEpsgFactory#getAuthorityCodes} would produce.
+         * {@link DirectEpsgFactory#getAuthorityCodes} would produce. For coordinate reference
+         * systems, the codes are taken from the {@linkplain LookupIndex lookup index} if
+         * available.
          */
         @Override
         protected Set getCodeCandidates(final IdentifiedObject object) throws FactoryException {
+            if (object instanceof CoordinateReferenceSystem) {
+                final LookupIndex index = LookupIndex.getInstance(DirectEpsgFactory.this);
+                if (index != null) {
+                    return index.getCodeCandidates((CoordinateReferenceSystem) object);
+                }
+            }
             String select = "COORD_REF_SYS_CODE";
             String from   = "[Coordinate Reference System]";
             String where, code;
@@ -3060,9 +3068,12 @@ public abstract class DirectEpsgFactory extends DirectAuthorityFactory
      * Returns {@code true} if it is safe to dispose this factory. This method is invoked indirectly
      * by {@link ThreadedEpsgFactory} after some timeout in order to release resources. This method will
      * block the disposal if some {@linkplain #getAuthorityCodes set of authority codes} are still
-     * in use.
+     * in use, or if the {@linkplain LookupIndex lookup index} is being built.
      */
     final synchronized boolean canDispose() {
+        if (LookupIndex.isBuilding(this)) {
+            return false;
+        }
         boolean can = true;
         Map<SoftReference,WeakReference<AuthorityCodes>> pool = null;
         for (final Iterator<Map.Entry<Class<?>, Reference<AuthorityCodes>>> it=
@@ -3100,6 +3111,13 @@ public abstract class DirectEpsgFactory extends DirectAuthorityFactory
         return can;
     }
 
+    /**
+     * Returns {@code true} if this factory has been {@linkplain #dispose disposed}.
+     */
+    final synchronized boolean isDisposed() {
+        return dataSource == null;
+    }
+
     /**
      * Disposes any resources hold by this object.
      *
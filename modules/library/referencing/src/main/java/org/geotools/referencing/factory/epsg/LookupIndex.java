@@ -0,0 +1,456 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2013, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.referencing.factory.epsg;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.measure.unit.NonSI;
+import javax.measure.unit.SI;
+
+import org.opengis.metadata.citation.Citation;
+import org.opengis.parameter.GeneralParameterValue;
+import org.opengis.parameter.ParameterValue;
+import org.opengis.referencing.FactoryException;
+import org.opengis.referencing.crs.CompoundCRS;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.referencing.crs.DerivedCRS;
+import org.opengis.referencing.crs.EngineeringCRS;
+import org.opengis.referencing.crs.GeneralDerivedCRS;
+import org.opengis.referencing.crs.GeocentricCRS;
+import org.opengis.referencing.crs.GeographicCRS;
+import org.opengis.referencing.crs.ImageCRS;
+import org.opengis.referencing.crs.ProjectedCRS;
+import org.opengis.referencing.crs.SingleCRS;
+import org.opengis.referencing.crs.TemporalCRS;
+import org.opengis.referencing.crs.VerticalCRS;
+import org.opengis.referencing.datum.Datum;
+import org.opengis.referencing.datum.Ellipsoid;
+import org.opengis.referencing.datum.GeodeticDatum;
+import org.opengis.referencing.operation.MathTransform;
+import org.geotools.referencing.operation.projection.MapProjection;
+import org.geotools.referencing.operation.transform.ConcatenatedTransform;
+import org.geotools.util.logging.Logging;
+
+
+/**
+ * An index from CRS fingerprints to the EPSG codes of the CRS having that fingerprint, used to
+ * speed up the full scans performed when looking up the code of a CRS lacking an identifier.
+ * <p>
+ * The fingerprint is built from the CRS numerical properties only: the kind of CRS, the number
+ * of dimensions, the ellipsoid axis and inverse flattening, the prime meridian, and the map
+ * projection class and parameters. Two CRS which are {@linkplain
+ * org.geotools.referencing.CRS#equalsIgnoreMetadata equal ignoring metadata} always have the
+ * same fingerprint, so the codes sharing a fingerprint are a conservative set of candidates
+ * which still need to be compared with the CRS looked up. Axis order and units are not part
+ * of the fingerprint, so that the index can be used by the factories changing them, like the
+ * ones forcing the (<var>longitude</var>, <var>latitude</var>) axis order.
+ * <p>
+ * Building the index requires creating every CRS in the database, which is done once for each
+ * EPSG database version, in a background thread. Lookups performed meanwhile fall back on the
+ * full scan. The index is then saved in the {@value #DIRECTORY_KEY} directory, the
+ * {@code Geotools} subdirectory of the temporary directory by default, and loaded from there
+ * afterwards. The index can be disabled by setting the {@value #ENABLED_KEY} system property
+ * to {@code false}.
+ *
+ * @since 11.0
+ *
+ * @source $URL$
+ */
+final class LookupIndex {
+    /**
+     * The logger for index creation.
+     */
+    private static final Logger LOGGER = Logging.getLogger(LookupIndex.class);
+
+    /**
+     * The system property enabling or disabling the index, {@value}.
+     */
+    public static final String ENABLED_KEY = "org.geotools.referencing.factory.epsg.lookupIndex";
+
+    /**
+     * The system property specifying the directory where the index is saved, {@value}.
+     */
+    public static final String DIRECTORY_KEY = "org.geotools.referencing.factory.epsg.lookupIndexDirectory";
+
+    /**
+     * The version of the fingerprint format, to be incremented whenever
+     * {@link #fingerprint} changes, so that older index files get ignored.
+     */
+    private static final int FORMAT = 1;
+
+    /**
+     * The indexes already loaded or built, by EPSG database version.
+     */
+    private static final Map<String, LookupIndex> INDEXES = new HashMap<String, LookupIndex>();
+
+    /**
+     * The factories building an index in background, by EPSG database version.
+     * Guarded by the {@link #INDEXES} lock.
+     */
+    private static final Map<String, DirectEpsgFactory> BUILDING =
+            new HashMap<String, DirectEpsgFactory>();
+
+    /**
+     * The EPSG codes by fingerprint.
+     */
+    private final Map<String, Set<String>> codes;
+
+    LookupIndex(final Map<String, Set<String>> codes) {
+        this.codes = codes;
+    }
+
+    /**
+     * Returns the index for the database behind the specified factory, loading it if needed.
+     * Returns {@code null} if the index is disabled, if the database version is unknown, or
+     * if the index is not available yet, in which case it is built in background.
+     *
+     * @param factory The factory to build the index from.
+     */
+    static LookupIndex getInstance(final DirectEpsgFactory factory) {
+        if (!Boolean.valueOf(System.getProperty(ENABLED_KEY, "true"))) {
+            return null;
+        }
+        final Citation authority = factory.getAuthority();
+        if (authority == null || authority.getEdition() == null) {
+            return null;
+        }
+        final String version = authority.getEdition().toString();
+        synchronized (INDEXES) {
+            LookupIndex index = INDEXES.get(version);
+            if (index == null) {
+                final File file = getFile(version);
+                index = load(file);
+                if (index != null) {
+                    INDEXES.put(version, index);
+                } else if (!BUILDING.containsKey(version)) {
+                    buildInBackground(factory, version, file);
+                }
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Returns {@code true} if the specified factory is building an index, in which case
+     * it should not be disposed.
+     */
+    static boolean isBuilding(final DirectEpsgFactory factory) {
+        synchronized (INDEXES) {
+            return BUILDING.containsValue(factory);
+        }
+    }
+
+    /**
+     * Forgets the indexes loaded so far. For testing purpose only.
+     */
+    static void reset() {
+        synchronized (INDEXES) {
+            INDEXES.clear();
+        }
+    }
+
+    /**
+     * Starts a daemon thread building and saving the index. Must be invoked while holding
+     * the {@link #INDEXES} lock.
+     */
+    private static void buildInBackground(final DirectEpsgFactory factory, final String version,
+            final File file)
+    {
+        BUILDING.put(version, factory);
+        final Thread thread = new Thread("EPSG lookup index builder") {
+            @Override
+            public void run() {
+                LookupIndex index = null;
+                try {
+                    index = build(factory);
+                    if (index != null) {
+                        index.save(file);
+                    }
+                } finally {
+                    synchronized (INDEXES) {
+                        BUILDING.remove(version);
+                        if (index != null && !INDEXES.containsKey(version)) {
+                            INDEXES.put(version, index);
+                        }
+                    }
+                }
+            }
+        };
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    /**
+     * Returns the file where the index of the specified EPSG database version is saved.
+     */
+    static File getFile(final String version) {
+        return new File(getDirectory(), "EPSG-lookup-" + version.replaceAll(
+                "[^\\w\\.\\-]", "_") + "-v" + FORMAT + ".properties");
+    }
+
+    /**
+     * Returns the directory where the indexes are saved.
+     */
+    private static File getDirectory() {
+        final String directory = System.getProperty(DIRECTORY_KEY);
+        if (directory != null) {
+            return new File(directory);
+        }
+        return new File(System.getProperty("java.io.tmpdir", "."), "Geotools");
+    }
+
+    /**
+     * Builds the index by creating every CRS in the database. Returns {@code null} if the
+     * codes cannot be listed, or if the factory gets disposed meanwhile.
+     */
+    static LookupIndex build(final DirectEpsgFactory factory) {
+        final long start = System.currentTimeMillis();
+        final Set<String> all;
+        try {
+            all = factory.getAuthorityCodes(CoordinateReferenceSystem.class);
+        } catch (FactoryException e) {
+            LOGGER.log(Level.WARNING, "Could not list the EPSG codes, the lookup index "
+                    + "will not be used", e);
+            return null;
+        }
+        final Map<String, Set<String>> codes = new HashMap<String, Set<String>>();
+        for (final String code : all) {
+            final CoordinateReferenceSystem crs;
+            try {
+                crs = factory.createCoordinateReferenceSystem(code);
+            } catch (Exception e) {
+                if (factory.isDisposed()) {
+                    LOGGER.fine("The EPSG factory has been disposed, lookup index not built");
+                    return null;
+                }
+                // Some objects cannot be created, they would not be found by a scan either.
+                LOGGER.log(Level.FINEST, "Could not create '" + code + "': " + e);
+                continue;
+            }
+            add(codes, fingerprint(crs), code);
+        }
+        LOGGER.info("Built the EPSG lookup index for " + all.size() + " codes in "
+                + (System.currentTimeMillis() - start) + "ms");
+        return new LookupIndex(codes);
+    }
+
+    private static void add(final Map<String, Set<String>> codes, final String fingerprint,
+            final String code)
+    {
+        Set<String> set = codes.get(fingerprint);
+        if (set == null) {
+            set = new LinkedHashSet<String>();
+            codes.put(fingerprint, set);
+        }
+        set.add(code);
+    }
+
+    /**
+     * Loads the index from the specified file, or returns {@code null} if not found or invalid.
+     */
+    static LookupIndex load(final File file) {
+        if (!file.exists()) {
+            return null;
+        }
+        final Properties properties = new Properties();
+        try {
+            final InputStream in = new BufferedInputStream(new FileInputStream(file));
+            try {
+                properties.load(in);
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not load the EPSG lookup index from " + file, e);
+            return null;
+        }
+        final Map<String, Set<String>> codes = new HashMap<String, Set<String>>();
+        for (final String fingerprint : properties.stringPropertyNames()) {
+            for (final String code : properties.getProperty(fingerprint).split(",")) {
+                add(codes, fingerprint, code);
+            }
+        }
+        return new LookupIndex(codes);
+    }
+
+    /**
+     * Saves the index to the specified file. Failures are logged and otherwise ignored,
+     * the index will simply be built again next time.
+     */
+    void save(final File file) {
+        final Properties properties = new Properties();
+        for (final Map.Entry<String, Set<String>> entry : codes.entrySet()) {
+            final StringBuilder sb = new StringBuilder();
+            for (final String code : entry.getValue()) {
+                if (sb.length() != 0) {
+                    sb.append(',');
+                }
+                sb.append(code);
+            }
+            properties.setProperty(entry.getKey(), sb.toString());
+        }
+        try {
+            file.getParentFile().mkdirs();
+            // Write to a temporary file first so that concurrent processes never see
+            // a partially written index.
+            final File tmp = File.createTempFile("EPSG-lookup", ".tmp", file.getParentFile());
+            final OutputStream out = new BufferedOutputStream(new FileOutputStream(tmp));
+            try {
+                properties.store(out, "EPSG codes by CRS fingerprint");
+            } finally {
+                out.close();
+            }
+            if (!tmp.renameTo(file)) {
+                tmp.delete();
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not save the EPSG lookup index to " + file, e);
+        }
+    }
+
+    /**
+     * Returns the codes of the CRS which may be equal, ignoring metadata, to the specified one.
+     *
+     * @param  crs The CRS looked up.
+     * @return The candidate codes, possibly empty.
+     */
+    Set<String> getCodeCandidates(final CoordinateReferenceSystem crs) {
+        final Set<String> candidates = codes.get(fingerprint(crs));
+        if (candidates == null) {
+            return Collections.emptySet();
+        }
+        return Collections.unmodifiableSet(candidates);
+    }
+
+    /**
+     * Computes the fingerprint of the specified CRS.
+     */
+    static String fingerprint(final CoordinateReferenceSystem crs) {
+        final StringBuilder sb = new StringBuilder();
+        fingerprint(crs, sb);
+        return sb.toString();
+    }
+
+    private static void fingerprint(final CoordinateReferenceSystem crs, final StringBuilder sb) {
+        if (crs instanceof CompoundCRS) {
+            sb.append("compound(");
+            for (final CoordinateReferenceSystem component :
+                    ((CompoundCRS) crs).getCoordinateReferenceSystems())
+            {
+                fingerprint(component, sb);
+                sb.append(';');
+            }
+            sb.append(')');
+            return;
+        }
+        sb.append(getKind(crs)).append(crs.getCoordinateSystem().getDimension());
+        if (crs instanceof SingleCRS) {
+            final Datum datum = ((SingleCRS) crs).getDatum();
+            if (datum instanceof GeodeticDatum) {
+                final GeodeticDatum geodetic = (GeodeticDatum) datum;
+                final Ellipsoid ellipsoid = geodetic.getEllipsoid();
+                final double a = ellipsoid.getAxisUnit().getConverterTo(SI.METER)
+                        .convert(ellipsoid.getSemiMajorAxis());
+                final double pm = geodetic.getPrimeMeridian().getAngularUnit()
+                        .getConverterTo(NonSI.DEGREE_ANGLE)
+                        .convert(geodetic.getPrimeMeridian().getGreenwichLongitude());
+                sb.append("[a=").append(round(a))
+                  .append(",ivf=").append(round(ellipsoid.getInverseFlattening()))
+                  .append(",pm=").append(round(pm)).append(']');
+            }
+        }
+        if (crs instanceof GeneralDerivedCRS) {
+            final GeneralDerivedCRS derived = (GeneralDerivedCRS) crs;
+            final MapProjection projection = getMapProjection(
+                    derived.getConversionFromBase().getMathTransform());
+            if (projection != null) {
+                // Sorted by name, the parameter order is not significant.
+                final Map<String, String> values = new TreeMap<String, String>();
+                for (final GeneralParameterValue param :
+                        projection.getParameterValues().values())
+                {
+                    if (param instanceof ParameterValue) {
+                        final Object value = ((ParameterValue) param).getValue();
+                        if (value instanceof Number) {
+                            values.put(param.getDescriptor().getName().getCode(),
+                                    round(((Number) value).doubleValue()));
+                        }
+                    }
+                }
+                sb.append(projection.getClass().getName()).append(values);
+            }
+            sb.append('/');
+            fingerprint(derived.getBaseCRS(), sb);
+        }
+    }
+
+    /**
+     * Returns a short name for the kind of CRS. Two CRS can be equal only if they are
+     * instances of the same class, hence of the same kind.
+     */
+    private static String getKind(final CoordinateReferenceSystem crs) {
+        if (crs instanceof ProjectedCRS)   return "projected";
+        if (crs instanceof GeographicCRS)  return "geographic";
+        if (crs instanceof GeocentricCRS)  return "geocentric";
+        if (crs instanceof VerticalCRS)    return "vertical";
+        if (crs instanceof TemporalCRS)    return "temporal";
+        if (crs instanceof ImageCRS)       return "image";
+        if (crs instanceof EngineeringCRS) return "engineering";
+        if (crs instanceof DerivedCRS)     return "derived";
+        return "crs";
+    }
+
+    /**
+     * Returns the first map projection found in the specified transform, or {@code null}.
+     */
+    private static MapProjection getMapProjection(final MathTransform transform) {
+        if (transform instanceof MapProjection) {
+            return (MapProjection) transform;
+        }
+        if (transform instanceof ConcatenatedTransform) {
+            final ConcatenatedTransform ct = (ConcatenatedTransform) transform;
+            final MapProjection projection = getMapProjection(ct.transform1);
+            return (projection != null) ? projection : getMapProjection(ct.transform2);
+        }
+        return null;
+    }
+
+    /**
+     * Rounds the value to single precision, so that values differing only because of
+     * rounding errors in unit conversions share the same fingerprint.
+     */
+    private static String round(final double value) {
+        return Float.toString((float) value);
+    }
+}
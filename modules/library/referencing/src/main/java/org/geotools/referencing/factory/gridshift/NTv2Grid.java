@@ -0,0 +1,365 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2013, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.referencing.factory.gridshift;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.geotools.resources.i18n.ErrorKeys;
+import org.geotools.resources.i18n.Errors;
+
+/**
+ * A NTv2 grid shift file read in place. Only the headers are parsed when the grid is opened;
+ * the shift values are read from the file content when a point is shifted. Files on the local
+ * file system are memory mapped, so their content stays out of the Java heap, is paged in by
+ * the operating system only where points are actually shifted, and can be shared by every
+ * transform using the same grid. Other resources (for example grids inside a jar) are read
+ * in a heap buffer.
+ * <p>
+ * The shift computations follow the ones of the
+ * <a href="http://jgridshift.sourceforge.net">jgridshift</a> library: the deepest sub-grid
+ * containing the point is used, the shift is interpolated bilinearly between the four nodes
+ * of the cell, and the reverse shift is computed by iterating on the forward shift.
+ * <p>
+ * Instances are immutable and thread safe.
+ *
+ * @since 11.0
+ *
+ * @source $URL$
+ */
+public final class NTv2Grid {
+    /**
+     * The size of a header record and of a grid node, in bytes.
+     */
+    private static final int RECORD_SIZE = 16;
+
+    /**
+     * The number of iterations for the reverse shift, as in jgridshift.
+     */
+    private static final int REVERSE_ITERATIONS = 4;
+
+    /**
+     * A sub-grid. Bounds are in seconds, with longitudes positive west as in the file.
+     */
+    private static final class SubGrid {
+        final String name;
+
+        final double minLat, maxLat, minLon, maxLon, latInc, lonInc;
+
+        final int columns;
+
+        /** Position of the first node in the buffer. */
+        final int offset;
+
+        SubGrid[] children = new SubGrid[0];
+
+        SubGrid(String name, double minLat, double maxLat, double minLon, double maxLon,
+                double latInc, double lonInc, int columns, int offset) {
+            this.name = name;
+            this.minLat = minLat;
+            this.maxLat = maxLat;
+            this.minLon = minLon;
+            this.maxLon = maxLon;
+            this.latInc = latInc;
+            this.lonInc = lonInc;
+            this.columns = columns;
+            this.offset = offset;
+        }
+
+        boolean contains(final double lon, final double lat) {
+            return lon >= minLon && lon < maxLon && lat >= minLat && lat < maxLat;
+        }
+
+        /**
+         * Returns the deepest sub-grid containing the point, or {@code null} if this grid
+         * does not contain it.
+         */
+        SubGrid find(final double lon, final double lat) {
+            if (!contains(lon, lat)) {
+                return null;
+            }
+            for (final SubGrid child : children) {
+                final SubGrid found = child.find(lon, lat);
+                if (found != null) {
+                    return found;
+                }
+            }
+            return this;
+        }
+    }
+
+    /**
+     * The file content. Only absolute get methods are used, so the buffer can be shared by
+     * concurrent threads.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * The sub-grids without parent, each one with its tree of children.
+     */
+    private final SubGrid[] topLevel;
+
+    /**
+     * The unit of the header values and shifts, in seconds.
+     */
+    private final double unit;
+
+    /**
+     * {@code true} if the file content is memory mapped.
+     */
+    private final boolean mapped;
+
+    private NTv2Grid(final ByteBuffer buffer, final boolean mapped) throws IOException {
+        this.buffer = buffer;
+        this.mapped = mapped;
+        if (buffer.capacity() < 2 * RECORD_SIZE) {
+            throw invalid("file too short");
+        }
+        // The number of overview records is 11, which tells the byte order
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        if (buffer.getInt(8) != 11) {
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt(8) != 11) {
+                throw invalid("unexpected NUM_OREC value");
+            }
+        }
+        final int overviewRecords = buffer.getInt(8);
+        final int subGridRecords = buffer.getInt(RECORD_SIZE + 8);
+        final int subGridCount = buffer.getInt(2 * RECORD_SIZE + 8);
+        final String type = getString(3 * RECORD_SIZE + 8);
+        if (type.equalsIgnoreCase("SECONDS")) {
+            unit = 1;
+        } else if (type.equalsIgnoreCase("MINUTES")) {
+            unit = 60;
+        } else if (type.equalsIgnoreCase("DEGREES")) {
+            unit = 3600;
+        } else {
+            throw invalid("unsupported GS_TYPE " + type);
+        }
+
+        final Map<String, SubGrid> byName = new HashMap<String, SubGrid>();
+        final Map<SubGrid, String> parents = new HashMap<SubGrid, String>();
+        final List<SubGrid> roots = new ArrayList<SubGrid>();
+        int position = overviewRecords * RECORD_SIZE;
+        for (int i = 0; i < subGridCount; i++) {
+            if (position + subGridRecords * RECORD_SIZE > buffer.capacity()) {
+                throw invalid("truncated sub-grid header");
+            }
+            final String name = getString(position + 8);
+            final String parent = getString(position + RECORD_SIZE + 8);
+            final double minLat = buffer.getDouble(position + 4 * RECORD_SIZE + 8) * unit;
+            final double maxLat = buffer.getDouble(position + 5 * RECORD_SIZE + 8) * unit;
+            final double minLon = buffer.getDouble(position + 6 * RECORD_SIZE + 8) * unit;
+            final double maxLon = buffer.getDouble(position + 7 * RECORD_SIZE + 8) * unit;
+            final double latInc = buffer.getDouble(position + 8 * RECORD_SIZE + 8) * unit;
+            final double lonInc = buffer.getDouble(position + 9 * RECORD_SIZE + 8) * unit;
+            final int count = buffer.getInt(position + 10 * RECORD_SIZE + 8);
+            final int columns = (int) Math.round((maxLon - minLon) / lonInc) + 1;
+            final int rows = (int) Math.round((maxLat - minLat) / latInc) + 1;
+            if (columns * rows != count) {
+                throw invalid("sub-grid " + name + " has " + count + " nodes instead of "
+                        + columns + "x" + rows);
+            }
+            position += subGridRecords * RECORD_SIZE;
+            if ((long) position + (long) count * RECORD_SIZE > buffer.capacity()) {
+                throw invalid("truncated sub-grid " + name);
+            }
+            final SubGrid grid = new SubGrid(name, minLat, maxLat, minLon, maxLon, latInc,
+                    lonInc, columns, position);
+            position += count * RECORD_SIZE;
+            byName.put(name, grid);
+            if (parent.equalsIgnoreCase("NONE")) {
+                roots.add(grid);
+            } else {
+                parents.put(grid, parent);
+            }
+        }
+        // Link the children, the parents are not always before them in the file
+        final Map<SubGrid, List<SubGrid>> children = new HashMap<SubGrid, List<SubGrid>>();
+        for (final Map.Entry<SubGrid, String> entry : parents.entrySet()) {
+            final SubGrid parent = byName.get(entry.getValue());
+            if (parent == null) {
+                throw invalid("unknown parent " + entry.getValue() + " for sub-grid "
+                        + entry.getKey().name);
+            }
+            List<SubGrid> list = children.get(parent);
+            if (list == null) {
+                list = new ArrayList<SubGrid>();
+                children.put(parent, list);
+            }
+            list.add(entry.getKey());
+        }
+        for (final Map.Entry<SubGrid, List<SubGrid>> entry : children.entrySet()) {
+            entry.getKey().children = entry.getValue().toArray(new SubGrid[entry.getValue().size()]);
+        }
+        topLevel = roots.toArray(new SubGrid[roots.size()]);
+    }
+
+    /**
+     * Opens the NTv2 grid at the given location. Files are memory mapped, other resources
+     * are fully read in memory.
+     *
+     * @param location The grid location.
+     * @return The grid.
+     * @throws IOException if the grid cannot be read or is not a valid NTv2 grid.
+     */
+    public static NTv2Grid open(final URL location) throws IOException {
+        if (location.getProtocol().equals("file")) {
+            final File file = DataUtilities.urlToFile(location);
+            if (!file.exists() || !file.canRead()) {
+                throw new IOException(Errors.format(ErrorKeys.FILE_DOES_NOT_EXIST_$1, file));
+            }
+            final RandomAccessFile raf = new RandomAccessFile(file, "r");
+            try {
+                // the mapping stays valid after the channel is closed
+                final FileChannel channel = raf.getChannel();
+                return new NTv2Grid(channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                        channel.size()), true);
+            } finally {
+                raf.close();
+            }
+        }
+        final InputStream in = location.openStream();
+        try {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] bytes = new byte[8192];
+            int n;
+            while ((n = in.read(bytes)) >= 0) {
+                out.write(bytes, 0, n);
+            }
+            return new NTv2Grid(ByteBuffer.wrap(out.toByteArray()), false);
+        } finally {
+            in.close();
+        }
+    }
+
+    private static IOException invalid(final String message) {
+        return new IOException("Invalid NTv2 grid: " + message);
+    }
+
+    private String getString(final int position) {
+        final char[] chars = new char[8];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) (buffer.get(position + i) & 0xFF);
+        }
+        return new String(chars).trim();
+    }
+
+    /**
+     * Returns {@code true} if the grid content is memory mapped rather than on the heap.
+     */
+    public boolean isMapped() {
+        return mapped;
+    }
+
+    /**
+     * Returns the number of sub-grids without parent.
+     */
+    public int getTopLevelCount() {
+        return topLevel.length;
+    }
+
+    /**
+     * Interpolates the shift at the given position, in seconds with longitudes positive
+     * west. Returns {@code false} if the point is outside of the grid.
+     */
+    private boolean interpolate(final double lon, final double lat, final double[] shift) {
+        SubGrid grid = null;
+        for (int i = 0; i < topLevel.length && grid == null; i++) {
+            grid = topLevel[i].find(lon, lat);
+        }
+        if (grid == null) {
+            return false;
+        }
+        final int lonIndex = (int) ((lon - grid.minLon) / grid.lonInc);
+        final int latIndex = (int) ((lat - grid.minLat) / grid.latInc);
+        final double x = (lon - (grid.minLon + grid.lonInc * lonIndex)) / grid.lonInc;
+        final double y = (lat - (grid.minLat + grid.latInc * latIndex)) / grid.latInc;
+        final int a = grid.offset + (lonIndex + latIndex * grid.columns) * RECORD_SIZE;
+        final int b = a + RECORD_SIZE;
+        final int c = a + grid.columns * RECORD_SIZE;
+        final int d = c + RECORD_SIZE;
+        // latitude shift first, then longitude shift (positive west)
+        for (int k = 0; k < 2; k++) {
+            final double va = buffer.getFloat(a + 4 * k);
+            final double vb = buffer.getFloat(b + 4 * k);
+            final double vc = buffer.getFloat(c + 4 * k);
+            final double vd = buffer.getFloat(d + 4 * k);
+            shift[k] = (va + (vb - va) * x + (vc - va) * y + (va + vd - vb - vc) * x * y) * unit;
+        }
+        return true;
+    }
+
+    /**
+     * Shifts the given point from the source to the target datum of this grid.
+     *
+     * @param point The (<var>longitude</var>, <var>latitude</var>) point in decimal degrees,
+     *        longitudes positive east. The shifted point is written in the same array.
+     * @param shift A work array of length 2, which can be reused across points to avoid
+     *        allocating one per point. Its content is overwritten.
+     * @return {@code false} if the point is outside of the grid, in which case it is left
+     *         unchanged.
+     */
+    public boolean gridShiftForward(final double[] point, final double[] shift) {
+        final double lon = -point[0] * 3600;
+        final double lat = point[1] * 3600;
+        if (!interpolate(lon, lat, shift)) {
+            return false;
+        }
+        point[0] = -(lon + shift[1]) / 3600;
+        point[1] = (lat + shift[0]) / 3600;
+        return true;
+    }
+
+    /**
+     * Shifts the given point from the target to the source datum of this grid.
+     *
+     * @param point The (<var>longitude</var>, <var>latitude</var>) point in decimal degrees,
+     *        longitudes positive east. The shifted point is written in the same array.
+     * @param shift A work array of length 2, which can be reused across points to avoid
+     *        allocating one per point. Its content is overwritten.
+     * @return {@code false} if the point is outside of the grid, in which case it is left
+     *         unchanged.
+     */
+    public boolean gridShiftReverse(final double[] point, final double[] shift) {
+        final double lon = -point[0] * 3600;
+        final double lat = point[1] * 3600;
+        double estimatedLon = lon;
+        double estimatedLat = lat;
+        for (int i = 0; i < REVERSE_ITERATIONS; i++) {
+            if (!interpolate(estimatedLon, estimatedLat, shift)) {
+                return false;
+            }
+            estimatedLon = lon - shift[1];
+            estimatedLat = lat - shift[0];
+        }
+        point[0] = -estimatedLon / 3600;
+        point[1] = estimatedLat / 3600;
+        return true;
+    }
+}
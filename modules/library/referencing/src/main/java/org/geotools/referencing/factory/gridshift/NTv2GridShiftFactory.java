@@ -61,6 +61,14 @@ public class NTv2GridShiftFactory extends ReferencingFactory implements Buffered
      */
     private SoftValueHashMap<String, GridShiftFile> ntv2GridCache;
 
+    /**
+     * The grids opened by {@link #openNTv2Grid}, shared by all the factory instances. The
+     * content of the mapped grids is not on the heap, so that the cache bounds the number of
+     * files kept open rather than the memory used.
+     */
+    private static final SoftValueHashMap<String, NTv2Grid> OPENED_GRIDS =
+            new SoftValueHashMap<String, NTv2Grid>(GRID_CACHE_HARD_REFERENCES);
+
     /**
      * Constructs a factory with the default priority.
      */
@@ -124,7 +132,35 @@ public class NTv2GridShiftFactory extends ReferencingFactory implements Buffered
         }
     }
 
-    
+
+    /**
+     * Opens a NTv2 grid for in place access, see {@link NTv2Grid}. Grids are shared with
+     * the other factories and transforms opening the same location.
+     * 
+     * @param gridLocation The NTv2 grid location
+     * @return the grid
+     * @throws FactoryException if grid cannot be opened
+     * @since 11.0
+     */
+    public NTv2Grid openNTv2Grid(URL gridLocation) throws FactoryException {
+        if (gridLocation == null) {
+            throw new FactoryException("The grid location must be not null");
+        }
+        final String key = gridLocation.toExternalForm();
+        synchronized (OPENED_GRIDS) { // Prevent simultaneous threads trying to open same grid
+            NTv2Grid grid = OPENED_GRIDS.get(key);
+            if (grid == null) {
+                try {
+                    grid = NTv2Grid.open(gridLocation);
+                } catch (IOException e) {
+                    throw new FactoryException("NTv2 Grid " + gridLocation
+                            + " could not be opened: " + e.getLocalizedMessage(), e);
+                }
+                OPENED_GRIDS.put(key, grid);
+            }
+            return grid;
+        }
+    }
 
     /**
      * Checks if a given resource is a valid NTv2 file without fully loading it.
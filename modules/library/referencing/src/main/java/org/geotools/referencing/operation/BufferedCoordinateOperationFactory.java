@@ -16,8 +16,6 @@
  */
 package org.geotools.referencing.operation;
 
-import java.util.Map;
-
 import org.opengis.referencing.FactoryException;
 import org.opengis.referencing.crs.CoordinateReferenceSystem;
 import org.opengis.referencing.operation.CoordinateOperation;
@@ -27,8 +25,8 @@ import org.opengis.referencing.operation.OperationNotFoundException;
 
 import org.geotools.factory.Hints;
 import org.geotools.factory.BufferedFactory;
+import org.geotools.util.ConcurrentObjectPool;
 import org.geotools.util.Utilities;
-import org.geotools.util.SoftValueHashMap;
 import org.geotools.referencing.ReferencingFactoryFinder;
 
 
@@ -58,6 +56,22 @@ public class BufferedCoordinateOperationFactory extends AbstractCoordinateOperat
      */
     static final int PRIORITY = AuthorityBackedFactory.PRIORITY + 10;
 
+    /**
+     * The system property controlling the number of operations kept by strong reference,
+     * {@value #DEFAULT_MAX_KEY}. Other operations are kept by soft references.
+     */
+    public static final String DEFAULT_MAX_KEY = "org.geotools.referencing.operation.cacheSize";
+
+    /**
+     * The number of operations kept by strong reference, 20 unless specified otherwise
+     * with the {@value #DEFAULT_MAX_KEY} system property.
+     */
+    static final int DEFAULT_MAX;
+    static {
+        final Integer max = Integer.getInteger(DEFAULT_MAX_KEY);
+        DEFAULT_MAX = (max != null && max >= 0) ? max : 20;
+    }
+
     /**
      * Helper class used in order to build an hashing for a pair of source-destination
      * {@link CoordinateReferenceSystem} objects. This is used to cache the transformations
@@ -127,8 +141,8 @@ public class BufferedCoordinateOperationFactory extends AbstractCoordinateOperat
      * be different for the same ({@code sourceCRS}, {@code targetCRS}) pair dependending of
      * hint values like {@link Hints#LENIENT_DATUM_SHIFT}.
      */
-    private final Map<CRSPair, CoordinateOperation> pool =
-            new SoftValueHashMap<CRSPair, CoordinateOperation>();
+    private final ConcurrentObjectPool<CRSPair, CoordinateOperation> pool =
+            new ConcurrentObjectPool<CRSPair, CoordinateOperation>(DEFAULT_MAX, true);
 
     /**
      * Creates a buffered factory wrapping the {@linkplain AuthorityBackedFactory default one}.
@@ -249,15 +263,56 @@ public class BufferedCoordinateOperationFactory extends AbstractCoordinateOperat
         ensureNonNull("sourceCRS", sourceCRS);
         ensureNonNull("targetCRS", targetCRS);
         final CRSPair key = new CRSPair(sourceCRS, targetCRS);
-        CoordinateOperation op;
-        synchronized (hints) { // This lock is indirectly required by getBackingFactory().
-            op = pool.get(key);
-            if (op == null) {
-                op = getBackingFactory().createOperation(sourceCRS, targetCRS);
-                pool.put(key, op);
+        /*
+         * Cached operations are returned without locking. Operations for different pairs
+         * are created concurrently, while threads asking for a pair being created wait
+         * for it instead of creating it a second time. This is safe with the default backing
+         * factory: DefaultCoordinateOperationFactory is stateless, AuthorityBackedFactory only
+         * keeps a thread-local recursivity guard, and the authority factories it queries
+         * serialize their own access to the database.
+         */
+        return pool.getOrCreate(key,
+                new ConcurrentObjectPool.Builder<CoordinateOperation, FactoryException>() {
+            public CoordinateOperation create() throws FactoryException {
+                final CoordinateOperationFactory factory;
+                synchronized (hints) { // This lock is indirectly required by getBackingFactory().
+                    factory = getBackingFactory();
+                }
+                return factory.createOperation(sourceCRS, targetCRS);
             }
-        }
-        return op;
+        });
+    }
+
+    /**
+     * Returns the number of {@link #createOperation(CoordinateReferenceSystem,
+     * CoordinateReferenceSystem) createOperation} invocations that found the operation
+     * in the cache.
+     *
+     * @since 11.0
+     */
+    public long getCacheHits() {
+        return pool.getHits();
+    }
+
+    /**
+     * Returns the number of {@link #createOperation(CoordinateReferenceSystem,
+     * CoordinateReferenceSystem) createOperation} invocations that did not find the
+     * operation in the cache.
+     *
+     * @since 11.0
+     */
+    public long getCacheMisses() {
+        return pool.getMisses();
+    }
+
+    /**
+     * Returns the total time spent creating the operations that were not found in the cache,
+     * in nanoseconds.
+     *
+     * @since 11.0
+     */
+    public long getCreationTime() {
+        return pool.getCreationTime();
     }
 
     /**
@@ -110,6 +110,12 @@ public abstract class MapProjection extends AbstractMathTransform
      */
     private static final double ANGLE_TOLERANCE = 1E-4;
 
+    /**
+     * The number of points transformed together by the array {@code transform} methods.
+     * Small enough for a block to stay in the processor cache during all the steps.
+     */
+    private static final int BLOCK_SIZE = 256;
+
     /**
      * Difference allowed in iterative computations.
      */
@@ -845,6 +851,87 @@ public abstract class MapProjection extends AbstractMathTransform
     protected abstract Point2D transformNormalized(double lambda, double phi, final Point2D ptDst)
             throws ProjectionException;
 
+    /**
+     * Transforms in place an array of (<var>&lambda;</var>,<var>&phi;</var>) coordinates
+     * (units in radians) to linear distances on a unit sphere. The input coordinates are
+     * normalized as documented in {@link #transformNormalized(double,double,Point2D)}.
+     * <p>
+     * The default implementation invokes {@code transformNormalized(x, y, ptDst)} for each
+     * point. Subclasses can override this method with a loop avoiding the method call and
+     * the {@link Point2D} for each point, for faster transformation of large arrays. Subclasses
+     * overriding {@code transformNormalized(x, y, ptDst)} must override this method as well
+     * if one of their parent classes did.
+     *
+     * @param  pts    The coordinates to transform in place, as (<var>x</var>,<var>y</var>) pairs.
+     * @param  offset The index of the first coordinate to transform.
+     * @param  numPts The number of points to transform.
+     * @throws ProjectionException if a point can't be transformed. Every points are processed
+     *         even if some of them can't be transformed, and the non-transformable points are
+     *         set to {@link Double#NaN}.
+     *
+     * @since 11.0
+     */
+    protected void transformNormalized(final double[] pts, final int offset, final int numPts)
+            throws ProjectionException
+    {
+        final Point2D.Double point = new Point2D.Double();
+        ProjectionException firstException = null;
+        final int upper = offset + 2*numPts;
+        for (int i=offset; i<upper; i+=2) {
+            try {
+                transformNormalized(pts[i], pts[i+1], point);
+                pts[i]   = point.x;
+                pts[i+1] = point.y;
+            } catch (ProjectionException exception) {
+                pts[i]   = Double.NaN;
+                pts[i+1] = Double.NaN;
+                if (firstException == null) {
+                    firstException = exception;
+                }
+            }
+        }
+        if (firstException != null) {
+            throw firstException;
+        }
+    }
+
+    /**
+     * Inverse transforms in place an array of (<var>x</var>,<var>y</var>) linear distances
+     * on a unit sphere to (<var>&lambda;</var>,<var>&phi;</var>) coordinates in radians.
+     * This is the array flavor of {@link #inverseTransformNormalized(double,double,Point2D)},
+     * with the same contract than {@link #transformNormalized(double[],int,int)}.
+     *
+     * @param  pts    The coordinates to transform in place, as (<var>x</var>,<var>y</var>) pairs.
+     * @param  offset The index of the first coordinate to transform.
+     * @param  numPts The number of points to transform.
+     * @throws ProjectionException if a point can't be transformed.
+     *
+     * @since 11.0
+     */
+    protected void inverseTransformNormalized(final double[] pts, final int offset,
+                                              final int numPts) throws ProjectionException
+    {
+        final Point2D.Double point = new Point2D.Double();
+        ProjectionException firstException = null;
+        final int upper = offset + 2*numPts;
+        for (int i=offset; i<upper; i+=2) {
+            try {
+                inverseTransformNormalized(pts[i], pts[i+1], point);
+                pts[i]   = point.x;
+                pts[i+1] = point.y;
+            } catch (ProjectionException exception) {
+                pts[i]   = Double.NaN;
+                pts[i+1] = Double.NaN;
+                if (firstException == null) {
+                    firstException = exception;
+                }
+            }
+        }
+        if (firstException != null) {
+            throw firstException;
+        }
+    }
+
     /**
      * Transforms the specified {@code ptSrc} and stores the result in {@code ptDst}.
      * <p>
@@ -894,47 +981,69 @@ public abstract class MapProjection extends AbstractMathTransform
     /**
      * Transforms a list of coordinate point ordinal values. Ordinates must be
      * (<var>longitude</var>,<var>latitude</var>) pairs in decimal degrees.
+     * <p>
+     * Points are processed in blocks of {@value #BLOCK_SIZE}: each block is normalized,
+     * given to {@link #transformNormalized(double[],int,int)} and denormalized as a whole.
      *
      * @throws ProjectionException if a point can't be transformed. This method tries to transform
      *         every points even if some of them can't be transformed. Non-transformable points will
      *         have value {@link Double#NaN}. If more than one point can't be transformed, then this
      *         exception may be about an arbitrary point.
      */
-    public final void transform(final double[] srcPts, int srcOff,
-                                final double[] dstPts, int dstOff, int numPts)
+    public final void transform(final double[] srcPts, final int srcOff,
+                                final double[] dstPts, final int dstOff, final int numPts)
             throws ProjectionException
     {
-        /*
-         * Vérifie s'il faudra parcourir le tableau en sens inverse.
-         * Ce sera le cas si les tableaux source et destination se
-         * chevauchent et que la destination est après la source.
-         */
+        transform(srcPts, srcOff, dstPts, dstOff, numPts, false);
+    }
+
+    /**
+     * Transforms a list of coordinate point ordinal values. Ordinates must be
+     * (<var>longitude</var>,<var>latitude</var>) pairs in decimal degrees.
+     *
+     * @throws ProjectionException if a point can't be transformed. This method tries to transform
+     *         every points even if some of them can't be transformed. Non-transformable points will
+     *         have value {@link Float#NaN}. If more than one point can't be transformed, then this
+     *         exception may be about an arbitrary point.
+     */
+    @Override
+    public final void transform(final float[] srcPts, final int srcOff,
+                                final float[] dstPts, final int dstOff, final int numPts)
+            throws ProjectionException
+    {
+        transform(srcPts, srcOff, dstPts, dstOff, numPts, false);
+    }
+
+    /**
+     * Transforms or inverse transforms a list of coordinate point ordinal values, one block
+     * of points at a time. The blocks are copied in a buffer before to be transformed, which
+     * allows the source and destination arrays to overlap. If they overlap with the destination
+     * after the source, the blocks are processed from the last one to the first one.
+     */
+    final void transform(final double[] srcPts, final int srcOff,
+                         final double[] dstPts, final int dstOff, final int numPts,
+                         final boolean inverse) throws ProjectionException
+    {
+        if (numPts <= 0) {
+            return;
+        }
         final boolean reverse = (srcPts == dstPts && srcOff < dstOff &&
                                  srcOff + (2*numPts) > dstOff);
-        if (reverse) {
-            srcOff += 2*numPts;
-            dstOff += 2*numPts;
-        }
-        final Point2D.Double point = new Point2D.Double();
+        final double[] buffer = new double[2 * min(numPts, BLOCK_SIZE)];
         ProjectionException firstException = null;
-        while (--numPts >= 0) {
+        for (int done=0; done<numPts;) {
+            final int n = min(BLOCK_SIZE, numPts - done);
+            final int offset = 2 * (reverse ? numPts - done - n : done);
+            System.arraycopy(srcPts, srcOff + offset, buffer, 0, 2*n);
             try {
-                point.x = srcPts[srcOff++];
-                point.y = srcPts[srcOff++];
-                transform(point, point);
-                dstPts[dstOff++] = point.x;
-                dstPts[dstOff++] = point.y;
+                transformBlock(buffer, n, inverse);
             } catch (ProjectionException exception) {
-                dstPts[dstOff++] = Double.NaN;
-                dstPts[dstOff++] = Double.NaN;
                 if (firstException == null) {
                     firstException = exception;
                 }
             }
-            if (reverse) {
-                srcOff -= 4;
-                dstOff -= 4;
-            }
+            System.arraycopy(buffer, 0, dstPts, dstOff + offset, 2*n);
+            done += n;
         }
         if (firstException != null) {
             throw firstException;
@@ -942,51 +1051,129 @@ public abstract class MapProjection extends AbstractMathTransform
     }
 
     /**
-     * Transforms a list of coordinate point ordinal values. Ordinates must be
-     * (<var>longitude</var>,<var>latitude</var>) pairs in decimal degrees.
-     *
-     * @throws ProjectionException if a point can't be transformed. This method tries to transform
-     *         every points even if some of them can't be transformed. Non-transformable points will
-     *         have value {@link Float#NaN}. If more than one point can't be transformed, then this
-     *         exception may be about an arbitrary point.
+     * Same as {@link #transform(double[],int,double[],int,int,boolean)} for {@code float}
+     * arrays. Intermediate results are computed in a {@code double} buffer.
      */
-    @Override
-    public final void transform(final float[] srcPts, int srcOff,
-                                final float[] dstPts, int dstOff, int numPts)
-            throws ProjectionException
+    final void transform(final float[] srcPts, final int srcOff,
+                         final float[] dstPts, final int dstOff, final int numPts,
+                         final boolean inverse) throws ProjectionException
     {
+        if (numPts <= 0) {
+            return;
+        }
         final boolean reverse = (srcPts == dstPts && srcOff < dstOff &&
                                  srcOff + (2*numPts) > dstOff);
-        if (reverse) {
-            srcOff += 2*numPts;
-            dstOff += 2*numPts;
-        }
-        final Point2D.Double point = new Point2D.Double();
+        final double[] buffer = new double[2 * min(numPts, BLOCK_SIZE)];
         ProjectionException firstException = null;
-        while (--numPts >= 0) {
+        for (int done=0; done<numPts;) {
+            final int n = min(BLOCK_SIZE, numPts - done);
+            final int offset = 2 * (reverse ? numPts - done - n : done);
+            for (int i=0; i<2*n; i++) {
+                buffer[i] = srcPts[srcOff + offset + i];
+            }
             try {
-                point.x = srcPts[srcOff++];
-                point.y = srcPts[srcOff++];
-                transform(point, point);
-                dstPts[dstOff++] = (float) point.x;
-                dstPts[dstOff++] = (float) point.y;
+                transformBlock(buffer, n, inverse);
             } catch (ProjectionException exception) {
-                dstPts[dstOff++] = Float.NaN;
-                dstPts[dstOff++] = Float.NaN;
                 if (firstException == null) {
                     firstException = exception;
                 }
             }
-            if (reverse) {
-                srcOff -= 4;
-                dstOff -= 4;
+            for (int i=0; i<2*n; i++) {
+                dstPts[dstOff + offset + i] = (float) buffer[i];
             }
+            done += n;
         }
         if (firstException != null) {
             throw firstException;
         }
     }
 
+    /**
+     * Transforms or inverse transforms in place the {@code numPts} first points of the given
+     * block. This method performs the same normalization than the {@code transform(Point2D,
+     * Point2D)} methods, but invokes the array flavor of {@link #transformNormalized} and
+     * {@link #inverseTransformNormalized}.
+     */
+    private void transformBlock(final double[] pts, final int numPts, final boolean inverse)
+            throws ProjectionException
+    {
+        final int length = 2 * numPts;
+        double[] original = null;
+        ProjectionException failure = null;
+        if (!inverse) {
+            assert (original = pts.clone()) != null;
+            for (int i=0; i<length; i+=2) {
+                final double x = pts[i];
+                final double y = pts[i+1];
+                if (verifyCoordinateRanges()) {
+                    if (verifyGeographicRanges(this, x, y)) {
+                        warningLogged();
+                    }
+                }
+                // See transform(Point2D,Point2D) for why the longitude is not always rolled.
+                pts[i]   = centralMeridian != 0 ?
+                           rollLongitude(toRadians(x) - centralMeridian) : toRadians(x);
+                pts[i+1] = toRadians(y);
+            }
+            try {
+                transformNormalized(pts, 0, numPts);
+            } catch (ProjectionException exception) {
+                failure = exception;
+            }
+            for (int i=0; i<length; i+=2) {
+                pts[i]   = globalScale*pts[i]   + falseEasting;
+                pts[i+1] = globalScale*pts[i+1] + falseNorthing;
+            }
+            if (invertible) {
+                assert checkReciprocal(pts, original, numPts, true);
+            }
+        } else {
+            assert (original = pts.clone()) != null;
+            for (int i=0; i<length; i+=2) {
+                pts[i]   = (pts[i]   - falseEasting ) / globalScale;
+                pts[i+1] = (pts[i+1] - falseNorthing) / globalScale;
+            }
+            try {
+                inverseTransformNormalized(pts, 0, numPts);
+            } catch (ProjectionException exception) {
+                failure = exception;
+            }
+            for (int i=0; i<length; i+=2) {
+                final double x = toDegrees(centralMeridian != 0 ?
+                                 rollLongitude(pts[i] + centralMeridian) : pts[i]);
+                final double y = toDegrees(pts[i+1]);
+                pts[i]   = x;
+                pts[i+1] = y;
+                if (verifyCoordinateRanges()) {
+                    if (verifyGeographicRanges(this, x, y)) {
+                        warningLogged();
+                    }
+                }
+            }
+            assert checkReciprocal(pts, original, numPts, false);
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Invokes {@link #checkReciprocal(Point2D,Point2D,boolean)} for every point of a block
+     * which has been successfully transformed. This method is used for assertions only.
+     */
+    private boolean checkReciprocal(final double[] pts, final double[] original,
+                                    final int numPts, final boolean inverse)
+            throws ProjectionException
+    {
+        for (int i=0; i<2*numPts; i+=2) {
+            if (!Double.isNaN(pts[i]) && !Double.isNaN(pts[i+1])) {
+                checkReciprocal(new Point2D.Double(pts[i], pts[i+1]),
+                        new Point2D.Double(original[i], original[i+1]), inverse);
+            }
+        }
+        return true;
+    }
+
     /**
      * Inverse of a map projection.  Will be created by {@link MapProjection#inverse()} only when
      * first required. Implementation of {@code transform(...)} methods are mostly identical
@@ -1067,45 +1254,11 @@ public abstract class MapProjection extends AbstractMathTransform
          *         than one point can't be transformed, then this exception may be about
          *         an arbitrary point.
          */
-        public final void transform(final double[] src,  int srcOffset,
-                                    final double[] dest, int dstOffset, int numPts)
+        public final void transform(final double[] src,  final int srcOffset,
+                                    final double[] dest, final int dstOffset, final int numPts)
                 throws TransformException
         {
-            /*
-             * Vérifie s'il faudra parcourir le tableau en sens inverse.
-             * Ce sera le cas si les tableaux source et destination se
-             * chevauchent et que la destination est après la source.
-             */
-            final boolean reverse = (src==dest && srcOffset<dstOffset &&
-                                     srcOffset+(2*numPts) > dstOffset);
-            if (reverse) {
-                srcOffset += 2*numPts;
-                dstOffset += 2*numPts;
-            }
-            final Point2D.Double point = new Point2D.Double();
-            ProjectionException firstException = null;
-            while (--numPts>=0) {
-                try {
-                    point.x = src[srcOffset++];
-                    point.y = src[srcOffset++];
-                    transform(point, point);
-                    dest[dstOffset++] = point.x;
-                    dest[dstOffset++] = point.y;
-                } catch (ProjectionException exception) {
-                    dest[dstOffset++] = Double.NaN;
-                    dest[dstOffset++] = Double.NaN;
-                    if (firstException == null) {
-                        firstException = exception;
-                    }
-                }
-                if (reverse) {
-                    srcOffset -= 4;
-                    dstOffset -= 4;
-                }
-            }
-            if (firstException != null) {
-                throw firstException;
-            }
+            MapProjection.this.transform(src, srcOffset, dest, dstOffset, numPts, true);
         }
 
         /**
@@ -1119,40 +1272,11 @@ public abstract class MapProjection extends AbstractMathTransform
          *         an arbitrary point.
          */
         @Override
-        public final void transform(final float[] src,  int srcOffset,
-                                    final float[] dest, int dstOffset, int numPts)
+        public final void transform(final float[] src,  final int srcOffset,
+                                    final float[] dest, final int dstOffset, final int numPts)
                 throws ProjectionException
         {
-            final boolean reverse = (src==dest && srcOffset<dstOffset &&
-                                     srcOffset+(2*numPts) > dstOffset);
-            if (reverse) {
-                srcOffset += 2*numPts;
-                dstOffset += 2*numPts;
-            }
-            final Point2D.Double point = new Point2D.Double();
-            ProjectionException firstException = null;
-            while (--numPts>=0) {
-                try {
-                    point.x = src[srcOffset++];
-                    point.y = src[srcOffset++];
-                    transform(point, point);
-                    dest[dstOffset++] = (float) point.x;
-                    dest[dstOffset++] = (float) point.y;
-                } catch (ProjectionException exception) {
-                    dest[dstOffset++] = Float.NaN;
-                    dest[dstOffset++] = Float.NaN;
-                    if (firstException == null) {
-                        firstException = exception;
-                    }
-                }
-                if (reverse) {
-                    srcOffset -= 4;
-                    dstOffset -= 4;
-                }
-            }
-            if (firstException!=null) {
-                throw firstException;
-            }
+            MapProjection.this.transform(src, srcOffset, dest, dstOffset, numPts, true);
         }
 
         /**
@@ -154,6 +154,38 @@ public abstract class Mercator extends MapProjection {
         return new Point2D.Double(x,y);
     }
 
+    /**
+     * Transforms in place an array of (<var>&lambda;</var>,<var>&phi;</var>) coordinates
+     * using the same equations than {@link #transformNormalized(double,double,Point2D)},
+     * without a method call for each point. The longitudes are left unchanged.
+     */
+    @Override
+    protected void transformNormalized(final double[] pts, final int offset, final int numPts)
+            throws ProjectionException
+    {
+        if (this instanceof Spherical) {
+            super.transformNormalized(pts, offset, numPts);
+            return;
+        }
+        ProjectionException firstException = null;
+        final int upper = offset + 2*numPts;
+        for (int i=offset; i<upper; i+=2) {
+            final double y = pts[i+1];
+            if (abs(y) > (PI/2 - EPSILON)) {
+                pts[i]   = Double.NaN;
+                pts[i+1] = Double.NaN;
+                if (firstException == null) {
+                    firstException = new ProjectionException(y);
+                }
+                continue;
+            }
+            pts[i+1] = -log(tsfn(y, sin(y)));
+        }
+        if (firstException != null) {
+            throw firstException;
+        }
+    }
+
     /**
      * Transforms the specified (<var>x</var>,<var>y</var>) coordinates
      * and stores the result in {@code ptDst}.
@@ -207,6 +207,45 @@ public class TransverseMercator extends MapProjection {
         return new Point2D.Double(x,y);
     }
 
+    /**
+     * Transforms in place an array of (<var>&lambda;</var>,<var>&phi;</var>) coordinates
+     * using the same equations than {@link #transformNormalized(double,double,Point2D)},
+     * without a method call for each point.
+     */
+    @Override
+    protected void transformNormalized(final double[] pts, final int offset, final int numPts)
+            throws ProjectionException
+    {
+        if (this instanceof Spherical) {
+            super.transformNormalized(pts, offset, numPts);
+            return;
+        }
+        final int upper = offset + 2*numPts;
+        for (int i=offset; i<upper; i+=2) {
+            final double x = pts[i];
+            final double y = pts[i+1];
+            final double sinphi = sin(y);
+            final double cosphi = cos(y);
+            double t = (abs(cosphi) > EPSILON) ? sinphi/cosphi : 0;
+            t *= t;
+            double al = cosphi*x;
+            final double als = al*al;
+            al /= sqrt(1.0 - excentricitySquared * sinphi*sinphi);
+            final double n = esp * cosphi*cosphi;
+
+            pts[i+1] = (mlfn(y, sinphi, cosphi) - ml0 +
+                sinphi * al * x *
+                FC2 * ( 1.0 +
+                FC4 * als * (5.0 - t + n*(9.0 + 4.0*n) +
+                FC6 * als * (61.0 + t * (t - 58.0) + n*(270.0 - 330.0*t) +
+                FC8 * als * (1385.0 + t * ( t*(543.0 - t) - 3111.0))))));
+
+            pts[i] = al*(FC1 + FC3 * als*(1.0 - t + n +
+                FC5 * als * (5.0 + t*(t - 18.0) + n*(14.0 - 58.0*t) +
+                FC7 * als * (61.0+ t*(t*(179.0 - t) - 479.0 )))));
+        }
+    }
+
     /**
      * Transforms the specified (<var>x</var>,<var>y</var>) coordinates
      * and stores the result in {@code ptDst}.
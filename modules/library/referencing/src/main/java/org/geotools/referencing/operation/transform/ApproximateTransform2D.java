@@ -0,0 +1,375 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2013, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.referencing.operation.transform;
+
+import java.awt.geom.Rectangle2D;
+import java.util.LinkedList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.geotools.referencing.operation.LinearTransform;
+import org.geotools.util.logging.Logging;
+import org.opengis.referencing.operation.MathTransform2D;
+import org.opengis.referencing.operation.NoninvertibleTransformException;
+import org.opengis.referencing.operation.TransformException;
+
+/**
+ * A {@link MathTransform2D} approximating another one by bilinear interpolation over a grid
+ * of cells covering a rectangular domain. The grid is adaptive: starting from the whole
+ * domain, cells are split in four until the interpolation error measured on a set of test
+ * points inside each cell gets below the tolerance, the same way {@link WarpBuilder} refines
+ * its warp grids. Cells which would need to be split beyond the maximum depth, or where the
+ * exact transform fails, keep using the exact transform, as do the points outside of the
+ * domain.
+ * <p>
+ * This is meant for cases where the exact transform is expensive and a known small error is
+ * acceptable, like reprojecting geometries to the screen, where a fraction of a pixel does
+ * not make a visible difference. The {@link #inverse() inverse} is the inverse of the exact
+ * transform.
+ *
+ * @since 11.0
+ *
+ * @source $URL$
+ */
+public class ApproximateTransform2D extends AbstractMathTransform implements MathTransform2D {
+
+    static final Logger LOGGER = Logging.getLogger(ApproximateTransform2D.class);
+
+    /**
+     * The default maximum number of cells. Each cell costs 13 transformed points to build.
+     */
+    public static final int DEFAULT_MAX_CELLS = 4096;
+
+    /**
+     * The maximum depth of the cell tree.
+     */
+    private static final int MAX_DEPTH = 10;
+
+    /**
+     * The fractions of the cell size where the interpolation error is measured.
+     * Using quarters avoids being fooled by transforms symmetrical around the center.
+     */
+    private static final double[] TEST_FRACTIONS = { 0.25, 0.5, 0.75 };
+
+    /**
+     * A cell of the grid. A cell is either split in four children, or interpolates between
+     * its transformed corners, or uses the exact transform when {@code corners} is null.
+     */
+    private static final class Cell {
+        final double minX, minY, maxX, maxY;
+
+        final int depth;
+
+        /** Children by (y >= midY ? 2 : 0) + (x >= midX ? 1 : 0), or null for leaves. */
+        Cell[] children;
+
+        /** Transformed lower left, lower right, upper left and upper right corners. */
+        double[] corners;
+
+        Cell(double minX, double minY, double maxX, double maxY, int depth) {
+            this.minX = minX;
+            this.minY = minY;
+            this.maxX = maxX;
+            this.maxY = maxY;
+            this.depth = depth;
+        }
+    }
+
+    /**
+     * The transform approximated.
+     */
+    private final MathTransform2D exact;
+
+    /**
+     * The root cell, covering the whole domain.
+     */
+    private final Cell root;
+
+    /**
+     * The maximal interpolation error measured in the interpolated cells.
+     */
+    private double maxError;
+
+    /**
+     * The number of leaf cells, and the number of those using the exact transform.
+     */
+    private int cellCount, exactCellCount;
+
+    /**
+     * Builds the approximation.
+     */
+    private ApproximateTransform2D(final MathTransform2D exact, final Rectangle2D domain,
+            final double tolerance, final int maxCells) {
+        this.exact = exact;
+        this.root = new Cell(domain.getMinX(), domain.getMinY(), domain.getMaxX(),
+                domain.getMaxY(), 0);
+        // Breadth first, so that the cells budget is spent evenly over the domain
+        final double toleranceSquared = tolerance * tolerance;
+        final double[] points = new double[2 * (4 + TEST_FRACTIONS.length * TEST_FRACTIONS.length)];
+        final LinkedList<Cell> queue = new LinkedList<Cell>();
+        queue.add(root);
+        cellCount = 1;
+        while (!queue.isEmpty()) {
+            final Cell cell = queue.removeFirst();
+            final double error = evaluate(cell, points);
+            if (error <= toleranceSquared) {
+                maxError = Math.max(maxError, Math.sqrt(error));
+            } else {
+                cell.corners = null;
+                if (cell.depth < MAX_DEPTH && cellCount + 3 <= maxCells) {
+                    split(cell);
+                    cellCount += 3;
+                    for (final Cell child : cell.children) {
+                        queue.add(child);
+                    }
+                } else {
+                    exactCellCount++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates an approximation of the specified transform over the specified domain.
+     * Returns the transform itself if it is linear, since there is nothing to gain.
+     *
+     * @param exact     The transform to approximate.
+     * @param domain    The domain where the transform is approximated, in source coordinates.
+     * @param tolerance The maximal error allowed, in target units.
+     * @param maxCells  The maximal number of cells, which bounds the creation cost.
+     * @return The approximated transform, or {@code exact} if approximating it is useless.
+     */
+    public static MathTransform2D create(final MathTransform2D exact, final Rectangle2D domain,
+            final double tolerance, final int maxCells) {
+        if (exact instanceof LinearTransform || domain.isEmpty() || tolerance <= 0) {
+            return exact;
+        }
+        final ApproximateTransform2D approximate = new ApproximateTransform2D(exact, domain,
+                tolerance, maxCells);
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.fine("Approximated transform over " + domain + ": " + approximate.cellCount
+                    + " cells, " + approximate.exactCellCount + " using the exact transform, "
+                    + "max error " + approximate.maxError);
+        }
+        if (approximate.root.corners == null && approximate.root.children == null) {
+            return exact;
+        }
+        return approximate;
+    }
+
+    /**
+     * Creates an approximation with at most {@link #DEFAULT_MAX_CELLS} cells.
+     *
+     * @param exact     The transform to approximate.
+     * @param domain    The domain where the transform is approximated, in source coordinates.
+     * @param tolerance The maximal error allowed, in target units.
+     * @return The approximated transform, or {@code exact} if approximating it is useless.
+     */
+    public static MathTransform2D create(final MathTransform2D exact, final Rectangle2D domain,
+            final double tolerance) {
+        return create(exact, domain, tolerance, DEFAULT_MAX_CELLS);
+    }
+
+    /**
+     * Transforms the cell corners and returns the squared maximal interpolation error on the
+     * test points, or infinity if the exact transform failed.
+     */
+    private double evaluate(final Cell cell, final double[] points) {
+        final double w = cell.maxX - cell.minX;
+        final double h = cell.maxY - cell.minY;
+        points[0] = cell.minX; points[1] = cell.minY;
+        points[2] = cell.maxX; points[3] = cell.minY;
+        points[4] = cell.minX; points[5] = cell.maxY;
+        points[6] = cell.maxX; points[7] = cell.maxY;
+        int i = 8;
+        for (final double fy : TEST_FRACTIONS) {
+            for (final double fx : TEST_FRACTIONS) {
+                points[i++] = cell.minX + fx * w;
+                points[i++] = cell.minY + fy * h;
+            }
+        }
+        try {
+            exact.transform(points, 0, points, 0, points.length / 2);
+        } catch (TransformException e) {
+            return Double.POSITIVE_INFINITY;
+        }
+        for (final double value : points) {
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                return Double.POSITIVE_INFINITY;
+            }
+        }
+        cell.corners = new double[8];
+        System.arraycopy(points, 0, cell.corners, 0, 8);
+        double error = 0;
+        i = 8;
+        for (final double fy : TEST_FRACTIONS) {
+            for (final double fx : TEST_FRACTIONS) {
+                final double dx = interpolate(cell.corners, 0, fx, fy) - points[i++];
+                final double dy = interpolate(cell.corners, 1, fx, fy) - points[i++];
+                error = Math.max(error, dx * dx + dy * dy);
+            }
+        }
+        return error;
+    }
+
+    private static void split(final Cell cell) {
+        final double midX = (cell.minX + cell.maxX) / 2;
+        final double midY = (cell.minY + cell.maxY) / 2;
+        final int depth = cell.depth + 1;
+        cell.children = new Cell[] {
+                new Cell(cell.minX, cell.minY, midX, midY, depth),
+                new Cell(midX, cell.minY, cell.maxX, midY, depth),
+                new Cell(cell.minX, midY, midX, cell.maxY, depth),
+                new Cell(midX, midY, cell.maxX, cell.maxY, depth) };
+    }
+
+    /**
+     * Bilinear interpolation of the ordinate at the given index between the cell corners.
+     */
+    private static double interpolate(final double[] corners, final int ordinate,
+            final double fx, final double fy) {
+        final double ll = corners[ordinate];
+        final double lr = corners[2 + ordinate];
+        final double ul = corners[4 + ordinate];
+        final double ur = corners[6 + ordinate];
+        final double lower = ll + (lr - ll) * fx;
+        final double upper = ul + (ur - ul) * fx;
+        return lower + (upper - lower) * fy;
+    }
+
+    /**
+     * Returns the transform being approximated.
+     */
+    public MathTransform2D getExactTransform() {
+        return exact;
+    }
+
+    /**
+     * Returns the maximal interpolation error measured while building the grid, in target
+     * units. The actual error may exceed it between the test points, though for the smooth
+     * transforms this class is meant for it stays in the same order of magnitude.
+     */
+    public double getMaxError() {
+        return maxError;
+    }
+
+    /**
+     * Returns the number of cells in the grid.
+     */
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    @Override
+    public int getSourceDimensions() {
+        return 2;
+    }
+
+    @Override
+    public int getTargetDimensions() {
+        return 2;
+    }
+
+    /**
+     * Transforms a list of coordinate point ordinal values, interpolating them where the grid
+     * allows it, and using the exact transform elsewhere.
+     */
+    @Override
+    public void transform(double[] srcPts, int srcOff, final double[] dstPts, int dstOff,
+            final int numPts) throws TransformException {
+        if (srcPts == dstPts && srcOff < dstOff && srcOff + 2 * numPts > dstOff) {
+            // the destination overlaps the source after it, work on a copy
+            final double[] copy = new double[2 * numPts];
+            System.arraycopy(srcPts, srcOff, copy, 0, copy.length);
+            srcPts = copy;
+            srcOff = 0;
+        }
+        TransformException firstException = null;
+        final int upper = srcOff + 2 * numPts;
+        for (int i = srcOff; i < upper; i += 2, dstOff += 2) {
+            final double x = srcPts[i];
+            final double y = srcPts[i + 1];
+            Cell cell = root;
+            if (x >= cell.minX && x <= cell.maxX && y >= cell.minY && y <= cell.maxY) {
+                while (cell.children != null) {
+                    final double midX = (cell.minX + cell.maxX) / 2;
+                    final double midY = (cell.minY + cell.maxY) / 2;
+                    cell = cell.children[(y >= midY ? 2 : 0) + (x >= midX ? 1 : 0)];
+                }
+            } else {
+                cell = null;
+            }
+            if (cell != null && cell.corners != null) {
+                final double fx = (x - cell.minX) / (cell.maxX - cell.minX);
+                final double fy = (y - cell.minY) / (cell.maxY - cell.minY);
+                dstPts[dstOff] = interpolate(cell.corners, 0, fx, fy);
+                dstPts[dstOff + 1] = interpolate(cell.corners, 1, fx, fy);
+            } else {
+                try {
+                    exact.transform(srcPts, i, dstPts, dstOff, 1);
+                } catch (TransformException e) {
+                    dstPts[dstOff] = Double.NaN;
+                    dstPts[dstOff + 1] = Double.NaN;
+                    if (firstException == null) {
+                        firstException = e;
+                    }
+                }
+            }
+        }
+        if (firstException != null) {
+            throw firstException;
+        }
+    }
+
+    /**
+     * Returns the inverse of the exact transform.
+     */
+    @Override
+    public MathTransform2D inverse() throws NoninvertibleTransformException {
+        return exact.inverse();
+    }
+
+    /**
+     * Returns {@code true} if the object is an approximation of the same transform, over the
+     * same domain, with the same grid.
+     */
+    @Override
+    public boolean equals(final Object object) {
+        if (object == this) {
+            return true;
+        }
+        if (!(object instanceof ApproximateTransform2D)) {
+            return false;
+        }
+        final ApproximateTransform2D that = (ApproximateTransform2D) object;
+        return exact.equals(that.exact) && root.minX == that.root.minX
+                && root.minY == that.root.minY && root.maxX == that.root.maxX
+                && root.maxY == that.root.maxY && cellCount == that.cellCount
+                && maxError == that.maxError;
+    }
+
+    @Override
+    public int hashCode() {
+        return exact.hashCode() ^ cellCount;
+    }
+
+    @Override
+    public String toString() {
+        return "ApproximateTransform2D[cells=" + cellCount + ", exactCells=" + exactCellCount
+                + ", maxError=" + maxError + "] of " + exact;
+    }
+}
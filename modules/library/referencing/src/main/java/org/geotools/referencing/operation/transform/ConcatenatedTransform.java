@@ -71,6 +71,14 @@ public class ConcatenatedTransform extends AbstractMathTransform implements Seri
      */
     private static final int TEMPORARY_ARRAY_LENGTH = 256;
 
+    /**
+     * The number of points given to both steps before to move to the next points, when the
+     * transformation is performed without intermediate buffer. Keeping this number small
+     * allows the second step to read the output of the first step from the processor cache,
+     * instead of walking twice through the whole array.
+     */
+    static final int BLOCK_SIZE = 256;
+
     /**
      * The first math transform.
      */
@@ -437,8 +445,12 @@ public class ConcatenatedTransform extends AbstractMathTransform implements Seri
          * inconditionnaly in ConcatenatedTransformDirect.
          */
         if (intermDim <= targetDim) {
-            transform1.transform(srcPts, srcOff, dstPts, dstOff, numPts);
-            transform2.transform(dstPts, dstOff, dstPts, dstOff, numPts);
+            if (srcPts != dstPts) {
+                transformByBlocks(srcPts, srcOff, dstPts, dstOff, numPts);
+            } else {
+                transform1.transform(srcPts, srcOff, dstPts, dstOff, numPts);
+                transform2.transform(dstPts, dstOff, dstPts, dstOff, numPts);
+            }
             return;
         }
         if (numPts <= 0) {
@@ -469,6 +481,56 @@ public class ConcatenatedTransform extends AbstractMathTransform implements Seri
         } while (numPts != 0);
     }
 
+    /**
+     * Transforms a list of coordinate point ordinal values without intermediate buffer,
+     * applying both steps to a block of {@value #BLOCK_SIZE} points before to move to the
+     * next block. The intermediate points are stored in the destination array, so the
+     * transfert dimension must not be greater than the target dimension. The caller must
+     * ensure that the source points are not overwritten before they are read, which is
+     * always the case if the source and destination arrays are not the same.
+     * <p>
+     * If the first step fails on a block, the second step is still applied to it and the
+     * remaining blocks are still transformed, the first exception being rethrown at the end.
+     * Steps that set the non-transformable points to {@link Double#NaN} and continue, like
+     * the map projections, thus give {@code NaN} for the failed points only, the other points
+     * of the block being fully transformed. Points left untouched by a failing first step
+     * have unspecified values.
+     */
+    final void transformByBlocks(final double[] srcPts, int srcOff,
+                                 final double[] dstPts, int dstOff, int numPts)
+            throws TransformException
+    {
+        final int sourceDim = getSourceDimensions();
+        final int targetDim = getTargetDimensions();
+        TransformException firstException = null;
+        while (numPts > 0) {
+            final int n = Math.min(numPts, BLOCK_SIZE);
+            TransformException exception = null;
+            try {
+                transform1.transform(srcPts, srcOff, dstPts, dstOff, n);
+            } catch (TransformException e) {
+                exception = e;
+            }
+            try {
+                // run even if the first step failed, so that its NaNs propagate
+                transform2.transform(dstPts, dstOff, dstPts, dstOff, n);
+            } catch (TransformException e) {
+                if (exception == null) {
+                    exception = e;
+                }
+            }
+            if (exception != null && firstException == null) {
+                firstException = exception;
+            }
+            srcOff += n * sourceDim;
+            dstOff += n * targetDim;
+            numPts -= n;
+        }
+        if (firstException != null) {
+            throw firstException;
+        }
+    }
+
     /**
      * Transforms a list of coordinate point ordinal values. The source points are first copied
      * in a temporary array of type {@code double[]}, transformed by {@link #transform1} first,
@@ -69,7 +69,9 @@ class ConcatenatedTransformDirect extends ConcatenatedTransform {
     }
 
     /**
-     * Transforms a list of coordinate point ordinal values.
+     * Transforms a list of coordinate point ordinal values. Both steps are applied on
+     * small blocks of points, unless the source and destination regions overlap in a way
+     * that would overwrite source points before they are read.
      */
     @Override
     public void transform(final double[] srcPts, final int srcOff,
@@ -77,8 +79,14 @@ class ConcatenatedTransformDirect extends ConcatenatedTransform {
             throws TransformException
     {
         assert isValid();
-        transform1.transform(srcPts, srcOff, dstPts, dstOff, numPts);
-        transform2.transform(dstPts, dstOff, dstPts, dstOff, numPts);
+        if (srcPts == dstPts && srcOff < dstOff &&
+                srcOff + numPts * getSourceDimensions() > dstOff)
+        {
+            transform1.transform(srcPts, srcOff, dstPts, dstOff, numPts);
+            transform2.transform(dstPts, dstOff, dstPts, dstOff, numPts);
+            return;
+        }
+        transformByBlocks(srcPts, srcOff, dstPts, dstOff, numPts);
     }
 
     // Do NOT override the transform(float[]...) version because we really need to use an
@@ -33,6 +33,7 @@ import org.geotools.referencing.NamedIdentifier;
 import org.geotools.referencing.ReferencingFactoryFinder;
 import org.geotools.referencing.factory.IdentifiedObjectSet;
 import org.geotools.referencing.factory.gridshift.GridShiftLocator;
+import org.geotools.referencing.factory.gridshift.NTv2Grid;
 import org.geotools.referencing.factory.gridshift.NTv2GridShiftFactory;
 import org.geotools.referencing.operation.MathTransformProvider;
 import org.geotools.util.Utilities;
@@ -50,9 +51,6 @@ import org.opengis.referencing.operation.MathTransform2D;
 import org.opengis.referencing.operation.TransformException;
 import org.opengis.referencing.operation.Transformation;
 
-import au.com.objectix.jgridshift.GridShift;
-import au.com.objectix.jgridshift.GridShiftFile;
-
 /**
  * The "<cite>NTv2</cite>" coordinate transformation method (EPSG:9615).
  * <p>
@@ -82,9 +80,9 @@ public class NTv2Transform extends AbstractMathTransform implements MathTransfor
     private URL gridLocation = null;
     
     /**
-     * The grid shift to be used
+     * The grid shift to be used, opened when first needed.
      */
-    private GridShiftFile gridShift; 
+    private transient NTv2Grid gridShift; 
     
     /**
      * The factory that loads the grid shift files
@@ -246,42 +244,36 @@ public class NTv2Transform extends AbstractMathTransform implements MathTransfor
     private void bidirectionalTransform(double[] srcPts, int srcOff, double[] dstPts,
             int dstOff, int numPts, boolean forward) throws TransformException {
 
-        boolean shifted;
-        
-        if (gridShift == null) { // Create grid when first needed.
+        NTv2Grid grid = gridShift;
+        if (grid == null) { // Open grid when first needed.
             try {
-                gridShift = FACTORY.createNTv2Grid(gridLocation);
+                grid = FACTORY.openNTv2Grid(gridLocation);
             } catch (FactoryException e) {
                 throw new TransformException("NTv2 Grid " + gridLocation +
                         " Could not be created", e);
             }
+            gridShift = grid;
         }
         
-        try {
-            GridShift shift = new GridShift();
-            while(--numPts >= 0) {
-                shift.setLonPositiveEastDegrees(srcPts[srcOff++]);
-                shift.setLatDegrees(srcPts[srcOff++]);
-                if (forward) {
-                    shifted = gridShift.gridShiftForward(shift);
-                } else {
-                    shifted = gridShift.gridShiftReverse(shift);
-                }
-                if (shifted) {
-                    dstPts[dstOff++]=shift.getShiftedLonPositiveEastDegrees();
-                    dstPts[dstOff++]=shift.getShiftedLatDegrees();
-                } else {
-                    if(LOGGER.isLoggable(Level.FINE)) {
-                        LOGGER.log(Level.FINE, "Point (" + srcPts[srcOff-2] + ", " + srcPts[srcOff-1] +
-                                ") is not covered by '" + this.grid + "' NTv2 grid," +
-                		    " it will not be shifted.");
-                    }
-                    dstPts[dstOff++]=srcPts[srcOff-2];
-                    dstPts[dstOff++]=srcPts[srcOff-1];
-                }
+        final double[] point = new double[2];
+        final double[] shift = new double[2];
+        while(--numPts >= 0) {
+            point[0] = srcPts[srcOff++];
+            point[1] = srcPts[srcOff++];
+            final boolean shifted;
+            if (forward) {
+                shifted = grid.gridShiftForward(point, shift);
+            } else {
+                shifted = grid.gridShiftReverse(point, shift);
+            }
+            if (!shifted && LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.log(Level.FINE, "Point (" + point[0] + ", " + point[1] +
+                        ") is not covered by '" + this.grid + "' NTv2 grid," +
+                        " it will not be shifted.");
             }
-        } catch (IOException e) {
-            throw new TransformException(e.getLocalizedMessage(), e);
+            // a point that is not shifted is left unchanged
+            dstPts[dstOff++] = point[0];
+            dstPts[dstOff++] = point[1];
         }
     }
 
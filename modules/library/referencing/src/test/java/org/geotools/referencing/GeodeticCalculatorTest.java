@@ -20,6 +20,9 @@ import java.awt.Shape;
 import java.awt.geom.IllegalPathStateException;
 import java.awt.geom.PathIterator;
 import java.awt.geom.Point2D;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import javax.measure.unit.SI;
 
 import org.opengis.referencing.FactoryException;
@@ -204,4 +207,57 @@ public final class GeodeticCalculatorTest {
         assertEquals(0.0, calculator.getAzimuth(), 0.0);
         assertEquals(1.0001966E7, calculator.getOrthodromicDistance(), 1);
     }
+
+    /**
+     * Tests that the batch methods give the same results than the single pair methods.
+     */
+    @Test
+    public void testBatch() throws Exception {
+        final GeodeticCalculator calculator = new GeodeticCalculator();
+        final Random random = new Random(42);
+        final int n = 50;
+        final double[] starts = new double[2*n];
+        final double[] destinations = new double[2*n];
+        for (int i=0; i<2*n; i+=2) {
+            starts      [i]   = random.nextDouble()*360 - 180;
+            starts      [i+1] = random.nextDouble()*170 - 85;
+            destinations[i]   = random.nextDouble()*360 - 180;
+            destinations[i+1] = random.nextDouble()*170 - 85;
+        }
+        destinations[0] = starts[0]; // along a meridian
+
+        final double[] distances = new double[n];
+        final double[] azimuths  = new double[n];
+        calculator.getOrthodromicDistances(starts, 0, destinations, 0, distances, azimuths, 0, n);
+        for (int i=0; i<n; i++) {
+            calculator.setStartingGeographicPoint(starts[2*i], starts[2*i+1]);
+            calculator.setDestinationGeographicPoint(destinations[2*i], destinations[2*i+1]);
+            assertEquals(calculator.getOrthodromicDistance(), distances[i], 1E-6);
+            assertEquals(calculator.getAzimuth(), azimuths[i], 1E-9);
+        }
+
+        // one to many, and the matrix with and without an executor
+        final double[] row = new double[n];
+        final double[] matrix = new double[n*n];
+        final double[] parallel = new double[n*n];
+        calculator.getOrthodromicDistanceMatrix(starts, n, destinations, n, matrix, null, null);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            calculator.getOrthodromicDistanceMatrix(starts, n, destinations, n, parallel, null, executor);
+        } finally {
+            executor.shutdown();
+        }
+        assertArrayEquals(matrix, parallel, 0);
+        for (int i=0; i<n; i++) {
+            calculator.getOrthodromicDistances(starts[2*i], starts[2*i+1], destinations, 0,
+                    row, null, 0, n);
+            calculator.setStartingGeographicPoint(starts[2*i], starts[2*i+1]);
+            for (int j=0; j<n; j++) {
+                calculator.setDestinationGeographicPoint(destinations[2*j], destinations[2*j+1]);
+                final double expected = calculator.getOrthodromicDistance();
+                assertEquals(expected, row[j], 1E-6);
+                assertEquals(expected, matrix[i*n + j], 1E-6);
+            }
+        }
+    }
 }
@@ -0,0 +1,98 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2013, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.referencing.factory.epsg;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.geotools.referencing.CRS;
+import org.geotools.referencing.crs.DefaultGeographicCRS;
+import org.junit.Test;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+
+
+/**
+ * Tests the {@link LookupIndex} fingerprints and persistence.
+ *
+ * @source $URL$
+ */
+public class LookupIndexTest {
+
+    static final String UTM_31N = "PROJCS[\"WGS 84 / UTM zone 31N\","
+            + "GEOGCS[\"WGS 84\",DATUM[\"WGS_1984\",SPHEROID[\"WGS 84\",6378137,298.257223563]],"
+            + "PRIMEM[\"Greenwich\",0],UNIT[\"degree\",0.0174532925199433]],"
+            + "PROJECTION[\"Transverse_Mercator\"],PARAMETER[\"latitude_of_origin\",0],"
+            + "PARAMETER[\"central_meridian\",%s],PARAMETER[\"scale_factor\",0.9996],"
+            + "PARAMETER[\"false_easting\",500000],PARAMETER[\"false_northing\",0],"
+            + "UNIT[\"metre\",1]]";
+
+    @Test
+    public void testMetadataIgnored() throws Exception {
+        CoordinateReferenceSystem wkt = CRS.parseWKT("GEOGCS[\"Whatever\","
+                + "DATUM[\"Some datum\",SPHEROID[\"Some ellipsoid\",6378137,298.257223563]],"
+                + "PRIMEM[\"Greenwich\",0],UNIT[\"degree\",0.0174532925199433]]");
+        assertEquals(LookupIndex.fingerprint(DefaultGeographicCRS.WGS84),
+                LookupIndex.fingerprint(wkt));
+    }
+
+    @Test
+    public void testProjection() throws Exception {
+        CoordinateReferenceSystem zone31 = CRS.parseWKT(String.format(UTM_31N, "3"));
+        CoordinateReferenceSystem renamed = CRS.parseWKT(String.format(UTM_31N, "3")
+                .replace("WGS 84 / UTM zone 31N", "My UTM"));
+        CoordinateReferenceSystem zone32 = CRS.parseWKT(String.format(UTM_31N, "9"));
+        assertEquals(LookupIndex.fingerprint(zone31), LookupIndex.fingerprint(renamed));
+        assertFalse(LookupIndex.fingerprint(zone31).equals(LookupIndex.fingerprint(zone32)));
+        assertFalse(LookupIndex.fingerprint(zone31).equals(
+                LookupIndex.fingerprint(DefaultGeographicCRS.WGS84)));
+    }
+
+    @Test
+    public void testSaveLoad() throws Exception {
+        CoordinateReferenceSystem zone31 = CRS.parseWKT(String.format(UTM_31N, "3"));
+        Map<String, Set<String>> codes = new HashMap<String, Set<String>>();
+        codes.put(LookupIndex.fingerprint(DefaultGeographicCRS.WGS84),
+                new LinkedHashSet<String>(Arrays.asList("4326", "4030")));
+        codes.put(LookupIndex.fingerprint(zone31), Collections.singleton("32631"));
+        LookupIndex index = new LookupIndex(codes);
+
+        File file = File.createTempFile("lookup", ".properties");
+        try {
+            file.delete();
+            assertNull(LookupIndex.load(file));
+
+            index.save(file);
+            LookupIndex loaded = LookupIndex.load(file);
+            assertNotNull(loaded);
+            assertEquals(new HashSet<String>(Arrays.asList("4326", "4030")),
+                    loaded.getCodeCandidates(DefaultGeographicCRS.WGS84));
+            assertEquals(Collections.singleton("32631"), loaded.getCodeCandidates(zone31));
+            assertTrue(loaded.getCodeCandidates(
+                    CRS.parseWKT(String.format(UTM_31N, "9"))).isEmpty());
+        } finally {
+            file.delete();
+        }
+    }
+}
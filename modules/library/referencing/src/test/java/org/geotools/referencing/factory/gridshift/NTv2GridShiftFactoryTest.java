@@ -18,12 +18,17 @@ package org.geotools.referencing.factory.gridshift;
 
 import static org.junit.Assert.*;
 
+import java.io.File;
+import java.io.FileOutputStream;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.opengis.referencing.FactoryException;
 
+import au.com.objectix.jgridshift.GridShift;
 import au.com.objectix.jgridshift.GridShiftFile;
 
 
@@ -108,4 +113,137 @@ public class NTv2GridShiftFactoryTest {
         assertTrue(grid.isLoaded());
     }
 
+    /**
+     * Test method for {@link NTv2GridShiftFactory#openNTv2Grid(URL)}.
+     */
+    @Test
+    public void testOpenNTv2Grid() throws Exception {
+        try {
+            factory.openNTv2Grid(MALFORMED_GRID);
+            fail("Malformed grid should not be opened");
+        } catch (FactoryException e) {
+            // expected
+        }
+
+        NTv2Grid grid = factory.openNTv2Grid(TEST_GRID);
+        assertTrue(grid.isMapped());
+        assertEquals(1, grid.getTopLevelCount());
+        // opened grids are shared between factories
+        assertSame(grid, new NTv2GridShiftFactory().openNTv2Grid(TEST_GRID));
+
+        // same results than jgridshift
+        GridShift shift = new GridShift();
+        shift.setLonPositiveEastDegrees(3.084896111);
+        shift.setLatDegrees(39.592654167);
+        assertTrue(factory.createNTv2Grid(TEST_GRID).gridShiftForward(shift));
+        double[] point = { 3.084896111, 39.592654167 };
+        double[] work = new double[2];
+        assertTrue(grid.gridShiftForward(point, work));
+        assertEquals(shift.getShiftedLonPositiveEastDegrees(), point[0], 1E-9);
+        assertEquals(shift.getShiftedLatDegrees(), point[1], 1E-9);
+
+        assertTrue(grid.gridShiftReverse(point, work));
+        assertEquals(3.084896111, point[0], 1E-8);
+        assertEquals(39.592654167, point[1], 1E-8);
+
+        // outside of the grid
+        point = new double[] { 50, 50 };
+        assertFalse(grid.gridShiftForward(point, work));
+        assertEquals(50, point[0], 0);
+    }
+
+    /**
+     * Test method for the sub-grid lookup of {@link NTv2Grid}, the deepest sub-grid containing
+     * the point must be used.
+     */
+    @Test
+    public void testSubGrids() throws Exception {
+        // parent covering 0..2 degrees (longitudes positive west), shifting by 1 second,
+        // child covering 0..1 degrees, shifting by 2 seconds
+        ByteBuffer buffer = ByteBuffer.allocate(16 * (11 + 11 + 9 + 11 + 9)).order(
+                ByteOrder.LITTLE_ENDIAN);
+        putRecord(buffer, "NUM_OREC", 11);
+        putRecord(buffer, "NUM_SREC", 11);
+        putRecord(buffer, "NUM_FILE", 2);
+        putRecord(buffer, "GS_TYPE", "SECONDS");
+        for (String name : new String[] { "VERSION", "SYSTEM_F", "SYSTEM_T", "MAJOR_F",
+                "MINOR_F", "MAJOR_T", "MINOR_T" }) {
+            putRecord(buffer, name, "");
+        }
+        putSubGrid(buffer, "CHILD", "PARENT", 3600, 1800, 2);
+        putSubGrid(buffer, "PARENT", "NONE", 7200, 3600, 1);
+        File file = File.createTempFile("subgrids", ".gsb");
+        try {
+            FileOutputStream out = new FileOutputStream(file);
+            try {
+                out.write(buffer.array());
+            } finally {
+                out.close();
+            }
+            NTv2Grid grid = NTv2Grid.open(file.toURI().toURL());
+            assertEquals(1, grid.getTopLevelCount());
+            double[] work = new double[2];
+
+            // inside the child
+            double[] point = { -0.5, 0.5 };
+            assertTrue(grid.gridShiftForward(point, work));
+            assertEquals(-0.5 - 2 / 3600d, point[0], 1E-12);
+            assertEquals(0.5 + 2 / 3600d, point[1], 1E-12);
+            assertTrue(grid.gridShiftReverse(point, work));
+            assertEquals(-0.5, point[0], 1E-12);
+            assertEquals(0.5, point[1], 1E-12);
+
+            // inside the parent only
+            point = new double[] { -1.5, 1.5 };
+            assertTrue(grid.gridShiftForward(point, work));
+            assertEquals(-1.5 - 1 / 3600d, point[0], 1E-12);
+            assertEquals(1.5 + 1 / 3600d, point[1], 1E-12);
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static void putName(ByteBuffer buffer, String name) {
+        for (int i = 0; i < 8; i++) {
+            buffer.put((byte) (i < name.length() ? name.charAt(i) : ' '));
+        }
+    }
+
+    private static void putRecord(ByteBuffer buffer, String name, int value) {
+        putName(buffer, name);
+        buffer.putInt(value).putInt(0);
+    }
+
+    private static void putRecord(ByteBuffer buffer, String name, String value) {
+        putName(buffer, name);
+        putName(buffer, value);
+    }
+
+    private static void putRecord(ByteBuffer buffer, String name, double value) {
+        putName(buffer, name);
+        buffer.putDouble(value);
+    }
+
+    /**
+     * Writes a square sub-grid with its origin at 0, 0 and a constant shift, in seconds.
+     */
+    private static void putSubGrid(ByteBuffer buffer, String name, String parent, double size,
+            double increment, float shift) {
+        int nodes = (int) (size / increment) + 1;
+        putRecord(buffer, "SUB_NAME", name);
+        putRecord(buffer, "PARENT", parent);
+        putRecord(buffer, "CREATED", "");
+        putRecord(buffer, "UPDATED", "");
+        putRecord(buffer, "S_LAT", 0d);
+        putRecord(buffer, "N_LAT", size);
+        putRecord(buffer, "E_LONG", 0d);
+        putRecord(buffer, "W_LONG", size);
+        putRecord(buffer, "LAT_INC", increment);
+        putRecord(buffer, "LONG_INC", increment);
+        putRecord(buffer, "GS_COUNT", nodes * nodes);
+        for (int i = 0; i < nodes * nodes; i++) {
+            buffer.putFloat(shift).putFloat(shift).putFloat(0).putFloat(0);
+        }
+    }
+
 }
@@ -0,0 +1,197 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2013, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.referencing.operation.projection;
+
+import static org.junit.Assert.*;
+
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Point2D;
+import java.util.Random;
+
+import org.geotools.referencing.ReferencingFactoryFinder;
+import org.geotools.referencing.operation.transform.ConcatenatedTransform;
+import org.geotools.referencing.operation.transform.ProjectiveTransform;
+import org.junit.Test;
+import org.opengis.parameter.ParameterValueGroup;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.MathTransform2D;
+import org.opengis.referencing.operation.MathTransformFactory;
+import org.opengis.referencing.operation.TransformException;
+
+
+/**
+ * Checks that the array {@code transform} methods of map projections give the same results
+ * than transforming the points one by one.
+ *
+ * @source $URL$
+ */
+public final class BulkTransformTest {
+
+    /**
+     * More than one block of points, and not a multiple of the block size.
+     */
+    private static final int NUM_PTS = 1000;
+
+    private static MapProjection create(String name) throws Exception {
+        MathTransformFactory mtFactory = ReferencingFactoryFinder.getMathTransformFactory(null);
+        ParameterValueGroup parameters = mtFactory.getDefaultParameters(name);
+        parameters.parameter("semi_major").setValue(6378137.0);
+        parameters.parameter("semi_minor").setValue(6356752.314245179);
+        parameters.parameter("central_meridian").setValue(9.0);
+        if (name.equals("Lambert_Conformal_Conic_2SP")) {
+            parameters.parameter("standard_parallel_1").setValue(45.0);
+            parameters.parameter("standard_parallel_2").setValue(50.0);
+            parameters.parameter("latitude_of_origin").setValue(40.0);
+        }
+        return (MapProjection) mtFactory.createParameterizedTransform(parameters);
+    }
+
+    private static double[] coordinates(double minLon, double maxLon, double minLat, double maxLat) {
+        final Random random = new Random(12345);
+        final double[] pts = new double[NUM_PTS * 2];
+        for (int i = 0; i < pts.length; i += 2) {
+            pts[i] = minLon + random.nextDouble() * (maxLon - minLon);
+            pts[i + 1] = minLat + random.nextDouble() * (maxLat - minLat);
+        }
+        return pts;
+    }
+
+    private static void assertSameAsPointwise(MathTransform2D mt, double[] src)
+            throws TransformException {
+        final double[] expected = new double[src.length];
+        final Point2D.Double point = new Point2D.Double();
+        for (int i = 0; i < src.length; i += 2) {
+            point.setLocation(src[i], src[i + 1]);
+            mt.transform(point, point);
+            expected[i] = point.x;
+            expected[i + 1] = point.y;
+        }
+        final double[] actual = new double[src.length];
+        mt.transform(src, 0, actual, 0, NUM_PTS);
+        assertArrayEquals(expected, actual, 1E-6);
+
+        // in place, with the destination overlapping after the source
+        final double[] shifted = new double[src.length + 6];
+        System.arraycopy(src, 0, shifted, 0, src.length);
+        mt.transform(shifted, 0, shifted, 6, NUM_PTS);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], shifted[i + 6], 1E-6);
+        }
+
+        // float arrays
+        final float[] srcFloat = new float[src.length];
+        for (int i = 0; i < src.length; i++) {
+            srcFloat[i] = (float) src[i];
+        }
+        final float[] dstFloat = new float[src.length];
+        mt.transform(srcFloat, 0, dstFloat, 0, NUM_PTS);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], dstFloat[i], Math.abs(expected[i]) * 1E-6 + 1);
+        }
+    }
+
+    @Test
+    public void testTransverseMercator() throws Exception {
+        MapProjection mt = create("Transverse_Mercator");
+        double[] src = coordinates(3, 15, -60, 60);
+        assertSameAsPointwise(mt, src);
+        double[] projected = new double[src.length];
+        mt.transform(src, 0, projected, 0, NUM_PTS);
+        assertSameAsPointwise(mt.inverse(), projected);
+    }
+
+    @Test
+    public void testMercator() throws Exception {
+        MapProjection mt = create("Mercator_1SP");
+        double[] src = coordinates(-170, 170, -80, 80);
+        assertSameAsPointwise(mt, src);
+        double[] projected = new double[src.length];
+        mt.transform(src, 0, projected, 0, NUM_PTS);
+        assertSameAsPointwise(mt.inverse(), projected);
+    }
+
+    @Test
+    public void testLambertConformal() throws Exception {
+        MapProjection mt = create("Lambert_Conformal_Conic_2SP");
+        double[] src = coordinates(-10, 30, 30, 70);
+        assertSameAsPointwise(mt, src);
+        double[] projected = new double[src.length];
+        mt.transform(src, 0, projected, 0, NUM_PTS);
+        assertSameAsPointwise(mt.inverse(), projected);
+    }
+
+    @Test
+    public void testConcatenated() throws Exception {
+        // axis swap before the projection, unit change after it
+        MathTransform swap = ProjectiveTransform.create(new AffineTransform(0, 1, 1, 0, 0, 0));
+        MathTransform feet = ProjectiveTransform.create(AffineTransform.getScaleInstance(
+                1 / 0.3048, 1 / 0.3048));
+        MathTransform mt = ConcatenatedTransform.create(
+                ConcatenatedTransform.create(swap, create("Transverse_Mercator")), feet);
+        assertSameAsPointwise((MathTransform2D) mt, coordinates(-60, 60, 3, 15));
+    }
+
+    @Test
+    public void testFailuresDoNotStopTransform() throws Exception {
+        MapProjection mt = create("Mercator_1SP");
+        double[] src = coordinates(-170, 170, -80, 80);
+        src[10] = 0;
+        src[11] = 90; // the pole can't be projected
+        double[] dst = new double[src.length];
+        try {
+            mt.transform(src, 0, dst, 0, NUM_PTS);
+            fail("Expected a ProjectionException");
+        } catch (ProjectionException e) {
+            // expected
+        }
+        assertTrue(Double.isNaN(dst[10]));
+        assertTrue(Double.isNaN(dst[11]));
+        assertFalse(Double.isNaN(dst[dst.length - 1]));
+    }
+
+    @Test
+    public void testConcatenatedFailureInsideBlock() throws Exception {
+        MapProjection projection = create("Mercator_1SP");
+        MathTransform feet = ProjectiveTransform.create(AffineTransform.getScaleInstance(
+                1 / 0.3048, 1 / 0.3048));
+        MathTransform2D mt = (MathTransform2D) ConcatenatedTransform.create(projection, feet);
+        double[] src = coordinates(-170, 170, -80, 80);
+        src[10] = 0;
+        src[11] = 90; // the pole can't be projected
+        double[] dst = new double[src.length];
+        try {
+            mt.transform(src, 0, dst, 0, NUM_PTS);
+            fail("Expected a ProjectionException");
+        } catch (ProjectionException e) {
+            // expected
+        }
+        assertTrue(Double.isNaN(dst[10]));
+        assertTrue(Double.isNaN(dst[11]));
+        // the other points of the failed block went through both steps
+        final Point2D.Double point = new Point2D.Double();
+        for (int i = 0; i < 20; i += 2) {
+            if (i == 10) {
+                continue;
+            }
+            point.setLocation(src[i], src[i + 1]);
+            mt.transform(point, point);
+            assertEquals(point.x, dst[i], 1E-6);
+            assertEquals(point.y, dst[i + 1], 1E-6);
+        }
+        assertFalse(Double.isNaN(dst[dst.length - 1]));
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2013, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.referencing.operation.transform;
+
+import static org.junit.Assert.*;
+
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.util.Random;
+
+import org.geotools.referencing.ReferencingFactoryFinder;
+import org.junit.Test;
+import org.opengis.parameter.ParameterValueGroup;
+import org.opengis.referencing.operation.MathTransform2D;
+import org.opengis.referencing.operation.MathTransformFactory;
+
+
+/**
+ * Tests {@link ApproximateTransform2D}.
+ *
+ * @source $URL$
+ */
+public final class ApproximateTransform2DTest {
+
+    private static MathTransform2D transverseMercator() throws Exception {
+        MathTransformFactory mtFactory = ReferencingFactoryFinder.getMathTransformFactory(null);
+        ParameterValueGroup parameters = mtFactory.getDefaultParameters("Transverse_Mercator");
+        parameters.parameter("semi_major").setValue(6378137.0);
+        parameters.parameter("semi_minor").setValue(6356752.314245179);
+        parameters.parameter("central_meridian").setValue(9.0);
+        return (MathTransform2D) mtFactory.createParameterizedTransform(parameters);
+    }
+
+    @Test
+    public void testWithinTolerance() throws Exception {
+        final MathTransform2D exact = transverseMercator();
+        final Rectangle2D domain = new Rectangle2D.Double(3, 40, 12, 20);
+        final double tolerance = 1; // one metre
+        final MathTransform2D approximate = ApproximateTransform2D.create(exact, domain, tolerance);
+        assertTrue(approximate instanceof ApproximateTransform2D);
+        assertTrue(((ApproximateTransform2D) approximate).getCellCount() > 1);
+
+        final Random random = new Random(12345);
+        final int numPts = 2000;
+        final double[] src = new double[numPts * 2];
+        for (int i = 0; i < src.length; i += 2) {
+            // some points fall outside of the domain and must be transformed exactly
+            src[i] = 0 + random.nextDouble() * 18;
+            src[i + 1] = 38 + random.nextDouble() * 24;
+        }
+        final double[] expected = new double[src.length];
+        final double[] actual = new double[src.length];
+        exact.transform(src, 0, expected, 0, numPts);
+        approximate.transform(src, 0, actual, 0, numPts);
+        for (int i = 0; i < src.length; i += 2) {
+            final double error = Math.hypot(expected[i] - actual[i],
+                    expected[i + 1] - actual[i + 1]);
+            assertTrue("Error " + error + " at " + src[i] + "," + src[i + 1],
+                    error <= 2 * tolerance);
+        }
+
+        // in place, with the destination overlapping after the source
+        final double[] shifted = new double[src.length + 2];
+        System.arraycopy(src, 0, shifted, 0, src.length);
+        approximate.transform(shifted, 0, shifted, 2, numPts);
+        for (int i = 0; i < actual.length; i++) {
+            assertEquals(actual[i], shifted[i + 2], 1E-9);
+        }
+    }
+
+    @Test
+    public void testInverse() throws Exception {
+        final MathTransform2D exact = transverseMercator();
+        final MathTransform2D approximate = ApproximateTransform2D.create(exact,
+                new Rectangle2D.Double(3, 40, 12, 20), 1);
+        assertEquals(exact.inverse(), approximate.inverse());
+    }
+
+    @Test
+    public void testLinearNotApproximated() throws Exception {
+        final MathTransform2D affine = (MathTransform2D) ProjectiveTransform.create(
+                AffineTransform.getScaleInstance(2, 3));
+        assertSame(affine, ApproximateTransform2D.create(affine,
+                new Rectangle2D.Double(0, 0, 10, 10), 1));
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2013, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.renderer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Timings and counters collected during a single rendering, see {@link RenderMetricsListener}.
+ * <p>
+ * Times are accumulated in nanoseconds and reported in milliseconds. The metrics are updated
+ * concurrently by the threads involved in the rendering, but are meant to be read only once the
+ * rendering is complete.
+ * </p>
+ *
+ * @source $URL$
+ */
+public class RenderMetrics {
+
+    private final List<LayerMetrics> layers = Collections
+            .synchronizedList(new ArrayList<LayerMetrics>());
+
+    private final AtomicLong labelTime = new AtomicLong();
+
+    private final AtomicLong totalTime = new AtomicLong();
+
+    private static final Comparator<LayerMetrics> POSITION_COMPARATOR = new Comparator<LayerMetrics>() {
+
+        public int compare(LayerMetrics m1, LayerMetrics m2) {
+            return m1.position < m2.position ? -1 : (m1.position == m2.position ? 0 : 1);
+        }
+    };
+
+    /**
+     * Registers and returns the metrics of a new layer
+     *
+     * @param position
+     *            the position of the layer in the map, used to sort the layer metrics (layers
+     *            can be registered out of order when they are rendered in parallel)
+     * @param layerId
+     *            the layer identifier (in StreamingRenderer, the position of the layer in the map)
+     * @param title
+     *            the layer title, if any
+     */
+    public LayerMetrics addLayer(int position, String layerId, String title) {
+        LayerMetrics metrics = new LayerMetrics(position, layerId, title);
+        layers.add(metrics);
+        return metrics;
+    }
+
+    /**
+     * The metrics of the rendered layers, sorted by their position in the map
+     */
+    public List<LayerMetrics> getLayers() {
+        List<LayerMetrics> result;
+        synchronized (layers) {
+            result = new ArrayList<LayerMetrics>(layers);
+        }
+        // stable sort, layers sharing the same position stay in registration order
+        Collections.sort(result, POSITION_COMPARATOR);
+        return result;
+    }
+
+    public void addLabelTime(long nanos) {
+        labelTime.addAndGet(nanos);
+    }
+
+    /**
+     * The time spent placing and painting the labels, in milliseconds
+     */
+    public long getLabelTime() {
+        return toMillis(labelTime);
+    }
+
+    public void addTotalTime(long nanos) {
+        totalTime.addAndGet(nanos);
+    }
+
+    /**
+     * The overall rendering time, in milliseconds
+     */
+    public long getTotalTime() {
+        return toMillis(totalTime);
+    }
+
+    static long toMillis(AtomicLong nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos.get());
+    }
+
+    @Override
+    public String toString() {
+        return "RenderMetrics[total=" + getTotalTime() + "ms, labels=" + getLabelTime()
+                + "ms, layers=" + getLayers() + "]";
+    }
+
+    /**
+     * Timings and counters of a single layer
+     */
+    public static class LayerMetrics {
+
+        private final int position;
+
+        private final String layerId;
+
+        private final String title;
+
+        private final AtomicLong queryTime = new AtomicLong();
+
+        private final AtomicLong featuresRead = new AtomicLong();
+
+        private final AtomicLong featuresSkipped = new AtomicLong();
+
+        private final AtomicLong geometriesSkipped = new AtomicLong();
+
+        private final AtomicLong geometriesGeneralized = new AtomicLong();
+
+        private final AtomicLong transformTime = new AtomicLong();
+
+        private final AtomicLong paintTime = new AtomicLong();
+
+        private final AtomicLong rasterReadTime = new AtomicLong();
+
+        LayerMetrics(int position, String layerId, String title) {
+            this.position = position;
+            this.layerId = layerId;
+            this.title = title;
+        }
+
+        /**
+         * The position of the layer in the map
+         */
+        public int getPosition() {
+            return position;
+        }
+
+        public String getLayerId() {
+            return layerId;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public void addQueryTime(long nanos) {
+            queryTime.addAndGet(nanos);
+        }
+
+        /**
+         * The time spent running the queries, in milliseconds. Only the opening of the feature
+         * iterators is timed: the time spent fetching the features while scanning them is
+         * mixed with the transformation and painting ones and is not accounted here, so for
+         * sources that stream their results lazily this is a lower bound of the actual data
+         * access time
+         */
+        public long getQueryTime() {
+            return toMillis(queryTime);
+        }
+
+        public void featureRead() {
+            featuresRead.incrementAndGet();
+        }
+
+        /**
+         * The number of features read from the data source (once per scan, the same feature
+         * might be read multiple times if the feature type styles cannot be painted in a single
+         * scan)
+         */
+        public long getFeaturesRead() {
+            return featuresRead.get();
+        }
+
+        public void featureSkipped() {
+            featuresSkipped.incrementAndGet();
+        }
+
+        /**
+         * The number of times a feature read did not match any rule of a feature type style
+         */
+        public long getFeaturesSkipped() {
+            return featuresSkipped.get();
+        }
+
+        public void geometrySkipped() {
+            geometriesSkipped.incrementAndGet();
+        }
+
+        /**
+         * The number of geometries that have not been painted because empty, outside of the
+         * display area, impossible to transform, or skipped by the screen map
+         */
+        public long getGeometriesSkipped() {
+            return geometriesSkipped.get();
+        }
+
+        public void geometryGeneralized() {
+            geometriesGeneralized.incrementAndGet();
+        }
+
+        /**
+         * The number of geometries that lost at least one point to the in memory generalization
+         * performed during the transformation to screen
+         */
+        public long getGeometriesGeneralized() {
+            return geometriesGeneralized.get();
+        }
+
+        public void addTransformTime(long nanos) {
+            transformTime.addAndGet(nanos);
+        }
+
+        /**
+         * The time spent reprojecting, generalizing and transforming the geometries to screen,
+         * in milliseconds
+         */
+        public long getTransformTime() {
+            return toMillis(transformTime);
+        }
+
+        public void addPaintTime(long nanos) {
+            paintTime.addAndGet(nanos);
+        }
+
+        /**
+         * The time spent painting the layer, rasters included, in milliseconds
+         */
+        public long getPaintTime() {
+            return toMillis(paintTime);
+        }
+
+        public void addRasterReadTime(long nanos) {
+            rasterReadTime.addAndGet(nanos);
+        }
+
+        /**
+         * The time spent reading rasters from grid coverage readers, in milliseconds
+         */
+        public long getRasterReadTime() {
+            return toMillis(rasterReadTime);
+        }
+
+        @Override
+        public String toString() {
+            return "LayerMetrics[" + layerId + (title != null ? " (" + title + ")" : "")
+                    + ", query=" + getQueryTime() + "ms, read=" + getFeaturesRead()
+                    + ", skipped=" + getFeaturesSkipped() + ", geometriesSkipped="
+                    + getGeometriesSkipped() + ", generalized=" + getGeometriesGeneralized()
+                    + ", transform=" + getTransformTime() + "ms, paint=" + getPaintTime()
+                    + "ms, rasterRead=" + getRasterReadTime() + "ms]";
+        }
+    }
+}
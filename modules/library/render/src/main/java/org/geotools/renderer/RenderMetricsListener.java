@@ -0,0 +1,39 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2013, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.renderer;
+
+/**
+ * A {@link RenderListener} that also wants to receive the {@link RenderMetrics} collected
+ * during each rendering.
+ * <p>
+ * Renderers collect metrics only when at least one of their listeners implements this interface,
+ * so that plain rendering does not pay for the timing and counting. As for other listener
+ * methods, <b>VERY LITTLE WORK</b> should be done in the listener, e.g., just handing off the
+ * metrics to a monitoring system.
+ * </p>
+ *
+ * @source $URL$
+ */
+public interface RenderMetricsListener extends RenderListener {
+
+    /**
+     * Called once the rendering is complete (or has been stopped)
+     *
+     * @param metrics
+     */
+    public void renderingCompleted(RenderMetrics metrics);
+}
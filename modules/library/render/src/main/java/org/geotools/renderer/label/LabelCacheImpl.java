@@ -159,11 +159,21 @@ public final class LabelCacheImpl implements LabelCache {
     
     private VendorOptionParser voParser = new VendorOptionParser();
 
+    private volatile LabelCacheStatistics statistics = new LabelCacheStatistics();
+
     public void enableLayer(String layerId) {
         needsOrdering = true;
         enabledLayers.add(layerId);
     }
 
+    /**
+     * Returns the statistics of the last label painting run (number of labels tried, placed,
+     * rejected, and time spent)
+     */
+    public LabelCacheStatistics getStatistics() {
+        return statistics;
+    }
+
     public LabelRenderingMode getLabelRenderingMode() {
         return labelRenderingMode;
     }
@@ -445,6 +455,21 @@ public final class LabelCacheImpl implements LabelCache {
                     + " are layers that started rendering but have not completed,"
                     + " stop() or endLayer() must be called before end() is called");
         }
+        LabelCacheStatistics stats = new LabelCacheStatistics();
+        long start = System.currentTimeMillis();
+        try {
+            paintLabels(graphics, displayArea, stats);
+        } finally {
+            stats.time = System.currentTimeMillis() - start;
+            statistics = stats;
+            if (LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.fine(stats.toString());
+            }
+        }
+    }
+
+    private void paintLabels(Graphics2D graphics, Rectangle displayArea,
+            LabelCacheStatistics stats) {
         LabelIndex glyphs = new LabelIndex();
         glyphs.reserveArea( reserved );
 
@@ -474,6 +499,7 @@ public final class LabelCacheImpl implements LabelCache {
                 return;
             
             painter.setLabel(labelItem);
+            stats.tried++;
             try {
                 // LabelCacheItem labelItem = (LabelCacheItem)
                 // labelCache.get(labelIter.next());
@@ -495,14 +521,17 @@ public final class LabelCacheImpl implements LabelCache {
                 AffineTransform tempTransform = new AffineTransform();
 
                 Geometry geom = labelItem.getGeometry();
+                boolean placed = false;
                 if ((geom instanceof Point) || (geom instanceof MultiPoint))
-                    paintPointLabel(painter, tempTransform, displayArea, glyphs);
+                    placed = paintPointLabel(painter, tempTransform, displayArea, glyphs);
                 else if (((geom instanceof LineString) && !(geom instanceof LinearRing))
                         || (geom instanceof MultiLineString))
-                    paintLineLabels(painter, tempTransform, displayArea, glyphs);
+                    placed = paintLineLabels(painter, tempTransform, displayArea, glyphs);
                 else if (geom instanceof Polygon || geom instanceof MultiPolygon
                         || geom instanceof LinearRing)
-                    paintPolygonLabel(painter, tempTransform, displayArea, glyphs);
+                    placed = paintPolygonLabel(painter, tempTransform, displayArea, glyphs);
+                if (placed)
+                    stats.placed++;
             } catch (Exception e) {
                 System.out.println("Issues painting " + labelItem.getLabel());
                 // the decimation can cause problems - we try to minimize it
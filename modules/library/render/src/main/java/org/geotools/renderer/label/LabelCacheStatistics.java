@@ -0,0 +1,66 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2013, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.renderer.label;
+
+/**
+ * Statistics about the last label placement run of a {@link LabelCacheImpl}
+ *
+ * @source $URL$
+ */
+public class LabelCacheStatistics {
+
+    int tried;
+
+    int placed;
+
+    long time;
+
+    /**
+     * The number of labels the cache tried to place
+     */
+    public int getLabelsTried() {
+        return tried;
+    }
+
+    /**
+     * The number of labels that have been painted
+     */
+    public int getLabelsPlaced() {
+        return placed;
+    }
+
+    /**
+     * The number of labels that could not be placed, because of conflicts with other labels
+     * and obstacles, or because they did not fit the labelled geometry or the display area
+     */
+    public int getLabelsRejected() {
+        return tried - placed;
+    }
+
+    /**
+     * The time spent resolving conflicts and painting the labels, in milliseconds
+     */
+    public long getTime() {
+        return time;
+    }
+
+    @Override
+    public String toString() {
+        return "LabelCacheStatistics[tried=" + tried + ", placed=" + placed + ", rejected="
+                + getLabelsRejected() + ", time=" + time + "ms]";
+    }
+}
@@ -17,15 +17,22 @@
 package org.geotools.renderer.label;
 
 import java.awt.geom.Rectangle2D;
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.vividsolutions.jts.geom.Envelope;
-import com.vividsolutions.jts.index.quadtree.Quadtree;
 
 /**
  * Stores label items and helps in finding the interferering ones, either by
  * pure overlap or within a certain distance from the specified bounds
+ * <p>
+ * Labels are indexed in a uniform grid of square cells, tuned for the screen space
+ * rectangles the label cache works with: inserting a label and checking for conflicts
+ * only touches the few cells overlapped by the label bounds. Items covering too many cells
+ * (e.g., large reserved areas) are kept in a separate list and checked one by one.
+ * </p>
  * 
  * @author Andrea Aime
  * 
@@ -36,7 +43,43 @@ import com.vividsolutions.jts.index.quadtree.Quadtree;
  */
 public class LabelIndex {
 
-    Quadtree index = new Quadtree();
+    /**
+     * The default grid cell size, in pixels
+     */
+    public static final double DEFAULT_CELL_SIZE = 64;
+
+    /**
+     * Items covering more than this number of cells are not stored in the grid
+     */
+    static final int MAX_ITEM_CELLS = 64;
+
+    final double cellSize;
+
+    final Map<Long, List<InterferenceItem>> cells = new HashMap<Long, List<InterferenceItem>>();
+
+    final List<InterferenceItem> largeItems = new ArrayList<InterferenceItem>();
+
+    int size;
+
+    /**
+     * Builds a new index using the {@link #DEFAULT_CELL_SIZE}
+     */
+    public LabelIndex() {
+        this(DEFAULT_CELL_SIZE);
+    }
+
+    /**
+     * Builds a new index with the specified cell size. Ideally the cell size should be
+     * in the same order of magnitude as the labels being indexed
+     * 
+     * @param cellSize
+     */
+    public LabelIndex(double cellSize) {
+        if (!(cellSize > 0)) {
+            throw new IllegalArgumentException("The cell size must be positive, got " + cellSize);
+        }
+        this.cellSize = cellSize;
+    }
 
     /**
      * Returns true if there is any label in the index within the specified
@@ -47,18 +90,42 @@ public class LabelIndex {
      * @param distance
      * @return
      */
-    @SuppressWarnings("unchecked")
     public boolean labelsWithinDistance(Rectangle2D bounds, double distance) {
-        if (distance < 0)
+        if (distance < 0 || size == 0)
             return false;
 
         Envelope e = toEnvelope(bounds);
         e.expandBy(distance);
-        List<InterferenceItem> results = index.query(e);
-        if (results.size() == 0)
-            return false;
-        for (Iterator<InterferenceItem> it = results.iterator(); it.hasNext();) {
-            InterferenceItem item = it.next();
+        if (intersects(largeItems, e)) {
+            return true;
+        }
+
+        final int minCol = cell(e.getMinX());
+        final int maxCol = cell(e.getMaxX());
+        final int minRow = cell(e.getMinY());
+        final int maxRow = cell(e.getMaxY());
+        if (((long) maxCol - minCol + 1) * ((long) maxRow - minRow + 1) > cells.size()) {
+            // cheaper to scan the populated cells than to look up the ones covered by the query
+            for (List<InterferenceItem> items : cells.values()) {
+                if (intersects(items, e)) {
+                    return true;
+                }
+            }
+        } else {
+            for (int row = minRow; row <= maxRow; row++) {
+                for (int col = minCol; col <= maxCol; col++) {
+                    List<InterferenceItem> items = cells.get(key(col, row));
+                    if (items != null && intersects(items, e)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean intersects(List<InterferenceItem> items, Envelope e) {
+        for (InterferenceItem item : items) {
             if (item.env.intersects(e)) {
                 return true;
             }
@@ -74,7 +141,46 @@ public class LabelIndex {
      */
     public void addLabel(LabelCacheItem item, Rectangle2D bounds) {
         Envelope e = toEnvelope(bounds);
-        index.insert(e, new InterferenceItem(e, item));
+        insert(new InterferenceItem(e, item));
+    }
+
+    /**
+     * Returns the number of items in the index
+     */
+    public int size() {
+        return size;
+    }
+
+    private void insert(InterferenceItem item) {
+        final Envelope e = item.env;
+        size++;
+        final int minCol = cell(e.getMinX());
+        final int maxCol = cell(e.getMaxX());
+        final int minRow = cell(e.getMinY());
+        final int maxRow = cell(e.getMaxY());
+        if (((long) maxCol - minCol + 1) * ((long) maxRow - minRow + 1) > MAX_ITEM_CELLS) {
+            largeItems.add(item);
+            return;
+        }
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int col = minCol; col <= maxCol; col++) {
+                Long key = key(col, row);
+                List<InterferenceItem> items = cells.get(key);
+                if (items == null) {
+                    items = new ArrayList<InterferenceItem>(4);
+                    cells.put(key, items);
+                }
+                items.add(item);
+            }
+        }
+    }
+
+    private int cell(double ordinate) {
+        return (int) Math.floor(ordinate / cellSize);
+    }
+
+    private static Long key(int col, int row) {
+        return Long.valueOf(((long) col << 32) | (row & 0xFFFFFFFFL));
     }
 
     /**
@@ -88,7 +194,7 @@ public class LabelIndex {
     }
 
     /**
-     * Simple structure stored into the quadtree (keeping the item around helps
+     * Simple structure stored into the index (keeping the item around helps
      * in debugging)
      * 
      * @author Andrea Aime
@@ -115,9 +221,7 @@ public class LabelIndex {
     public void reserveArea(List<Rectangle2D> reserved) {
         for( Rectangle2D area : reserved ){
             Envelope env = toEnvelope(area);
-            
-            InterferenceItem item = new InterferenceItem(env,null);            
-            index.insert( env, item );
+            insert(new InterferenceItem(env, null));
         }
     }
 }
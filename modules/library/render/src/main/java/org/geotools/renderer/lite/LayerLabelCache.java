@@ -0,0 +1,146 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2013, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.renderer.lite;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.geotools.geometry.jts.LiteShape2;
+import org.geotools.styling.TextSymbolizer;
+import org.geotools.util.NumberRange;
+import org.opengis.feature.Feature;
+
+/**
+ * A label cache used by the renderers painting a single layer during parallel layer
+ * rendering. The layer level calls and the labels are recorded, and replayed into the shared
+ * cache by the renderer coordinating the parallel rendering once the layer is painted, in layer
+ * order, so that the label placement does not depend on which layer completes first. The calls
+ * controlling the cache life cycle (start, end, stop, clear) are ignored, as they are issued by
+ * the coordinating renderer.
+ * <p>
+ * Each instance is meant to be used by a single layer renderer, and is not thread safe.
+ *
+ * @source $URL$
+ */
+final class LayerLabelCache implements LabelCache {
+
+    /**
+     * A recorded call to the label cache
+     */
+    interface Call {
+        void replay(LabelCache cache, Graphics2D graphics, Rectangle displayArea);
+    }
+
+    private final List<Call> calls = new ArrayList<Call>();
+
+    /**
+     * Replays the recorded calls into the specified cache, in the order they have been made.
+     * The graphics and display area passed to {@link #endLayer} by the layer renderer refer to
+     * the layer back buffer, the ones provided here are used instead.
+     */
+    public void replay(LabelCache cache, Graphics2D graphics, Rectangle displayArea) {
+        for (Call call : calls) {
+            call.replay(cache, graphics, displayArea);
+        }
+        calls.clear();
+    }
+
+    public void start() {
+        // life cycle controlled by the parent renderer
+    }
+
+    public void startLayer(final String layerId) {
+        calls.add(new Call() {
+            public void replay(LabelCache cache, Graphics2D graphics, Rectangle displayArea) {
+                cache.startLayer(layerId);
+            }
+        });
+    }
+
+    public void put(final String layerId, final TextSymbolizer symbolizer, final Feature feature,
+            final LiteShape2 shape, final NumberRange<Double> scaleRange) {
+        calls.add(new Call() {
+            public void replay(LabelCache cache, Graphics2D graphics, Rectangle displayArea) {
+                cache.put(layerId, symbolizer, feature, shape, scaleRange);
+            }
+        });
+    }
+
+    public void put(final Rectangle2D area) {
+        calls.add(new Call() {
+            public void replay(LabelCache cache, Graphics2D graphics, Rectangle displayArea) {
+                cache.put(area);
+            }
+        });
+    }
+
+    public void endLayer(final String layerId, Graphics2D graphics, Rectangle displayArea) {
+        calls.add(new Call() {
+            public void replay(LabelCache cache, Graphics2D graphics, Rectangle displayArea) {
+                cache.endLayer(layerId, graphics, displayArea);
+            }
+        });
+    }
+
+    public void end(Graphics2D graphics, Rectangle displayArea) {
+        // life cycle controlled by the parent renderer
+    }
+
+    public void stop() {
+        // life cycle controlled by the parent renderer
+    }
+
+    public void clear() {
+        // life cycle controlled by the parent renderer
+    }
+
+    public void clear(final String layerId) {
+        calls.add(new Call() {
+            public void replay(LabelCache cache, Graphics2D graphics, Rectangle displayArea) {
+                cache.clear(layerId);
+            }
+        });
+    }
+
+    public void disableLayer(final String layerId) {
+        calls.add(new Call() {
+            public void replay(LabelCache cache, Graphics2D graphics, Rectangle displayArea) {
+                cache.disableLayer(layerId);
+            }
+        });
+    }
+
+    public void enableLayer(final String layerId) {
+        calls.add(new Call() {
+            public void replay(LabelCache cache, Graphics2D graphics, Rectangle displayArea) {
+                cache.enableLayer(layerId);
+            }
+        });
+    }
+
+    /**
+     * Returns an empty list, the labels are placed only once replayed into the shared cache
+     */
+    public List orderedLabels() {
+        return Collections.emptyList();
+    }
+
+}
@@ -69,6 +69,11 @@ public final class LiteFeatureTypeStyle {
      */
     ScreenMap screenMap;
 
+    /**
+     * Tracks the point symbols already drawn, used to skip the ones painted in the same spot
+     */
+    SymbolScreenMap symbolScreenMap;
+
     public LiteFeatureTypeStyle(BufferedImage image, AffineTransform at, List ruleList,
             List elseRule, RenderingHints hints, Expression transformation) {
         this.myImage = image;
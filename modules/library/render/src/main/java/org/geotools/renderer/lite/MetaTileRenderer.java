@@ -0,0 +1,185 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2013, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.renderer.lite;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.renderer.GTRenderer;
+
+/**
+ * Renders a grid of tiles (a meta tile) by painting it as a single image, and then slicing it.
+ * <p>
+ * The whole grid, eventually grown by a gutter, is painted with a single call to the wrapped
+ * {@link GTRenderer} over the union of the tile envelopes, and the resulting image is sliced
+ * into the output tiles. This is a convenience for the usual meta tiling approach, not a
+ * different rendering strategy: there is no per tile dispatch of the geometries, the renderer
+ * paints into one buffer with one label cache, exactly as a single large map.
+ * </p>
+ * <p>
+ * The tiles are views sharing the meta tile raster (no pixel copy is involved), so the whole
+ * meta tile stays in memory as long as any of them is referenced.
+ * </p>
+ * <p>
+ * Tiles are returned as a <code>[row][column]</code> matrix, with row 0 being the northernmost
+ * one and column 0 the westernmost one, according to the renderer world to screen transform.
+ * </p>
+ *
+ * @source $URL$
+ */
+public class MetaTileRenderer {
+
+    private final GTRenderer renderer;
+
+    private int gutter = 0;
+
+    private int imageType = BufferedImage.TYPE_INT_ARGB;
+
+    private Color background;
+
+    /**
+     * Builds a new meta tile renderer around the specified renderer, whose map content and
+     * hints will be used to paint the tiles
+     *
+     * @param renderer
+     */
+    public MetaTileRenderer(GTRenderer renderer) {
+        if (renderer == null) {
+            throw new NullPointerException("The renderer cannot be null");
+        }
+        this.renderer = renderer;
+    }
+
+    /**
+     * Returns the gutter, in pixels, added around the meta tile
+     */
+    public int getGutter() {
+        return gutter;
+    }
+
+    /**
+     * Sets the number of pixels the meta tile will be grown by in each direction. A gutter
+     * allows to paint symbols and labels of features sitting just outside of the meta tile
+     * that would otherwise be cut at its borders. Defaults to 0.
+     *
+     * @param gutter
+     */
+    public void setGutter(int gutter) {
+        if (gutter < 0) {
+            throw new IllegalArgumentException("The gutter cannot be negative");
+        }
+        this.gutter = gutter;
+    }
+
+    /**
+     * Returns the type of the meta tile image, see {@link BufferedImage#getType()}
+     */
+    public int getImageType() {
+        return imageType;
+    }
+
+    /**
+     * Sets the type of the meta tile image, {@link BufferedImage#TYPE_INT_ARGB} by default
+     *
+     * @param imageType
+     */
+    public void setImageType(int imageType) {
+        this.imageType = imageType;
+    }
+
+    /**
+     * Returns the background color painted before rendering, or null if the meta tile is left
+     * transparent
+     */
+    public Color getBackground() {
+        return background;
+    }
+
+    /**
+     * Sets the background color painted before rendering, null (the default) leaves the meta
+     * tile transparent
+     *
+     * @param background
+     */
+    public void setBackground(Color background) {
+        this.background = background;
+    }
+
+    /**
+     * Renders a grid of <code>rows x columns</code> tiles covering the specified area
+     *
+     * @param mapArea
+     *            the area covered by the whole tile grid, in map coordinates
+     * @param tileWidth
+     *            the width of each tile, in pixels
+     * @param tileHeight
+     *            the height of each tile, in pixels
+     * @param rows
+     *            the number of tile rows
+     * @param columns
+     *            the number of tile columns
+     * @return the tiles, as a <code>[row][column]</code> matrix
+     */
+    public BufferedImage[][] paint(ReferencedEnvelope mapArea, int tileWidth, int tileHeight,
+            int rows, int columns) {
+        if (mapArea == null) {
+            throw new NullPointerException("The map area cannot be null");
+        }
+        if (tileWidth <= 0 || tileHeight <= 0 || rows <= 0 || columns <= 0) {
+            throw new IllegalArgumentException("Tile size and grid size must be positive, got "
+                    + tileWidth + "x" + tileHeight + " pixels tiles in a " + rows + "x" + columns
+                    + " grid");
+        }
+
+        // grow the meta tile by the gutter
+        final int width = tileWidth * columns;
+        final int height = tileHeight * rows;
+        final double pixelWidth = mapArea.getWidth() / width;
+        final double pixelHeight = mapArea.getHeight() / height;
+        ReferencedEnvelope renderingArea = new ReferencedEnvelope(mapArea.getMinX() - gutter
+                * pixelWidth, mapArea.getMaxX() + gutter * pixelWidth, mapArea.getMinY() - gutter
+                * pixelHeight, mapArea.getMaxY() + gutter * pixelHeight,
+                mapArea.getCoordinateReferenceSystem());
+        Rectangle paintArea = new Rectangle(width + gutter * 2, height + gutter * 2);
+
+        // paint the meta tile in one shot
+        BufferedImage metaTile = new BufferedImage(paintArea.width, paintArea.height, imageType);
+        Graphics2D graphics = metaTile.createGraphics();
+        try {
+            if (background != null) {
+                graphics.setColor(background);
+                graphics.fill(paintArea);
+            }
+            renderer.paint(graphics, paintArea, renderingArea);
+        } finally {
+            graphics.dispose();
+        }
+
+        // slice it
+        BufferedImage[][] tiles = new BufferedImage[rows][columns];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                tiles[r][c] = metaTile.getSubimage(gutter + c * tileWidth, gutter + r
+                        * tileHeight, tileWidth, tileHeight);
+            }
+        }
+        return tiles;
+    }
+}
@@ -18,14 +18,17 @@ package org.geotools.renderer.lite;
 
 import java.awt.AlphaComposite;
 import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
 import java.awt.Rectangle;
 import java.awt.RenderingHints;
 import java.awt.RenderingHints.Key;
 import java.awt.Shape;
+import java.awt.Transparency;
 import java.awt.font.GlyphVector;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.NoninvertibleTransformException;
 import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
 import java.awt.image.RenderedImage;
 import java.io.IOException;
@@ -38,13 +41,17 @@ import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -87,6 +94,7 @@ import org.geotools.geometry.jts.LiteCoordinateSequence;
 import org.geotools.geometry.jts.LiteCoordinateSequenceFactory;
 import org.geotools.geometry.jts.LiteShape2;
 import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.geometry.jts.ScreenPath;
 import org.geotools.map.DirectLayer;
 import org.geotools.map.Layer;
 import org.geotools.map.MapContent;
@@ -98,16 +106,21 @@ import org.geotools.referencing.CRS;
 import org.geotools.referencing.crs.DefaultGeographicCRS;
 import org.geotools.referencing.operation.matrix.XAffineTransform;
 import org.geotools.referencing.operation.transform.AffineTransform2D;
+import org.geotools.referencing.operation.transform.ApproximateTransform2D;
 import org.geotools.referencing.operation.transform.ConcatenatedTransform;
 import org.geotools.referencing.operation.transform.ProjectiveTransform;
 import org.geotools.renderer.GTRenderer;
 import org.geotools.renderer.RenderListener;
+import org.geotools.renderer.RenderMetrics;
+import org.geotools.renderer.RenderMetrics.LayerMetrics;
+import org.geotools.renderer.RenderMetricsListener;
 import org.geotools.renderer.ScreenMap;
 import org.geotools.renderer.crs.ProjectionHandler;
 import org.geotools.renderer.crs.ProjectionHandlerFinder;
 import org.geotools.renderer.label.LabelCacheImpl;
 import org.geotools.renderer.label.LabelCacheImpl.LabelRenderingMode;
 import org.geotools.renderer.lite.gridcoverage2d.GridCoverageRenderer;
+import org.geotools.renderer.style.LineStyle2D;
 import org.geotools.renderer.style.SLDStyleFactory;
 import org.geotools.renderer.style.Style2D;
 import org.geotools.resources.coverage.FeatureUtilities;
@@ -351,6 +364,81 @@ public class StreamingRenderer implements GTRenderer {
      */
     public static final String OPTIMIZE_FTS_RENDERING_KEY = "optimizeFTSRendering";
 
+    /**
+     * Boolean flag enabling parallel rendering of the map layers.
+     * <p>When enabled, and a thread pool has been provided via {@link #setThreadPool(ExecutorService)},
+     * each visible layer is read, transformed and painted concurrently into its own memory
+     * back buffer (as big as the image being rendered), and the back buffers are composited
+     * onto the target graphics in layer order. Labels are collected from all layers, in layer
+     * order, and painted at the end, giving the same placement as in the sequential case.</p>
+     * <p>The {@link RenderListener} callbacks are issued by the threads of the pool, concurrently
+     * for different layers, so the listeners must be thread safe.</p>
+     * <p>Disabled by default, it trades memory (one back buffer per layer) for latency.</p>
+     */
+    public static final String PARALLEL_LAYER_RENDERING_KEY = "parallelLayerRendering";
+
+    /**
+     * Boolean flag enabling the screen path rendering of lines and polygons.
+     * <p>When enabled, geometries painted by line and polygon symbolizers are not cloned into
+     * a {@link LiteShape2}, but directly transformed, generalized and coarsely clipped into a
+     * pooled {@link ScreenPath}, whose buffers are reused once the painting thread is done with
+     * it, significantly reducing the garbage generated while rendering large data sets.</p>
+     * <p>Disabled by default, it is ignored when advanced projection handling is enabled.</p>
+     */
+    public static final String SCREEN_PATH_RENDERING_KEY = "screenPathRendering";
+
+    /**
+     * Number enabling the thinning of point symbols, and setting its tolerance.
+     * <p>When set, a point whose symbol would be painted over an identical symbol painted by
+     * the same symbolizer is skipped. The value is the fraction of the symbol size two points
+     * can be apart and still be considered overlapping, zero meaning the points need to fall
+     * in the same pixel. Thinning is applied only to feature type styles whose symbols are
+     * all opaque, and only to symbolizers whose style does not depend on the feature.</p>
+     * <p>Disabled by default, as it may alter the stacking order of overlapping symbols.</p>
+     */
+    public static final String POINT_THINNING_KEY = "pointThinning";
+
+    /**
+     * Enables painting marks and icons by copying pre-rendered rasters of them, kept in a
+     * {@link SymbolRasterCache}.
+     * <p>The value can be {@link Boolean#TRUE}, to use the process wide
+     * {@link SymbolRasterCache#getDefault() cache}, or a {@link SymbolRasterCache} instance.
+     * Disabled by default, and ignored when vector rendering is enabled, as the symbols would
+     * be painted as rasters in the vector output.</p>
+     */
+    public static final String SYMBOL_RASTER_CACHE_KEY = "symbolRasterCache";
+
+    /**
+     * Number enabling approximate reprojection of vector data, and setting its tolerance in
+     * pixels.
+     * <p>When set, the transformation from the data to the screen is replaced by a bilinear
+     * interpolation over an adaptive grid covering the rendering area, built so that the
+     * interpolated positions are within the tolerance from the exact ones (see
+     * {@link ApproximateTransform2D}). This pays off when many coordinates are reprojected
+     * through an expensive transformation. Ignored when the advanced projection handling is
+     * enabled.</p>
+     * <p>Disabled by default.</p>
+     */
+    public static final String APPROXIMATE_TRANSFORM_TOLERANCE_KEY = "approximateTransformTolerance";
+
+    /**
+     * Boolean flag asking the data stores to clip the geometries to the rendering area, and
+     * to snap them to a grid matching the generalization distance, before returning them.
+     * <p>Only used with sources advertising {@link Hints#GEOMETRY_CLIP}, it spares the
+     * transfer and decoding of the parts of large geometries, like coastlines and
+     * administrative boundaries, falling outside of the map. The clip area is the query area
+     * grown by {@link #DATASTORE_CLIP_MARGIN} pixels, so that the edges introduced by the
+     * clipping are not visible. Not applied to feature type styles using rendering
+     * transformations, as they might need the full geometries.</p>
+     * <p>Disabled by default, as the label of a clipped polygon may be placed differently.</p>
+     */
+    public static final String DATASTORE_CLIPPING_KEY = "datastoreClipping";
+
+    /**
+     * The distance, in pixels, the data store clip area extends outside the query area
+     */
+    static final int DATASTORE_CLIP_MARGIN = 5;
+
 
     /**
      * Enables advanced reprojection handling. Geometries will be sliced to fit into the
@@ -413,6 +501,51 @@ public class StreamingRenderer implements GTRenderer {
 
     private PainterThread painterThread;
 
+    /**
+     * The renderers painting the single layers when parallel layer rendering is active
+     */
+    private volatile List<StreamingRenderer> layerRenderers;
+
+    /**
+     * If not negative, the index of the only map content layer this renderer will paint
+     * (used by the parallel layer rendering)
+     */
+    private int renderedLayerIndex = -1;
+
+    /**
+     * The metrics of the current rendering, or null if no listener is interested in them
+     */
+    private volatile RenderMetrics metrics;
+
+    /**
+     * The metrics of the layer being rendered, or null if metrics are not collected
+     */
+    private LayerMetrics layerMetrics;
+
+    /**
+     * The screen paths ready for reuse, given back by the painter thread once painted
+     */
+    private final Queue<ScreenPath> screenPaths = new ConcurrentLinkedQueue<ScreenPath>();
+
+    /**
+     * The number of screen paths in {@link #screenPaths}, tracked separately as the queue size
+     * is not a constant time operation
+     */
+    private final AtomicInteger pooledScreenPaths = new AtomicInteger();
+
+    /**
+     * Screen paths grown past this number of coordinates are not pooled, to avoid retaining
+     * too much memory after painting a very large geometry
+     */
+    private static final int MAX_POOLED_PATH_CAPACITY = 64 * 1024;
+
+    /**
+     * The maximum number of screen paths kept in the pool. The painter thread returns them
+     * quickly, so a handful is enough to cover the ones in flight, while the requests queue
+     * could otherwise make the pool grow up to its own size
+     */
+    private static final int MAX_POOLED_PATHS = 32;
+
     /**
      * The meta buffer for the current layer
      */
@@ -460,6 +593,8 @@ public class StreamingRenderer implements GTRenderer {
 
     /**
      * adds a listener that responds to error events of feature rendered events.
+     * When {@link #PARALLEL_LAYER_RENDERING_KEY parallel layer rendering} is enabled the
+     * listener is called concurrently by the threads of the pool.
      * 
      * @see RenderListener
      * 
@@ -498,6 +633,30 @@ public class StreamingRenderer implements GTRenderer {
         }
     }
 
+    /**
+     * Returns true if any of the listeners is interested in the rendering metrics
+     */
+    private boolean isRenderMetricsRequested() {
+        for (RenderListener listener : renderListeners) {
+            if (listener instanceof RenderMetricsListener) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void fireRenderMetricsEvent(RenderMetrics metrics) {
+        for (RenderListener listener : renderListeners) {
+            if (listener instanceof RenderMetricsListener) {
+                try {
+                    ((RenderMetricsListener) listener).renderingCompleted(metrics);
+                } catch (Throwable t) {
+                    LOGGER.log(Level.WARNING, "Render metrics listener failed", t);
+                }
+            }
+        }
+    }
+
     private void fireErrorEvent(Throwable t) {
         LOGGER.log(Level.SEVERE, t.getLocalizedMessage(), t);
         if (renderListeners.size() > 0) {
@@ -522,16 +681,25 @@ public class StreamingRenderer implements GTRenderer {
      */
     public void stopRendering() {
         renderingStopRequested = true;
-        // un-block the queue in case it was filled with requests and the main
-        // thread got blocked on it
-        requests.clear();
-        // wake up the painter and put a death pill in the queue
-        painterThread.interrupt();
-        try {
-            requests.put(new EndRequest());
-        } catch(InterruptedException e) {
-            throw new RuntimeException("Interrupted while trying to put the end " +
-            		"request in the requests queue, this should never happen", e);
+        // in parallel mode the layers are being painted by other renderers
+        List<StreamingRenderer> renderers = layerRenderers;
+        if (renderers != null) {
+            for (StreamingRenderer renderer : renderers) {
+                renderer.stopRendering();
+            }
+        }
+        if (requests != null) {
+            // un-block the queue in case it was filled with requests and the main
+            // thread got blocked on it
+            requests.clear();
+            // wake up the painter and put a death pill in the queue
+            painterThread.interrupt();
+            try {
+                requests.put(new EndRequest());
+            } catch(InterruptedException e) {
+                throw new RuntimeException("Interrupted while trying to put the end " +
+                		"request in the requests queue, this should never happen", e);
+            }
         }
 
         labelCache.stop();
@@ -714,6 +882,32 @@ public class StreamingRenderer implements GTRenderer {
             if (worldToScreen == null)
                 return;
         }
+
+        if (renderedLayerIndex >= 0 || !isRenderMetricsRequested()) {
+            paintInternal(graphics, paintArea, mapArea, worldToScreen);
+            return;
+        }
+
+        metrics = new RenderMetrics();
+        final long start = System.nanoTime();
+        try {
+            paintInternal(graphics, paintArea, mapArea, worldToScreen);
+        } finally {
+            RenderMetrics collected = metrics;
+            metrics = null;
+            layerMetrics = null;
+            collected.addTotalTime(System.nanoTime() - start);
+            fireRenderMetricsEvent(collected);
+        }
+    }
+
+    private void paintInternal(Graphics2D graphics, Rectangle paintArea,
+            ReferencedEnvelope mapArea, AffineTransform worldToScreen) {
+        if (renderedLayerIndex < 0 && threadPool != null && !concatTransforms
+                && isParallelLayerRenderingEnabled()) {
+            paintParallel(graphics, paintArea, mapArea, worldToScreen);
+            return;
+        }
         
         // ////////////////////////////////////////////////////////////////////
         // 
@@ -734,6 +928,7 @@ public class StreamingRenderer implements GTRenderer {
         Point2D textureAnchor = new Point2D.Double(worldToScreenTransform.getTranslateX(),
                 worldToScreenTransform.getTranslateY());
         graphics.setRenderingHint(StyledShapePainter.TEXTURE_ANCHOR_HINT_KEY, textureAnchor);
+        painter.setSymbolCache(getSymbolRasterCache());
         // reset the abort flag
         renderingStopRequested = false;
         
@@ -807,6 +1002,10 @@ public class StreamingRenderer implements GTRenderer {
             final int layersNumber = mapContent.layers().size();
             for (int i = 0; i < layersNumber; i++) // DJB: for each layer (ie. one
             {
+                if (renderedLayerIndex >= 0 && i != renderedLayerIndex) {
+                    // parallel rendering, another renderer is taking care of this layer
+                    continue;
+                }
                 Layer layer = mapContent.layers().get(i);
     
                 if (!layer.isVisible()) {
@@ -818,6 +1017,9 @@ public class StreamingRenderer implements GTRenderer {
                     return;
                 }
                 labelCache.startLayer(i+"");
+                if (metrics != null) {
+                    layerMetrics = metrics.addLayer(i, i + "", layer.getTitle());
+                }
                 
                 if (layer instanceof DirectLayer) {
                     RenderingRequest request = new RenderDirectLayerRequest(
@@ -860,7 +1062,7 @@ public class StreamingRenderer implements GTRenderer {
         }
         
         if(!renderingStopRequested) {
-            labelCache.end(graphics, paintArea);
+            endLabelCache(graphics, paintArea);
         } else {
             labelCache.clear();
         }
@@ -879,6 +1081,116 @@ public class StreamingRenderer implements GTRenderer {
         
     }
 
+    /**
+     * Paints each visible layer concurrently in its own back buffer using the user
+     * provided thread pool, then composites the back buffers in layer order and paints
+     * the labels collected by all layers on top of them. The labels of each layer are
+     * recorded, and fed to the label cache in layer order once the layer is painted, so that
+     * the label placement is the same as in the sequential case
+     */
+    private void paintParallel(Graphics2D graphics, Rectangle paintArea,
+            ReferencedEnvelope mapArea, AffineTransform worldToScreen) {
+        if(mapContent == null) {
+            throw new IllegalStateException("Cannot call paint, you did not set a MapContent in this renderer");
+        }
+        renderingStopRequested = false;
+        if (java2dHints != null)
+            graphics.setRenderingHints(java2dHints);
+        graphics.setClip(paintArea);
+        
+        // the layer renderers record their labels, only this renderer uses the label cache
+        labelCache.start();
+        if(labelCache instanceof LabelCacheImpl) {
+            ((LabelCacheImpl) labelCache).setLabelRenderingMode(LabelRenderingMode.valueOf(getTextRenderingMethod()));
+        }
+        
+        // schedule the layers
+        final GraphicsConfiguration configuration = graphics.getDeviceConfiguration();
+        final RenderingHints hints = graphics.getRenderingHints();
+        List<Future<BufferedImage>> futures = new ArrayList<Future<BufferedImage>>();
+        List<LayerLabelCache> layerLabelCaches = new ArrayList<LayerLabelCache>();
+        layerRenderers = new CopyOnWriteArrayList<StreamingRenderer>();
+        try {
+            final List<Layer> layers = mapContent.layers();
+            for (int i = 0; i < layers.size(); i++) {
+                if (!layers.get(i).isVisible()) {
+                    continue;
+                }
+                if (renderingStopRequested) {
+                    break;
+                }
+                LayerLabelCache layerLabelCache = new LayerLabelCache();
+                StreamingRenderer renderer = createLayerRenderer(i, layerLabelCache);
+                layerRenderers.add(renderer);
+                layerLabelCaches.add(layerLabelCache);
+                futures.add(threadPool.submit(new LayerPainter(renderer, configuration, hints,
+                        paintArea, mapArea, worldToScreen)));
+            }
+            
+            // composite the back buffers in z-order as soon as they become available
+            graphics.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER));
+            for (int i = 0; i < futures.size(); i++) {
+                Future<BufferedImage> future = futures.get(i);
+                try {
+                    BufferedImage image = future.get();
+                    if (image != null && !renderingStopRequested) {
+                        graphics.drawImage(image, 0, 0, null);
+                        layerLabelCaches.get(i).replay(labelCache, graphics, paintArea);
+                    }
+                } catch (Exception e) {
+                    future.cancel(true);
+                    fireErrorEvent(e);
+                }
+            }
+        } finally {
+            layerRenderers = null;
+        }
+        
+        if(!renderingStopRequested) {
+            endLabelCache(graphics, paintArea);
+        } else {
+            labelCache.clear();
+        }
+    }
+    
+    /**
+     * Paints the labels, eventually tracking the time spent doing so
+     */
+    private void endLabelCache(Graphics2D graphics, Rectangle paintArea) {
+        final RenderMetrics renderMetrics = metrics;
+        if (renderMetrics == null) {
+            labelCache.end(graphics, paintArea);
+        } else {
+            long start = System.nanoTime();
+            try {
+                labelCache.end(graphics, paintArea);
+            } finally {
+                renderMetrics.addLabelTime(System.nanoTime() - start);
+            }
+        }
+    }
+
+    /**
+     * Builds a renderer that will paint only the specified layer of the current map content,
+     * sharing the configuration, listeners and the label cache of this renderer
+     */
+    private StreamingRenderer createLayerRenderer(int layerIndex, LabelCache layerLabelCache) {
+        StreamingRenderer renderer = new StreamingRenderer();
+        renderer.setMapContent(mapContent);
+        renderer.renderedLayerIndex = layerIndex;
+        renderer.setRendererHints(rendererHints);
+        renderer.setJava2DHints(java2dHints);
+        renderer.setGeneralizationDistance(generalizationDistance);
+        renderer.setInteractive(interactive);
+        renderer.labelCache = layerLabelCache;
+        renderer.painter = new StyledShapePainter(layerLabelCache);
+        renderer.metrics = metrics;
+        for (RenderListener listener : renderListeners) {
+            renderer.addRenderListener(listener);
+        }
+        return renderer;
+    }
+
     /**
      * Builds the blocking queue used to bridge between the data loading thread and
      * the painting one
@@ -1036,6 +1348,8 @@ public class StreamingRenderer implements GTRenderer {
         // see what attributes we really need by exploring the styles
         // for testing purposes we have a null case -->
 
+        // the query area in the native CRS, if it's a single one
+        ReferencedEnvelope clipEnvelope = null;
         try {
             // Then create the geometry filters. We have to create one for
             // each geometric attribute used during the rendering as the
@@ -1054,6 +1368,10 @@ public class StreamingRenderer implements GTRenderer {
                 }
             }
 
+            if (envelopes.size() == 1) {
+                clipEnvelope = envelopes.get(0);
+            }
+
             if(LOGGER.isLoggable(Level.FINE))
                 LOGGER.fine("Querying layer " + schema.getName() +  " with bbox: " + envelope);
             filter = createBBoxFilters(schema, attributes, envelopes);
@@ -1131,6 +1449,22 @@ public class StreamingRenderer implements GTRenderer {
                     // perform some in memory generalization
                     hints.put(Hints.GEOMETRY_DISTANCE, distance);
                 }
+
+
+                // ... and we can also have it clip and snap the geometries to the grid
+                if (isDatastoreClippingEnabled() && fsHints.contains(Hints.GEOMETRY_CLIP)
+                        && styles[0].transformation == null) {
+                    if (clipEnvelope != null && !clipEnvelope.isNull()) {
+                        double pixel = Math.max(clipEnvelope.getWidth() / screenSize.getWidth(),
+                                clipEnvelope.getHeight() / screenSize.getHeight());
+                        Envelope clip = new Envelope(clipEnvelope);
+                        clip.expandBy(pixel * DATASTORE_CLIP_MARGIN);
+                        hints.put(Hints.GEOMETRY_CLIP, clip);
+                    }
+                    if (fsHints.contains(Hints.GEOMETRY_SNAP_TO_GRID) && distance > 0) {
+                        hints.put(Hints.GEOMETRY_SNAP_TO_GRID, distance);
+                    }
+                }
             }
         } catch(Exception e) {
             LOGGER.log(Level.INFO, "Error computing the generalization hints", e);
@@ -1398,6 +1732,86 @@ public class StreamingRenderer implements GTRenderer {
         return Boolean.TRUE.equals(result);
     }
 
+    /**
+     * Checks if parallel layer rendering is enabled, or not.
+     * See {@link #PARALLEL_LAYER_RENDERING_KEY} description for a full explanation.
+     */
+    private boolean isParallelLayerRenderingEnabled() {
+        if (rendererHints == null)
+            return false;
+        Object result = rendererHints.get(PARALLEL_LAYER_RENDERING_KEY);
+        if (result == null)
+            return false;
+        return Boolean.TRUE.equals(result);
+    }
+
+    /**
+     * Checks if screen path rendering is enabled, or not.
+     * See {@link #SCREEN_PATH_RENDERING_KEY} description for a full explanation.
+     */
+    private boolean isScreenPathRenderingEnabled() {
+        if (rendererHints == null)
+            return false;
+        Object result = rendererHints.get(SCREEN_PATH_RENDERING_KEY);
+        if (result == null)
+            return false;
+        return Boolean.TRUE.equals(result);
+    }
+
+    /**
+     * Checks if data store clipping is enabled, or not.
+     * See {@link #DATASTORE_CLIPPING_KEY} description for a full explanation.
+     */
+    private boolean isDatastoreClippingEnabled() {
+        if (rendererHints == null)
+            return false;
+        Object result = rendererHints.get(DATASTORE_CLIPPING_KEY);
+        if (result == null)
+            return false;
+        return Boolean.TRUE.equals(result);
+    }
+
+    /**
+     * Returns the point thinning tolerance, or a negative value if point thinning is disabled.
+     * See {@link #POINT_THINNING_KEY} description for a full explanation.
+     */
+    private double getPointThinningTolerance() {
+        if (rendererHints == null)
+            return -1;
+        Object result = rendererHints.get(POINT_THINNING_KEY);
+        if (!(result instanceof Number))
+            return -1;
+        return ((Number) result).doubleValue();
+    }
+
+    /**
+     * Returns the approximate transform tolerance, or a negative value if disabled.
+     * See {@link #APPROXIMATE_TRANSFORM_TOLERANCE_KEY} description for a full explanation.
+     */
+    private double getApproximateTransformTolerance() {
+        if (rendererHints == null)
+            return -1;
+        Object result = rendererHints.get(APPROXIMATE_TRANSFORM_TOLERANCE_KEY);
+        if (!(result instanceof Number))
+            return -1;
+        return ((Number) result).doubleValue();
+    }
+
+    /**
+     * Returns the cache of pre-rendered marks and icons, or null if not enabled.
+     * See {@link #SYMBOL_RASTER_CACHE_KEY} description for a full explanation.
+     */
+    private SymbolRasterCache getSymbolRasterCache() {
+        if (rendererHints == null || isVectorRenderingEnabled())
+            return null;
+        Object result = rendererHints.get(SYMBOL_RASTER_CACHE_KEY);
+        if (result instanceof SymbolRasterCache)
+            return (SymbolRasterCache) result;
+        if (Boolean.TRUE.equals(result))
+            return SymbolRasterCache.getDefault();
+        return null;
+    }
+
     /**
      * Checks if the advanced projection handling is enabled
      * @return
@@ -1763,6 +2177,11 @@ public class StreamingRenderer implements GTRenderer {
                     lfts.screenMap = new ScreenMap(screenSize.x, screenSize.y, screenSize.width,
                             screenSize.height);
                 }
+                double pointThinningTolerance = getPointThinningTolerance();
+                if (pointThinningTolerance >= 0 && isOpaque(lfts)) {
+                    lfts.symbolScreenMap = new SymbolScreenMap(screenSize,
+                            pointThinningTolerance);
+                }
                                                    
                 result.add(lfts);
             }
@@ -1784,6 +2203,19 @@ public class StreamingRenderer implements GTRenderer {
             return false;
         }
 
+        // the transformation output might not be in the same space as the source data
+        if (lfts.transformation != null) {
+            return false;
+        }
+
+        return isOpaque(lfts);
+    }
+
+    /**
+     * Returns true if none of the point, line and polygon symbolizers in the style uses
+     * translucency
+     */
+    boolean isOpaque(LiteFeatureTypeStyle lfts) {
         OpacityFinder finder = new OpacityFinder(new Class[] { PointSymbolizer.class,
                 LineSymbolizer.class, PolygonSymbolizer.class });
         for (Rule r : lfts.ruleList) {
@@ -2181,7 +2613,7 @@ public class StreamingRenderer implements GTRenderer {
                              }
                          }
                     }
-                    coverage = readCoverage(reader, params, readGG);
+                    coverage = readCoverageWithMetrics(reader, params, readGG);
                 } else {
                     coverage = (GridCoverage2D) gridPropertyName.evaluate(gridWrapper);
                 }
@@ -2472,13 +2904,21 @@ public class StreamingRenderer implements GTRenderer {
         for (LiteFeatureTypeStyle liteFeatureTypeStyle : fts_array) {
             Iterator<?> iterator = null;
             if (collection != null){
+                final long start = layerMetrics != null ? System.nanoTime() : 0;
                 iterator = collection.iterator();
+                if (layerMetrics != null) {
+                    layerMetrics.addQueryTime(System.nanoTime() - start);
+                }
                 if (iterator == null ){
                     return; // nothing to do
                 }
             }
             else if (features != null ){
+                final long start = layerMetrics != null ? System.nanoTime() : 0;
                 FeatureIterator<?> featureIterator = ((FeatureCollection<?,?>)features).features();
+                if (layerMetrics != null) {
+                    layerMetrics.addQueryTime(System.nanoTime() - start);
+                }
                 if( featureIterator == null ){
                     return; // nothing to do
                 }
@@ -2490,6 +2930,8 @@ public class StreamingRenderer implements GTRenderer {
             try {
                 boolean clone = isCloningRequired(currLayer, fts_array);
                 RenderableFeature rf = new RenderableFeature(currLayer, clone);
+                rf.setScreenMap(liteFeatureTypeStyle.screenMap);
+                rf.setSymbolScreenMap(liteFeatureTypeStyle.symbolScreenMap);
                 // loop exit condition tested inside try catch
                 // make sure we test hasNext() outside of the try/cath that follows, as that
                 // one is there to make sure a single feature error does not ruin the rendering
@@ -2524,7 +2966,11 @@ public class StreamingRenderer implements GTRenderer {
 
         
         if( collection != null ) {
-            Iterator iterator = collection.iterator();        
+            final long start = layerMetrics != null ? System.nanoTime() : 0;
+            Iterator iterator = collection.iterator();
+            if (layerMetrics != null) {
+                layerMetrics.addQueryTime(System.nanoTime() - start);
+            }
             if( iterator == null ) return; // nothing to do
 
             try {
@@ -2541,6 +2987,7 @@ public class StreamingRenderer implements GTRenderer {
                         // draw the feature on the main graphics and on the eventual extra image buffers
                         for (LiteFeatureTypeStyle liteFeatureTypeStyle : fts_array) {
                             rf.setScreenMap(liteFeatureTypeStyle.screenMap);
+                            rf.setSymbolScreenMap(liteFeatureTypeStyle.symbolScreenMap);
                             process(rf, liteFeatureTypeStyle, scaleRange, at, destinationCrs, layerId);
                         }
                     } catch (Throwable tr) {
@@ -2557,7 +3004,11 @@ public class StreamingRenderer implements GTRenderer {
         }
 
         if( features != null ) {
+            final long start = layerMetrics != null ? System.nanoTime() : 0;
             FeatureIterator<?> iterator = features.features();
+            if (layerMetrics != null) {
+                layerMetrics.addQueryTime(System.nanoTime() - start);
+            }
             if( iterator == null ) return; // nothing to do
             try {
                 boolean clone = isCloningRequired(currLayer, fts_array);
@@ -2573,6 +3024,7 @@ public class StreamingRenderer implements GTRenderer {
                         // draw the feature on the main graphics and on the eventual extra image buffers
                         for (LiteFeatureTypeStyle liteFeatureTypeStyle : fts_array) {
                             rf.setScreenMap(liteFeatureTypeStyle.screenMap);
+                            rf.setSymbolScreenMap(liteFeatureTypeStyle.symbolScreenMap);
                             process(rf, liteFeatureTypeStyle, scaleRange, at, destinationCrs, layerId);
     
                         }
@@ -2669,6 +3121,10 @@ public class StreamingRenderer implements GTRenderer {
             }
         }
 
+        if (doElse && elseRuleList.length == 0 && layerMetrics != null) {
+            layerMetrics.featureSkipped();
+        }
+
         if (doElse) {
             final int elseLength = elseRuleList.length;
             for (int tt = 0; tt < elseLength; tt++) {
@@ -2707,7 +3163,9 @@ public class StreamingRenderer implements GTRenderer {
             NumberRange scaleRange, AffineTransform at,
             CoordinateReferenceSystem destinationCrs, String layerId)
             throws Exception {
-        
+        final boolean screenPathRendering = projectionHandler == null
+                && isScreenPathRenderingEnabled();
+
         for (Symbolizer symbolizer : symbolizers) {
 
             // /////////////////////////////////////////////////////////////////
@@ -2732,7 +3190,7 @@ public class StreamingRenderer implements GTRenderer {
                         GridCoverage2DReader reader = (GridCoverage2DReader) grid;
                         CoordinateReferenceSystem sourceCRS = reader.getCoordinateReferenceSystem();
                         GridGeometry2D readGG = getRasterGridGeometry(destinationCrs, sourceCRS);
-                        coverage = readCoverage(reader, params, readGG);
+                        coverage = readCoverageWithMetrics(reader, params, readGG);
                         disposeCoverage = true;
                         
                        
@@ -2759,8 +3217,35 @@ public class StreamingRenderer implements GTRenderer {
                 // FEATURE
                 //
                 // /////////////////////////////////////////////////////////////////
+                if (screenPathRendering
+                        && (symbolizer instanceof LineSymbolizer || symbolizer instanceof PolygonSymbolizer)
+                        && drawMe.isScreenPathSupported(symbolizer, at)) {
+                    Style2D style = styleFactory.createStyle(drawMe.content, symbolizer,
+                            scaleRange);
+                    if (style instanceof LineStyle2D) {
+                        ScreenPath path = acquireScreenPath();
+                        if (drawMe.getScreenPath(symbolizer, at, getClipEnvelope(style), path)) {
+                            PaintScreenPathRequest paintPathRequest = new PaintScreenPathRequest(
+                                    graphics, path, style, scaleDenominator);
+                            if (symbolizer.hasOption("labelObstacle")) {
+                                paintPathRequest.setLabelObstacle(true);
+                            }
+                            requests.put(paintPathRequest);
+                        } else {
+                            releaseScreenPath(path);
+                            if (layerMetrics != null) {
+                                layerMetrics.geometrySkipped();
+                            }
+                        }
+                        continue;
+                    }
+                }
+
                 LiteShape2 shape = drawMe.getShape(symbolizer, at);
                 if(shape == null) {
+                    if (layerMetrics != null) {
+                        layerMetrics.geometrySkipped();
+                    }
                     continue;
                 }
                 
@@ -2770,19 +3255,22 @@ public class StreamingRenderer implements GTRenderer {
                 } else {
                     Style2D style = styleFactory.createStyle(drawMe.content,
                             symbolizer, scaleRange);
+                    if (drawMe.isSymbolPainted(symbolizer, style, shape)) {
+                        if (layerMetrics != null) {
+                            layerMetrics.geometrySkipped();
+                        }
+                        continue;
+                    }
                     
-                    // clip to the visible area + the size of the symbolizer (with some extra 
-                    // to make sure we get no artefacts from polygon new borders)
-                    double size = RendererUtilities.getStyle2DSize(style);
-                    // take into account the meta buffer to try and clip all geometries by the same
-                    // amount
-                    double clipBuffer = Math.max(size / 2, metaBuffer) + 10;
-                    Envelope env = new Envelope(screenSize.getMinX(), screenSize.getMaxX(), screenSize.getMinY(), screenSize.getMaxY());
-                    env.expandBy(clipBuffer);
+                    Envelope env = getClipEnvelope(style);
                     final GeometryClipper clipper = new GeometryClipper(env);
                     Geometry g = clipper.clip(shape.getGeometry(), false);
-                    if(g == null) 
+                    if(g == null) {
+                        if (layerMetrics != null) {
+                            layerMetrics.geometrySkipped();
+                        }
                         continue;
+                    }
                     if(g != shape.getGeometry()) {
                         shape = new LiteShape2(g, null, null, false);
                     }
@@ -2800,6 +3288,48 @@ public class StreamingRenderer implements GTRenderer {
         requests.put(new FeatureRenderedRequest(drawMe.content));
     }
 
+    /**
+     * Returns the area geometries painted with the specified style should be clipped to, that
+     * is, the visible area plus the size of the symbolizer (with some extra to make sure we get
+     * no artefacts from polygon new borders)
+     */
+    private Envelope getClipEnvelope(Style2D style) {
+        double size = RendererUtilities.getStyle2DSize(style);
+        // take into account the meta buffer to try and clip all geometries by the same
+        // amount
+        double clipBuffer = Math.max(size / 2, metaBuffer) + 10;
+        Envelope env = new Envelope(screenSize.getMinX(), screenSize.getMaxX(), screenSize.getMinY(), screenSize.getMaxY());
+        env.expandBy(clipBuffer);
+        return env;
+    }
+
+    /**
+     * Returns a pooled screen path, or a new one if the pool is empty
+     */
+    private ScreenPath acquireScreenPath() {
+        ScreenPath path = screenPaths.poll();
+        if (path == null) {
+            return new ScreenPath();
+        }
+        pooledScreenPaths.decrementAndGet();
+        return path;
+    }
+
+    /**
+     * Gives back a screen path for reuse, unless it grew too large or the pool is full
+     */
+    private void releaseScreenPath(ScreenPath path) {
+        if (path.getCapacity() > MAX_POOLED_PATH_CAPACITY) {
+            return;
+        }
+        if (pooledScreenPaths.incrementAndGet() <= MAX_POOLED_PATHS) {
+            path.reset();
+            screenPaths.offer(path);
+        } else {
+            pooledScreenPaths.decrementAndGet();
+        }
+    }
+
     /**
      * Builds a raster grid geometry that will be used for reading, taking into account
      * the original map extent and target paint area, and expanding the target raster area
@@ -3120,6 +3650,22 @@ public class StreamingRenderer implements GTRenderer {
         return null;
     }
     
+    /**
+     * Reads the coverage, tracking the read time if metrics are being collected
+     */
+    private GridCoverage2D readCoverageWithMetrics(final GridCoverage2DReader reader,
+            final Object params, GridGeometry2D readGG) throws IOException {
+        if (layerMetrics == null) {
+            return readCoverage(reader, params, readGG);
+        }
+        final long start = System.nanoTime();
+        try {
+            return readCoverage(reader, params, readGG);
+        } finally {
+            layerMetrics.addRasterReadTime(System.nanoTime() - start);
+        }
+    }
+
     GridCoverage2D readCoverage(final GridCoverage2DReader reader, final Object params, GridGeometry2D readGG) throws IOException {
         GridCoverage2D coverage;
         // read the coverage with the proper target geometry (will trigger cropping and resolution reduction)
@@ -3190,21 +3736,182 @@ public class StreamingRenderer implements GTRenderer {
         private boolean clone;
         private IdentityHashMap decimators = new IdentityHashMap();
         private ScreenMap screenMap;
+        private SymbolScreenMap symbolScreenMap;
+        private List<Geometry> screenMapSources = new ArrayList<Geometry>();
+        private List<Geometry> screenMapResults = new ArrayList<Geometry>();
+        private ReferencedEnvelope renderingExtent;
 
 
         public RenderableFeature(MapLayer layer, boolean clone) {
             this.layer = layer;
             this.clone = clone;
+            this.renderingExtent = mapExtent;
         }
 
         public void setScreenMap(ScreenMap screenMap) {
             this.screenMap = screenMap;
         }
 
+        public void setSymbolScreenMap(SymbolScreenMap symbolScreenMap) {
+            this.symbolScreenMap = symbolScreenMap;
+        }
+
+        /**
+         * Checks if the point symbol about to be painted can be skipped because an identical
+         * one has already been painted in the same spot
+         */
+        public boolean isSymbolPainted(Symbolizer symbolizer, Style2D style, LiteShape2 shape) {
+            if (symbolScreenMap == null || !(symbolizer instanceof PointSymbolizer)) {
+                return false;
+            }
+            Geometry g = shape.getGeometry();
+            if (!(g instanceof Point)) {
+                return false;
+            }
+            Point p = (Point) g;
+            return symbolScreenMap.checkAndSet(symbolizer, style, p.getX(), p.getY());
+        }
+
         public void setFeature(Object feature) {
+            if (layerMetrics != null) {
+                layerMetrics.featureRead();
+            }
             this.content = feature;
             geometries.clear();
             shapes.clear();
+            screenMapSources.clear();
+            screenMapResults.clear();
+        }
+
+        /**
+         * Checks if the geometry associated to the symbolizer can be turned into a
+         * {@link ScreenPath}, that is, if it's transformed to the screen by a 2D transformation
+         */
+        public boolean isScreenPathSupported(Symbolizer symbolizer, AffineTransform at) {
+            SymbolizerAssociation sa = getSymbolizerAssociation(symbolizer, at);
+            return sa.xform == null
+                    || (sa.xform.getSourceDimensions() == 2 && sa.xform.getTargetDimensions() == 2);
+        }
+
+        /**
+         * Appends the symbolizer geometry, transformed to screen space, generalized and clipped,
+         * to the specified path. Unlike {@link #getShape(Symbolizer, AffineTransform)} the 
+         * geometry is neither cloned nor modified.
+         * 
+         * @return true if anything was added to the path
+         */
+        public boolean getScreenPath(Symbolizer symbolizer, AffineTransform at, Envelope clip,
+                ScreenPath path) throws FactoryException {
+            Geometry g = findGeometry(content, symbolizer);
+            if (g == null)
+                return false;
+
+            if (screenMap != null && !(g instanceof Point)) {
+                g = applyScreenMap(g);
+                if (g == null)
+                    return false;
+            }
+
+            try {
+                SymbolizerAssociation sa = getSymbolizerAssociation(symbolizer, at);
+                double distance = inMemoryGeneralization ? generalizationDistance : 0;
+                if (layerMetrics == null) {
+                    return path.append(g, sa.xform, distance, clip);
+                }
+                final long start = System.nanoTime();
+                final int skipped = path.getSkippedPoints();
+                try {
+                    return path.append(g, sa.xform, distance, clip);
+                } finally {
+                    layerMetrics.addTransformTime(System.nanoTime() - start);
+                    if (path.getSkippedPoints() > skipped) {
+                        layerMetrics.geometryGeneralized();
+                    }
+                }
+            } catch (TransformException te) {
+                LOGGER.log(Level.FINE, te.getLocalizedMessage(), te);
+                fireErrorEvent(te);
+                return false;
+            }
+        }
+
+        /**
+         * Checks the geometry against the screen map, returning null if it has already been
+         * painted, or the geometry (eventually simplified) otherwise. The outcome is remembered
+         * so that all the symbolizers get to paint the same geometry.
+         */
+        private Geometry applyScreenMap(Geometry g) {
+            for (int i = 0; i < screenMapSources.size(); i++) {
+                if (screenMapSources.get(i) == g) {
+                    return screenMapResults.get(i);
+                }
+            }
+
+            Geometry result = g;
+            Envelope env = g.getEnvelopeInternal();
+            if(screenMap.canSimplify(env))
+                if (screenMap.checkAndSet(env)) {
+                    result = null;
+                } else {
+                    result = screenMap.getSimplifiedShape(env.getMinX(), env.getMinY(), 
+                            env.getMaxX(), env.getMaxY(), g.getFactory(), g.getClass());
+                }
+            screenMapSources.add(g);
+            screenMapResults.add(result);
+            return result;
+        }
+
+        private SymbolizerAssociation getSymbolizerAssociation(Symbolizer symbolizer,
+                AffineTransform at) {
+            SymbolizerAssociation sa = (SymbolizerAssociation) symbolizerAssociationHT
+            .get(symbolizer);
+            if (sa == null) {
+                sa = new SymbolizerAssociation();
+                sa.crs = (findGeometryCS(layer, content, symbolizer));
+                MathTransform crsTransform = null;
+                MathTransform atTransform = null;
+                MathTransform fullTransform = null;
+                try {
+                    crsTransform = buildTransform(sa.crs, destinationCrs);
+                    atTransform = (MathTransform2D) ProjectiveTransform.create(worldToScreenTransform);
+                    fullTransform = buildFullTransform(sa.crs, destinationCrs, at);
+                } catch (Exception e) {
+                    // fall through
+                    LOGGER.log(Level.WARNING, e.getLocalizedMessage(), e);
+                }
+                if (crsTransform != null && fullTransform instanceof MathTransform2D) {
+                    fullTransform = approximate((MathTransform2D) fullTransform, sa.crs);
+                }
+                sa.xform = fullTransform;
+                sa.crsxform = crsTransform;
+                sa.axform = atTransform;
+
+                symbolizerAssociationHT.put(symbolizer, sa);
+            }
+            return sa;
+        }
+
+        /**
+         * Replaces the full transform with an approximation over the rendering area, if
+         * enabled, see {@link #APPROXIMATE_TRANSFORM_TOLERANCE_KEY}
+         */
+        private MathTransform approximate(MathTransform2D fullTransform,
+                CoordinateReferenceSystem crs) {
+            double tolerance = getApproximateTransformTolerance();
+            if (tolerance <= 0 || projectionHandler != null || renderingExtent == null
+                    || crs == null) {
+                return fullTransform;
+            }
+            try {
+                ReferencedEnvelope domain = renderingExtent.transform(crs, true, 10);
+                return ApproximateTransform2D.create(fullTransform, new Rectangle2D.Double(
+                        domain.getMinX(), domain.getMinY(), domain.getWidth(),
+                        domain.getHeight()), tolerance);
+            } catch (Exception e) {
+                // the exact transform works anyways
+                LOGGER.log(Level.FINE, "Could not approximate the rendering transformation", e);
+                return fullTransform;
+            }
         }
 
         public LiteShape2 getShape(Symbolizer symbolizer, AffineTransform at) throws FactoryException {
@@ -3222,38 +3929,13 @@ public class StreamingRenderer implements GTRenderer {
                         && !(symbolizer instanceof PointSymbolizer) //
                         && !(g instanceof Point)
                         && getGeometryIndex(g) == -1) {
-                    Envelope env = g.getEnvelopeInternal();
-                    if(screenMap.canSimplify(env))
-                        if (screenMap.checkAndSet(env)) {
-                            return null;
-                        } else {
-                            g = screenMap.getSimplifiedShape(env.getMinX(), env.getMinY(), 
-                                    env.getMaxX(), env.getMaxY(), g.getFactory(), g.getClass());
-                        }
-                }
-    
-                SymbolizerAssociation sa = (SymbolizerAssociation) symbolizerAssociationHT
-                .get(symbolizer);
-                MathTransform crsTransform = null;
-                MathTransform atTransform = null;
-                MathTransform fullTransform = null;
-                if (sa == null) {
-                    sa = new SymbolizerAssociation();
-                    sa.crs = (findGeometryCS(layer, content, symbolizer));
-                    try {
-                        crsTransform = buildTransform(sa.crs, destinationCrs);
-                        atTransform = (MathTransform2D) ProjectiveTransform.create(worldToScreenTransform);
-                        fullTransform = buildFullTransform(sa.crs, destinationCrs, at);
-                    } catch (Exception e) {
-                        // fall through
-                        LOGGER.log(Level.WARNING, e.getLocalizedMessage(), e);
+                    g = applyScreenMap(g);
+                    if (g == null) {
+                        return null;
                     }
-                    sa.xform = fullTransform;
-                    sa.crsxform = crsTransform;
-                    sa.axform = atTransform;
-    
-                    symbolizerAssociationHT.put(symbolizer, sa);
                 }
+    
+                SymbolizerAssociation sa = getSymbolizerAssociation(symbolizer, at);
 
                 // some shapes may be too close to projection boundaries to
                 // get transformed, try to be lenient
@@ -3313,6 +3995,8 @@ public class StreamingRenderer implements GTRenderer {
             if(idx != -1) {
                 return (LiteShape2) shapes.get(idx);
             }
+            final long start = layerMetrics != null ? System.nanoTime() : 0;
+            boolean generalized = false;
 
             // we need to clone if the clone flag is high or if the coordinate sequence is not the one we asked for
             Geometry geom = originalGeom;
@@ -3330,8 +4014,10 @@ public class StreamingRenderer implements GTRenderer {
                 } else {
                     // first generalize and transform the geometry into the rendering CRS
                     Decimator d = getDecimator(sa.xform);
+                    final int points = layerMetrics != null ? geom.getNumPoints() : 0;
                     d.decimateTransformGeneralize(geom, sa.crsxform);
                     geom.geometryChanged();
+                    generalized = layerMetrics != null && geom.getNumPoints() < points;
                     // then post process it (provide reverse transform if available)
                     MathTransform reverse = null;
                     if (sa.crsxform != null) {
@@ -3366,7 +4052,16 @@ public class StreamingRenderer implements GTRenderer {
                 MathTransform xform = null;
                 if(sa != null)
                     xform = sa.xform;
+                final int points = layerMetrics != null ? geom.getNumPoints() : 0;
                 shape = new LiteShape2(geom, xform, getDecimator(xform), false, false);
+                generalized = layerMetrics != null && shape.getGeometry().getNumPoints() < points;
+            }
+
+            if (layerMetrics != null) {
+                layerMetrics.addTransformTime(System.nanoTime() - start);
+                if (shape != null && generalized) {
+                    layerMetrics.geometryGeneralized();
+                }
             }
 
             // cache the result
@@ -3409,6 +4104,11 @@ public class StreamingRenderer implements GTRenderer {
      * @author aaime
      */
     abstract class RenderingRequest {
+        /**
+         * The metrics of the layer the request belongs to, if metrics are being collected
+         */
+        final LayerMetrics layerMetrics = StreamingRenderer.this.layerMetrics;
+
         abstract void execute();
     }
     
@@ -3453,6 +4153,48 @@ public class StreamingRenderer implements GTRenderer {
         }
     }
     
+    /**
+     * A request to paint a screen path with a specific Style2D, the path is given back
+     * for reuse once painted
+     */
+    class PaintScreenPathRequest extends RenderingRequest {
+        Graphics2D graphic;
+
+        ScreenPath path;
+
+        Style2D style;
+
+        double scale;
+
+        boolean labelObstacle = false;
+
+        public PaintScreenPathRequest(Graphics2D graphic, ScreenPath path, Style2D style, double scale) {
+            this.graphic = graphic;
+            this.path = path;
+            this.style = style;
+            this.scale = scale;
+        }
+
+        public void setLabelObstacle(boolean labelObstacle) {
+            this.labelObstacle = labelObstacle;
+        }
+
+        @Override
+        void execute() {
+            if(graphic instanceof DelayedBackbufferGraphic) {
+                ((DelayedBackbufferGraphic) graphic).init();
+            }
+
+            try {
+                painter.paint(graphic, path, style, scale, labelObstacle);
+            } catch(Throwable t) {
+                fireErrorEvent(t);
+            } finally {
+                releaseScreenPath(path);
+            }
+        }
+    }
+
     /**
      * A request to paint a shape with a specific Style2D
      * @author aaime
@@ -3613,6 +4355,46 @@ public class StreamingRenderer implements GTRenderer {
         
     }
     
+    /**
+     * Paints a single layer in its own back buffer, used by the parallel layer rendering
+     */
+    class LayerPainter implements Callable<BufferedImage> {
+        private final StreamingRenderer renderer;
+        private final GraphicsConfiguration configuration;
+        private final RenderingHints hints;
+        private final Rectangle paintArea;
+        private final ReferencedEnvelope mapArea;
+        private final AffineTransform worldToScreen;
+
+        public LayerPainter(StreamingRenderer renderer, GraphicsConfiguration configuration,
+                RenderingHints hints, Rectangle paintArea, ReferencedEnvelope mapArea,
+                AffineTransform worldToScreen) {
+            this.renderer = renderer;
+            this.configuration = configuration;
+            this.hints = hints;
+            this.paintArea = paintArea;
+            this.mapArea = mapArea;
+            this.worldToScreen = worldToScreen;
+        }
+
+        public BufferedImage call() throws Exception {
+            if (renderingStopRequested) {
+                return null;
+            }
+            // same back buffer layout as the one used for the feature type styles
+            BufferedImage image = configuration.createCompatibleImage(paintArea.width,
+                    paintArea.height, Transparency.TRANSLUCENT);
+            Graphics2D graphics = image.createGraphics();
+            try {
+                graphics.setRenderingHints(hints);
+                renderer.paint(graphics, paintArea, mapArea, new AffineTransform(worldToScreen));
+            } finally {
+                graphics.dispose();
+            }
+            return image;
+        }
+    }
+    
     /**
      * Marks the end of the request flow, instructs the painting thread to exit
      * @author Andrea Aime - OpenGeo
@@ -3653,6 +4435,13 @@ public class StreamingRenderer implements GTRenderer {
                     RenderingRequest request = requests.take();
                     if(request instanceof EndRequest || renderingStopRequested) {
                         done = true;
+                    } else if (request.layerMetrics != null) {
+                        final long start = System.nanoTime();
+                        try {
+                            request.execute();
+                        } finally {
+                            request.layerMetrics.addPaintTime(System.nanoTime() - start);
+                        }
                     } else {
                         request.execute();
                     }
@@ -39,6 +39,7 @@ import javax.swing.Icon;
 import org.geotools.geometry.jts.Decimator;
 import org.geotools.geometry.jts.GeomCollectionIterator;
 import org.geotools.geometry.jts.LiteShape2;
+import org.geotools.geometry.jts.ScreenPath;
 import org.geotools.referencing.operation.transform.AffineTransform2D;
 import org.geotools.renderer.style.GraphicStyle2D;
 import org.geotools.renderer.style.IconStyle2D;
@@ -87,6 +88,11 @@ public final class StyledShapePainter {
      */
     LabelCache labelCache;
 
+    /**
+     * The cache of pre-rendered marks and icons, if any
+     */
+    SymbolRasterCache symbolCache;
+
     public StyledShapePainter() {
         // nothing do do, just needs to exist
     }
@@ -123,6 +129,50 @@ public final class StyledShapePainter {
      */
     public void paint(final Graphics2D graphics, final LiteShape2 shape,
             final Style2D style, final double scale, boolean isLabelObstacle) {
+        paintShape(graphics, shape, style, scale, isLabelObstacle);
+    }
+
+    /**
+     * Returns the cache of pre-rendered marks and icons used to paint point symbols, or null
+     * if point symbols are painted as vectors
+     */
+    public SymbolRasterCache getSymbolCache() {
+        return symbolCache;
+    }
+
+    /**
+     * Sets the cache of pre-rendered marks and icons used to paint point symbols. The cache is
+     * used only when painting on a graphics with no transformation, null (the default) makes
+     * the painter paint point symbols as vectors.
+     * 
+     * @param symbolCache
+     */
+    public void setSymbolCache(SymbolRasterCache symbolCache) {
+        this.symbolCache = symbolCache;
+    }
+
+    /**
+     * Paints a geometry already transformed to screen space according to the rendered style.
+     * The path is only read, so it can be reset and reused once this method returns.
+     * 
+     * @param graphics
+     *            The graphics in which to draw.
+     * @param path
+     *            The screen space path to draw.
+     * @param style
+     *            The style to apply, or <code>null</code> if none.
+     * @param scale
+     *            The scale denominator for the current zoom level
+     * @param isLabelObstacle
+     *            If true the painted area will be registered as an obstacle in the label cache
+     */
+    public void paint(final Graphics2D graphics, final ScreenPath path,
+            final Style2D style, final double scale, boolean isLabelObstacle) {
+        paintShape(graphics, path, style, scale, isLabelObstacle);
+    }
+
+    private void paintShape(final Graphics2D graphics, final Shape shape,
+            final Style2D style, final double scale, boolean isLabelObstacle) {
         if (style == null) {
             // TODO: what's going on? Should not be reached...
             LOGGER.severe("ShapePainter has been asked to paint a null style!!");
@@ -142,6 +192,7 @@ public final class StyledShapePainter {
                 IconStyle2D icoStyle = (IconStyle2D) style;
                 Icon icon = icoStyle.getIcon();
                 graphics.setComposite(icoStyle.getComposite());
+                SymbolRasterCache.SymbolRasters rasters = getSymbolRasters(graphics, icoStyle);
 
                 // the displacement to be applied to all points, centers the icon and applies the 
                 // Graphic displacement as well
@@ -159,11 +210,15 @@ public final class StyledShapePainter {
                     
                     double x = coords[0] + dx;
                     double y = coords[1] + dy;
-                    markAT.translate(x, y);
-                    markAT.rotate(icoStyle.getRotation());
-                    graphics.setTransform(markAT);
-                    
-                    icon.paintIcon(null, graphics, 0, 0);
+                    if (rasters != null) {
+                        rasters.paint(graphics, x, y);
+                    } else {
+                        markAT.translate(x, y);
+                        markAT.rotate(icoStyle.getRotation());
+                        graphics.setTransform(markAT);
+
+                        icon.paintIcon(null, graphics, 0, 0);
+                    }
                     
                     if (isLabelObstacle) {
                         //TODO: rotation?
@@ -181,10 +236,23 @@ public final class StyledShapePainter {
             // get the point onto the shape has to be painted
             float[] coords = new float[2];
             MarkStyle2D ms2d = (MarkStyle2D) style;
+            SymbolRasterCache.SymbolRasters rasters = getSymbolRasters(graphics, ms2d);
+            if (rasters != null) {
+                graphics.setComposite(AlphaComposite.SrcOver);
+            }
 
             Shape transformedShape ;
             while (!(citer.isDone())) {
                 citer.currentSegment(coords);
+                if (rasters != null) {
+                    rasters.paint(graphics, coords[0], coords[1]);
+                    if (isLabelObstacle) {
+                        labelCache.put(ms2d.getTransformedShape(coords[0], coords[1])
+                                .getBounds2D());
+                    }
+                    citer.next();
+                    continue;
+                }
                 transformedShape = ms2d.getTransformedShape(coords[0],
                         coords[1]);
                 if (transformedShape != null) {
@@ -253,7 +321,7 @@ public final class StyledShapePainter {
 
                     graphics.setPaint(paint);
                     graphics.setComposite(ps2d.getFillComposite());
-                    fillLiteShape(graphics, shape);
+                    fillShape(graphics, shape);
                 }
                 if (ps2d.getGraphicFill() != null) {
                     Shape oldClip = graphics.getClip();
@@ -392,6 +460,34 @@ public final class StyledShapePainter {
         return new DashedShape(shape, bs.getDashArray(), bs.getDashPhase());
     }
 
+    /**
+     * Returns the pre-rendered rasters of the specified mark or icon, or null if they cannot be
+     * used to paint on the graphics
+     */
+    private SymbolRasterCache.SymbolRasters getSymbolRasters(Graphics2D graphics, Style2D style) {
+        if (symbolCache == null || !graphics.getTransform().isIdentity()) {
+            return null;
+        }
+        if (style instanceof MarkStyle2D) {
+            return symbolCache.getMarkRasters((MarkStyle2D) style, graphics);
+        } else if (style instanceof IconStyle2D) {
+            return symbolCache.getIconRasters((IconStyle2D) style, graphics);
+        }
+        return null;
+    }
+
+    /**
+     * Extracts a path iterator from the shape
+     * @param shape
+     * @return
+     */
+    private PathIterator getPathIterator(final Shape shape) {
+        if (shape instanceof LiteShape2) {
+            return getPathIterator((LiteShape2) shape);
+        }
+        return shape.getPathIterator(null);
+    }
+
     /**
      * Extracts a ath iterator from the shape
      * @param shape
@@ -676,6 +772,27 @@ public final class StyledShapePainter {
         }
     }
     
+    /**
+     * Fills either a {@link LiteShape2} or a {@link ScreenPath}, delegating to
+     * {@link #fillLiteShape(Graphics2D, LiteShape2)} for the former, and filling the polygons of
+     * the latter one by one, so that overlapping polygons do not result in holes
+     * @param g
+     * @param shape
+     */
+    private void fillShape(Graphics2D g, Shape shape) {
+        if (shape instanceof LiteShape2) {
+            fillLiteShape(g, (LiteShape2) shape);
+        } else if (shape instanceof ScreenPath && ((ScreenPath) shape).getPolygonCount() > 1) {
+            // fill polygons one by one, overlapping ones would otherwise create holes
+            ScreenPath path = (ScreenPath) shape;
+            for (int i = 0; i < path.getPolygonCount(); i++) {
+                g.fill(path.getPolygon(i));
+            }
+        } else {
+            g.fill(shape);
+        }
+    }
+
     /**
      * Filling multipolygons might result in holes where two polygons overlap. In this method we
      * work around that by drawing each polygon as a separate shape
@@ -0,0 +1,585 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2013, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.renderer.lite;
+
+import java.awt.AlphaComposite;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Graphics2D;
+import java.awt.Paint;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.Stroke;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import javax.swing.Icon;
+
+import org.geotools.renderer.style.IconStyle2D;
+import org.geotools.renderer.style.MarkStyle2D;
+import org.geotools.util.logging.Logging;
+
+/**
+ * A bounded, thread safe, least recently used cache of pre-rendered marks and icons, allowing
+ * {@link StyledShapePainter} to paint point symbols by copying a raster, instead of filling and
+ * stroking the mark shape (or painting the icon) for every single point.
+ * <p>
+ * Each symbol is rasterized on demand for a number of sub-pixel positions
+ * ({@link #SUBPIXEL_STEPS} along each axis), so that the painted result is within a fraction
+ * of a pixel from the one obtained by vector painting. Mark rotations are rounded to
+ * {@link #ROTATION_STEPS} steps per full turn.
+ * </p>
+ * <p>
+ * Only symbols painted with plain colors, basic strokes and source over alpha composites, and
+ * no larger than {@link #MAX_SYMBOL_SIZE} pixels, are cached. The cache is bounded by the memory
+ * used by the rasters. The default instance size is controlled by the {@link #CACHE_SIZE_KEY}
+ * system variable, in bytes, and defaults to {@link #DEFAULT_CACHE_SIZE}, a size of zero
+ * disables it.
+ * </p>
+ *
+ * @source $URL$
+ */
+public class SymbolRasterCache {
+
+    static final Logger LOGGER = Logging.getLogger(SymbolRasterCache.class);
+
+    /**
+     * The system variable controlling the size of the default cache, in bytes
+     */
+    public static final String CACHE_SIZE_KEY = "org.geotools.renderer.lite.symbolRasterCacheSize";
+
+    /**
+     * The default cache size, in bytes
+     */
+    public static final long DEFAULT_CACHE_SIZE = 16 * 1024 * 1024;
+
+    /**
+     * The number of sub-pixel positions, along each axis, a symbol is rasterized for
+     */
+    public static final int SUBPIXEL_STEPS = 4;
+
+    /**
+     * The number of rotation steps in a full turn
+     */
+    public static final int ROTATION_STEPS = 720;
+
+    /**
+     * The maximum size of a cached symbol, in pixels
+     */
+    public static final int MAX_SYMBOL_SIZE = 256;
+
+    private static final SymbolRasterCache DEFAULT;
+
+    static {
+        long size = DEFAULT_CACHE_SIZE;
+        try {
+            size = Long.parseLong(System.getProperty(CACHE_SIZE_KEY,
+                    String.valueOf(DEFAULT_CACHE_SIZE)));
+        } catch (NumberFormatException e) {
+            LOGGER.warning("Invalid value for " + CACHE_SIZE_KEY + ", using "
+                    + DEFAULT_CACHE_SIZE);
+        }
+        DEFAULT = size > 0 ? new SymbolRasterCache(size) : null;
+    }
+
+    /**
+     * Returns the process wide cache, or null if it has been disabled
+     */
+    public static SymbolRasterCache getDefault() {
+        return DEFAULT;
+    }
+
+    private final long maxMemory;
+
+    private long memory;
+
+    private final LinkedHashMap<Object, SymbolRasters> cache = new LinkedHashMap<Object, SymbolRasters>(
+            16, 0.75f, true);
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Builds a new cache using at most the specified amount of memory for the rasters
+     *
+     * @param maxMemory
+     *            the maximum memory, in bytes
+     */
+    public SymbolRasterCache(long maxMemory) {
+        if (maxMemory <= 0) {
+            throw new IllegalArgumentException("The cache size must be positive, got "
+                    + maxMemory);
+        }
+        this.maxMemory = maxMemory;
+    }
+
+    /**
+     * Returns the rasters of the specified mark, or null if the mark cannot be cached
+     *
+     * @param style
+     *            the mark style
+     * @param graphics
+     *            the graphics the mark will be painted on, used to pick the rendering hints
+     */
+    SymbolRasters getMarkRasters(MarkStyle2D style, Graphics2D graphics) {
+        Shape shape = style.getShape();
+        if (shape == null || style.getSize() <= 0 || style.getSize() > MAX_SYMBOL_SIZE
+                || !isCacheable(style.getFill()) || !isCacheable(style.getContour())
+                || !isCacheable(style.getFillComposite())
+                || !isCacheable(style.getContourComposite())) {
+            return null;
+        }
+        Stroke stroke = style.getContour() != null ? style.getStroke() : null;
+        if (stroke != null && !(stroke instanceof BasicStroke)) {
+            return null;
+        }
+
+        int rotation = (int) Math.round(style.getRotation() / (2 * Math.PI) * ROTATION_STEPS)
+                % ROTATION_STEPS;
+        MarkKey key = new MarkKey(style, stroke, rotation, graphics);
+        SymbolRasters rasters = get(key);
+        if (rasters == null) {
+            rasters = new MarkRasters(key);
+            put(key, rasters);
+        }
+        return rasters;
+    }
+
+    /**
+     * Returns the rasters of the specified icon, or null if the icon cannot be cached
+     *
+     * @param style
+     *            the icon style
+     * @param graphics
+     *            the graphics the icon will be painted on, used to pick the rendering hints
+     */
+    SymbolRasters getIconRasters(IconStyle2D style, Graphics2D graphics) {
+        Icon icon = style.getIcon();
+        // rotated icons turn around their corner, not worth caching
+        if (icon == null || style.getRotation() != 0 || icon.getIconWidth() <= 0
+                || icon.getIconHeight() <= 0 || icon.getIconWidth() > MAX_SYMBOL_SIZE
+                || icon.getIconHeight() > MAX_SYMBOL_SIZE) {
+            return null;
+        }
+
+        IconKey key = new IconKey(icon, graphics);
+        SymbolRasters rasters = get(key);
+        if (rasters == null) {
+            rasters = new IconRasters(key);
+            put(key, rasters);
+        }
+        return rasters;
+    }
+
+    private boolean isCacheable(Paint paint) {
+        return paint == null || paint instanceof Color;
+    }
+
+    private boolean isCacheable(Composite composite) {
+        return composite == null
+                || (composite instanceof AlphaComposite && ((AlphaComposite) composite).getRule() == AlphaComposite.SRC_OVER);
+    }
+
+    private SymbolRasters get(Object key) {
+        SymbolRasters rasters;
+        synchronized (cache) {
+            rasters = cache.get(key);
+        }
+        if (rasters != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return rasters;
+    }
+
+    private void put(Object key, SymbolRasters rasters) {
+        synchronized (cache) {
+            SymbolRasters previous = cache.put(key, rasters);
+            if (previous != null) {
+                memory -= previous.memory;
+                previous.evicted = true;
+            }
+        }
+    }
+
+    /**
+     * Accounts for a newly rasterized symbol, evicting the least recently used ones as needed
+     */
+    void addMemory(SymbolRasters rasters, long bytes) {
+        synchronized (cache) {
+            // the symbol might have been evicted while being painted
+            if (rasters.evicted) {
+                return;
+            }
+            rasters.memory += bytes;
+            memory += bytes;
+            Iterator<SymbolRasters> it = cache.values().iterator();
+            while (memory > maxMemory && it.hasNext()) {
+                SymbolRasters eldest = it.next();
+                // don't evict the symbol being painted
+                if (eldest == rasters) {
+                    continue;
+                }
+                it.remove();
+                memory -= eldest.memory;
+                eldest.evicted = true;
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Removes all the cached symbols
+     */
+    public void clear() {
+        synchronized (cache) {
+            for (SymbolRasters rasters : cache.values()) {
+                rasters.evicted = true;
+            }
+            cache.clear();
+            memory = 0;
+        }
+    }
+
+    /**
+     * The number of symbols currently cached
+     */
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    /**
+     * The memory currently used by the cached rasters, in bytes
+     */
+    public long getMemory() {
+        synchronized (cache) {
+            return memory;
+        }
+    }
+
+    /**
+     * The maximum memory used by the cached rasters, in bytes
+     */
+    public long getMaxMemory() {
+        return maxMemory;
+    }
+
+    /**
+     * The number of lookups that found a cached symbol
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * The number of lookups that did not find a cached symbol
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * The number of symbols evicted to keep the cache within its size
+     */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    @Override
+    public String toString() {
+        return "SymbolRasterCache[size=" + size() + ", memory=" + getMemory() + "/" + maxMemory
+                + ", hits=" + getHits() + ", misses=" + getMisses() + ", evictions="
+                + getEvictions() + "]";
+    }
+
+    /**
+     * A pre-rendered symbol, along with its position relative to the pixel containing the
+     * point it's painted at
+     */
+    static final class SymbolRaster {
+        final BufferedImage image;
+
+        final int offsetX;
+
+        final int offsetY;
+
+        SymbolRaster(BufferedImage image, int offsetX, int offsetY) {
+            this.image = image;
+            this.offsetX = offsetX;
+            this.offsetY = offsetY;
+        }
+    }
+
+    /**
+     * The rasters of a symbol, one per sub-pixel position, built on demand
+     */
+    abstract class SymbolRasters {
+        private final SymbolRaster[] rasters = new SymbolRaster[SUBPIXEL_STEPS * SUBPIXEL_STEPS];
+
+        long memory;
+
+        boolean evicted;
+
+        /**
+         * Paints the symbol so that its reference point lands in x, y
+         */
+        void paint(Graphics2D graphics, double x, double y) {
+            double fx = Math.floor(x);
+            double fy = Math.floor(y);
+            int px = Math.min((int) ((x - fx) * SUBPIXEL_STEPS), SUBPIXEL_STEPS - 1);
+            int py = Math.min((int) ((y - fy) * SUBPIXEL_STEPS), SUBPIXEL_STEPS - 1);
+            int idx = py * SUBPIXEL_STEPS + px;
+            SymbolRaster raster;
+            boolean created = false;
+            synchronized (this) {
+                raster = rasters[idx];
+                if (raster == null) {
+                    raster = rasterize((px + 0.5) / SUBPIXEL_STEPS, (py + 0.5) / SUBPIXEL_STEPS);
+                    rasters[idx] = raster;
+                    created = true;
+                }
+            }
+            if (created) {
+                addMemory(this, 4l * raster.image.getWidth() * raster.image.getHeight());
+            }
+            graphics.drawImage(raster.image, (int) fx + raster.offsetX, (int) fy
+                    + raster.offsetY, null);
+        }
+
+        /**
+         * Rasterizes the symbol with the reference point in the specified sub-pixel position
+         */
+        abstract SymbolRaster rasterize(double dx, double dy);
+
+        /**
+         * Sets up a graphics with the same hints used by the target graphics
+         */
+        Graphics2D createGraphics(BufferedImage image, Object antialiasing, Object strokeControl,
+                Object interpolation) {
+            Graphics2D g = image.createGraphics();
+            if (antialiasing != null) {
+                g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, antialiasing);
+            }
+            if (strokeControl != null) {
+                g.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, strokeControl);
+            }
+            if (interpolation != null) {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, interpolation);
+            }
+            return g;
+        }
+    }
+
+    private class MarkRasters extends SymbolRasters {
+        final MarkKey key;
+
+        MarkRasters(MarkKey key) {
+            this.key = key;
+        }
+
+        @Override
+        SymbolRaster rasterize(double dx, double dy) {
+            Shape shape = key.style.getTransformedShape((float) dx, (float) dy,
+                    (float) (key.rotation * 2 * Math.PI / ROTATION_STEPS));
+            Rectangle2D bounds = shape.getBounds2D();
+            if (key.contour != null) {
+                bounds.add(key.stroke.createStrokedShape(shape).getBounds2D());
+            }
+            // leave some room for antialiasing
+            double pad = 2;
+            int minX = (int) Math.floor(bounds.getMinX() - pad);
+            int minY = (int) Math.floor(bounds.getMinY() - pad);
+            int width = (int) Math.ceil(bounds.getMaxX() + pad) - minX;
+            int height = (int) Math.ceil(bounds.getMaxY() + pad) - minY;
+
+            BufferedImage image = new BufferedImage(width, height,
+                    BufferedImage.TYPE_INT_ARGB_PRE);
+            Graphics2D g = createGraphics(image, key.antialiasing, key.strokeControl, null);
+            try {
+                g.translate(-minX, -minY);
+                if (key.fill != null) {
+                    g.setPaint(key.fill);
+                    g.setComposite(key.fillComposite != null ? key.fillComposite
+                            : AlphaComposite.SrcOver);
+                    g.fill(shape);
+                }
+                if (key.contour != null) {
+                    g.setPaint(key.contour);
+                    g.setStroke(key.stroke);
+                    g.setComposite(key.contourComposite != null ? key.contourComposite
+                            : AlphaComposite.SrcOver);
+                    g.draw(shape);
+                }
+            } finally {
+                g.dispose();
+            }
+            return new SymbolRaster(image, minX, minY);
+        }
+    }
+
+    private class IconRasters extends SymbolRasters {
+        final IconKey key;
+
+        IconRasters(IconKey key) {
+            this.key = key;
+        }
+
+        @Override
+        SymbolRaster rasterize(double dx, double dy) {
+            int width = key.icon.getIconWidth() + 2;
+            int height = key.icon.getIconHeight() + 2;
+            BufferedImage image = new BufferedImage(width, height,
+                    BufferedImage.TYPE_INT_ARGB_PRE);
+            Graphics2D g = createGraphics(image, key.antialiasing, null, key.interpolation);
+            try {
+                g.translate(1 + dx, 1 + dy);
+                key.icon.paintIcon(null, g, 0, 0);
+            } finally {
+                g.dispose();
+            }
+            return new SymbolRaster(image, -1, -1);
+        }
+    }
+
+    /**
+     * Identifies a mark raster. The shape and hints are compared by identity, the rest by value
+     */
+    private static final class MarkKey {
+        final MarkStyle2D style;
+
+        final Shape shape;
+
+        final double size;
+
+        final boolean maxMarkSizeEnabled;
+
+        final int rotation;
+
+        final Paint fill;
+
+        final Composite fillComposite;
+
+        final Paint contour;
+
+        final Stroke stroke;
+
+        final Composite contourComposite;
+
+        final Object antialiasing;
+
+        final Object strokeControl;
+
+        final int hashCode;
+
+        MarkKey(MarkStyle2D style, Stroke stroke, int rotation, Graphics2D graphics) {
+            this.style = style;
+            this.shape = style.getShape();
+            this.size = style.getSize();
+            this.maxMarkSizeEnabled = MarkStyle2D.isMaxMarkSizeEnabled();
+            this.rotation = rotation;
+            this.fill = style.getFill();
+            this.fillComposite = fill != null ? style.getFillComposite() : null;
+            this.contour = style.getContour();
+            this.stroke = stroke;
+            this.contourComposite = contour != null ? style.getContourComposite() : null;
+            this.antialiasing = graphics.getRenderingHint(RenderingHints.KEY_ANTIALIASING);
+            this.strokeControl = graphics.getRenderingHint(RenderingHints.KEY_STROKE_CONTROL);
+
+            long bits = Double.doubleToLongBits(size);
+            int result = System.identityHashCode(shape);
+            result = 31 * result + (int) (bits ^ (bits >>> 32));
+            result = 31 * result + (maxMarkSizeEnabled ? 1 : 0);
+            result = 31 * result + rotation;
+            result = 31 * result + (fill != null ? fill.hashCode() : 0);
+            result = 31 * result + (fillComposite != null ? fillComposite.hashCode() : 0);
+            result = 31 * result + (contour != null ? contour.hashCode() : 0);
+            result = 31 * result + (stroke != null ? stroke.hashCode() : 0);
+            result = 31 * result + (contourComposite != null ? contourComposite.hashCode() : 0);
+            this.hashCode = result;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof MarkKey)) {
+                return false;
+            }
+            MarkKey other = (MarkKey) obj;
+            return hashCode == other.hashCode && shape == other.shape && size == other.size
+                    && maxMarkSizeEnabled == other.maxMarkSizeEnabled
+                    && rotation == other.rotation && antialiasing == other.antialiasing
+                    && strokeControl == other.strokeControl && equals(fill, other.fill)
+                    && equals(fillComposite, other.fillComposite)
+                    && equals(contour, other.contour) && equals(stroke, other.stroke)
+                    && equals(contourComposite, other.contourComposite);
+        }
+
+        private static boolean equals(Object o1, Object o2) {
+            return o1 == null ? o2 == null : o1.equals(o2);
+        }
+    }
+
+    /**
+     * Identifies an icon raster. The icon and hints are compared by identity
+     */
+    private static final class IconKey {
+        final Icon icon;
+
+        final Object antialiasing;
+
+        final Object interpolation;
+
+        IconKey(Icon icon, Graphics2D graphics) {
+            this.icon = icon;
+            this.antialiasing = graphics.getRenderingHint(RenderingHints.KEY_ANTIALIASING);
+            this.interpolation = graphics.getRenderingHint(RenderingHints.KEY_INTERPOLATION);
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(icon);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof IconKey)) {
+                return false;
+            }
+            IconKey other = (IconKey) obj;
+            return icon == other.icon && antialiasing == other.antialiasing
+                    && interpolation == other.interpolation;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2013, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.renderer.lite;
+
+import java.awt.Rectangle;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.geotools.renderer.ScreenMap;
+import org.geotools.renderer.style.GraphicStyle2D;
+import org.geotools.renderer.style.IconStyle2D;
+import org.geotools.renderer.style.MarkStyle2D;
+import org.geotools.renderer.style.Style2D;
+import org.geotools.styling.Symbolizer;
+
+/**
+ * Keeps track of the screen positions where point symbols have been painted, so that a point
+ * whose symbol would be painted over an identical one can be skipped.
+ * <p>
+ * Each symbolizer gets its own {@link ScreenMap}, whose cells are sized after the symbol
+ * footprint: a cell is as large as the symbol size times the tolerance, and never smaller than
+ * one pixel. Thinning is applied only as long as the symbolizer generates the very same
+ * {@link Style2D} for all the features, that is, as long as its style is not feature
+ * dependent.
+ * </p>
+ * <p>
+ * The caller is responsible for using this class only with opaque symbols, with translucent
+ * ones the skipped points would have been visible.
+ * </p>
+ *
+ * @source $URL$
+ */
+class SymbolScreenMap {
+
+    private final Rectangle screen;
+
+    private final double tolerance;
+
+    private final Map<Symbolizer, SymbolCells> cells = new IdentityHashMap<Symbolizer, SymbolCells>();
+
+    /**
+     * Builds a new symbol screen map
+     *
+     * @param screen
+     *            the area being painted, in pixels
+     * @param tolerance
+     *            the fraction of the symbol size two symbols can be apart and still be considered
+     *            overlapping, zero means points are thinned out at the pixel level
+     */
+    public SymbolScreenMap(Rectangle screen, double tolerance) {
+        if (tolerance < 0) {
+            throw new IllegalArgumentException("The tolerance cannot be negative, got "
+                    + tolerance);
+        }
+        this.screen = screen;
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Checks if the symbol can be skipped, that is, if an identical symbol has already been
+     * painted in the same cell, and marks the cell as used otherwise.
+     *
+     * @param symbolizer
+     *            the symbolizer
+     * @param style
+     *            the style built out of the symbolizer for the current feature
+     * @param x
+     *            the symbol position on screen
+     * @param y
+     *            the symbol position on screen
+     * @return true if the symbol can be skipped
+     */
+    public boolean checkAndSet(Symbolizer symbolizer, Style2D style, double x, double y) {
+        SymbolCells sc = cells.get(symbolizer);
+        if (sc == null) {
+            sc = new SymbolCells(style);
+            cells.put(symbolizer, sc);
+        } else if (sc.style != style) {
+            // feature dependent style, give up on this symbolizer
+            sc.map = null;
+        }
+
+        if (sc.map == null) {
+            return false;
+        }
+
+        // points outside of the screen might still paint part of their symbol inside it
+        double dx = x - screen.x;
+        double dy = y - screen.y;
+        if (dx < 0 || dy < 0 || dx >= screen.width || dy >= screen.height) {
+            return false;
+        }
+        return sc.map.checkAndSet((int) (dx / sc.cellSize), (int) (dy / sc.cellSize));
+    }
+
+    /**
+     * The cells used by a single symbolizer
+     */
+    private class SymbolCells {
+        Style2D style;
+
+        double cellSize;
+
+        ScreenMap map;
+
+        SymbolCells(Style2D style) {
+            this.style = style;
+            if (style instanceof MarkStyle2D || style instanceof GraphicStyle2D
+                    || style instanceof IconStyle2D) {
+                double size;
+                if (style instanceof MarkStyle2D) {
+                    size = ((MarkStyle2D) style).getSize();
+                } else {
+                    size = RendererUtilities.getStyle2DSize(style);
+                }
+                if (Double.isNaN(size)) {
+                    size = 0;
+                }
+                cellSize = Math.max(1, Math.floor(size * tolerance));
+                int width = (int) Math.ceil(screen.width / cellSize);
+                int height = (int) Math.ceil(screen.height / cellSize);
+                map = new ScreenMap(0, 0, width, height);
+            }
+        }
+    }
+}
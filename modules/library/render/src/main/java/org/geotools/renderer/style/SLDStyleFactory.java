@@ -167,6 +167,9 @@ public class SLDStyleFactory {
 	/** Symbolizers that do not depend on attributes */
 	Map staticSymbolizers = new SoftValueHashMap();
 
+	/** Styles shared with other factories, looked up by symbolizer equality */
+	Style2DCache sharedCache = Style2DCache.getDefault();
+
 	/**
 	 * Build a default rendering hint to avoid NPE
 	 */
@@ -264,6 +267,25 @@ public class SLDStyleFactory {
 		this.vectorRenderingEnabled = vectorRenderingEnabled;
 	}
 
+	/**
+	 * Returns the cache of feature independent styles shared with other
+	 * factories, or null if no shared cache is used
+	 */
+	public Style2DCache getSharedCache() {
+		return sharedCache;
+	}
+
+	/**
+	 * Sets the cache of feature independent styles shared with other
+	 * factories, by default {@link Style2DCache#getDefault()}. Use null to
+	 * disable the shared caching. Symbolizers using functions are never
+	 * shared, as their outcome might depend on more than the symbolizer
+	 * itself.
+	 */
+	public void setSharedCache(Style2DCache sharedCache) {
+		this.sharedCache = sharedCache;
+	}
+
 	public double getHitRatio() {
 		return (double) hits / (double) requests;
 	}
@@ -310,6 +332,22 @@ public class SLDStyleFactory {
 		if (style != null) {
 			hits++;
 		} else {
+			// first time we meet this symbolizer, has another factory
+			// already built an equivalent style?
+			SharedStyleKey sharedKey = null;
+			if (sharedCache != null && !(symbolizer instanceof TextSymbolizer)
+					&& !dynamicSymbolizers.containsKey(key)) {
+				sharedKey = new SharedStyleKey(symbolizer, scaleRange,
+						lineOptimizationEnabled, vectorRenderingEnabled,
+						renderingHints);
+				style = sharedCache.get(sharedKey);
+				if (style != null) {
+					hits++;
+					staticSymbolizers.put(key, style);
+					return style;
+				}
+			}
+
 			style = createStyleInternal(drawMe, symbolizer, scaleRange);
 
 			// for some legitimate cases some styles cannot be turned into a
@@ -332,6 +370,17 @@ public class SLDStyleFactory {
 				boolean noAttributes = (nameSet == null) || (nameSet.size() == 0);
 				if (noAttributes && !sae.isUsingVolatileFunctions()) {
 					staticSymbolizers.put(key, style);
+					// functions like env() read state that is not part of the
+					// key, an equal symbolizer can evaluate differently in
+					// another request
+					if (sharedKey != null && !sae.isUsingFunctions()) {
+						// the hints might be modified by the caller later
+						sharedCache.put(new SharedStyleKey(symbolizer,
+								scaleRange, lineOptimizationEnabled,
+								vectorRenderingEnabled,
+								(RenderingHints) renderingHints.clone()),
+								style);
+					}
 				} else {
 					dynamicSymbolizers.put(key, Boolean.TRUE);
 				}
@@ -1471,6 +1520,69 @@ public class SLDStyleFactory {
 		}
 	}
 
+	/**
+	 * Key used to share Style2D objects among factories. Since renderers
+	 * usually work against a copy of the original style (e.g., rescaled to
+	 * the target DPI and units of measure) symbolizers are compared by value,
+	 * along with the factory settings influencing the style creation
+	 */
+	static class SharedStyleKey {
+		private Symbolizer symbolizer;
+		private Map<String, String> options;
+		private double minScale;
+		private double maxScale;
+		private boolean lineOptimization;
+		private boolean vectorRendering;
+		private RenderingHints hints;
+		private int hashCode;
+
+		public SharedStyleKey(Symbolizer symbolizer, Range scaleRange,
+				boolean lineOptimization, boolean vectorRendering,
+				RenderingHints hints) {
+			this.symbolizer = symbolizer;
+			this.options = symbolizer.getOptions();
+			this.minScale = ((Number) scaleRange.getMinValue()).doubleValue();
+			this.maxScale = ((Number) scaleRange.getMaxValue()).doubleValue();
+			this.lineOptimization = lineOptimization;
+			this.vectorRendering = vectorRendering;
+			this.hints = hints;
+			this.hashCode = computeHashCode();
+		}
+
+		private int computeHashCode() {
+			long min = Double.doubleToLongBits(minScale);
+			long max = Double.doubleToLongBits(maxScale);
+			int result = symbolizer.hashCode();
+			result = 37 * result + (int) (min ^ (min >>> 32));
+			result = 37 * result + (int) (max ^ (max >>> 32));
+			result = 37 * result + (lineOptimization ? 1 : 0);
+			result = 37 * result + (vectorRendering ? 1 : 0);
+			return result;
+		}
+
+		public boolean equals(Object obj) {
+			if (!(obj instanceof SharedStyleKey)) {
+				return false;
+			}
+
+			SharedStyleKey other = (SharedStyleKey) obj;
+			return hashCode == other.hashCode
+					&& minScale == other.minScale
+					&& maxScale == other.maxScale
+					&& lineOptimization == other.lineOptimization
+					&& vectorRendering == other.vectorRendering
+					&& symbolizer.equals(other.symbolizer)
+					&& (options == null ? other.options == null
+							: options.equals(other.options))
+					&& (hints == null ? other.hints == null : hints
+							.equals(other.hints));
+		}
+
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+
 	private String evalToString(Expression exp, Object f, String fallback) {
 		if (exp == null) {
 			return fallback;
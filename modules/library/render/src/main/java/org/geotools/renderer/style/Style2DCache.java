@@ -0,0 +1,194 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2013, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.renderer.style;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import org.geotools.util.logging.Logging;
+
+/**
+ * A bounded, thread safe, least recently used cache of {@link Style2D} objects, meant to be
+ * shared among {@link SLDStyleFactory} instances (and thus among renderers), so that the
+ * feature independent styles of a given SLD are built only once. Symbolizers using functions
+ * are never stored, since functions such as env() can make equal symbolizers evaluate
+ * differently from one request to the next.
+ * <p>
+ * The cache is consulted by the factories only the first time they meet a symbolizer, further
+ * lookups being served by their own identity based cache, so contention on the cache lock stays
+ * low even with many concurrent renderers.
+ * </p>
+ * <p>
+ * The default instance is opt-in, its size is controlled by the {@link #CACHE_SIZE_KEY} system
+ * variable and defaults to {@link #DEFAULT_CACHE_SIZE}, that is, no default cache at all.
+ * </p>
+ *
+ * @source $URL$
+ */
+public class Style2DCache {
+
+    static final Logger LOGGER = Logging.getLogger(Style2DCache.class);
+
+    /**
+     * The system variable controlling the size of the default cache
+     */
+    public static final String CACHE_SIZE_KEY = "org.geotools.renderer.style.cacheSize";
+
+    /**
+     * The default cache size, zero, the default cache has to be enabled explicitly
+     */
+    public static final int DEFAULT_CACHE_SIZE = 0;
+
+    private static final Style2DCache DEFAULT;
+
+    static {
+        int size = DEFAULT_CACHE_SIZE;
+        try {
+            size = Integer.parseInt(System.getProperty(CACHE_SIZE_KEY,
+                    String.valueOf(DEFAULT_CACHE_SIZE)));
+        } catch (NumberFormatException e) {
+            LOGGER.warning("Invalid value for " + CACHE_SIZE_KEY + ", using "
+                    + DEFAULT_CACHE_SIZE);
+        }
+        DEFAULT = size > 0 ? new Style2DCache(size) : null;
+    }
+
+    /**
+     * Returns the process wide cache, or null if it has been disabled
+     */
+    public static Style2DCache getDefault() {
+        return DEFAULT;
+    }
+
+    private final int maxSize;
+
+    private final Map<Object, Style2D> cache;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Builds a new cache holding at most the specified number of styles
+     *
+     * @param maxSize
+     */
+    public Style2DCache(final int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("The cache size must be positive, got " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.cache = new LinkedHashMap<Object, Style2D>(16, 0.75f, true) {
+            private static final long serialVersionUID = 5286614419372154580L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Style2D> eldest) {
+                if (size() > maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached style, or null if not found
+     *
+     * @param key
+     */
+    Style2D get(Object key) {
+        Style2D style;
+        synchronized (cache) {
+            style = cache.get(key);
+        }
+        if (style != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return style;
+    }
+
+    /**
+     * Caches the specified style
+     *
+     * @param key
+     * @param style
+     */
+    void put(Object key, Style2D style) {
+        synchronized (cache) {
+            cache.put(key, style);
+        }
+    }
+
+    /**
+     * Removes all the cached styles
+     */
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * The number of styles currently cached
+     */
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    /**
+     * The maximum number of styles cached
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * The number of lookups that found a cached style
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * The number of lookups that did not find a cached style
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * The number of styles evicted to keep the cache within its size
+     */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    @Override
+    public String toString() {
+        return "Style2DCache[size=" + size() + "/" + maxSize + ", hits=" + getHits()
+                + ", misses=" + getMisses() + ", evictions=" + getEvictions() + "]";
+    }
+}
@@ -46,18 +46,31 @@ public class StyleAttributeExtractorTruncated extends StyleAttributeExtractor
 
 	boolean usingVolatileFunctions = false;
 	
+	boolean usingFunctions = false;
+	
 	@Override
 	public void clear() {
 		super.clear();
 		usingVolatileFunctions = false;
+		usingFunctions = false;
 	}
 	
 	public boolean isUsingVolatileFunctions() {
 		return usingVolatileFunctions;
 	}
 
+	/**
+	 * Returns true if the visited style uses any function, volatile or not.
+	 * Functions such as env() depend on state that is not part of the style
+	 * itself
+	 */
+	public boolean isUsingFunctions() {
+		return usingFunctions;
+	}
+
 	public Object visit(org.opengis.filter.expression.Function expression, Object data) {
 		usingVolatileFunctions |= (expression instanceof VolatileFunction);
+		usingFunctions = true;
 		return super.visit(expression, data);
 	};
 
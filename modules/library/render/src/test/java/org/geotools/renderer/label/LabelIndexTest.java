@@ -0,0 +1,50 @@
+package org.geotools.renderer.label;
+
+import static org.junit.Assert.*;
+
+import java.awt.geom.Rectangle2D;
+import java.util.Collections;
+
+import org.junit.Test;
+
+public class LabelIndexTest {
+
+    @Test
+    public void testOverlap() {
+        LabelIndex index = new LabelIndex(10);
+        index.addLabel(null, new Rectangle2D.Double(5, 5, 20, 5));
+        assertEquals(1, index.size());
+
+        assertTrue(index.labelsWithinDistance(new Rectangle2D.Double(20, 8, 10, 10), 0));
+        assertFalse(index.labelsWithinDistance(new Rectangle2D.Double(30, 5, 10, 10), 0));
+        // within distance
+        assertTrue(index.labelsWithinDistance(new Rectangle2D.Double(30, 5, 10, 10), 5));
+        // negative distance disables the check
+        assertFalse(index.labelsWithinDistance(new Rectangle2D.Double(5, 5, 10, 10), -1));
+    }
+
+    @Test
+    public void testNegativeCoordinates() {
+        LabelIndex index = new LabelIndex(10);
+        index.addLabel(null, new Rectangle2D.Double(-25, -25, 10, 10));
+        assertTrue(index.labelsWithinDistance(new Rectangle2D.Double(-20, -20, 1, 1), 0));
+        assertFalse(index.labelsWithinDistance(new Rectangle2D.Double(-10, -10, 1, 1), 0));
+    }
+
+    @Test
+    public void testLargeReservedArea() {
+        LabelIndex index = new LabelIndex(10);
+        index.reserveArea(Collections.<Rectangle2D> singletonList(new Rectangle2D.Double(0, 0,
+                1000, 1000)));
+        assertTrue(index.labelsWithinDistance(new Rectangle2D.Double(500, 500, 10, 10), 0));
+        assertFalse(index.labelsWithinDistance(new Rectangle2D.Double(1100, 500, 10, 10), 0));
+    }
+
+    @Test
+    public void testLargeQuery() {
+        LabelIndex index = new LabelIndex(10);
+        index.addLabel(null, new Rectangle2D.Double(5000, 5000, 20, 5));
+        assertTrue(index.labelsWithinDistance(new Rectangle2D.Double(0, 0, 10000, 10000), 0));
+        assertFalse(index.labelsWithinDistance(new Rectangle2D.Double(0, 0, 4000, 4000), 0));
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2013, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.renderer.lite;
+
+import static org.junit.Assert.*;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.File;
+
+import org.geotools.data.property.PropertyDataStore;
+import org.geotools.data.simple.SimpleFeatureSource;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.map.FeatureLayer;
+import org.geotools.map.MapContent;
+import org.geotools.styling.Style;
+import org.geotools.styling.StyleBuilder;
+import org.geotools.test.TestData;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ *
+ * @source $URL$
+ */
+public class MetaTileRendererTest {
+
+    SimpleFeatureSource polyfs;
+
+    MapContent mc;
+
+    @Before
+    public void setUp() throws Exception {
+        File property = new File(TestData.getResource(this, "tilerect.properties").toURI());
+        PropertyDataStore ds = new PropertyDataStore(property.getParentFile());
+        polyfs = ds.getFeatureSource("tilerect");
+
+        StyleBuilder sb = new StyleBuilder();
+        Style style = sb.createStyle(sb.createPolygonSymbolizer(null, sb.createFill(Color.RED)));
+        mc = new MapContent();
+        mc.addLayer(new FeatureLayer(polyfs, style));
+    }
+
+    @After
+    public void tearDown() {
+        mc.dispose();
+    }
+
+    @Test
+    public void testTwoTiles() throws Exception {
+        StreamingRenderer renderer = new StreamingRenderer();
+        renderer.setMapContent(mc);
+        CountingRenderListener listener = new CountingRenderListener();
+        renderer.addRenderListener(listener);
+
+        MetaTileRenderer mtr = new MetaTileRenderer(renderer);
+        mtr.setGutter(10);
+        ReferencedEnvelope area = new ReferencedEnvelope(0, 20, 0, 10, polyfs.getSchema()
+                .getCoordinateReferenceSystem());
+        BufferedImage[][] tiles = mtr.paint(area, 100, 100, 1, 2);
+
+        // the data has been read and painted only once
+        assertEquals(1, listener.features);
+        assertEquals(0, listener.errors);
+
+        assertEquals(1, tiles.length);
+        assertEquals(2, tiles[0].length);
+        for (BufferedImage tile : tiles[0]) {
+            assertEquals(100, tile.getWidth());
+            assertEquals(100, tile.getHeight());
+        }
+
+        // the rectangle spans from x = 2 to x = 18, at 10 pixels per unit
+        assertEquals(0, tiles[0][0].getRGB(5, 50));
+        assertEquals(Color.RED.getRGB(), tiles[0][0].getRGB(50, 50));
+        assertEquals(Color.RED.getRGB(), tiles[0][1].getRGB(50, 50));
+        assertEquals(0, tiles[0][1].getRGB(95, 50));
+        // and from y = 2 to y = 8
+        assertEquals(0, tiles[0][0].getRGB(50, 5));
+        assertEquals(0, tiles[0][1].getRGB(50, 95));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidGrid() throws Exception {
+        StreamingRenderer renderer = new StreamingRenderer();
+        renderer.setMapContent(mc);
+        new MetaTileRenderer(renderer).paint(new ReferencedEnvelope(0, 20, 0, 10, null), 256,
+                256, 0, 2);
+    }
+}
@@ -6,9 +6,16 @@ import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.image.BufferedImage;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.geotools.coverage.grid.GridCoverage2D;
 import org.geotools.coverage.grid.GridCoverageFactory;
+import org.geotools.data.Query;
 import org.geotools.data.property.PropertyDataStore;
 import org.geotools.data.simple.SimpleFeatureSource;
 import org.geotools.geometry.jts.ReferencedEnvelope;
@@ -16,8 +23,12 @@ import org.geotools.map.FeatureLayer;
 import org.geotools.map.GridCoverageLayer;
 import org.geotools.map.MapContent;
 import org.geotools.referencing.crs.DefaultGeographicCRS;
+import org.geotools.renderer.RenderMetrics;
+import org.geotools.renderer.RenderMetrics.LayerMetrics;
+import org.geotools.renderer.RenderMetricsListener;
 import org.geotools.styling.Style;
 import org.geotools.styling.StyleBuilder;
+import org.geotools.styling.TextSymbolizer;
 import org.geotools.test.TestData;
 import org.junit.Test;
 
@@ -28,6 +39,10 @@ import org.junit.Test;
  */
 public class MultiLayerTest {
 
+    abstract static class MetricsListener extends CountingRenderListener implements
+            RenderMetricsListener {
+    }
+
 	@Test
 	public void testRasterOpacity() throws Exception {
 		// a polygon layer
@@ -65,4 +80,139 @@ public class MultiLayerTest {
 		assertEquals(0, pixel[2]);
 		assertEquals(255, pixel[3]);
 	}
+
+	@Test
+	public void testParallelLayerRendering() throws Exception {
+        File property = new File(TestData.getResource(this, "buildings.properties").toURI());
+        PropertyDataStore ds = new PropertyDataStore(property.getParentFile());
+        SimpleFeatureSource fs = ds.getFeatureSource("buildings");
+        ReferencedEnvelope bounds = new ReferencedEnvelope(0, 10, 0, 10, DefaultGeographicCRS.WGS84);
+
+        StyleBuilder sb = new StyleBuilder();
+        Style pst = sb.createStyle(sb.createPolygonSymbolizer(null, sb.createFill(Color.GRAY, 0.5)));
+        
+        // a raster layer on top of the vector one
+        BufferedImage bi = new BufferedImage(300, 300, BufferedImage.TYPE_4BYTE_ABGR);
+        Graphics g = bi.getGraphics();
+        g.setColor(Color.RED);
+        g.fillRect(0, 0, 300, 300);
+        g.dispose();
+        GridCoverage2D coverage = new GridCoverageFactory().create("test_red", bi, bounds);
+        Style rst = sb.createStyle(sb.createRasterSymbolizer());
+		
+		MapContent mc = new MapContent();
+		mc.addLayer(new FeatureLayer(fs, pst));
+		mc.addLayer(new GridCoverageLayer(coverage, rst));
+		
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+		try {
+    		StreamingRenderer renderer = new StreamingRenderer();
+    		renderer.setMapContent(mc);
+    		renderer.setThreadPool(pool);
+    		Map hints = new HashMap();
+    		hints.put(StreamingRenderer.PARALLEL_LAYER_RENDERING_KEY, Boolean.TRUE);
+    		renderer.setRendererHints(hints);
+    		CountingRenderListener listener = new CountingRenderListener();
+    		BufferedImage img = RendererBaseTest.renderImage(renderer, bounds, listener);
+    		assertEquals(0, listener.errors);
+    		
+    		// the layers have been composited in order, the raster is on top
+    		int[] pixel = new int[4];
+    		img.getData().getPixel(100, 100, pixel);
+    		assertEquals(255, pixel[0]);
+    		assertEquals(0, pixel[1]);
+    		assertEquals(0, pixel[2]);
+    		assertEquals(255, pixel[3]);
+		} finally {
+		    pool.shutdown();
+		    mc.dispose();
+		}
+	}
+
+	@Test
+	public void testParallelLabelsFollowLayerOrder() throws Exception {
+        File property = new File(TestData.getResource(this, "buildings.properties").toURI());
+        PropertyDataStore ds = new PropertyDataStore(property.getParentFile());
+        SimpleFeatureSource fs = ds.getFeatureSource("buildings");
+        ReferencedEnvelope bounds = new ReferencedEnvelope(0, 10, 0, 10, DefaultGeographicCRS.WGS84);
+
+        // two layers with conflicting labels, the placement depends on the layer order
+        MapContent mc = new MapContent();
+        mc.addLayer(new FeatureLayer(fs, createLabelStyle("First")));
+        mc.addLayer(new FeatureLayer(fs, createLabelStyle("Second")));
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            StreamingRenderer renderer = new StreamingRenderer();
+            renderer.setMapContent(mc);
+            BufferedImage expected = RendererBaseTest.renderImage(renderer, bounds, null);
+
+            renderer.setThreadPool(pool);
+            Map hints = new HashMap();
+            hints.put(StreamingRenderer.PARALLEL_LAYER_RENDERING_KEY, Boolean.TRUE);
+            renderer.setRendererHints(hints);
+            for (int i = 0; i < 5; i++) {
+                BufferedImage actual = RendererBaseTest.renderImage(renderer, bounds, null);
+                assertArrayEquals(expected.getRGB(0, 0, 300, 300, null, 0, 300),
+                        actual.getRGB(0, 0, 300, 300, null, 0, 300));
+            }
+        } finally {
+            pool.shutdown();
+            mc.dispose();
+        }
+	}
+
+	private Style createLabelStyle(String label) throws Exception {
+	    StyleBuilder sb = new StyleBuilder();
+	    TextSymbolizer ts = sb.createTextSymbolizer(Color.BLACK, sb.createFont("Serif", 14), "geom");
+	    ts.setLabel(sb.literalExpression(label));
+	    return sb.createStyle(ts);
+	}
+
+	@Test
+	public void testRenderMetrics() throws Exception {
+        File property = new File(TestData.getResource(this, "buildings.properties").toURI());
+        PropertyDataStore ds = new PropertyDataStore(property.getParentFile());
+        SimpleFeatureSource fs = ds.getFeatureSource("buildings");
+        ReferencedEnvelope bounds = new ReferencedEnvelope(0, 10, 0, 10, DefaultGeographicCRS.WGS84);
+
+        StyleBuilder sb = new StyleBuilder();
+        Style pst = sb.createStyle(sb.createPolygonSymbolizer(null, sb.createFill(Color.GRAY, 0.5)));
+        BufferedImage bi = new BufferedImage(300, 300, BufferedImage.TYPE_4BYTE_ABGR);
+        GridCoverage2D coverage = new GridCoverageFactory().create("test_red", bi, bounds);
+        Style rst = sb.createStyle(sb.createRasterSymbolizer());
+
+        MapContent mc = new MapContent();
+        mc.addLayer(new FeatureLayer(fs, pst));
+        mc.addLayer(new GridCoverageLayer(coverage, rst));
+        try {
+            StreamingRenderer renderer = new StreamingRenderer();
+            renderer.setMapContent(mc);
+            final List<RenderMetrics> collected = new ArrayList<RenderMetrics>();
+            MetricsListener listener = new MetricsListener() {
+                public void renderingCompleted(RenderMetrics metrics) {
+                    collected.add(metrics);
+                }
+            };
+            RendererBaseTest.renderImage(renderer, bounds, listener);
+            assertEquals(0, listener.errors);
+
+            assertEquals(1, collected.size());
+            RenderMetrics metrics = collected.get(0);
+            assertEquals(2, metrics.getLayers().size());
+            LayerMetrics vector = metrics.getLayers().get(0);
+            assertEquals(0, vector.getPosition());
+            assertEquals("0", vector.getLayerId());
+            assertTrue(vector.getFeaturesRead() > 0);
+            // the listener also counts the raster layer, compare with the vector source instead
+            assertEquals(fs.getCount(Query.ALL), vector.getFeaturesRead());
+            assertTrue(vector.getGeometriesGeneralized() <= vector.getFeaturesRead());
+            assertEquals(0, vector.getFeaturesSkipped());
+            assertEquals(1, metrics.getLayers().get(1).getPosition());
+            assertEquals("1", metrics.getLayers().get(1).getLayerId());
+            assertTrue(metrics.getTotalTime() >= vector.getQueryTime());
+        } finally {
+            mc.dispose();
+        }
+	}
 }
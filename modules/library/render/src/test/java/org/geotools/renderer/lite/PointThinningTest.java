@@ -0,0 +1,151 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2013, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.renderer.lite;
+
+import static org.junit.Assert.*;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.geotools.data.DataUtilities;
+import org.geotools.data.simple.SimpleFeatureSource;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.map.FeatureLayer;
+import org.geotools.map.MapContent;
+import org.geotools.referencing.crs.DefaultGeographicCRS;
+import org.geotools.renderer.RenderMetrics;
+import org.geotools.renderer.RenderMetricsListener;
+import org.geotools.styling.Mark;
+import org.geotools.styling.Style;
+import org.geotools.styling.StyleBuilder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opengis.feature.simple.SimpleFeature;
+import org.opengis.feature.simple.SimpleFeatureType;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.GeometryFactory;
+
+/**
+ *
+ *
+ * @source $URL$
+ */
+public class PointThinningTest {
+
+    abstract static class MetricsListener extends CountingRenderListener implements
+            RenderMetricsListener {
+    }
+
+    static final ReferencedEnvelope BOUNDS = new ReferencedEnvelope(0, 10, 0, 10,
+            DefaultGeographicCRS.WGS84);
+
+    SimpleFeatureSource points;
+
+    MapContent mc;
+
+    @Before
+    public void setUp() throws Exception {
+        SimpleFeatureType type = DataUtilities.createType("points",
+                "geom:Point:srid=4326,id:int");
+        GeometryFactory gf = new GeometryFactory();
+        SimpleFeatureBuilder fb = new SimpleFeatureBuilder(type);
+        List<SimpleFeature> features = new ArrayList<SimpleFeature>();
+        // 50 points packed in less than two pixels (the map is rendered at 30 pixels per unit)
+        for (int i = 0; i < 50; i++) {
+            fb.add(gf.createPoint(new Coordinate(5 + i * 0.001, 5)));
+            fb.add(i);
+            features.add(fb.buildFeature(null));
+        }
+        // and a point far away
+        fb.add(gf.createPoint(new Coordinate(2, 2)));
+        fb.add(50);
+        features.add(fb.buildFeature(null));
+        points = DataUtilities.source(DataUtilities.collection(features));
+        mc = new MapContent();
+    }
+
+    @After
+    public void tearDown() {
+        mc.dispose();
+    }
+
+    Style buildStyle(double opacity) {
+        StyleBuilder sb = new StyleBuilder();
+        Mark mark = sb.createMark("square", sb.createFill(Color.RED, opacity), null);
+        return sb.createStyle(sb.createPointSymbolizer(sb.createGraphic(null, mark, null, 1, 8, 0)));
+    }
+
+    long renderSkipped(Style style, Object tolerance, BufferedImage[] image) {
+        mc.addLayer(new FeatureLayer(points, style));
+        StreamingRenderer renderer = new StreamingRenderer();
+        renderer.setMapContent(mc);
+        Map<Object, Object> hints = new HashMap<Object, Object>();
+        if (tolerance != null) {
+            hints.put(StreamingRenderer.POINT_THINNING_KEY, tolerance);
+        }
+        renderer.setRendererHints(hints);
+
+        final List<RenderMetrics> collected = new ArrayList<RenderMetrics>();
+        MetricsListener listener = new MetricsListener() {
+            public void renderingCompleted(RenderMetrics metrics) {
+                collected.add(metrics);
+            }
+        };
+        image[0] = RendererBaseTest.renderImage(renderer, BOUNDS, listener);
+        assertEquals(0, listener.errors);
+        assertEquals(51, listener.features);
+        assertEquals(1, collected.size());
+        return collected.get(0).getLayers().get(0).getGeometriesSkipped();
+    }
+
+    @Test
+    public void testDisabledByDefault() throws Exception {
+        BufferedImage[] image = new BufferedImage[1];
+        assertEquals(0, renderSkipped(buildStyle(1), null, image));
+    }
+
+    @Test
+    public void testPixelThinning() throws Exception {
+        BufferedImage[] image = new BufferedImage[1];
+        // the cluster hits two pixels
+        assertEquals(48, renderSkipped(buildStyle(1), 0, image));
+        assertEquals(Color.RED.getRGB(), image[0].getRGB(151, 150));
+        assertEquals(Color.RED.getRGB(), image[0].getRGB(60, 240));
+    }
+
+    @Test
+    public void testFootprintThinning() throws Exception {
+        BufferedImage[] image = new BufferedImage[1];
+        // the cells are half a symbol large, the whole cluster sits in a single one
+        assertEquals(49, renderSkipped(buildStyle(1), 0.5, image));
+        assertEquals(Color.RED.getRGB(), image[0].getRGB(150, 150));
+        assertEquals(Color.RED.getRGB(), image[0].getRGB(60, 240));
+    }
+
+    @Test
+    public void testTranslucentSymbols() throws Exception {
+        BufferedImage[] image = new BufferedImage[1];
+        assertEquals(0, renderSkipped(buildStyle(0.5), 0.5, image));
+    }
+}
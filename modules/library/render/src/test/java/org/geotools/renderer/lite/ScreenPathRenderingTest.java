@@ -0,0 +1,80 @@
+package org.geotools.renderer.lite;
+
+import static org.junit.Assert.*;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.geotools.data.property.PropertyDataStore;
+import org.geotools.data.simple.SimpleFeatureSource;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.map.FeatureLayer;
+import org.geotools.map.MapContent;
+import org.geotools.styling.Style;
+import org.geotools.styling.StyleBuilder;
+import org.geotools.test.TestData;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * 
+ *
+ * @source $URL$
+ */
+public class ScreenPathRenderingTest {
+
+    SimpleFeatureSource polyfs;
+
+    MapContent mc;
+
+    @Before
+    public void setUp() throws Exception {
+        File property = new File(TestData.getResource(this, "tilerect.properties").toURI());
+        PropertyDataStore ds = new PropertyDataStore(property.getParentFile());
+        polyfs = ds.getFeatureSource("tilerect");
+
+        StyleBuilder sb = new StyleBuilder();
+        Style style = sb.createStyle(sb.createPolygonSymbolizer(sb.createStroke(Color.BLUE, 1),
+                sb.createFill(Color.RED)));
+        mc = new MapContent();
+        mc.addLayer(new FeatureLayer(polyfs, style));
+    }
+
+    @After
+    public void tearDown() {
+        mc.dispose();
+    }
+
+    @Test
+    public void testSameOutput() throws Exception {
+        ReferencedEnvelope bounds = new ReferencedEnvelope(0, 20, 0, 10, polyfs.getSchema()
+                .getCoordinateReferenceSystem());
+
+        StreamingRenderer renderer = new StreamingRenderer();
+        renderer.setMapContent(mc);
+        BufferedImage expected = RendererBaseTest.renderImage(renderer, bounds, null);
+
+        renderer = new StreamingRenderer();
+        renderer.setMapContent(mc);
+        Map hints = new HashMap();
+        hints.put(StreamingRenderer.SCREEN_PATH_RENDERING_KEY, Boolean.TRUE);
+        renderer.setRendererHints(hints);
+        CountingRenderListener listener = new CountingRenderListener();
+        BufferedImage actual = RendererBaseTest.renderImage(renderer, bounds, listener);
+        assertEquals(1, listener.features);
+        assertEquals(0, listener.errors);
+
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        for (int x = 0; x < expected.getWidth(); x++) {
+            for (int y = 0; y < expected.getHeight(); y++) {
+                assertEquals("Different pixel at " + x + "," + y, expected.getRGB(x, y),
+                        actual.getRGB(x, y));
+            }
+        }
+    }
+}
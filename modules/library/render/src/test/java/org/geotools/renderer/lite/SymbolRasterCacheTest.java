@@ -0,0 +1,183 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2013, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.renderer.lite;
+
+import static org.junit.Assert.*;
+
+import java.awt.AlphaComposite;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+
+import org.geotools.geometry.jts.LiteShape2;
+import org.geotools.renderer.style.MarkStyle2D;
+import org.junit.Test;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.GeometryFactory;
+import com.vividsolutions.jts.geom.MultiPoint;
+
+/**
+ *
+ *
+ * @source $URL$
+ */
+public class SymbolRasterCacheTest {
+
+    GeometryFactory gf = new GeometryFactory();
+
+    MarkStyle2D buildMark(double size, Color fill) {
+        MarkStyle2D mark = new MarkStyle2D();
+        mark.setShape(new Rectangle2D.Double(-0.5, -0.5, 1, 1));
+        mark.setSize(size);
+        mark.setFill(fill);
+        mark.setFillComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.8f));
+        mark.setContour(Color.BLACK);
+        mark.setStroke(new BasicStroke(1));
+        mark.setContourComposite(AlphaComposite.SrcOver);
+        return mark;
+    }
+
+    BufferedImage paint(StyledShapePainter painter, MarkStyle2D mark) throws Exception {
+        BufferedImage image = new BufferedImage(100, 100, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                RenderingHints.VALUE_ANTIALIAS_ON);
+        // points sitting at the center of the sub-pixel buckets
+        MultiPoint points = gf.createMultiPoint(new Coordinate[] { new Coordinate(20.125, 20.125),
+                new Coordinate(50.625, 40.375), new Coordinate(70.875, 80.625) });
+        painter.paint(graphics, new LiteShape2(points, null, null, false), mark, 1);
+        graphics.dispose();
+        return image;
+    }
+
+    @Test
+    public void testPaintMatchesVector() throws Exception {
+        MarkStyle2D mark = buildMark(12, Color.RED);
+        BufferedImage expected = paint(new StyledShapePainter(), mark);
+
+        SymbolRasterCache cache = new SymbolRasterCache(1024 * 1024);
+        StyledShapePainter painter = new StyledShapePainter();
+        painter.setSymbolCache(cache);
+        BufferedImage actual = paint(painter, mark);
+
+        // same symbol, painted three times
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getMisses());
+        assertTrue(cache.getMemory() > 0);
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertColorEquals(x, y, expected.getRGB(x, y), actual.getRGB(x, y), 2);
+            }
+        }
+
+        // painting again hits the cache
+        paint(painter, mark);
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.size());
+    }
+
+    void assertColorEquals(int x, int y, int expected, int actual, int tolerance) {
+        for (int shift = 0; shift < 32; shift += 8) {
+            int e = (expected >> shift) & 0xFF;
+            int a = (actual >> shift) & 0xFF;
+            if (Math.abs(e - a) > tolerance) {
+                fail("Pixel " + x + "," + y + " differs, expected " + Integer.toHexString(expected)
+                        + " but was " + Integer.toHexString(actual));
+            }
+        }
+    }
+
+    @Test
+    public void testEviction() throws Exception {
+        // enough room for a handful of rasters only
+        SymbolRasterCache cache = new SymbolRasterCache(6 * 20 * 20 * 4);
+        StyledShapePainter painter = new StyledShapePainter();
+        painter.setSymbolCache(cache);
+        paint(painter, buildMark(12, Color.RED));
+        paint(painter, buildMark(12, Color.BLUE));
+        paint(painter, buildMark(12, Color.GREEN));
+
+        assertTrue(cache.getEvictions() > 0);
+        assertTrue(cache.getMemory() <= cache.getMaxMemory());
+    }
+
+    @Test
+    public void testNotCacheable() throws Exception {
+        SymbolRasterCache cache = new SymbolRasterCache(1024 * 1024);
+        BufferedImage image = new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = image.createGraphics();
+        try {
+            MarkStyle2D gradient = buildMark(12, Color.RED);
+            gradient.setFill(new GradientPaint(0, 0, Color.RED, 10, 10, Color.BLUE));
+            assertNull(cache.getMarkRasters(gradient, graphics));
+
+            MarkStyle2D xor = buildMark(12, Color.RED);
+            xor.setFillComposite(AlphaComposite.Xor);
+            assertNull(cache.getMarkRasters(xor, graphics));
+
+            MarkStyle2D huge = buildMark(SymbolRasterCache.MAX_SYMBOL_SIZE + 1, Color.RED);
+            assertNull(cache.getMarkRasters(huge, graphics));
+
+            assertNotNull(cache.getMarkRasters(buildMark(12, Color.RED), graphics));
+        } finally {
+            graphics.dispose();
+        }
+    }
+
+    @Test
+    public void testMaxMarkSize() throws Exception {
+        SymbolRasterCache cache = new SymbolRasterCache(1024 * 1024);
+        StyledShapePainter painter = new StyledShapePainter();
+        painter.setSymbolCache(cache);
+        MarkStyle2D mark = buildMark(12, Color.RED);
+        boolean maxMarkSizeEnabled = MarkStyle2D.isMaxMarkSizeEnabled();
+        try {
+            MarkStyle2D.setMaxMarkSizeEnabled(false);
+            paint(painter, mark);
+            MarkStyle2D.setMaxMarkSizeEnabled(true);
+            paint(painter, mark);
+        } finally {
+            MarkStyle2D.setMaxMarkSizeEnabled(maxMarkSizeEnabled);
+        }
+
+        // the flag changes the mark shape, the rasters cannot be shared
+        assertEquals(2, cache.size());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void testTransformedGraphics() throws Exception {
+        SymbolRasterCache cache = new SymbolRasterCache(1024 * 1024);
+        StyledShapePainter painter = new StyledShapePainter();
+        painter.setSymbolCache(cache);
+        BufferedImage image = new BufferedImage(100, 100, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.scale(2, 2);
+        painter.paint(graphics, new LiteShape2(gf.createPoint(new Coordinate(10, 10)), null,
+                null, false), buildMark(12, Color.RED), 1);
+        graphics.dispose();
+
+        // the cache cannot be used with a transformed graphics
+        assertEquals(0, cache.size());
+        assertEquals(Color.RED.getRGB() & 0xFFFFFF, image.getRGB(20, 20) & 0xFFFFFF);
+    }
+}
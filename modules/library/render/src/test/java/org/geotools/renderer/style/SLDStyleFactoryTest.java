@@ -33,6 +33,7 @@ import junit.framework.TestCase;
 
 import org.geotools.factory.CommonFactoryFinder;
 import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.geotools.filter.function.EnvFunction;
 import org.geotools.feature.simple.SimpleFeatureTypeBuilder;
 import org.geotools.renderer.lite.StreamingRenderer;
 import org.geotools.renderer.style.SLDStyleFactory.SymbolizerKey;
@@ -46,6 +47,7 @@ import org.geotools.styling.PointSymbolizer;
 import org.geotools.styling.PolygonSymbolizer;
 import org.geotools.styling.StyleFactory;
 import org.geotools.styling.TextSymbolizer;
+import org.geotools.styling.visitor.DuplicatingStyleVisitor;
 import org.geotools.util.NumberRange;
 import org.opengis.feature.simple.SimpleFeature;
 import org.opengis.feature.simple.SimpleFeatureType;
@@ -106,6 +108,59 @@ public class SLDStyleFactoryTest extends TestCase {
         assertNotNull( style );
     }
 
+    public void testSharedCache() {
+        Style2DCache cache = new Style2DCache(1);
+        SLDStyleFactory f1 = new SLDStyleFactory();
+        f1.setSharedCache(cache);
+        SLDStyleFactory f2 = new SLDStyleFactory();
+        f2.setSharedCache(cache);
+
+        PolygonSymbolizer symb = sf.createPolygonSymbolizer(null, sf.createFill(ff
+                .literal(Color.RED)), null);
+        DuplicatingStyleVisitor dsv = new DuplicatingStyleVisitor();
+        symb.accept(dsv);
+        PolygonSymbolizer copy = (PolygonSymbolizer) dsv.getCopy();
+        assertNotSame(symb, copy);
+
+        // the copy is served by the shared cache
+        Style2D style = f1.createStyle(feature, symb, range);
+        assertSame(style, f2.createStyle(feature, copy, range));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        // different factory settings, different style
+        f2.setVectorRenderingEnabled(true);
+        f2.staticSymbolizers.clear();
+        assertNotSame(style, f2.createStyle(feature, copy, range));
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getEvictions());
+    }
+
+    public void testSharedCacheEnv() {
+        Style2DCache cache = new Style2DCache(10);
+        PolygonSymbolizer symb = sf.createPolygonSymbolizer(null, sf.createFill(ff.function(
+                "env", ff.literal("color"), ff.literal("#FF0000"))), null);
+
+        try {
+            // two renderings of the same style, with different env values
+            SLDStyleFactory f1 = new SLDStyleFactory();
+            f1.setSharedCache(cache);
+            EnvFunction.setLocalValue("color", "#FF0000");
+            PolygonStyle2D red = (PolygonStyle2D) f1.createStyle(feature, symb, range);
+            assertEquals(Color.RED, red.getFill());
+
+            SLDStyleFactory f2 = new SLDStyleFactory();
+            f2.setSharedCache(cache);
+            EnvFunction.setLocalValue("color", "#0000FF");
+            PolygonStyle2D blue = (PolygonStyle2D) f2.createStyle(feature, symb, range);
+            assertEquals(Color.BLUE, blue.getFill());
+
+            assertEquals(0, cache.size());
+        } finally {
+            EnvFunction.clearLocalValues();
+        }
+    }
+
     /**
      * Test of createPolygonStyle method, of class org.geotools.renderer.style.SLDStyleFactory.
      */
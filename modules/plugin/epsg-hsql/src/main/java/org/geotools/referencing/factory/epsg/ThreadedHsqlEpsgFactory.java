@@ -63,6 +63,13 @@ import org.opengis.referencing.FactoryException;
  * If the EPSG database should be created in a different directory (or already exists in that
  * directory), it may be specified as a {@linkplain System#getProperty(String) system property}
  * nammed {@value #DIRECTORY_KEY}.
+ * <p>
+ * Setting the {@value #RESOURCE_KEY} system property to {@code true} opens instead the read
+ * only copy of the database bundled in the JAR, with no extraction at all, which avoids the
+ * creation cost on hosts whose temporary directory does not survive restarts. The same copy
+ * is used when no directory can be created. Setting the {@value #WARM_UP_KEY} system property
+ * loads the most used coordinate reference systems in a background thread as soon as the
+ * factory is created.
  *
  * @since 2.4
  *
@@ -87,6 +94,29 @@ public class ThreadedHsqlEpsgFactory extends ThreadedEpsgFactory {
      */
     public static final String DIRECTORY_KEY = "EPSG-HSQL.directory";
 
+    /**
+     * The key for fetching from {@linkplain System#getProperty(String) system properties}
+     * whether the database should be read in place from the JAR instead of being extracted.
+     *
+     * @since 11.0
+     */
+    public static final String RESOURCE_KEY = "EPSG-HSQL.resource";
+
+    /**
+     * The key for fetching from {@linkplain System#getProperty(String) system properties}
+     * the codes to load in background when the factory is created. The value is either
+     * {@code true}, for a default list of widely used codes, or a comma separated list of codes.
+     *
+     * @since 11.0
+     */
+    public static final String WARM_UP_KEY = "EPSG-HSQL.warmup";
+
+    /**
+     * The codes loaded in background when {@value #WARM_UP_KEY} is {@code true}.
+     */
+    static final String[] DEFAULT_WARM_UP_CODES = { "4326", "3857", "4258", "4269", "4267",
+            "3395", "3035", "27700", "2154", "25832", "25833", "32632", "32633" };
+
     /**
      * The name of the ZIP file to read in order to create the cached database.
      */
@@ -112,6 +142,16 @@ public class ThreadedHsqlEpsgFactory extends ThreadedEpsgFactory {
      */
     static final String PREFIX = "jdbc:hsqldb:file:";
 
+    /**
+     * The prefix to put in front of URL to the database bundled in the JAR.
+     */
+    static final String RESOURCE_PREFIX = "jdbc:hsqldb:res:";
+
+    /**
+     * The path of the database bundled in the JAR, unpacked from {@value #ZIP_FILE} at build time.
+     */
+    static final String RESOURCE_PATH = "/org/geotools/referencing/factory/epsg/database/" + DATABASE_NAME;
+
     /**
      * The logger name.
      */
@@ -140,6 +180,67 @@ public class ThreadedHsqlEpsgFactory extends ThreadedEpsgFactory {
      */
     public ThreadedHsqlEpsgFactory(final Hints hints) {
         super(hints, PRIORITY + 1);
+        startWarmUp();
+    }
+
+    /**
+     * Loads the codes listed by the {@value #WARM_UP_KEY} system property in a background
+     * thread, if any. The objects created end up in the factory cache, so that the first
+     * requests do not pay for the database opening.
+     */
+    private void startWarmUp() {
+        final String property;
+        try {
+            property = System.getProperty(WARM_UP_KEY);
+        } catch (SecurityException e) {
+            return;
+        }
+        if (property == null || property.trim().length() == 0
+                || Boolean.FALSE.toString().equalsIgnoreCase(property.trim())) {
+            return;
+        }
+        final String[] codes = Boolean.TRUE.toString().equalsIgnoreCase(property.trim())
+                ? DEFAULT_WARM_UP_CODES : property.split(",");
+        final Thread thread = new Thread("EPSG-HSQL warm up") {
+            @Override
+            public void run() {
+                final Logger logger = Logging.getLogger(LOGGER);
+                for (String code : codes) {
+                    code = code.trim();
+                    if (code.length() == 0) {
+                        continue;
+                    }
+                    try {
+                        createCoordinateReferenceSystem(code);
+                    } catch (FactoryException e) {
+                        logger.log(Level.FINE, "Could not warm up EPSG:" + code, e);
+                    }
+                }
+                logger.log(Level.FINE, "EPSG-HSQL warm up done");
+            }
+        };
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    /**
+     * Returns {@code true} if the database bundled in the JAR should be opened in place,
+     * either because the {@value #RESOURCE_KEY} system property asks for it or because
+     * there is no directory to extract the database to.
+     */
+    private static boolean useResourceDatabase(final File directory) {
+        if (ThreadedHsqlEpsgFactory.class.getResource(RESOURCE_PATH + ".properties") == null) {
+            return false;
+        }
+        if (directory == null) {
+            return true;
+        }
+        try {
+            return Boolean.getBoolean(RESOURCE_KEY);
+        } catch (SecurityException e) {
+            return false;
+        }
     }
 
     /**
@@ -215,7 +316,15 @@ public class ThreadedHsqlEpsgFactory extends ThreadedEpsgFactory {
             return candidate;
         }
         final JDBCDataSource source = new JDBCDataSource();
-        File directory = new File(getDirectory(), "v" + VERSION);
+        final File parent = getDirectory();
+        if (useResourceDatabase(parent)) {
+            // read only, opened in place from the classpath
+            logger.log(Level.FINE, "Opening the EPSG database bundled in the JAR");
+            source.setDatabase(RESOURCE_PREFIX + RESOURCE_PATH);
+            source.setUser("SA");
+            return source;
+        }
+        File directory = parent != null ? new File(parent, "v" + VERSION) : null;
         if (directory != null) {
             /*
              * Constructs the full path to the HSQL database. Note: we do not use
@@ -272,6 +381,12 @@ public class ThreadedHsqlEpsgFactory extends ThreadedEpsgFactory {
 
         final DataSource source = getDataSource();
         final File directory    = getDirectory(source);
+        if (directory == null) {
+            // opened in place from the JAR (or a user provided database), nothing to extract
+            FactoryUsingHSQL factory = new FactoryUsingHSQL(hints, source);
+            factory.setValidationQuery("CALL NOW()");
+            return factory;
+        }
         directory.mkdirs();
         if (!dataExists(directory)) {
             FileLock lock = null;
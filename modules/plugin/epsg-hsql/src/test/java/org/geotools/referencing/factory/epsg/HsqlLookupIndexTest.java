@@ -0,0 +1,130 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2013, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.referencing.factory.epsg;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.geotools.referencing.CRS;
+import org.geotools.referencing.ReferencingFactoryFinder;
+import org.geotools.referencing.factory.IdentifiedObjectFinder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+
+/**
+ * Tests the {@link LookupIndex} usage by {@link DirectEpsgFactory}.
+ *
+ * @source $URL$
+ */
+public class HsqlLookupIndexTest {
+
+    /**
+     * WGS84 under a name unknown to the database, so that only a scan can find it
+     */
+    static final String WGS84 = "GEOGCS[\"Whatever\","
+            + "DATUM[\"World Geodetic System 1984\",SPHEROID[\"WGS 84\",6378137,298.257223563]],"
+            + "PRIMEM[\"Greenwich\",0],UNIT[\"degree\",0.0174532925199433]]";
+
+    DirectEpsgFactory factory;
+
+    File directory;
+
+    String oldDirectory;
+
+    @Before
+    public void setUp() throws Exception {
+        ThreadedHsqlEpsgFactory threaded = (ThreadedHsqlEpsgFactory) ReferencingFactoryFinder
+                .getCRSAuthorityFactory("EPSG", null);
+        factory = (DirectEpsgFactory) threaded.createBackingStore();
+
+        directory = File.createTempFile("lookup", "index");
+        directory.delete();
+        directory.mkdirs();
+        oldDirectory = System.getProperty(LookupIndex.DIRECTORY_KEY);
+        System.setProperty(LookupIndex.DIRECTORY_KEY, directory.getPath());
+        LookupIndex.reset();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (oldDirectory == null) {
+            System.clearProperty(LookupIndex.DIRECTORY_KEY);
+        } else {
+            System.setProperty(LookupIndex.DIRECTORY_KEY, oldDirectory);
+        }
+        LookupIndex.reset();
+        for (File file : directory.listFiles()) {
+            file.delete();
+        }
+        directory.delete();
+        factory.dispose();
+    }
+
+    @Test
+    public void testCodeCandidates() throws Exception {
+        CoordinateReferenceSystem crs = CRS.parseWKT(WGS84);
+        String version = factory.getAuthority().getEdition().toString();
+        File file = LookupIndex.getFile(version);
+
+        // an index pointing the WGS84 fingerprint to NAD83 only, the scan cannot find it
+        saveIndex(file, crs, "4269");
+        IdentifiedObjectFinder finder = factory.getIdentifiedObjectFinder(
+                CoordinateReferenceSystem.class);
+        finder.setFullScanAllowed(true);
+        assertNull(finder.find(crs));
+
+        // the right candidates, the scan finds it
+        LookupIndex.reset();
+        saveIndex(file, crs, "4269", "4326");
+        finder = factory.getIdentifiedObjectFinder(CoordinateReferenceSystem.class);
+        finder.setFullScanAllowed(true);
+        assertEquals("EPSG:4326", finder.findIdentifier(crs));
+    }
+
+    @Test
+    public void testBackgroundBuild() throws Exception {
+        // not available until built, the callers scan meanwhile
+        long start = System.currentTimeMillis();
+        LookupIndex index = LookupIndex.getInstance(factory);
+        while (index == null) {
+            if (LookupIndex.isBuilding(factory)) {
+                assertFalse(factory.canDispose());
+            }
+            assertTrue("The index took too long to build",
+                    System.currentTimeMillis() - start < 10 * 60 * 1000);
+            Thread.sleep(100);
+            index = LookupIndex.getInstance(factory);
+        }
+        assertTrue(index.getCodeCandidates(CRS.parseWKT(WGS84)).contains("4326"));
+    }
+
+    void saveIndex(File file, CoordinateReferenceSystem crs, String... codes) {
+        Map<String, Set<String>> map = new HashMap<String, Set<String>>();
+        Set<String> set = new LinkedHashSet<String>();
+        Collections.addAll(set, codes);
+        map.put(LookupIndex.fingerprint(crs), set);
+        new LookupIndex(map).save(file);
+    }
+}
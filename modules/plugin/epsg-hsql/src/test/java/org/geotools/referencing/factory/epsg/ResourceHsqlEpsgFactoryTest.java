@@ -0,0 +1,55 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2013, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.referencing.factory.epsg;
+
+import static org.junit.Assert.*;
+
+import org.geotools.referencing.CRS;
+import org.hsqldb.jdbc.JDBCDataSource;
+import org.junit.After;
+import org.junit.Test;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+
+
+/**
+ * Tests opening the EPSG database in place from the JAR.
+ *
+ * @source $URL$
+ */
+public class ResourceHsqlEpsgFactoryTest {
+
+    private ThreadedHsqlEpsgFactory factory;
+
+    @After
+    public void tearDown() throws Exception {
+        System.clearProperty(ThreadedHsqlEpsgFactory.RESOURCE_KEY);
+        if (factory != null) {
+            factory.dispose();
+        }
+    }
+
+    @Test
+    public void testResourceDatabase() throws Exception {
+        System.setProperty(ThreadedHsqlEpsgFactory.RESOURCE_KEY, "true");
+        factory = new ThreadedHsqlEpsgFactory();
+        JDBCDataSource source = (JDBCDataSource) factory.getDataSource();
+        assertTrue(source.getDatabase().startsWith(ThreadedHsqlEpsgFactory.RESOURCE_PREFIX));
+
+        CoordinateReferenceSystem crs = factory.createCoordinateReferenceSystem("EPSG:32632");
+        assertTrue(CRS.equalsIgnoreMetadata(CRS.decode("EPSG:32632"), crs));
+    }
+}
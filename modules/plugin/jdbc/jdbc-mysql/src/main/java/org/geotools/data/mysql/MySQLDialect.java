@@ -473,4 +473,15 @@ public class MySQLDialect extends SQLDialect {
         }
     }
 
+    /**
+     * Connector/J reads the whole result set in memory unless the fetch size is
+     * Integer.MIN_VALUE, in which case it streams the rows one by one (the server side cursor
+     * alternative requires useCursorFetch=true in the connection URL)
+     */
+    @Override
+    public void setStreamingEnabled(Statement st, Connection cx, int fetchSize)
+            throws SQLException {
+        st.setFetchSize(Integer.MIN_VALUE);
+    }
+
 }
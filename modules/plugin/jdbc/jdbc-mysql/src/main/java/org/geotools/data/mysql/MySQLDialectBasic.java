@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.Map;
 
 import org.geotools.data.jdbc.FilterToSQL;
@@ -230,6 +231,12 @@ public class MySQLDialectBasic extends BasicSQLDialect {
         delegate.applyLimitOffset(sql, limit, offset);
     }
 
+    @Override
+    public void setStreamingEnabled(Statement st, Connection cx, int fetchSize)
+            throws SQLException {
+        delegate.setStreamingEnabled(st, cx, fetchSize);
+    }
+
     @Override
     public FilterToSQL createFilterToSQL() {
         return new MySQLFilterToSQL();
@@ -21,6 +21,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Types;
 import java.util.Map;
 
@@ -220,5 +221,11 @@ public class MySQLDialectPrepared extends PreparedStatementSQLDialect {
     public void applyLimitOffset(StringBuffer sql, int limit, int offset) {
         delegate.applyLimitOffset(sql, limit, offset);
     }
+
+    @Override
+    public void setStreamingEnabled(Statement st, Connection cx, int fetchSize)
+            throws SQLException {
+        delegate.setStreamingEnabled(st, cx, fetchSize);
+    }
    
 }
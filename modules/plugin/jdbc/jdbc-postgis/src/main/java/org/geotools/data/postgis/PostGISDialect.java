@@ -109,6 +109,8 @@ public class PostGISDialect extends BasicSQLDialect {
 
     static final Version V_2_0_0 = new Version("2.0.0");
 
+    static final Version V_2_2_0 = new Version("2.2.0");
+
     static final Version PGSQL_V_9_0 = new Version("9.0");
     
     static final Version PGSQL_V_9_1 = new Version("9.1");
@@ -123,6 +125,8 @@ public class PostGISDialect extends BasicSQLDialect {
     
     boolean functionEncodingEnabled = false;
     
+    boolean binaryGeometryEnabled = false;
+    
     Version version, pgsqlVersion;
 
     public boolean isLooseBBOXEnabled() {
@@ -152,10 +156,27 @@ public class PostGISDialect extends BasicSQLDialect {
         this.functionEncodingEnabled = functionEncodingEnabled;
     }
 
+    public boolean isBinaryGeometryEnabled() {
+        return binaryGeometryEnabled;
+    }
+
+    /**
+     * @see PostgisNGDataStoreFactory#BINARY_GEOMETRY
+     */
+    public void setBinaryGeometryEnabled(boolean binaryGeometryEnabled) {
+        this.binaryGeometryEnabled = binaryGeometryEnabled;
+    }
+
     @Override
     public void initializeConnection(Connection cx) throws SQLException {
         super.initializeConnection(cx);
         getPostgreSQLVersion(cx);
+        try {
+            getVersion(cx);
+        } catch (SQLException e) {
+            // not a spatial database, or PostGIS not installed in the search path
+            LOGGER.log(Level.FINE, "Could not determine the PostGIS version", e);
+        }
     }
 
     @Override
@@ -207,6 +228,7 @@ public class PostGISDialect extends BasicSQLDialect {
         }  else {
             reader.setGeometryFactory(factory);
         }
+        reader.setBase64EncodingEnabled(!binaryGeometryEnabled);
         return reader;
     }
 
@@ -219,29 +241,83 @@ public class PostGISDialect extends BasicSQLDialect {
     @Override
     public void encodeGeometryColumn(GeometryDescriptor gatt, String prefix, int srid, Hints hints, 
         StringBuffer sql) {
+        encodeGeometryColumn(gatt, prefix, hints, null, null, sql);
+    }
+
+    @Override
+    public boolean isGeometryClipSupported() {
+        return true;
+    }
+
+    @Override
+    public void encodeGeometryColumnClipped(GeometryDescriptor gatt, String prefix, int srid,
+            Hints hints, Envelope clip, Double gridSize, StringBuffer sql) {
+        encodeGeometryColumn(gatt, prefix, hints, clip, gridSize, sql);
+    }
+
+    void encodeGeometryColumn(GeometryDescriptor gatt, String prefix, Hints hints, Envelope clip,
+            Double gridSize, StringBuffer sql) {
     
         boolean geography = "geography".equals(gatt.getUserData().get(
                 JDBCDataStore.JDBC_NATIVE_TYPENAME));
     
+        if (!binaryGeometryEnabled) {
+            sql.append("encode(");
+        }
         if (geography) {
-            sql.append("encode(ST_AsBinary(");
+            sql.append("ST_AsBinary(");
             encodeColumnName(prefix, gatt.getLocalName(), sql);
-            sql.append("),'base64')");
+            sql.append(")");
         }
         else {
             boolean force2D = hints != null && hints.containsKey(Hints.FEATURE_2D) && 
                 Boolean.TRUE.equals(hints.get(Hints.FEATURE_2D));
 
             if (force2D) {
-                sql.append("encode(ST_AsBinary(ST_Force_2D(");
-                encodeColumnName(prefix, gatt.getLocalName(), sql);
-                sql.append(")),'base64')");
+                sql.append("ST_AsBinary(ST_Force_2D(");
+                encodeClippedGeometry(gatt, prefix, clip, gridSize, sql);
+                sql.append("))");
             } else {
-                sql.append("encode(ST_AsEWKB(");
-                encodeColumnName(prefix, gatt.getLocalName(), sql);
-                sql.append("),'base64')");
+                sql.append("ST_AsEWKB(");
+                encodeClippedGeometry(gatt, prefix, clip, gridSize, sql);
+                sql.append(")");
             }
         }
+        if (!binaryGeometryEnabled) {
+            sql.append(",'base64')");
+        }
+    }
+
+    /**
+     * Encodes the geometry column, clipped with ST_ClipByBox2D and snapped with ST_SnapToGrid
+     * if requested. Clipping is skipped on PostGIS versions lacking ST_ClipByBox2D, as
+     * ST_Intersection is a lot slower and fails on invalid geometries
+     */
+    void encodeClippedGeometry(GeometryDescriptor gatt, String prefix, Envelope clip,
+            Double gridSize, StringBuffer sql) {
+        boolean clipped = clip != null && !clip.isNull() && isClipByBoxSupported();
+        if (gridSize != null) {
+            sql.append("ST_SnapToGrid(");
+        }
+        if (clipped) {
+            sql.append("ST_ClipByBox2D(");
+        }
+        encodeColumnName(prefix, gatt.getLocalName(), sql);
+        if (clipped) {
+            sql.append(", ST_MakeEnvelope(").append(clip.getMinX()).append(",");
+            sql.append(clip.getMinY()).append(",").append(clip.getMaxX()).append(",");
+            sql.append(clip.getMaxY()).append(")::box2d)");
+        }
+        if (gridSize != null) {
+            sql.append(", ").append(gridSize).append(")");
+        }
+    }
+
+    /**
+     * Returns true if the PostGIS version is known and it is >= 2.2.0
+     */
+    boolean isClipByBoxSupported() {
+        return version != null && version.compareTo(V_2_2_0) >= 0;
     }
 
     @Override
@@ -853,6 +929,23 @@ public class PostGISDialect extends BasicSQLDialect {
             sql.append(" OFFSET " + offset);
         }
     }
+
+    @Override
+    public boolean isScreenMapDistinctSupported() {
+        return true;
+    }
+
+    @Override
+    public void encodeScreenMapDistinct(GeometryDescriptor gatt, String prefix, double scaleX,
+            double translateX, double scaleY, double translateY, StringBuffer sql) {
+        sql.append("DISTINCT ON (floor(ST_X(");
+        encodeColumnName(prefix, gatt.getLocalName(), sql);
+        sql.append("::geometry) * ").append(scaleX).append(" + ").append(translateX);
+        sql.append("), floor(ST_Y(");
+        encodeColumnName(prefix, gatt.getLocalName(), sql);
+        sql.append("::geometry) * ").append(scaleY).append(" + ").append(translateY);
+        sql.append("))");
+    }
     
     @Override
     public void encodeValue(Object value, Class type, StringBuffer sql) {
@@ -236,4 +236,27 @@ public class PostGISPSDialect extends PreparedStatementSQLDialect {
         delegate.applyLimitOffset(sql, limit, offset);
     }
 
+    @Override
+    public boolean isScreenMapDistinctSupported() {
+        return delegate.isScreenMapDistinctSupported();
+    }
+
+    @Override
+    public void encodeScreenMapDistinct(GeometryDescriptor gatt, String prefix, double scaleX,
+            double translateX, double scaleY, double translateY, StringBuffer sql) {
+        delegate.encodeScreenMapDistinct(gatt, prefix, scaleX, translateX, scaleY, translateY,
+                sql);
+    }
+
+    @Override
+    public boolean isGeometryClipSupported() {
+        return delegate.isGeometryClipSupported();
+    }
+
+    @Override
+    public void encodeGeometryColumnClipped(GeometryDescriptor gatt, String prefix, int srid,
+            Hints hints, Envelope clip, Double gridSize, StringBuffer sql) {
+        delegate.encodeGeometryColumnClipped(gatt, prefix, srid, hints, clip, gridSize, sql);
+    }
+
 }
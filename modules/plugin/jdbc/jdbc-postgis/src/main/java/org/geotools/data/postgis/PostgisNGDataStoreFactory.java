@@ -63,6 +63,16 @@ public class PostgisNGDataStoreFactory extends JDBCDataStoreFactory {
             "the postgis table.", false, new Boolean(false),
             new KVP( Param.LEVEL, "advanced"));
     
+    /**
+     * Enables fetching geometries as raw WKB instead of base64 encoded text
+     */
+    public static final Param BINARY_GEOMETRY = new Param("Binary geometry transfer", Boolean.class,
+            "set to true to fetch geometries as raw binary WKB instead of base64 encoded text. " +
+            "This pays off only when the driver uses the binary protocol, that is, along with " +
+            "prepared statements: the connections are then set up to switch to server side " +
+            "prepared statements on first use, as the driver uses the binary protocol only for those. " +
+            "Otherwise the binary values are sent in hex text, which is larger than base64.",
+            false, Boolean.FALSE, new KVP( Param.LEVEL, "advanced"));
     
     @Override
     protected SQLDialect createSQLDialect(JDBCDataStore dataStore) {
@@ -125,6 +135,10 @@ public class PostgisNGDataStoreFactory extends JDBCDataStoreFactory {
         Boolean encodeFunctions = (Boolean) ENCODE_FUNCTIONS.lookUp(params);
         dialect.setFunctionEncodingEnabled(encodeFunctions != null && encodeFunctions);
         
+        // check if geometries should travel in binary form
+        Boolean binary = (Boolean) BINARY_GEOMETRY.lookUp(params);
+        dialect.setBinaryGeometryEnabled(Boolean.TRUE.equals(binary));
+        
         // setup the ps dialect if need be
         Boolean usePs = (Boolean) PREPARED_STATEMENTS.lookUp(params);
         if(Boolean.TRUE.equals(usePs)) {
@@ -147,6 +161,7 @@ public class PostgisNGDataStoreFactory extends JDBCDataStoreFactory {
         parameters.put(PREPARED_STATEMENTS.key, PREPARED_STATEMENTS);
         parameters.put(MAX_OPEN_PREPARED_STATEMENTS.key, MAX_OPEN_PREPARED_STATEMENTS);
         parameters.put(ENCODE_FUNCTIONS.key, ENCODE_FUNCTIONS);
+        parameters.put(BINARY_GEOMETRY.key, BINARY_GEOMETRY);
     }
     
     @Override
@@ -159,7 +174,13 @@ public class PostgisNGDataStoreFactory extends JDBCDataStoreFactory {
         String host = (String) HOST.lookUp(params);
         String db = (String) DATABASE.lookUp(params);
         int port = (Integer) PORT.lookUp(params);
-        return "jdbc:postgresql" + "://" + host + ":" + port + "/" + db;
+        String url = "jdbc:postgresql" + "://" + host + ":" + port + "/" + db;
+        if (Boolean.TRUE.equals(BINARY_GEOMETRY.lookUp(params))
+                && Boolean.TRUE.equals(PREPARED_STATEMENTS.lookUp(params))) {
+            // the driver uses the binary protocol only for server side prepared statements
+            url += "?prepareThreshold=1";
+        }
+        return url;
     }
 
 }
@@ -47,6 +47,7 @@ public class WKBAttributeIO {
     WKBReader wkbr;
     ByteArrayInStream inStream = new ByteArrayInStream(new byte[0]);
     GeometryFactory gf;
+    boolean base64EncodingEnabled = true;
 
     public WKBAttributeIO() {
         this(new GeometryFactory());
@@ -59,6 +60,17 @@ public class WKBAttributeIO {
     public void setGeometryFactory(GeometryFactory gf) {
         wkbr = new WKBReader(gf);
     }
+    
+    /**
+     * Sets whether the values read are base64 encoded WKB, or raw WKB
+     */
+    public void setBase64EncodingEnabled(boolean base64EncodingEnabled) {
+        this.base64EncodingEnabled = base64EncodingEnabled;
+    }
+    
+    public boolean isBase64EncodingEnabled() {
+        return base64EncodingEnabled;
+    }
 
     /**
      * This method will convert a Well Known Binary representation to a
@@ -94,7 +106,7 @@ public class WKBAttributeIO {
             byte bytes[] = rs.getBytes(columnName);
             if (bytes == null) // ie. its a null column -> return a null geometry!
                 return null;
-            return wkb2Geometry(Base64.decode(bytes));
+            return wkb2Geometry(base64EncodingEnabled ? Base64.decode(bytes) : bytes);
         } catch (SQLException e) {
             throw new DataSourceException("SQL exception occurred while reading the geometry.", e);
         }
@@ -109,7 +121,7 @@ public class WKBAttributeIO {
             byte bytes[] = rs.getBytes(columnIndex);
             if (bytes == null) // ie. its a null column -> return a null geometry!
                 return null;
-            return wkb2Geometry(Base64.decode(bytes));
+            return wkb2Geometry(base64EncodingEnabled ? Base64.decode(bytes) : bytes);
         } catch (SQLException e) {
             throw new DataSourceException("SQL exception occurred while reading the geometry.", e);
         }
@@ -15,17 +15,32 @@
  *    Lesser General Public License for more details.
  */
 package org.geotools.data.postgis;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
 import org.geotools.data.DefaultQuery;
+import org.geotools.data.Query;
+import org.geotools.data.Transaction;
+import org.geotools.data.simple.SimpleFeatureIterator;
+import org.geotools.factory.Hints;
 import org.geotools.geometry.jts.ReferencedEnvelope;
 import org.geotools.jdbc.JDBCDataStore;
 import org.geotools.jdbc.JDBCFeatureSourceTest;
 import org.geotools.jdbc.JDBCTestSetup;
+import org.geotools.jdbc.VirtualTable;
 import org.geotools.referencing.CRS;
+import org.opengis.feature.simple.SimpleFeature;
 import org.opengis.feature.simple.SimpleFeatureType;
 import org.opengis.feature.type.GeometryDescriptor;
 import org.opengis.filter.FilterFactory;
 import org.opengis.filter.PropertyIsEqualTo;
 
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.Envelope;
+import com.vividsolutions.jts.geom.Geometry;
+import com.vividsolutions.jts.geom.LineString;
+
 
 /**
  * 
@@ -77,6 +92,75 @@ public class PostGISFeatureSourceTest extends JDBCFeatureSourceTest {
         assertTrue(areCRSEqual(CRS.decode("EPSG:4326"), bounds.getCoordinateReferenceSystem()));
     }
     
+    public void testClipAndSnapToGrid() throws Exception {
+        JDBCDataStore store = (JDBCDataStore) dataStore;
+        VirtualTable vt = new VirtualTable("longLine", "select 1 as id, "
+                + "ST_GeomFromText('LINESTRING(-10.2 0.2, -0.1 0.4, 10.3 0.1)', 4326) as geom");
+        vt.addGeometryMetadatata("geom", LineString.class, 4326);
+        store.addVirtualTable(vt);
+        assertTrue(store.getFeatureSource("longLine").getSupportedHints().contains(
+                Hints.GEOMETRY_CLIP));
+
+        Query query = new Query("longLine");
+        query.setHints(new Hints(Hints.GEOMETRY_SNAP_TO_GRID, 1d));
+        Geometry geom = getFirstGeometry(query);
+        for (Coordinate c : geom.getCoordinates()) {
+            assertEquals(Math.rint(c.x), c.x, 0d);
+            assertEquals(Math.rint(c.y), c.y, 0d);
+        }
+
+        // clipping requires ST_ClipByBox2D
+        if (((PostGISDialect) store.getSQLDialect()).isClipByBoxSupported()) {
+            query.setHints(new Hints(Hints.GEOMETRY_CLIP, new Envelope(-1, 1, -1, 1)));
+            geom = getFirstGeometry(query);
+            assertTrue(new Envelope(-1, 1, -1, 1).contains(geom.getEnvelopeInternal()));
+        }
+    }
+
+    public void testScreenMapDistinct() throws Exception {
+        JDBCDataStore store = (JDBCDataStore) dataStore;
+        assertTrue(store.getFeatureSource(tname("ft1")).getSupportedHints().contains(
+                Hints.SCREENMAP));
+
+        GeometryDescriptor gd = dataStore.getSchema(tname("ft1")).getGeometryDescriptor();
+        StringBuffer sql = new StringBuffer();
+        store.getSQLDialect().encodeScreenMapDistinct(gd, null, 0.5, 10, 0.5, 20, sql);
+        assertEquals("DISTINCT ON (floor(ST_X(\"geometry\"::geometry) * 0.5 + 10.0), "
+                + "floor(ST_Y(\"geometry\"::geometry) * 0.5 + 20.0))", sql.toString());
+
+        // the clause is valid SQL, and returns a row per pixel
+        sql.insert(0, "SELECT ");
+        sql.append(" \"id\" FROM \"ft1\"");
+        Connection cx = store.getConnection(Transaction.AUTO_COMMIT);
+        Statement st = null;
+        ResultSet rs = null;
+        try {
+            st = cx.createStatement();
+            rs = st.executeQuery(sql.toString());
+            int count = 0;
+            while (rs.next()) {
+                count++;
+            }
+            // (0 0) and (1 1) share a pixel, (2 2) is in the next one
+            assertEquals(2, count);
+        } finally {
+            store.closeSafe(rs);
+            store.closeSafe(st);
+            store.closeSafe(cx);
+        }
+    }
+
+    Geometry getFirstGeometry(Query query) throws Exception {
+        SimpleFeatureIterator it = dataStore.getFeatureSource(query.getTypeName())
+                .getFeatures(query).features();
+        try {
+            SimpleFeature f = it.next();
+            return (Geometry) f.getDefaultGeometry();
+        } finally {
+            it.close();
+        }
+    }
+
     public void testSridFirstGeometry() throws Exception {
         SimpleFeatureType schema = dataStore.getSchema(tname("ft3"));
         GeometryDescriptor gd = schema.getGeometryDescriptor();
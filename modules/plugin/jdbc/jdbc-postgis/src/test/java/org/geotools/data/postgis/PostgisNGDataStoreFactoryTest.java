@@ -28,9 +28,13 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
 
+import org.geotools.data.simple.SimpleFeatureIterator;
 import org.geotools.jdbc.JDBCDataStore;
 import org.geotools.jdbc.JDBCTestSetup;
 import org.geotools.jdbc.JDBCTestSupport;
+import org.opengis.feature.simple.SimpleFeature;
+
+import com.vividsolutions.jts.geom.Geometry;
 
 /**
  * 
@@ -54,6 +58,48 @@ public class PostgisNGDataStoreFactoryTest extends JDBCTestSupport {
         checkCreateConnection(factory, "postgis");
     }
     
+    public void testBinaryGeometry() throws Exception {
+        PostgisNGDataStoreFactory factory = new PostgisNGDataStoreFactory();
+        Map<String, Object> params = getParams(factory.getDatabaseID());
+        params.put(PostgisNGDataStoreFactory.BINARY_GEOMETRY.key, Boolean.TRUE);
+        params.put(PostgisNGDataStoreFactory.PREPARED_STATEMENTS.key, Boolean.TRUE);
+        
+        JDBCDataStore store = factory.createDataStore(params);
+        try {
+            assertTrue(store.getSQLDialect() instanceof PostGISPSDialect);
+            // read the same geometries as with base64 encoding
+            SimpleFeatureIterator binary = store.getFeatureSource(tname("ft1")).getFeatures().features();
+            SimpleFeatureIterator base64 = dataStore.getFeatureSource(tname("ft1")).getFeatures().features();
+            try {
+                assertTrue(binary.hasNext());
+                while (binary.hasNext()) {
+                    SimpleFeature expected = base64.next();
+                    SimpleFeature actual = binary.next();
+                    assertTrue(((Geometry) expected.getDefaultGeometry()).equalsExact(
+                            (Geometry) actual.getDefaultGeometry()));
+                }
+            } finally {
+                binary.close();
+                base64.close();
+            }
+        } finally {
+            store.dispose();
+        }
+    }
+    
+    private Map<String, Object> getParams(String dbtype) {
+        Properties db = fixture;
+        
+        Map<String, Object> params = new HashMap<String, Object>();
+        params.put(HOST.key, db.getProperty(HOST.key));
+        params.put(DATABASE.key, db.getProperty(DATABASE.key));
+        params.put(PORT.key, db.getProperty(PORT.key));
+        params.put(USER.key, db.getProperty(USER.key));
+        params.put(PASSWD.key, db.getProperty(PASSWD.key));
+        params.put(DBTYPE.key, dbtype);
+        return params;
+    }
+    
     private void checkCreateConnection(PostgisNGDataStoreFactory factory, String dbtype) throws IOException {
         Properties db = fixture;
         
@@ -24,6 +24,7 @@ import org.geotools.data.shapefile.index.CloseableIterator;
 import org.geotools.data.shapefile.index.Data;
 import org.geotools.data.shapefile.index.DataDefinition;
 import org.geotools.data.shapefile.index.TreeException;
+import org.geotools.data.shapefile.index.hilbert.HilbertRTree;
 import org.geotools.data.shapefile.index.quadtree.QuadTree;
 import org.geotools.data.shapefile.index.quadtree.StoreException;
 import org.geotools.data.shapefile.index.quadtree.fs.FileSystemIndexStore;
@@ -92,12 +93,14 @@ class IndexManager {
     public boolean createSpatialIndex(boolean force) {
         // create index as needed
         try {
-            if (shpFiles.isLocal() && (isIndexStale(QIX) || force)) {
+            ShpFileType indexType = store.getSpatialIndexType();
+            if (shpFiles.isLocal() && (isIndexStale(indexType) || force)) {
                 ShapefileDataStoreFactory.LOGGER.fine("Creating spatial index for "
                         + shpFiles.get(SHP));
 
                 ShapeFileIndexer indexer = new ShapeFileIndexer();
                 indexer.setShapeFileName(shpFiles);
+                indexer.setIndexType(indexType);
                 indexer.index(false, new NullProgressListener());
 
                 return true;
@@ -176,7 +179,7 @@ class IndexManager {
      * @return
      */
     boolean isSpatialIndexAvailable() {
-        return shpFiles.isLocal() && shpFiles.exists(QIX);
+        return shpFiles.isLocal() && shpFiles.exists(store.getSpatialIndexType());
     }
 
     /**
@@ -297,6 +300,22 @@ class IndexManager {
         // check if the spatial index needs recreating
         createSpatialIndex(false);
 
+        if (store.getSpatialIndexType() == HRT) {
+            HilbertRTree tree = openHilbertTree();
+            if (tree == null) {
+                return null;
+            }
+            try {
+                if (bbox.contains(tree.getBounds())) {
+                    // the whole file is needed, a sequential scan is faster
+                    return null;
+                }
+                return tree.search(bbox);
+            } finally {
+                tree.close();
+            }
+        }
+
         if (cachedTree == null) {
             boolean canCache = false;
             URL treeURL = shpFiles.acquireRead(QIX, writer);
@@ -373,6 +392,31 @@ class IndexManager {
         }
     }
 
+    /**
+     * Convenience method for opening a Hilbert R-tree index.
+     * 
+     * @return A new HilbertRTree, or null if the index file is not available
+     * 
+     * @throws IOException
+     */
+    protected HilbertRTree openHilbertTree() throws IOException {
+        if (!shpFiles.isLocal()) {
+            return null;
+        }
+        URL treeURL = shpFiles.acquireRead(HRT, writer);
+        try {
+            File treeFile = DataUtilities.urlToFile(treeURL);
+
+            if (!treeFile.exists() || (treeFile.length() == 0)) {
+                return null;
+            }
+
+            return new HilbertRTree(treeFile);
+        } finally {
+            shpFiles.unlockRead(treeURL, writer);
+        }
+    }
+
     public void dispose() {
         this.cachedTree = null;
     }
@@ -0,0 +1,95 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2013, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.shapefile;
+
+import java.io.IOException;
+import java.util.NoSuchElementException;
+
+import org.geotools.data.shapefile.index.CloseableIterator;
+import org.geotools.data.shapefile.index.Data;
+import org.geotools.data.shapefile.index.DataDefinition;
+import org.geotools.data.shapefile.index.TreeException;
+import org.geotools.data.shapefile.shp.IndexFile;
+
+/**
+ * Iterates over a contiguous range of records of a shapefile, returning the same record
+ * number/offset pairs a spatial index query would, so that the range can be read by a
+ * {@link IndexedShapefileFeatureReader}. The .shx file is closed along with the iterator.
+ *
+ * @source $URL$
+ */
+class RecordRangeIterator implements CloseableIterator<Data> {
+
+    static final DataDefinition DATA_DEFINITION = new DataDefinition("US-ASCII");
+
+    static {
+        DATA_DEFINITION.addField(Integer.class);
+        DATA_DEFINITION.addField(Long.class);
+    }
+
+    IndexFile shx;
+
+    int current;
+
+    int end;
+
+    /**
+     * Builds the iterator
+     *
+     * @param shx The index file, will be closed along with the iterator
+     * @param start The first record to be returned, zero based
+     * @param end The record following the last one to be returned, zero based
+     */
+    public RecordRangeIterator(IndexFile shx, int start, int end) {
+        this.shx = shx;
+        this.current = start;
+        this.end = end;
+    }
+
+    public boolean hasNext() {
+        return current < end;
+    }
+
+    public Data next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more records in the range");
+        }
+        try {
+            Data data = new Data(DATA_DEFINITION);
+            data.addValue(current + 1);
+            data.addValue(new Long(shx.getOffsetInBytes(current)));
+            current++;
+            return data;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read record " + current + " offset", e);
+        } catch (TreeException e) {
+            throw new RuntimeException("Failed to build record " + current + " data", e);
+        }
+    }
+
+    public void remove() {
+        throw new UnsupportedOperationException("Remove not supported");
+    }
+
+    public void close() throws IOException {
+        if (shx != null) {
+            shx.close();
+            shx = null;
+        }
+    }
+
+}
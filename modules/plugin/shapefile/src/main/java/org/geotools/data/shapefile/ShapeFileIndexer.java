@@ -33,12 +33,14 @@ import org.geotools.data.shapefile.files.ShpFiles;
 import org.geotools.data.shapefile.files.StorageFile;
 import org.geotools.data.shapefile.index.LockTimeoutException;
 import org.geotools.data.shapefile.index.TreeException;
+import org.geotools.data.shapefile.index.hilbert.HilbertRTreeBuilder;
 import org.geotools.data.shapefile.index.quadtree.Node;
 import org.geotools.data.shapefile.index.quadtree.QuadTree;
 import org.geotools.data.shapefile.index.quadtree.StoreException;
 import org.geotools.data.shapefile.index.quadtree.fs.FileSystemIndexStore;
 import org.geotools.data.shapefile.index.quadtree.fs.IndexHeader;
 import org.geotools.data.shapefile.shp.IndexFile;
+import org.geotools.data.shapefile.shp.ShapeType;
 import org.geotools.data.shapefile.shp.ShapefileHeader;
 import org.geotools.data.shapefile.shp.ShapefileReader;
 import org.geotools.data.shapefile.shp.ShapefileReader.Record;
@@ -66,6 +68,7 @@ class ShapeFileIndexer implements FileWriter {
 	private String byteOrder;
     private boolean interactive = false;
     private ShpFiles shpFiles;
+    private ShpFileType indexType = ShpFileType.QIX;
 
     public static void main(String[] args) throws IOException {
         if ((args.length < 1) || (((args.length - 1) % 2) != 0)) {
@@ -79,9 +82,10 @@ class ShapeFileIndexer implements FileWriter {
 
         for (int i = 0; i < args.length; i++) {
             if (args[i].equals("-t")) {
-                // idx.setIdxType(IndexType.valueOf(args[++i]));
-                // just skip it for backwards compatibility
-                i++;
+                // anything but HRT falls back on the quadtree, for backwards compatibility
+                if ("HRT".equalsIgnoreCase(args[++i])) {
+                    idx.setIndexType(ShpFileType.HRT);
+                }
             } else if (args[i].equals("-M")) {
                 idx.setMax(Integer.parseInt(args[++i]));
             } else if (args[i].equals("-s")) {
@@ -115,7 +119,7 @@ class ShapeFileIndexer implements FileWriter {
     }
 
     private static void usage() {
-        System.out.println("Usage: ShapeFileIndexer " + "-t <QIX> "
+        System.out.println("Usage: ShapeFileIndexer " + "-t <QIX | HRT> "
                 + "[-M <max tree depth>] "
                 + "[-b <byte order NL | NM>] " + "<shape file>"
                 + "[-s <max number of items in a leaf>]");
@@ -123,7 +127,7 @@ class ShapeFileIndexer implements FileWriter {
         System.out.println();
 
         System.out.println("Options:");
-        System.out.println("\t-t Index type: RTREE or QUADTREE");
+        System.out.println("\t-t Index type: QIX (quadtree) or HRT (packed Hilbert R-tree)");
         System.out.println();
         System.out.println("Following options apllies only to QUADTREE:");
         System.out.println("\t-b byte order to use: NL = LSB; "
@@ -165,13 +169,13 @@ class ShapeFileIndexer implements FileWriter {
         ShapefileReader reader = null;
 
         // Temporary file for building...
-        StorageFile storage = shpFiles.getStorageFile(ShpFileType.QIX);
+        StorageFile storage = shpFiles.getStorageFile(indexType);
         File treeFile = storage.getFile();
 
         try {
             reader = new ShapefileReader(shpFiles, true, false, new GeometryFactory());
             
-            if(max == -1) {
+            if(max == -1 && indexType == ShpFileType.QIX) {
                 // compute a reasonable index max depth, considering a fully developed
                 // 10 levels one already contains 200k index nodes, good for indexing up
                 // to 3M features without consuming too much memory
@@ -190,7 +194,11 @@ class ShapeFileIndexer implements FileWriter {
                 reader = new ShapefileReader(shpFiles, true, false, new GeometryFactory());
             }
             
-            cnt = this.buildQuadTree(reader, treeFile, verbose);
+            if (indexType == ShpFileType.HRT) {
+                cnt = this.buildHilbertTree(reader, treeFile);
+            } else {
+                cnt = this.buildQuadTree(reader, treeFile, verbose);
+            }
         } finally {
             if (reader != null)
                 reader.close();
@@ -202,6 +210,31 @@ class ShapeFileIndexer implements FileWriter {
         return cnt;
     }
 
+    private int buildHilbertTree(ShapefileReader reader, File file) throws IOException {
+        LOGGER.fine("Building Hilbert R-tree spatial index for file " + file.getAbsolutePath());
+
+        int nodeSize = leafSize > 1 ? leafSize : HilbertRTreeBuilder.DEFAULT_NODE_SIZE;
+        HilbertRTreeBuilder builder = new HilbertRTreeBuilder(nodeSize);
+        IndexFile shpIndex = new IndexFile(shpFiles, false);
+        int cnt = 0;
+        try {
+            while (reader.hasNext()) {
+                Record rec = reader.nextRecord();
+                // null shapes cannot match any bbox, no need to index them
+                if (rec.type != ShapeType.NULL) {
+                    builder.add(cnt, shpIndex.getOffsetInBytes(cnt), new Envelope(rec.minX,
+                            rec.maxX, rec.minY, rec.maxY));
+                }
+                cnt++;
+            }
+        } finally {
+            shpIndex.close();
+        }
+        builder.write(file);
+
+        return cnt;
+    }
+
     private int buildQuadTree(ShapefileReader reader, File file, boolean verbose)
             throws IOException, StoreException {
         LOGGER.fine("Building quadtree spatial index with depth " +  max + " for file " + file.getAbsolutePath());
@@ -392,6 +425,16 @@ class ShapeFileIndexer implements FileWriter {
         }
     }
 
+    /**
+     * Sets the type of index to be built, either {@link ShpFileType#QIX} (the default) or
+     * {@link ShpFileType#HRT}
+     * 
+     * @param indexType
+     */
+    public void setIndexType(ShpFileType indexType) {
+        this.indexType = indexType;
+    }
+
     /**
      * For quad tree this is the max depth. I don't know what it is for RTree
      * 
@@ -42,6 +42,7 @@ import org.geotools.data.Query;
 import org.geotools.data.Transaction;
 import org.geotools.data.shapefile.dbf.DbaseFileException;
 import org.geotools.data.shapefile.dbf.DbaseFileHeader;
+import org.geotools.data.shapefile.files.ShpFileType;
 import org.geotools.data.shapefile.files.ShpFiles;
 import org.geotools.data.shapefile.files.StorageFile;
 import org.geotools.data.shapefile.shp.ShapeType;
@@ -111,6 +112,12 @@ public class ShapefileDataStore extends ContentDataStore implements FileDataStor
 
     boolean fidIndexed = true;
 
+    int parallelScanThreads = 1;
+
+    boolean windingOrderTrusted = false;
+
+    ShpFileType spatialIndexType = ShpFileType.QIX;
+
     IndexManager indexManager;
 
     ShapefileSetManager shpManager;
@@ -436,6 +443,129 @@ public class ShapefileDataStore extends ContentDataStore implements FileDataStor
         this.fidIndexed = fidIndexed;
     }
 
+    /**
+     * Returns the type of spatial index used, either {@link ShpFileType#QIX} (the default) or
+     * {@link ShpFileType#HRT}
+     * 
+     * @return
+     * @since 11.0
+     */
+    public ShpFileType getSpatialIndexType() {
+        return spatialIndexType;
+    }
+
+    /**
+     * Sets the type of spatial index to be used and created, either {@link ShpFileType#QIX}, the
+     * quadtree index also used by MapServer, or {@link ShpFileType#HRT}, a packed Hilbert R-tree
+     * that stays balanced on skewed data and is read via memory mapping
+     * 
+     * @param spatialIndexType
+     * @since 11.0
+     */
+    public void setSpatialIndexType(ShpFileType spatialIndexType) {
+        if (spatialIndexType != ShpFileType.QIX && spatialIndexType != ShpFileType.HRT) {
+            throw new IllegalArgumentException("Unsupported spatial index type "
+                    + spatialIndexType + ", valid values are QIX and HRT");
+        }
+        this.spatialIndexType = spatialIndexType;
+    }
+
+    /**
+     * Returns the number of threads used to scan the shapefile when computing aggregates (count,
+     * bounds, min, max, sum, unique) that cannot be answered using the headers or the indexes.
+     * The default, 1, disables parallel scans
+     * 
+     * @return
+     */
+    public int getParallelScanThreads() {
+        return parallelScanThreads;
+    }
+
+    /**
+     * Sets the number of threads used to scan the shapefile when computing aggregates. Each
+     * thread decodes a separate range of records, so this is useful only for large files
+     * 
+     * @param parallelScanThreads
+     */
+    public void setParallelScanThreads(int parallelScanThreads) {
+        this.parallelScanThreads = Math.max(1, parallelScanThreads);
+    }
+
+    /**
+     * Returns readers over disjoint, contiguous ranges of the shapefile records, which together
+     * return the features matching the query. Each reader uses its own file channels, so the
+     * readers can be consumed by different threads, e.g., to export large files in parallel. The
+     * spatial and feature id indexes are not used. Every reader must be closed by the caller.
+     * 
+     * @param query The query, paging, sorting and reprojection are not supported
+     * @param partitions The desired number of readers, less readers will be returned if the
+     *        shapefile does not have enough records
+     * @return The readers, or null if the shapefile does not have a .shx file
+     * @throws IOException
+     * @since 11.0
+     */
+    public List<FeatureReader<SimpleFeatureType, SimpleFeature>> getPartitionReaders(Query query,
+            int partitions) throws IOException {
+        ShapefileFeatureSource source = new ShapefileFeatureSource(ensureEntry(getTypeName()),
+                shpFiles);
+        return source.getPartitionReaders(query, partitions);
+    }
+
+    /**
+     * Returns true if the polygon ring winding order and sequence are trusted when reading
+     * polygons
+     * 
+     * @return
+     * @since 11.0
+     */
+    public boolean isWindingOrderTrusted() {
+        return windingOrderTrusted;
+    }
+
+    /**
+     * When set to true each polygon hole is assigned to the shell preceding it, as most shapefile
+     * writers lay them out, skipping the point in polygon tests that are normally used to find
+     * the shell containing it. This speeds up reading polygons with many holes, but will build
+     * wrong polygons out of files that list the rings in a different order. Disabled by default.
+     * 
+     * @param windingOrderTrusted
+     * @since 11.0
+     */
+    public void setWindingOrderTrusted(boolean windingOrderTrusted) {
+        this.windingOrderTrusted = windingOrderTrusted;
+    }
+
+    /**
+     * Rewrites the shapefile with the records sorted along a Hilbert curve, so that features that
+     * are close in space are also close in the .shp and .dbf files, making the reads of bounding
+     * box queries (e.g., map tiles) close to sequential. The spatial and feature id indexes are
+     * rebuilt afterwards, if they were enabled.
+     * <p>
+     * Mind, the order of the features changes, and so do their feature ids. Like
+     * {@link #forceSchemaCRS(CoordinateReferenceSystem)}, this method is not thread safe, no other
+     * thread should be using the shapefile while it runs.
+     * </p>
+     *
+     * @return The number of records sorted
+     * @throws IOException
+     * @since 11.0
+     */
+    public int sortSpatially() throws IOException {
+        boolean fidIndexExists = shpFiles.isLocal() && shpFiles.exists(ShpFileType.FIX);
+        int records = new ShapefileSorter(shpFiles).sort();
+        entries.clear();
+        // the in memory quadtree, if any, refers to the old record order
+        indexManager.dispose();
+
+        if (isIndexed() && isIndexCreationEnabled()) {
+            indexManager.createSpatialIndex(true);
+        }
+        if (fidIndexed && fidIndexExists) {
+            indexManager.createFidIndex();
+        }
+        return records;
+    }
+
     @Override
     public String toString() {
         return "ShapefileDataStore [file=" + shpFiles.get(SHP) + ", charset=" + charset + ", timeZone=" + timeZone
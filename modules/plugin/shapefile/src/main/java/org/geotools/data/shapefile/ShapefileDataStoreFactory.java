@@ -37,6 +37,7 @@ import org.geotools.data.FileDataStore;
 import org.geotools.data.FileDataStoreFactorySpi;
 import org.geotools.data.directory.DirectoryDataStore;
 import org.geotools.data.directory.FileStoreFactory;
+import org.geotools.data.shapefile.files.ShpFileType;
 import org.geotools.data.shapefile.files.ShpFiles;
 import org.geotools.util.KVP;
 import org.geotools.util.logging.Logging;
@@ -140,6 +141,30 @@ public class ShapefileDataStoreFactory extends AbstractDataStoreFactory implemen
             Boolean.class, "enable/disable the use of spatial index for local shapefiles", false,
             true, new KVP(Param.LEVEL, "advanced"));
 
+    /**
+     * Optional - type of spatial index, the quadtree "qix" or the packed Hilbert R-tree "hrt"
+     */
+    public static final Param SPATIAL_INDEX_TYPE = new Param("spatial index type", String.class,
+            "type of spatial index, qix (quadtree) or hrt (packed Hilbert R-tree)", false, "qix",
+            new KVP(Param.LEVEL, "advanced", Param.OPTIONS, Arrays.asList(new String[] { "qix",
+                    "hrt" })));
+
+    /**
+     * Optional - number of threads used to scan large shapefiles when computing aggregates
+     */
+    public static final Param PARALLEL_SCAN_THREADS = new Param("parallel scan threads",
+            Integer.class, "number of threads used to scan the shapefile when computing "
+                    + "aggregates, 1 disables parallel scans", false, 1, new KVP(Param.LEVEL,
+                    "advanced"));
+
+    /**
+     * Optional - trust the polygon ring winding order and sequence when assigning holes to shells
+     */
+    public static final Param TRUST_WINDING_ORDER = new Param("trust winding order",
+            Boolean.class, "assign each polygon hole to the shell preceding it, without "
+                    + "containment tests, use only with files known to be well formed", false,
+            false, new KVP(Param.LEVEL, "advanced"));
+
     public String getDisplayName() {
         return "Shapefile";
     }
@@ -150,7 +175,8 @@ public class ShapefileDataStoreFactory extends AbstractDataStoreFactory implemen
 
     public Param[] getParametersInfo() {
         return new Param[] { URLP, NAMESPACEP, ENABLE_SPATIAL_INDEX, CREATE_SPATIAL_INDEX, DBFCHARSET, DBFTIMEZONE,
-                MEMORY_MAPPED, CACHE_MEMORY_MAPS, FILE_TYPE, FSTYPE };
+                MEMORY_MAPPED, CACHE_MEMORY_MAPS, FILE_TYPE, FSTYPE, PARALLEL_SCAN_THREADS,
+                SPATIAL_INDEX_TYPE, TRUST_WINDING_ORDER };
     }
 
     public boolean isAvailable() {
@@ -169,6 +195,9 @@ public class ShapefileDataStoreFactory extends AbstractDataStoreFactory implemen
         Charset dbfCharset = lookup(DBFCHARSET, params, Charset.class);
         TimeZone dbfTimeZone = lookup(DBFTIMEZONE, params, TimeZone.class);
         Boolean isCreateSpatialIndex = lookup(CREATE_SPATIAL_INDEX, params, Boolean.class);
+        Integer parallelScanThreads = lookup(PARALLEL_SCAN_THREADS, params, Integer.class);
+        String spatialIndexType = lookup(SPATIAL_INDEX_TYPE, params, String.class);
+        Boolean trustWindingOrder = lookup(TRUST_WINDING_ORDER, params, Boolean.class);
         Boolean isEnableSpatialIndex = (Boolean) ENABLE_SPATIAL_INDEX.lookUp(params);
         if (isEnableSpatialIndex == null) {
             // should not be needed as default is TRUE
@@ -199,6 +228,14 @@ public class ShapefileDataStoreFactory extends AbstractDataStoreFactory implemen
             store.setTimeZone(dbfTimeZone);
             store.setIndexed(enableIndex);
             store.setIndexCreationEnabled(createIndex);
+            store.setParallelScanThreads(parallelScanThreads);
+            store.setWindingOrderTrusted(trustWindingOrder);
+            if ("hrt".equalsIgnoreCase(spatialIndexType)) {
+                store.setSpatialIndexType(ShpFileType.HRT);
+            } else if (!"qix".equalsIgnoreCase(spatialIndexType)) {
+                throw new IOException("Unknown spatial index type " + spatialIndexType
+                        + ", valid values are qix and hrt");
+            }
             return store;
         }
     }
@@ -111,6 +111,18 @@ class ShapefileFeatureReader implements FeatureReader<SimpleFeatureType, SimpleF
                     }
                 }
             }
+
+            // have the dbf reader skip over the fields we are not going to read
+            int[] selection = new int[dbfindexes.length];
+            int selected = 0;
+            for (int i = 0; i < dbfindexes.length; i++) {
+                if (dbfindexes[i] != -1) {
+                    selection[selected++] = dbfindexes[i];
+                }
+            }
+            int[] fields = new int[selected];
+            System.arraycopy(selection, 0, fields, 0, selected);
+            dbf.setFieldSelection(fields);
         }
     }
 
@@ -28,6 +28,12 @@ import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -39,6 +45,7 @@ import org.geotools.data.FilteringFeatureReader;
 import org.geotools.data.PrjFileReader;
 import org.geotools.data.Query;
 import org.geotools.data.ReTypeFeatureReader;
+import org.geotools.data.Transaction;
 import org.geotools.data.shapefile.dbf.DbaseFileHeader;
 import org.geotools.data.shapefile.dbf.DbaseFileReader;
 import org.geotools.data.shapefile.fid.IndexedFidReader;
@@ -59,6 +66,14 @@ import org.geotools.feature.AttributeTypeBuilder;
 import org.geotools.feature.FeatureTypes;
 import org.geotools.feature.simple.SimpleFeatureTypeBuilder;
 import org.geotools.feature.type.BasicFeatureTypes;
+import org.geotools.feature.visitor.BoundsVisitor;
+import org.geotools.feature.visitor.CalcResult;
+import org.geotools.feature.visitor.CountVisitor;
+import org.geotools.feature.visitor.FeatureCalc;
+import org.geotools.feature.visitor.MaxVisitor;
+import org.geotools.feature.visitor.MinVisitor;
+import org.geotools.feature.visitor.SumVisitor;
+import org.geotools.feature.visitor.UniqueVisitor;
 import org.geotools.filter.FilterAttributeExtractor;
 import org.geotools.filter.visitor.ExtractBoundsFilterVisitor;
 import org.geotools.geometry.jts.ReferencedEnvelope;
@@ -262,9 +277,7 @@ class ShapefileFeatureSource extends ContentFeatureSource {
         ShapefileSetManager shpManager = getDataStore().shpManager;
         ShapefileReader shapeReader = shpManager.openShapeReader(geometryFactory, goodRecs != null);
         DbaseFileReader dbfReader = null;
-        List<AttributeDescriptor> attributes = readSchema.getAttributeDescriptors();
-        if (attributes.size() < 1
-                || (attributes.size() == 1 && readSchema.getGeometryDescriptor() != null)) {
+        if (!isDbfRead(readSchema)) {
             LOGGER.fine("The DBF file won't be opened since no attributes will be read from it");
         } else {
             dbfReader = shpManager.openDbfReader(goodRecs != null);
@@ -277,6 +290,18 @@ class ShapefileFeatureSource extends ContentFeatureSource {
             result = new ShapefileFeatureReader(readSchema, shapeReader, dbfReader, fidReader);
         }
 
+        return setupReader(result, shapeReader, q, bbox, readSchema, resultSchema, true);
+    }
+
+    /**
+     * Sets up the target bbox and the generalization hints on the shapefile reader, and wraps it
+     * to perform filtering and retyping
+     */
+    FeatureReader<SimpleFeatureType, SimpleFeature> setupReader(ShapefileFeatureReader result,
+            ShapefileReader shapeReader, Query q, Envelope bbox, SimpleFeatureType readSchema,
+            SimpleFeatureType resultSchema, boolean useScreenMap) {
+        Filter filter = q != null ? q.getFilter() : null;
+
         // setup the target bbox if any, and the generalization hints if available
         if (q != null) {
             if (bbox != null && !bbox.isNull()) {
@@ -289,7 +314,9 @@ class ShapefileFeatureSource extends ContentFeatureSource {
                 if (simplificationDistance != null) {
                     result.setSimplificationDistance(simplificationDistance.doubleValue());
                 }
-                result.setScreenMap((ScreenMap) hints.get(Hints.SCREENMAP));
+                if (useScreenMap) {
+                    result.setScreenMap((ScreenMap) hints.get(Hints.SCREENMAP));
+                }
 
                 if (Boolean.TRUE.equals(hints.get(Hints.FEATURE_2D))) {
                     shapeReader.setFlatGeometry(true);
@@ -314,6 +341,136 @@ class ShapefileFeatureSource extends ContentFeatureSource {
         }
     }
 
+    /**
+     * Returns true if the read schema contains attributes that need to be read from the DBF file
+     */
+    boolean isDbfRead(SimpleFeatureType readSchema) {
+        List<AttributeDescriptor> attributes = readSchema.getAttributeDescriptors();
+        return !(attributes.size() < 1 || (attributes.size() == 1 && readSchema
+                .getGeometryDescriptor() != null));
+    }
+
+    /**
+     * Returns readers over disjoint, contiguous ranges of the shapefile records, which together
+     * return the same features a full scan would for the given query. The ranges are split using
+     * the .shx offsets so that each one covers about the same amount of .shp bytes, and each
+     * reader has its own file channels, so the readers can be consumed by different threads.
+     * <p>
+     * The spatial and feature id indexes are not used, and the screen map hint is ignored, as it
+     * cannot be shared among threads.
+     * </p>
+     * 
+     * @param q The query, must not require paging, sorting or reprojection
+     * @param partitions The desired number of partitions, less readers will be returned if the
+     *        shapefile does not have enough records
+     * @return The partition readers, or null if there is no .shx file to split the records with
+     * @throws IOException
+     */
+    List<FeatureReader<SimpleFeatureType, SimpleFeature>> getPartitionReaders(Query q,
+            int partitions) throws IOException {
+        q = resolvePropertyNames(joinQuery(q));
+        if (!isPartitionable(q)) {
+            throw new IllegalArgumentException("Paging, sorting and reprojection are not "
+                    + "supported by partitioned reads");
+        }
+        ShapefileSetManager shpManager = getDataStore().shpManager;
+        IndexFile shx = shpManager.openIndexFile();
+        if (shx == null) {
+            return null;
+        }
+        int[] ranges;
+        try {
+            ranges = getPartitionRanges(shx, partitions);
+        } finally {
+            shx.close();
+        }
+
+        SimpleFeatureType resultSchema = getResultSchema(q);
+        SimpleFeatureType readSchema = getReadSchema(q);
+        Envelope bbox = new ReferencedEnvelope();
+        if (q.getFilter() != null) {
+            bbox = (Envelope) q.getFilter().accept(ExtractBoundsFilterVisitor.BOUNDS_VISITOR, bbox);
+        }
+
+        List<FeatureReader<SimpleFeatureType, SimpleFeature>> readers = new ArrayList<FeatureReader<SimpleFeatureType, SimpleFeature>>();
+        try {
+            for (int i = 0; i < ranges.length - 1; i++) {
+                if (ranges[i] == ranges[i + 1]) {
+                    continue;
+                }
+                IndexFile rangeShx = shpManager.openIndexFile();
+                if (rangeShx == null) {
+                    throw new IOException("Could not open the .shx file");
+                }
+                CloseableIterator<Data> records = new RecordRangeIterator(rangeShx, ranges[i],
+                        ranges[i + 1]);
+                ShapefileReader shapeReader = null;
+                DbaseFileReader dbfReader = null;
+                try {
+                    shapeReader = shpManager.openShapeReader(getGeometryFactory(q), true);
+                    if (isDbfRead(readSchema)) {
+                        dbfReader = shpManager.openDbfReader(true);
+                    }
+                } catch (IOException e) {
+                    records.close();
+                    if (shapeReader != null) {
+                        shapeReader.close();
+                    }
+                    throw e;
+                }
+                ShapefileFeatureReader reader = new IndexedShapefileFeatureReader(readSchema,
+                        shapeReader, dbfReader, null, records);
+                readers.add(setupReader(reader, shapeReader, q, bbox, readSchema, resultSchema,
+                        false));
+            }
+        } catch (IOException e) {
+            for (FeatureReader<SimpleFeatureType, SimpleFeature> reader : readers) {
+                try {
+                    reader.close();
+                } catch (IOException ioe) {
+                    LOGGER.log(Level.FINE, "Failed to close partition reader", ioe);
+                }
+            }
+            throw e;
+        }
+
+        return readers;
+    }
+
+    /**
+     * Splits the records in the given number of contiguous ranges, each covering about the same
+     * amount of bytes in the .shp file. The returned array contains the first record of each
+     * range, followed by the record count.
+     */
+    int[] getPartitionRanges(IndexFile shx, int partitions) throws IOException {
+        int count = shx.getRecordCount();
+        partitions = Math.max(1, Math.min(partitions, count));
+        int[] ranges = new int[partitions + 1];
+        ranges[partitions] = count;
+        if (count == 0) {
+            return ranges;
+        }
+
+        long start = shx.getOffsetInBytes(0);
+        long end = (long) shx.getOffsetInBytes(count - 1) + shx.getContentLength(count - 1);
+        for (int i = 1; i < partitions; i++) {
+            long target = start + (end - start) * i / partitions;
+            // binary search the first record starting at or after the target offset
+            int low = ranges[i - 1];
+            int high = count;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (shx.getOffsetInBytes(mid) < target) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            ranges[i] = low;
+        }
+        return ranges;
+    }
+
     SimpleFeatureType getResultSchema(Query q) {
         if (q.getPropertyNames() == null) {
             return getSchema();
@@ -495,7 +652,163 @@ class ShapefileFeatureSource extends ContentFeatureSource {
 
     @Override
     protected boolean handleVisitor(Query query, FeatureVisitor visitor) throws IOException {
+        int threads = getDataStore().getParallelScanThreads();
+        if (threads > 1 && createPartialVisitor(visitor) != null) {
+            Query joined = resolvePropertyNames(joinQuery(query));
+            if (isParallelScanSupported(joined)) {
+                List<FeatureReader<SimpleFeatureType, SimpleFeature>> readers = getPartitionReaders(
+                        query, threads);
+                if (readers != null) {
+                    visitParallel(readers, (FeatureCalc) visitor);
+                    return true;
+                }
+            }
+        }
         return super.handleVisitor(query, visitor);
     }
 
+    /**
+     * Returns true if the query can be answered by a parallel scan, that is, it does not need
+     * transaction state, and would not be better served by the spatial or feature id indexes
+     */
+    boolean isParallelScanSupported(Query query) {
+        if (getTransaction() != null && getTransaction() != Transaction.AUTO_COMMIT) {
+            return false;
+        }
+        if (!isPartitionable(query)) {
+            return false;
+        }
+        Filter filter = query.getFilter();
+        if (filter instanceof Id) {
+            return false;
+        }
+        if (getDataStore().isIndexed() && filter != null) {
+            Envelope bbox = (Envelope) filter.accept(ExtractBoundsFilterVisitor.BOUNDS_VISITOR,
+                    new ReferencedEnvelope());
+            if (bbox != null && !bbox.isNull() && !Double.isInfinite(bbox.getWidth())
+                    && !Double.isInfinite(bbox.getHeight())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if the query does not ask for paging, sorting or reprojection, which cannot be
+     * performed on the single partitions
+     */
+    boolean isPartitionable(Query query) {
+        return query.getStartIndex() == null && query.isMaxFeaturesUnlimited()
+                && (query.getSortBy() == null || query.getSortBy().length == 0)
+                && query.getCoordinateSystem() == null
+                && query.getCoordinateSystemReproject() == null;
+    }
+
+    /**
+     * Returns a new, empty visitor performing the same calculation as the given one, if the
+     * results of the calculation on different subsets of the data can be merged, or null
+     * otherwise
+     */
+    FeatureCalc createPartialVisitor(FeatureVisitor visitor) {
+        Class<?> clazz = visitor.getClass();
+        if (clazz == CountVisitor.class) {
+            return new CountVisitor();
+        } else if (clazz == BoundsVisitor.class) {
+            return new BoundsVisitor();
+        } else if (clazz == MinVisitor.class) {
+            return new MinVisitor(((MinVisitor) visitor).getExpression());
+        } else if (clazz == MaxVisitor.class) {
+            return new MaxVisitor(((MaxVisitor) visitor).getExpression());
+        } else if (clazz == SumVisitor.class) {
+            return new SumVisitor(((SumVisitor) visitor).getExpression());
+        } else if (clazz == UniqueVisitor.class) {
+            return new UniqueVisitor(((UniqueVisitor) visitor).getExpression());
+        }
+        return null;
+    }
+
+    /**
+     * Visits each partition reader in its own thread with a partial visitor, then merges the
+     * partial results back into the target visitor
+     */
+    void visitParallel(List<FeatureReader<SimpleFeatureType, SimpleFeature>> readers,
+            FeatureCalc visitor) throws IOException {
+        AtomicBoolean cancelled = new AtomicBoolean(false);
+        List<Future<CalcResult>> results = new ArrayList<Future<CalcResult>>();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, readers.size()));
+        try {
+            for (FeatureReader<SimpleFeatureType, SimpleFeature> reader : readers) {
+                results.add(executor.submit(new PartitionVisit(reader,
+                        createPartialVisitor(visitor), cancelled)));
+            }
+
+            CalcResult merged = visitor.getResult();
+            for (Future<CalcResult> result : results) {
+                merged = merged.merge(result.get());
+            }
+            if (merged == CalcResult.NULL_RESULT) {
+                return;
+            }
+            if (visitor instanceof CountVisitor) {
+                ((CountVisitor) visitor).setValue(merged.toInt());
+            } else if (visitor instanceof BoundsVisitor) {
+                ((BoundsVisitor) visitor).getBounds().expandToInclude(
+                        (ReferencedEnvelope) merged.getValue());
+            } else if (visitor instanceof MinVisitor) {
+                ((MinVisitor) visitor).setValue(merged.getValue());
+            } else if (visitor instanceof MaxVisitor) {
+                ((MaxVisitor) visitor).setValue(merged.getValue());
+            } else if (visitor instanceof SumVisitor) {
+                ((SumVisitor) visitor).setValue(merged.getValue());
+            } else if (visitor instanceof UniqueVisitor) {
+                ((UniqueVisitor) visitor).setValue(merged.getValue());
+            }
+        } catch (InterruptedException e) {
+            cancelled.set(true);
+            throw (IOException) new IOException("Interrupted while scanning the shapefile")
+                    .initCause(e);
+        } catch (ExecutionException e) {
+            cancelled.set(true);
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw (IOException) new IOException("Failed to scan the shapefile in parallel")
+                    .initCause(e.getCause());
+        } finally {
+            // the tasks close their own readers, the ones not started yet will bail out
+            // immediately if the scan has been cancelled
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Feeds all the features of a partition reader to a partial visitor
+     */
+    static class PartitionVisit implements Callable<CalcResult> {
+
+        FeatureReader<SimpleFeatureType, SimpleFeature> reader;
+
+        FeatureCalc visitor;
+
+        AtomicBoolean cancelled;
+
+        public PartitionVisit(FeatureReader<SimpleFeatureType, SimpleFeature> reader,
+                FeatureCalc visitor, AtomicBoolean cancelled) {
+            this.reader = reader;
+            this.visitor = visitor;
+            this.cancelled = cancelled;
+        }
+
+        public CalcResult call() throws Exception {
+            try {
+                while (!cancelled.get() && reader.hasNext()) {
+                    visitor.visit(reader.next());
+                }
+                return visitor.getResult();
+            } finally {
+                reader.close();
+            }
+        }
+    }
+
 }
@@ -129,6 +129,11 @@ class ShapefileFeatureStore extends ContentFeatureStore {
         return delegate.buildFeatureType();
     }
 
+    @Override
+    protected boolean handleVisitor(Query query, FeatureVisitor visitor) throws IOException {
+        return delegate.handleVisitor(query, visitor);
+    }
+
     @Override
     public ContentEntry getEntry() {
         return delegate.getEntry();
@@ -48,7 +48,12 @@ class ShapefileSetManager implements FileReader {
     protected ShapefileReader openShapeReader(GeometryFactory gf, boolean onlyRandomAccess)
             throws IOException {
         try {
-            return new ShapefileReader(shpFiles, true, store.isMemoryMapped(), gf, onlyRandomAccess);
+            ShapefileReader reader = new ShapefileReader(shpFiles, true, store.isMemoryMapped(),
+                    gf, onlyRandomAccess);
+            if (store.isWindingOrderTrusted()) {
+                reader.setWindingOrderTrusted(true);
+            }
+            return reader;
         } catch (ShapefileException se) {
             throw new DataSourceException("Error creating ShapefileReader", se);
         }
@@ -0,0 +1,475 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2013, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.shapefile;
+
+import static org.geotools.data.shapefile.files.ShpFileType.DBF;
+import static org.geotools.data.shapefile.files.ShpFileType.SHP;
+import static org.geotools.data.shapefile.files.ShpFileType.SHX;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.geotools.data.DataUtilities;
+import org.geotools.data.shapefile.dbf.DbaseFileHeader;
+import org.geotools.data.shapefile.files.FileWriter;
+import org.geotools.data.shapefile.files.ShpFileType;
+import org.geotools.data.shapefile.files.ShpFiles;
+import org.geotools.data.shapefile.files.StorageFile;
+import org.geotools.data.shapefile.index.hilbert.HilbertRTreeBuilder;
+import org.geotools.data.shapefile.shp.IndexFile;
+import org.geotools.data.shapefile.shp.ShapeType;
+import org.geotools.data.shapefile.shp.ShapefileHeader;
+import org.geotools.data.shapefile.shp.ShapefileReader;
+import org.geotools.data.shapefile.shp.ShapefileReader.Record;
+import org.geotools.util.logging.Logging;
+
+import com.vividsolutions.jts.geom.GeometryFactory;
+
+/**
+ * Rewrites the .shp, .shx and .dbf files of a shapefile with the records sorted along the
+ * Hilbert curve, so that records close in space end up close in the files too, and reading the
+ * results of a bounding box query touches a few contiguous areas of the files instead of the
+ * whole of them.
+ * <p>
+ * The sort keys (Hilbert code of the record envelope center and record number) are sorted
+ * externally: they are accumulated in memory up to a maximum, and spilled to disk as sorted runs
+ * that are then merged while copying the records. The record contents are copied verbatim, only
+ * the record numbers in the .shp record headers are updated. The spatial and feature id index
+ * files are removed, as they refer to the old record order.
+ * </p>
+ *
+ * @source $URL$
+ */
+class ShapefileSorter implements FileWriter {
+
+    static final Logger LOGGER = Logging.getLogger(ShapefileSorter.class);
+
+    /**
+     * The default number of sort keys kept in memory, 8MB worth of them
+     */
+    static final int DEFAULT_MAX_KEYS_IN_MEMORY = 1024 * 1024;
+
+    /**
+     * Null shapes do not have a position, they are moved at the end of the file
+     */
+    static final long NULL_SHAPE_CODE = 1L << 30;
+
+    ShpFiles shpFiles;
+
+    int maxKeysInMemory = DEFAULT_MAX_KEYS_IN_MEMORY;
+
+    public ShapefileSorter(ShpFiles shpFiles) {
+        this.shpFiles = shpFiles;
+    }
+
+    /**
+     * Sets the maximum number of sort keys kept in memory, past it sorted runs of keys are
+     * written to temporary files
+     *
+     * @param maxKeysInMemory
+     */
+    public void setMaxKeysInMemory(int maxKeysInMemory) {
+        this.maxKeysInMemory = Math.max(2, maxKeysInMemory);
+    }
+
+    /**
+     * Sorts the shapefile
+     *
+     * @return The number of records sorted
+     * @throws IOException
+     */
+    public int sort() throws IOException {
+        if (!shpFiles.isLocal()) {
+            throw new IOException("Only local shapefiles can be sorted");
+        }
+
+        List<File> runs = new ArrayList<File>();
+        try {
+            KeyCollector collector = collectKeys(runs);
+            KeyMerger merger = new KeyMerger(runs, collector.keys, collector.count);
+            try {
+                copyRecords(merger, collector);
+            } finally {
+                merger.close();
+            }
+
+            deleteFile(ShpFileType.FIX);
+            deleteFile(ShpFileType.QIX);
+            deleteFile(ShpFileType.HRT);
+
+            return collector.records;
+        } finally {
+            for (File run : runs) {
+                if (!run.delete()) {
+                    run.deleteOnExit();
+                }
+            }
+        }
+    }
+
+    /**
+     * Scans the shapefile computing the sort key of each record, spilling the sorted runs of
+     * keys that do not fit in memory to the specified files. The last run is left in memory.
+     */
+    KeyCollector collectKeys(List<File> runs) throws IOException {
+        KeyCollector collector = new KeyCollector();
+        ShapefileReader reader = new ShapefileReader(shpFiles, true, false, new GeometryFactory());
+        IndexFile shx = new IndexFile(shpFiles, false);
+        try {
+            ShapefileHeader header = reader.getHeader();
+            double minX = header.minX();
+            double minY = header.minY();
+            int side = HilbertRTreeBuilder.HILBERT_SIDE;
+            double scaleX = header.maxX() > minX ? (side - 1) / (header.maxX() - minX) : 0;
+            double scaleY = header.maxY() > minY ? (side - 1) / (header.maxY() - minY) : 0;
+
+            collector.keys = new long[Math.min(maxKeysInMemory, Math.max(shx.getRecordCount(),
+                    2))];
+            // the shp file length, in 16 bit words, with the records packed one after the other
+            collector.shpLength = 50;
+            while (reader.hasNext()) {
+                Record record = reader.nextRecord();
+                long code;
+                if (record.type == ShapeType.NULL) {
+                    code = NULL_SHAPE_CODE;
+                } else {
+                    int x = clamp((int) (((record.minX + record.maxX) / 2 - minX) * scaleX), side);
+                    int y = clamp((int) (((record.minY + record.maxY) / 2 - minY) * scaleY), side);
+                    code = HilbertRTreeBuilder.hilbert(x, y);
+                }
+
+                if (collector.count == collector.keys.length) {
+                    runs.add(writeRun(collector.keys, collector.count));
+                    collector.count = 0;
+                }
+                collector.keys[collector.count++] = (code << 32) | collector.records;
+                collector.shpLength += 4 + shx.getContentLength(collector.records);
+                collector.records++;
+            }
+            Arrays.sort(collector.keys, 0, collector.count);
+        } finally {
+            shx.close();
+            reader.close();
+        }
+
+        return collector;
+    }
+
+    static int clamp(int value, int side) {
+        return value < 0 ? 0 : (value >= side ? side - 1 : value);
+    }
+
+    File writeRun(long[] keys, int count) throws IOException {
+        Arrays.sort(keys, 0, count);
+        File file = File.createTempFile("shpsort", ".run");
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(file), 64 * 1024));
+        try {
+            for (int i = 0; i < count; i++) {
+                out.writeLong(keys[i]);
+            }
+        } finally {
+            out.close();
+        }
+        return file;
+    }
+
+    /**
+     * Copies the records in the order returned by the merger into new .shp, .shx and .dbf files
+     * and replaces the original ones with them
+     */
+    void copyRecords(KeyMerger merger, KeyCollector collector) throws IOException {
+        boolean hasDbf = shpFiles.get(DBF) != null && shpFiles.exists(DBF);
+        FileChannel shpIn = (FileChannel) shpFiles.getReadChannel(SHP, this);
+        FileChannel shxIn = null;
+        FileChannel dbfIn = null;
+        DataOutputStream shpOut = null;
+        DataOutputStream shxOut = null;
+        DataOutputStream dbfOut = null;
+        StorageFile shpStorage = shpFiles.getStorageFile(SHP);
+        StorageFile shxStorage = shpFiles.getStorageFile(SHX);
+        StorageFile dbfStorage = hasDbf ? shpFiles.getStorageFile(DBF) : null;
+        try {
+            shxIn = (FileChannel) shpFiles.getReadChannel(SHX, this);
+            shpOut = openOutput(shpStorage);
+            shxOut = openOutput(shxStorage);
+
+            // same headers, but for the file lengths, in case the original had holes
+            ByteBuffer shpHeader = read(shpIn, 0, 100, null);
+            shpHeader.order(ByteOrder.BIG_ENDIAN).putInt(24, collector.shpLength);
+            shpOut.write(shpHeader.array(), 0, 100);
+            ByteBuffer shxHeader = read(shxIn, 0, 100, null);
+            shxHeader.order(ByteOrder.BIG_ENDIAN).putInt(24, 50 + 4 * collector.records);
+            shxOut.write(shxHeader.array(), 0, 100);
+
+            int dbfHeaderLength = 0;
+            int dbfRecordLength = 0;
+            if (hasDbf) {
+                dbfIn = (FileChannel) shpFiles.getReadChannel(DBF, this);
+                DbaseFileHeader header = new DbaseFileHeader();
+                header.readHeader(dbfIn);
+                if (header.getNumRecords() != collector.records) {
+                    throw new IOException("The .dbf file has " + header.getNumRecords()
+                            + " records, the .shp one " + collector.records
+                            + ", cannot sort a shapefile whose files are not aligned");
+                }
+                dbfHeaderLength = header.getHeaderLength();
+                dbfRecordLength = header.getRecordLength();
+                dbfOut = openOutput(dbfStorage);
+                dbfOut.write(read(dbfIn, 0, dbfHeaderLength, null).array(), 0, dbfHeaderLength);
+            }
+
+            ByteBuffer shxEntry = ByteBuffer.allocate(8);
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            int offset = 50;
+            int recno = 0;
+            while (merger.hasNext()) {
+                int source = (int) merger.next();
+
+                // locate the record using the .shx, offset and length are in 16 bit words
+                read(shxIn, 100 + source * 8L, 8, shxEntry);
+                int sourceOffset = shxEntry.getInt(0);
+                int contentLength = shxEntry.getInt(4);
+
+                int recordLength = 8 + contentLength * 2;
+                buffer = read(shpIn, sourceOffset * 2L, recordLength, buffer);
+                buffer.order(ByteOrder.BIG_ENDIAN).putInt(0, recno + 1);
+                shpOut.write(buffer.array(), 0, recordLength);
+                shxOut.writeInt(offset);
+                shxOut.writeInt(contentLength);
+                offset += 4 + contentLength;
+
+                if (hasDbf) {
+                    buffer = read(dbfIn, dbfHeaderLength + (long) source * dbfRecordLength,
+                            dbfRecordLength, buffer);
+                    dbfOut.write(buffer.array(), 0, dbfRecordLength);
+                }
+                recno++;
+            }
+
+            if (hasDbf) {
+                // copy over the end of file marker, if any
+                long end = dbfHeaderLength + (long) recno * dbfRecordLength;
+                int trailer = (int) Math.max(0, Math.min(dbfIn.size() - end, 1));
+                if (trailer > 0) {
+                    dbfOut.write(read(dbfIn, end, trailer, buffer).array(), 0, trailer);
+                }
+            }
+        } finally {
+            close(shpOut);
+            close(shxOut);
+            close(dbfOut);
+            close(shpIn);
+            close(shxIn);
+            close(dbfIn);
+        }
+
+        if (hasDbf) {
+            StorageFile.replaceOriginals(shpStorage, shxStorage, dbfStorage);
+        } else {
+            StorageFile.replaceOriginals(shpStorage, shxStorage);
+        }
+    }
+
+    DataOutputStream openOutput(StorageFile storage) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(new FileOutputStream(
+                storage.getFile()), 64 * 1024));
+    }
+
+    /**
+     * Reads length bytes at the specified position, in the buffer, if it's large enough, or in a
+     * new one otherwise
+     */
+    ByteBuffer read(FileChannel channel, long position, int length, ByteBuffer buffer)
+            throws IOException {
+        if (buffer == null || buffer.capacity() < length) {
+            buffer = ByteBuffer.allocate(length);
+        }
+        buffer.clear();
+        buffer.limit(length);
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new EOFException("Unexpected end of file while sorting the shapefile");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    void close(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.FINE, "Failed to close stream", e);
+            }
+        }
+    }
+
+    void deleteFile(ShpFileType type) {
+        URL url = shpFiles.acquireWrite(type, this);
+        try {
+            File file = DataUtilities.urlToFile(url);
+            if (file.exists() && !file.delete()) {
+                LOGGER.warning("Could not delete the out of date " + file);
+            }
+        } finally {
+            shpFiles.unlockWrite(url, this);
+        }
+    }
+
+    public String id() {
+        return getClass().getName();
+    }
+
+    /**
+     * The result of the key collection
+     */
+    static class KeyCollector {
+        long[] keys;
+
+        int count;
+
+        int records;
+
+        int shpLength;
+    }
+
+    /**
+     * Merges the sorted runs of keys, returning the record numbers in Hilbert order
+     */
+    static class KeyMerger {
+
+        PriorityQueue<Run> queue = new PriorityQueue<Run>();
+
+        List<Run> runs = new ArrayList<Run>();
+
+        KeyMerger(List<File> files, long[] keys, int count) throws IOException {
+            try {
+                for (File file : files) {
+                    runs.add(new Run(new DataInputStream(new BufferedInputStream(
+                            new FileInputStream(file), 64 * 1024))));
+                }
+            } catch (IOException e) {
+                close();
+                throw e;
+            }
+            runs.add(new Run(keys, count));
+            for (Run run : runs) {
+                if (run.advance()) {
+                    queue.add(run);
+                }
+            }
+        }
+
+        boolean hasNext() {
+            return !queue.isEmpty();
+        }
+
+        /**
+         * Returns the next key, the record number is in the lower 32 bits
+         */
+        long next() throws IOException {
+            Run run = queue.poll();
+            long key = run.current;
+            if (run.advance()) {
+                queue.add(run);
+            }
+            return key;
+        }
+
+        void close() {
+            for (Run run : runs) {
+                run.close();
+            }
+        }
+    }
+
+    /**
+     * A sorted run of keys, either in memory or in a file
+     */
+    static class Run implements Comparable<Run> {
+
+        DataInputStream input;
+
+        long[] keys;
+
+        int count;
+
+        int position;
+
+        long current;
+
+        Run(DataInputStream input) {
+            this.input = input;
+        }
+
+        Run(long[] keys, int count) {
+            this.keys = keys;
+            this.count = count;
+        }
+
+        boolean advance() throws IOException {
+            if (keys != null) {
+                if (position < count) {
+                    current = keys[position++];
+                    return true;
+                }
+                return false;
+            }
+            try {
+                current = input.readLong();
+                return true;
+            } catch (EOFException e) {
+                return false;
+            }
+        }
+
+        public int compareTo(Run other) {
+            return current < other.current ? -1 : (current == other.current ? 0 : 1);
+        }
+
+        void close() {
+            if (input != null) {
+                try {
+                    input.close();
+                } catch (IOException e) {
+                    LOGGER.log(Level.FINE, "Failed to close sort run", e);
+                }
+            }
+        }
+    }
+}
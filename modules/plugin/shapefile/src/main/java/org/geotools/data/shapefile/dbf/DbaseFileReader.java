@@ -73,6 +73,7 @@ public class DbaseFileReader implements FileReader {
 
     public final class Row {
         public Object read(final int column) throws IOException {
+            checkSelected(column);
             final int offset = fieldOffsets[column];
             return readObject(offset, column);
         }
@@ -80,6 +81,9 @@ public class DbaseFileReader implements FileReader {
         public String toString() {
             final StringBuffer ret = new StringBuffer("DBF Row - ");
             for (int i = 0; i < header.getNumFields(); i++) {
+                if (selectedFields != null && !selectedFields[i]) {
+                    continue;
+                }
                 ret.append(header.getFieldName(i)).append(": \"");
                 try {
                     ret.append(this.read(i));
@@ -106,6 +110,16 @@ public class DbaseFileReader implements FileReader {
     
     int[] fieldOffsets;
 
+    /**
+     * The fields to be read, or null if all fields are to be read
+     */
+    boolean[] selectedFields;
+
+    /**
+     * The runs of contiguous bytes covering the selected fields, as (offset, length) pairs
+     */
+    int[] selectedRuns;
+
     int cnt = 1;
 
     Row row;
@@ -258,6 +272,71 @@ public class DbaseFileReader implements FileReader {
         }
     }
 
+    /**
+     * Restricts the fields that will be read from each record: the bytes of the other fields
+     * will be skipped, and trying to read them will result in an exception. This is useful to
+     * speed up reads of wide tables when only a few fields are needed.
+     * 
+     * @param fields The (zero based) indexes of the fields to be read, or null to read them all
+     * @since 11.0
+     */
+    public void setFieldSelection(final int[] fields) {
+        if (fields == null) {
+            selectedFields = null;
+            selectedRuns = null;
+            return;
+        }
+
+        final int numFields = header.getNumFields();
+        final boolean[] selected = new boolean[numFields];
+        int selectedCount = 0;
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i] < 0 || fields[i] >= numFields) {
+                throw new IllegalArgumentException("Invalid field index " + fields[i]
+                        + ", the file has " + numFields + " fields");
+            }
+            if (!selected[fields[i]]) {
+                selected[fields[i]] = true;
+                selectedCount++;
+            }
+        }
+        if (selectedCount == numFields) {
+            // plain record copy is faster than copying the fields one by one
+            selectedFields = null;
+            selectedRuns = null;
+            return;
+        }
+
+        // merge the adjacent fields in runs of bytes to be copied in one shot
+        final int[] runs = new int[selectedCount * 2];
+        int runCount = 0;
+        for (int i = 0; i < numFields; i++) {
+            if (!selected[i]) {
+                continue;
+            }
+            final int last = runCount * 2 - 2;
+            if (runCount > 0 && runs[last] + runs[last + 1] == fieldOffsets[i]) {
+                runs[last + 1] += fieldLengths[i];
+            } else {
+                runs[runCount * 2] = fieldOffsets[i];
+                runs[runCount * 2 + 1] = fieldLengths[i];
+                runCount++;
+            }
+        }
+        final int[] selectedRuns = new int[runCount * 2];
+        System.arraycopy(runs, 0, selectedRuns, 0, runCount * 2);
+
+        this.selectedFields = selected;
+        this.selectedRuns = selectedRuns;
+    }
+
+    void checkSelected(final int fieldNum) {
+        if (selectedFields != null && !selectedFields[fieldNum]) {
+            throw new IllegalArgumentException("Field " + fieldNum + " (" 
+                    + header.getFieldName(fieldNum) + ") is not part of the field selection");
+        }
+    }
+
     /**
      * Get the header from this file. The header is read upon instantiation.
      * 
@@ -349,7 +428,8 @@ public class DbaseFileReader implements FileReader {
     }
 
     /**
-     * Copy the next record into the array starting at offset.
+     * Copy the next record into the array starting at offset. The fields not part of the
+     * field selection, if any, are set to null.
      * 
      * @param entry
      *                Th array to copy into.
@@ -371,7 +451,11 @@ public class DbaseFileReader implements FileReader {
         final int numFields = header.getNumFields();
 
         for (int j = 0; j < numFields; j++) {
-            entry[j + offset] = readObject(fieldOffsets[j], j);
+            if (selectedFields == null || selectedFields[j]) {
+                entry[j + offset] = readObject(fieldOffsets[j], j);
+            } else {
+                entry[j + offset] = null;
+            }
         }
 
         return entry;
@@ -387,6 +471,7 @@ public class DbaseFileReader implements FileReader {
      */
     public Object readField(final int fieldNum)
             throws IOException {
+        checkSelected(fieldNum);
         return readObject(fieldOffsets[fieldNum], fieldNum);
     }
 
@@ -420,7 +505,17 @@ public class DbaseFileReader implements FileReader {
             }
 
             buffer.limit(buffer.position() + header.getRecordLength() - 1);
-            buffer.get(bytes); // SK: There is a side-effect here!!!
+            if (selectedRuns == null) {
+                buffer.get(bytes); // SK: There is a side-effect here!!!
+            } else {
+                // copy only the bytes of the selected fields, skip the others
+                final int base = buffer.position();
+                for (int i = 0; i < selectedRuns.length; i += 2) {
+                    buffer.position(base + selectedRuns[i]);
+                    buffer.get(bytes, selectedRuns[i], selectedRuns[i + 1]);
+                }
+                buffer.position(base + bytes.length);
+            }
             buffer.limit(buffer.capacity());
 
             foundRecord = true;
@@ -477,7 +572,7 @@ public class DbaseFileReader implements FileReader {
                 if (bytes[fieldOffset] != '\0') {
                     // remember we need to skip trailing and leading spaces
                     if(oneBytePerChar) {
-                        object = fastParse(bytes, fieldOffset, fieldLen).trim();
+                        object = fastParseTrimmed(bytes, fieldOffset, fieldLen);
                     } else {
                         object = new String(bytes, fieldOffset, fieldLen, stringCharset.name()).trim();
                     }
@@ -541,7 +636,7 @@ public class DbaseFileReader implements FileReader {
                 if (bytes[fieldOffset] == '*') {
                     break;
                 } else {
-                    final String string = fastParse(bytes,fieldOffset,fieldLen).trim();
+                    final String string = fastParseTrimmed(bytes,fieldOffset,fieldLen);
                     Class clazz = header.getFieldClass(fieldNum);
                     if (clazz == Integer.class) {
                         try {
@@ -602,6 +697,22 @@ public class DbaseFileReader implements FileReader {
         return new String(chars);
     }
 
+    /**
+     * Same as {@link #fastParse(byte[], int, int)} followed by {@link String#trim()}, but
+     * without creating the intermediate untrimmed string
+     */
+    String fastParseTrimmed(final byte[] bytes, final int fieldOffset, final int fieldLen) {
+        int start = fieldOffset;
+        int end = fieldOffset + fieldLen;
+        while (start < end && (bytes[start] & 0xFF) <= ' ') {
+            start++;
+        }
+        while (end > start && (bytes[end - 1] & 0xFF) <= ' ') {
+            end--;
+        }
+        return fastParse(bytes, start, end - start);
+    }
+
     public static void main(final String[] args) throws Exception {
         final DbaseFileReader reader = new DbaseFileReader(new ShpFiles(args[0]),
                 false, Charset.forName("ISO-8859-1"), null);
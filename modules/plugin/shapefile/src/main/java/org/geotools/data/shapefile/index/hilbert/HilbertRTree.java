@@ -0,0 +1,230 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2013, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.shapefile.index.hilbert;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+import org.geotools.data.shapefile.index.CloseableIterator;
+import org.geotools.data.shapefile.index.Data;
+import org.geotools.data.shapefile.index.DataDefinition;
+import org.geotools.data.shapefile.index.TreeException;
+import org.geotools.resources.NIOUtilities;
+
+import com.vividsolutions.jts.geom.Envelope;
+
+/**
+ * A packed Hilbert R-tree, read from a memory mapped file. The tree is navigated directly on the
+ * mapped buffer, without creating any object per node.
+ * <p>
+ * The file starts with a 32 bytes header (magic, version, node size, number of items, number of
+ * entries, three reserved ints), followed by the entries, level by level, root first. Each entry
+ * is made of the four float bounds (minx, miny, maxx, maxy) and two ints: for internal entries
+ * they are the position of the first child entry and the number of children, for the leaf ones,
+ * the last level, the zero based record number and the record offset in the .shp file, in bytes.
+ * </p>
+ *
+ * @source $URL$
+ * @since 11.0
+ */
+public class HilbertRTree {
+
+    static final int MAGIC = 0x47544852; // "GTHR"
+
+    static final int VERSION = 1;
+
+    static final int HEADER_SIZE = 32;
+
+    static final int ENTRY_SIZE = 24;
+
+    static final DataDefinition DATA_DEFINITION = new DataDefinition("US-ASCII");
+
+    static {
+        DATA_DEFINITION.addField(Integer.class);
+        DATA_DEFINITION.addField(Long.class);
+    }
+
+    ByteBuffer buffer;
+
+    int nodeSize;
+
+    int count;
+
+    int entries;
+
+    int leafStart;
+
+    /**
+     * Opens the tree stored in the specified file
+     *
+     * @param file
+     * @throws IOException If the file cannot be read, or is not a Hilbert R-tree
+     */
+    public HilbertRTree(File file) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = raf.getChannel();
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("Invalid Hilbert R-tree file " + file + ", too short");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } finally {
+            // the mapping stays valid after the channel is closed
+            raf.close();
+        }
+
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            close();
+            throw new IOException("Invalid Hilbert R-tree file " + file);
+        }
+        nodeSize = buffer.getInt(8);
+        count = buffer.getInt(12);
+        entries = buffer.getInt(16);
+        leafStart = entries - count;
+        if (buffer.capacity() < HEADER_SIZE + (long) entries * ENTRY_SIZE) {
+            close();
+            throw new IOException("Invalid Hilbert R-tree file " + file + ", truncated");
+        }
+    }
+
+    /**
+     * Returns the number of items in the tree
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the bounds of all the items in the tree
+     */
+    public Envelope getBounds() {
+        if (count == 0) {
+            return new Envelope();
+        }
+        int position = HEADER_SIZE;
+        return new Envelope(buffer.getFloat(position), buffer.getFloat(position + 8),
+                buffer.getFloat(position + 4), buffer.getFloat(position + 12));
+    }
+
+    /**
+     * Returns the record number and offset pairs of the items whose bounds intersect the
+     * specified envelope, sorted by record number so that the .shp file can be read
+     * sequentially. The search is fully performed before returning, the result does not depend on
+     * the tree being open.
+     *
+     * @param bbox
+     */
+    public CloseableIterator<Data> search(Envelope bbox) {
+        long[] hits = new long[64];
+        int hitCount = 0;
+        if (count > 0) {
+            // stack of (first entry, number of entries) ranges still to be visited
+            int[] stack = new int[64];
+            int top = 0;
+            stack[top++] = 0;
+            stack[top++] = 1;
+            while (top > 0) {
+                int size = stack[--top];
+                int first = stack[--top];
+                for (int entry = first; entry < first + size; entry++) {
+                    int position = HEADER_SIZE + entry * ENTRY_SIZE;
+                    if (buffer.getFloat(position) > bbox.getMaxX()
+                            || buffer.getFloat(position + 4) > bbox.getMaxY()
+                            || buffer.getFloat(position + 8) < bbox.getMinX()
+                            || buffer.getFloat(position + 12) < bbox.getMinY()) {
+                        continue;
+                    }
+                    int a = buffer.getInt(position + 16);
+                    int b = buffer.getInt(position + 20);
+                    if (entry >= leafStart) {
+                        if (hitCount == hits.length) {
+                            hits = Arrays.copyOf(hits, hitCount * 2);
+                        }
+                        hits[hitCount++] = ((long) a << 32) | (b & 0xFFFFFFFFL);
+                    } else {
+                        if (top + 2 > stack.length) {
+                            stack = Arrays.copyOf(stack, stack.length * 2);
+                        }
+                        stack[top++] = a;
+                        stack[top++] = b;
+                    }
+                }
+            }
+        }
+        Arrays.sort(hits, 0, hitCount);
+
+        return new HitIterator(hits, hitCount);
+    }
+
+    /**
+     * Releases the memory mapped buffer
+     */
+    public void close() {
+        if (buffer != null) {
+            NIOUtilities.clean(buffer, buffer instanceof MappedByteBuffer);
+            buffer = null;
+        }
+    }
+
+    static class HitIterator implements CloseableIterator<Data> {
+
+        long[] hits;
+
+        int count;
+
+        int current;
+
+        HitIterator(long[] hits, int count) {
+            this.hits = hits;
+            this.count = count;
+        }
+
+        public boolean hasNext() {
+            return current < count;
+        }
+
+        public Data next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more hits");
+            }
+            long hit = hits[current++];
+            try {
+                Data data = new Data(DATA_DEFINITION);
+                data.addValue(((int) (hit >>> 32)) + 1);
+                data.addValue(new Long(hit & 0xFFFFFFFFL));
+                return data;
+            } catch (TreeException e) {
+                throw new RuntimeException("Failed to build the index data", e);
+            }
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException("Remove not supported");
+        }
+
+        public void close() throws IOException {
+            hits = null;
+            count = 0;
+        }
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2013, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.shapefile.index.hilbert;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import com.vividsolutions.jts.geom.Envelope;
+
+/**
+ * Bulk loads a packed Hilbert R-tree: the items are sorted along the Hilbert curve by the center
+ * of their envelope, packed in full leaf nodes, and the upper levels are built packing the nodes
+ * of the level below, so that the tree is balanced regardless of the data distribution.
+ * <p>
+ * The tree is written root level first, see {@link HilbertRTree} for the file layout.
+ * </p>
+ *
+ * @source $URL$
+ * @since 11.0
+ */
+public class HilbertRTreeBuilder {
+
+    /**
+     * The default number of entries per node
+     */
+    public static final int DEFAULT_NODE_SIZE = 16;
+
+    /**
+     * Number of cells per side of the grid the Hilbert curve is computed on
+     */
+    public static final int HILBERT_SIDE = 1 << 15;
+
+    int nodeSize;
+
+    int count;
+
+    float[] bounds = new float[4 * 1024];
+
+    int[] records = new int[1024];
+
+    int[] offsets = new int[1024];
+
+    public HilbertRTreeBuilder() {
+        this(DEFAULT_NODE_SIZE);
+    }
+
+    public HilbertRTreeBuilder(int nodeSize) {
+        if (nodeSize < 2) {
+            throw new IllegalArgumentException("Node size must be at least 2, was " + nodeSize);
+        }
+        this.nodeSize = nodeSize;
+    }
+
+    /**
+     * Adds an item to the tree
+     *
+     * @param record The record number, zero based
+     * @param offset The offset of the record in the .shp file, in bytes
+     * @param envelope The record envelope
+     */
+    public void add(int record, int offset, Envelope envelope) {
+        if (count == records.length) {
+            int size = count * 2;
+            bounds = Arrays.copyOf(bounds, size * 4);
+            records = Arrays.copyOf(records, size);
+            offsets = Arrays.copyOf(offsets, size);
+        }
+        bounds[count * 4] = lower(envelope.getMinX());
+        bounds[count * 4 + 1] = lower(envelope.getMinY());
+        bounds[count * 4 + 2] = upper(envelope.getMaxX());
+        bounds[count * 4 + 3] = upper(envelope.getMaxY());
+        records[count] = record;
+        offsets[count] = offset;
+        count++;
+    }
+
+    /**
+     * Returns the number of items added so far
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Builds the tree and writes it to the specified file
+     *
+     * @param file
+     * @throws IOException
+     */
+    public void write(File file) throws IOException {
+        int[] order = sortAlongCurve();
+
+        // compute the size of each level, from the leaves up to the root
+        int levels = 1;
+        for (int size = count; size > 1; size = (size + nodeSize - 1) / nodeSize) {
+            levels++;
+        }
+        int[] levelSizes = new int[count == 0 ? 0 : levels];
+        if (count > 0) {
+            levelSizes[0] = count;
+            for (int i = 1; i < levels; i++) {
+                levelSizes[i] = (levelSizes[i - 1] + nodeSize - 1) / nodeSize;
+            }
+        }
+
+        // the file is written root first, compute where each level starts
+        int[] levelStarts = new int[levelSizes.length];
+        int entries = 0;
+        for (int i = levelSizes.length - 1; i >= 0; i--) {
+            levelStarts[i] = entries;
+            entries += levelSizes[i];
+        }
+
+        // build the bounds of the internal levels
+        float[][] levelBounds = new float[levelSizes.length][];
+        for (int level = 1; level < levelSizes.length; level++) {
+            float[] nodes = new float[levelSizes[level] * 4];
+            for (int i = 0; i < levelSizes[level]; i++) {
+                nodes[i * 4] = Float.POSITIVE_INFINITY;
+                nodes[i * 4 + 1] = Float.POSITIVE_INFINITY;
+                nodes[i * 4 + 2] = Float.NEGATIVE_INFINITY;
+                nodes[i * 4 + 3] = Float.NEGATIVE_INFINITY;
+                int end = Math.min((i + 1) * nodeSize, levelSizes[level - 1]);
+                for (int j = i * nodeSize; j < end; j++) {
+                    float[] children = level == 1 ? bounds : levelBounds[level - 1];
+                    int child = level == 1 ? order[j] : j;
+                    nodes[i * 4] = Math.min(nodes[i * 4], children[child * 4]);
+                    nodes[i * 4 + 1] = Math.min(nodes[i * 4 + 1], children[child * 4 + 1]);
+                    nodes[i * 4 + 2] = Math.max(nodes[i * 4 + 2], children[child * 4 + 2]);
+                    nodes[i * 4 + 3] = Math.max(nodes[i * 4 + 3], children[child * 4 + 3]);
+                }
+            }
+            levelBounds[level] = nodes;
+        }
+
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(file), 64 * 1024));
+        try {
+            out.writeInt(HilbertRTree.MAGIC);
+            out.writeInt(HilbertRTree.VERSION);
+            out.writeInt(nodeSize);
+            out.writeInt(count);
+            out.writeInt(entries);
+            out.writeInt(0);
+            out.writeInt(0);
+            out.writeInt(0);
+
+            for (int level = levelSizes.length - 1; level > 0; level--) {
+                float[] nodes = levelBounds[level];
+                for (int i = 0; i < levelSizes[level]; i++) {
+                    writeBounds(out, nodes, i);
+                    int firstChild = i * nodeSize;
+                    out.writeInt(levelStarts[level - 1] + firstChild);
+                    out.writeInt(Math.min(nodeSize, levelSizes[level - 1] - firstChild));
+                }
+            }
+            for (int i = 0; i < count; i++) {
+                int item = order[i];
+                writeBounds(out, bounds, item);
+                out.writeInt(records[item]);
+                out.writeInt(offsets[item]);
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    void writeBounds(DataOutputStream out, float[] values, int item) throws IOException {
+        out.writeFloat(values[item * 4]);
+        out.writeFloat(values[item * 4 + 1]);
+        out.writeFloat(values[item * 4 + 2]);
+        out.writeFloat(values[item * 4 + 3]);
+    }
+
+    /**
+     * Returns the item indexes sorted by the Hilbert code of the center of their envelopes
+     */
+    int[] sortAlongCurve() {
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            minX = Math.min(minX, bounds[i * 4]);
+            minY = Math.min(minY, bounds[i * 4 + 1]);
+            maxX = Math.max(maxX, bounds[i * 4 + 2]);
+            maxY = Math.max(maxY, bounds[i * 4 + 3]);
+        }
+        double scaleX = maxX > minX ? (HILBERT_SIDE - 1) / (maxX - minX) : 0;
+        double scaleY = maxY > minY ? (HILBERT_SIDE - 1) / (maxY - minY) : 0;
+
+        // the code takes 30 bits, pack it with the item index to sort both in one shot
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            double cx = (bounds[i * 4] + (double) bounds[i * 4 + 2]) / 2;
+            double cy = (bounds[i * 4 + 1] + (double) bounds[i * 4 + 3]) / 2;
+            int x = (int) ((cx - minX) * scaleX);
+            int y = (int) ((cy - minY) * scaleY);
+            keys[i] = ((long) hilbert(x, y) << 32) | i;
+        }
+        Arrays.sort(keys);
+
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = (int) keys[i];
+        }
+        return order;
+    }
+
+    /**
+     * Returns the position of the cell along the Hilbert curve filling the grid, the cell
+     * coordinates must be between 0 and {@link #HILBERT_SIDE} - 1
+     */
+    public static int hilbert(int x, int y) {
+        int d = 0;
+        for (int s = HILBERT_SIDE / 2; s > 0; s /= 2) {
+            int rx = (x & s) > 0 ? 1 : 0;
+            int ry = (y & s) > 0 ? 1 : 0;
+            d += s * s * ((3 * rx) ^ ry);
+            // rotate the quadrant
+            if (ry == 0) {
+                if (rx == 1) {
+                    x = HILBERT_SIDE - 1 - x;
+                    y = HILBERT_SIDE - 1 - y;
+                }
+                int t = x;
+                x = y;
+                y = t;
+            }
+        }
+        return d;
+    }
+
+    /**
+     * Rounds down to the closest float, so that the float envelope contains the double one
+     */
+    static float lower(double value) {
+        float f = (float) value;
+        return f > value ? Math.nextAfter(f, Double.NEGATIVE_INFINITY) : f;
+    }
+
+    /**
+     * Rounds up to the closest float, so that the float envelope contains the double one
+     */
+    static float upper(double value) {
+        float f = (float) value;
+        return f < value ? Math.nextAfter(f, Double.POSITIVE_INFINITY) : f;
+    }
+}
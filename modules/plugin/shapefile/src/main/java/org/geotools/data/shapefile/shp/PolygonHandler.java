@@ -19,6 +19,7 @@ package org.geotools.data.shapefile.shp;
 import java.nio.ByteBuffer;
 import java.nio.DoubleBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -27,14 +28,17 @@ import org.geotools.geometry.jts.coordinatesequence.CoordinateSequences;
 
 import com.vividsolutions.jts.algorithm.CGAlgorithms;
 import com.vividsolutions.jts.algorithm.RobustDeterminant;
+import com.vividsolutions.jts.algorithm.locate.IndexedPointInAreaLocator;
 import com.vividsolutions.jts.geom.Coordinate;
 import com.vividsolutions.jts.geom.CoordinateSequence;
 import com.vividsolutions.jts.geom.Envelope;
 import com.vividsolutions.jts.geom.Geometry;
 import com.vividsolutions.jts.geom.GeometryFactory;
 import com.vividsolutions.jts.geom.LinearRing;
+import com.vividsolutions.jts.geom.Location;
 import com.vividsolutions.jts.geom.MultiPolygon;
 import com.vividsolutions.jts.geom.Polygon;
+import com.vividsolutions.jts.index.strtree.STRtree;
 
 /**
  * Wrapper for a Shapefile polygon.
@@ -49,10 +53,24 @@ import com.vividsolutions.jts.geom.Polygon;
 public class PolygonHandler implements ShapeHandler {
     protected static final Logger LOGGER = org.geotools.util.logging.Logging.getLogger("org.geotools.data.shapefile");
     
+    /**
+     * Number of shells past which the candidate shells for each hole are looked up in a
+     * spatial index instead of being scanned linearly
+     */
+    static final int INDEXED_ASSIGNMENT_THRESHOLD = 8;
+
+    /**
+     * Number of holes tested against the same shell past which the shell gets an indexed point
+     * in area locator
+     */
+    static final int LOCATOR_THRESHOLD = 8;
+
     GeometryFactory geometryFactory;
 
     final ShapeType shapeType;
 
+    boolean windingOrderTrusted;
+
     public PolygonHandler(GeometryFactory gf) {
         shapeType = ShapeType.POLYGON;
         this.geometryFactory = gf;
@@ -92,6 +110,30 @@ public class PolygonHandler implements ShapeHandler {
         return shapeType;
     }
 
+    /**
+     * Returns true if the ring winding order and the ring sequence in the records are trusted
+     * 
+     * @return
+     * @since 11.0
+     */
+    public boolean isWindingOrderTrusted() {
+        return windingOrderTrusted;
+    }
+
+    /**
+     * When set to true, each hole is assigned to the shell preceding it in the record, as most
+     * shapefile writers lay them out, without point in polygon tests, as long as the shell
+     * envelope contains the hole one. Holes that do not follow a shell, or that fall outside of
+     * its envelope, are still assigned by searching the containing shell. Use only on files known
+     * to be well formed, on files with random ring order holes will end up in the wrong shell.
+     * 
+     * @param windingOrderTrusted
+     * @since 11.0
+     */
+    public void setWindingOrderTrusted(boolean windingOrderTrusted) {
+        this.windingOrderTrusted = windingOrderTrusted;
+    }
+
     public int getLength(Object geometry) {
         MultiPolygon multi;
 
@@ -148,6 +190,8 @@ public class PolygonHandler implements ShapeHandler {
 
         ArrayList shells = new ArrayList();
         ArrayList holes = new ArrayList();
+        // for each hole, the index of the shell preceding it in the record
+        int[] precedingShells = new int[numParts];
         CoordinateSequence coords = readCoordinates(buffer, numPoints, dimensions);
 
         int offset = 0;
@@ -202,6 +246,7 @@ public class PolygonHandler implements ShapeHandler {
 
                 if (CoordinateSequences.isCCW(csRing)) {
                     // counter-clockwise
+                    precedingShells[holes.size()] = shells.size() - 1;
                     holes.add(ring);
                 } else {
                     // clockwise
@@ -222,7 +267,8 @@ public class PolygonHandler implements ShapeHandler {
         } else {
 
             // build an association between shells and holes
-            final ArrayList holesForShells = assignHolesToShells(shells, holes);
+            final ArrayList holesForShells = assignHolesToShells(shells, holes,
+                    precedingShells);
 
             Geometry g = buildGeometries(shells, holes, holesForShells);
 
@@ -304,59 +350,142 @@ public class PolygonHandler implements ShapeHandler {
      * @param holes
      */
     ArrayList assignHolesToShells(final ArrayList shells, final ArrayList holes) {
+        return assignHolesToShells(shells, holes, null);
+    }
+
+    /**
+     * Assigns each hole to the smallest shell containing it. Holes not contained in any shell are
+     * turned into shells. With many shells the candidates are looked up in a STRtree built on the
+     * shell envelopes, and the point in ring test is run only against the candidates whose
+     * envelope contains the hole, using an indexed locator for shells tested many times.
+     * 
+     * @param shells
+     * @param holes
+     * @param precedingShells For each hole, the index of the shell preceding it in the record,
+     *        or -1 if none, used only if the winding order is trusted. Can be null.
+     */
+    ArrayList assignHolesToShells(final ArrayList shells, final ArrayList holes,
+            int[] precedingShells) {
         ArrayList holesForShells = new ArrayList(shells.size());
         for (int i = 0; i < shells.size(); i++) {
             holesForShells.add(new ArrayList());
         }
 
+        // the index covers the original shells, the holes turned into shells are scanned
+        int indexedShells = 0;
+        STRtree index = null;
+        if (shells.size() > INDEXED_ASSIGNMENT_THRESHOLD) {
+            index = new STRtree();
+            for (int j = 0; j < shells.size(); j++) {
+                LinearRing shell = (LinearRing) shells.get(j);
+                index.insert(shell.getEnvelopeInternal(), Integer.valueOf(j));
+            }
+            indexedShells = shells.size();
+        }
+        ShellLocator[] locators = new ShellLocator[shells.size() + holes.size()];
+
         // find homes
         for (int i = 0; i < holes.size(); i++) {
             LinearRing testRing = (LinearRing) holes.get(i);
-            LinearRing minShell = null;
-            Envelope minEnv = null;
             Envelope testEnv = testRing.getEnvelopeInternal();
             Coordinate testPt = testRing.getCoordinateN(0);
-            LinearRing tryRing;
 
-            for (int j = 0; j < shells.size(); j++) {
-                tryRing = (LinearRing) shells.get(j);
-
-                Envelope tryEnv = tryRing.getEnvelopeInternal();
-                if (minShell != null) {
-                    minEnv = minShell.getEnvelopeInternal();
+            if (windingOrderTrusted && precedingShells != null && precedingShells[i] >= 0) {
+                LinearRing shell = (LinearRing) shells.get(precedingShells[i]);
+                if (shell.getEnvelopeInternal().contains(testEnv)) {
+                    ((ArrayList) holesForShells.get(precedingShells[i])).add(testRing);
+                    continue;
                 }
+            }
 
-                boolean isContained = false;
-                Coordinate[] coordList = tryRing.getCoordinates();
-
-                if (tryEnv.contains(testEnv)
-                        && (CGAlgorithms.isPointInRing(testPt, coordList) || (pointInList(
-                                testPt, coordList)))) {
-                    isContained = true;
+            int minShell = -1;
+            if (index != null) {
+                // visit the candidates in order, the same as a linear scan would
+                List candidates = index.query(testEnv);
+                int[] positions = new int[candidates.size()];
+                for (int j = 0; j < positions.length; j++) {
+                    positions[j] = ((Integer) candidates.get(j)).intValue();
                 }
-
-                // check if this new containing ring is smaller than the current
-                // minimum ring
-                if (isContained) {
-                    if ((minShell == null) || minEnv.contains(tryEnv)) {
-                        minShell = tryRing;
-                    }
+                Arrays.sort(positions);
+                for (int j = 0; j < positions.length; j++) {
+                    minShell = testShell(shells, locators, positions[j], minShell, testEnv, testPt);
                 }
             }
+            for (int j = indexedShells; j < shells.size(); j++) {
+                minShell = testShell(shells, locators, j, minShell, testEnv, testPt);
+            }
 
-            if (minShell == null) {
+            if (minShell == -1) {
                 // now reverse this bad "hole" and turn it into a shell
                 shells.add(testRing);
                 holesForShells.add(new ArrayList());
             } else {
-                ((ArrayList) holesForShells.get(shells.indexOf(minShell)))
-                        .add(testRing);
+                ((ArrayList) holesForShells.get(minShell)).add(testRing);
             }
         }
 
         return holesForShells;
     }
 
+    /**
+     * Returns the shell to be used for the hole after testing the shell at the specified
+     * position, that is, either the current minimum shell, or the tested one if it contains the
+     * hole and it's smaller than the current minimum
+     */
+    private int testShell(List shells, ShellLocator[] locators, int position, int minShell,
+            Envelope testEnv, Coordinate testPt) {
+        LinearRing tryRing = (LinearRing) shells.get(position);
+        Envelope tryEnv = tryRing.getEnvelopeInternal();
+        if (!tryEnv.contains(testEnv)) {
+            return minShell;
+        }
+        // no need to run the point in ring test if the shell is not smaller than the current one
+        if (minShell != -1
+                && !((LinearRing) shells.get(minShell)).getEnvelopeInternal().contains(tryEnv)) {
+            return minShell;
+        }
+
+        if (locators[position] == null) {
+            locators[position] = new ShellLocator(tryRing);
+        }
+        if (locators[position].contains(testPt)) {
+            return position;
+        }
+        return minShell;
+    }
+
+    /**
+     * Tests points against a shell, switching from a plain point in ring test to an indexed
+     * locator once the shell has been tested enough times to make building the index worthwhile
+     */
+    private class ShellLocator {
+        LinearRing shell;
+
+        Coordinate[] coordinates;
+
+        IndexedPointInAreaLocator locator;
+
+        int tests;
+
+        ShellLocator(LinearRing shell) {
+            this.shell = shell;
+        }
+
+        boolean contains(Coordinate point) {
+            if (locator == null && ++tests > LOCATOR_THRESHOLD) {
+                locator = new IndexedPointInAreaLocator(geometryFactory.createPolygon(shell, null));
+                coordinates = null;
+            }
+            if (locator != null) {
+                return locator.locate(point) != Location.EXTERIOR;
+            }
+            if (coordinates == null) {
+                coordinates = shell.getCoordinates();
+            }
+            return CGAlgorithms.isPointInRing(point, coordinates) || pointInList(point, coordinates);
+        }
+    }
+
     private MultiPolygon createMulti(LinearRing single) {
         return createMulti(single, java.util.Collections.EMPTY_LIST);
     }
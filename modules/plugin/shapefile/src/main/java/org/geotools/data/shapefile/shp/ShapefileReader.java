@@ -776,4 +776,18 @@ public class ShapefileReader implements FileReader {
     public void setFlatGeometry(boolean flatGeometry) {
         this.flatGeometry = flatGeometry;        
     }
+
+    /**
+     * Enables trusting the ring winding order and sequence when building polygons, see
+     * {@link PolygonHandler#setWindingOrderTrusted(boolean)}. Has no effect on other geometry
+     * types.
+     * 
+     * @param windingOrderTrusted
+     * @since 11.0
+     */
+    public void setWindingOrderTrusted(boolean windingOrderTrusted) {
+        if (handler instanceof PolygonHandler) {
+            ((PolygonHandler) handler).setWindingOrderTrusted(windingOrderTrusted);
+        }
+    }
 }
@@ -17,7 +17,9 @@
 package org.geotools.data.shapefile;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
@@ -107,6 +109,38 @@ public class DbaseFileTest extends TestCaseSupport {
         dbf2.close();
     }
 
+    @Test
+    public void testFieldSelection() throws Exception {
+        Object[] attrs = new Object[dbf.getHeader().getNumFields()];
+        DbaseFileReader dbf2 = new DbaseFileReader(shpFiles, false,
+                ShapefileDataStore.DEFAULT_STRING_CHARSET);
+        try {
+            // two adjacent fields and a far away one
+            dbf2.setFieldSelection(new int[] { 4, 0, 1 });
+            Object[] selected = new Object[attrs.length];
+            while (dbf.hasNext()) {
+                dbf.readEntry(attrs);
+                dbf2.readEntry(selected);
+                assertEquals(attrs[0], selected[0]);
+                assertEquals(attrs[1], selected[1]);
+                assertEquals(attrs[4], selected[4]);
+                assertNull(selected[2]);
+                assertNull(selected[200]);
+            }
+            assertFalse(dbf2.hasNext());
+        } finally {
+            dbf2.close();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReadUnselectedField() throws Exception {
+        dbf.setFieldSelection(new int[] { 0 });
+        DbaseFileReader.Row row = dbf.readRow();
+        assertEquals("Illinois", row.read(0));
+        row.read(1);
+    }
+
     @Test
     public void testHeader() throws Exception {
         DbaseFileHeader header = new DbaseFileHeader();
@@ -71,6 +71,10 @@ import org.geotools.feature.FeatureTypes;
 import org.geotools.feature.simple.SimpleFeatureBuilder;
 import org.geotools.feature.simple.SimpleFeatureTypeBuilder;
 import org.geotools.feature.type.BasicFeatureTypes;
+import org.geotools.feature.visitor.BoundsVisitor;
+import org.geotools.feature.visitor.CountVisitor;
+import org.geotools.feature.visitor.MaxVisitor;
+import org.geotools.feature.visitor.UniqueVisitor;
 import org.geotools.filter.IllegalFilterException;
 import org.geotools.geometry.jts.ReferencedEnvelope;
 import org.geotools.referencing.CRS;
@@ -387,6 +391,111 @@ public class ShapefileDataStoreTest extends TestCaseSupport {
         ds2.dispose();
     }
     
+    @Test
+    public void testCreateAndReadHRT() throws Exception {
+        File shpFile = copyShapefiles(STATE_POP);
+        URL url = shpFile.toURI().toURL();
+
+        String name = shpFile.getName();
+        File file = new File(shpFile.getParent(), name.substring(0, name.lastIndexOf('.')) + ".hrt");
+        if (file.exists()) {
+            file.delete();
+        }
+        file.deleteOnExit();
+
+        ShapefileDataStore ds = new ShapefileDataStore(url);
+        ds.setSpatialIndexType(ShpFileType.HRT);
+        ShapefileDataStore ds2 = new ShapefileDataStore(url);
+        ds2.setIndexed(false);
+
+        // reduce the bounds, thus making the store use the spatial index
+        Envelope bounds = ds.getFeatureSource().getBounds(Query.ALL);
+        CoordinateReferenceSystem crs = ds.getSchema().getCoordinateReferenceSystem();
+        double dx = bounds.getWidth() / 4;
+        double dy = bounds.getHeight() / 4;
+        performQueryComparison(ds, ds2, new ReferencedEnvelope(bounds.getMinX() + dx,
+                bounds.getMaxX() - dx, bounds.getMinY() + dy, bounds.getMaxY() - dy, crs));
+        performQueryComparison(ds, ds2, new ReferencedEnvelope(bounds.getMinX(),
+                bounds.getMinX() + dx, bounds.getMinY(), bounds.getMinY() + dy, crs));
+
+        assertTrue(file.exists());
+        ds.dispose();
+        ds2.dispose();
+    }
+
+    @Test
+    public void testSortSpatially() throws Exception {
+        File shpFile = copyShapefiles(STATE_POP);
+        URL url = shpFile.toURI().toURL();
+        long shpLength = shpFile.length();
+
+        ShapefileDataStore ds = new ShapefileDataStore(url);
+        Map<Object, List<Object>> original = readAttributesByName(ds);
+        assertEquals(original.size(), ds.sortSpatially());
+        assertEquals(original, readAttributesByName(ds));
+        assertEquals(shpLength, shpFile.length());
+
+        // force the usage of the external sort, with several runs on disk
+        ShapefileSorter sorter = new ShapefileSorter(ds.shpFiles);
+        sorter.setMaxKeysInMemory(7);
+        assertEquals(original.size(), sorter.sort());
+        assertEquals(original, readAttributesByName(ds));
+
+        // the spatial index is rebuilt on the new record order
+        ShapefileDataStore ds2 = new ShapefileDataStore(url);
+        ds2.setIndexed(false);
+        Envelope bounds = ds.getFeatureSource().getBounds(Query.ALL);
+        CoordinateReferenceSystem crs = ds.getSchema().getCoordinateReferenceSystem();
+        double dx = bounds.getWidth() / 4;
+        double dy = bounds.getHeight() / 4;
+        performQueryComparison(ds, ds2, new ReferencedEnvelope(bounds.getMinX() + dx,
+                bounds.getMaxX() - dx, bounds.getMinY() + dy, bounds.getMaxY() - dy, crs));
+        ds.dispose();
+        ds2.dispose();
+    }
+
+    @Test
+    public void testSortSpatiallyCachedQuadTree() throws Exception {
+        File shpFile = copyShapefiles(STATE_POP);
+        URL url = shpFile.toURI().toURL();
+
+        ShapefileDataStore ds = new ShapefileDataStore(url);
+        ds.indexManager.maxQixCacheSize = 1024 * 1024;
+        ShapefileDataStore ds2 = new ShapefileDataStore(url);
+        ds2.setIndexed(false);
+        Envelope bounds = ds.getFeatureSource().getBounds(Query.ALL);
+        CoordinateReferenceSystem crs = ds.getSchema().getCoordinateReferenceSystem();
+        double dx = bounds.getWidth() / 4;
+        double dy = bounds.getHeight() / 4;
+        ReferencedEnvelope bbox = new ReferencedEnvelope(bounds.getMinX() + dx,
+                bounds.getMaxX() - dx, bounds.getMinY() + dy, bounds.getMaxY() - dy, crs);
+
+        // loads the quadtree in memory
+        performQueryComparison(ds, ds2, bbox);
+        assertNotNull(ds.indexManager.cachedTree);
+
+        // the cached tree must not survive the sort
+        ds.sortSpatially();
+        performQueryComparison(ds, ds2, bbox);
+        ds.dispose();
+        ds2.dispose();
+    }
+
+    private Map<Object, List<Object>> readAttributesByName(ShapefileDataStore ds)
+            throws IOException {
+        Map<Object, List<Object>> result = new HashMap<Object, List<Object>>();
+        SimpleFeatureIterator it = ds.getFeatureSource().getFeatures().features();
+        try {
+            while (it.hasNext()) {
+                SimpleFeature feature = it.next();
+                result.put(feature.getAttribute("STATE_NAME"), feature.getAttributes());
+            }
+        } finally {
+            it.close();
+        }
+        return result;
+    }
+
     @Test
     public void testSelectionQuery() throws Exception {
         File shpFile = copyShapefiles(STATE_POP);
@@ -1676,6 +1785,60 @@ public class ShapefileDataStoreTest extends TestCaseSupport {
         }
         
     }
+
+    @Test
+    public void testParallelScan() throws Exception {
+        File shpFile = copyShapefiles(STATE_POP);
+        URL url = shpFile.toURI().toURL();
+        ShapefileDataStore ds = new ShapefileDataStore(url);
+        SimpleFeatureSource fs = ds.getFeatureSource();
+        Query query = new Query(ds.getTypeNames()[0], ff.greater(ff.property("PERSONS"),
+                ff.literal(1000000)));
+
+        // sequential scan
+        CountVisitor count = new CountVisitor();
+        UniqueVisitor unique = new UniqueVisitor("STATE_NAME");
+        MaxVisitor max = new MaxVisitor("PERSONS");
+        BoundsVisitor bounds = new BoundsVisitor();
+        fs.getFeatures(query).accepts(count, null);
+        fs.getFeatures(query).accepts(unique, null);
+        fs.getFeatures(query).accepts(max, null);
+        fs.getFeatures(query).accepts(bounds, null);
+
+        // parallel one
+        ds.setParallelScanThreads(4);
+        CountVisitor parallelCount = new CountVisitor();
+        UniqueVisitor parallelUnique = new UniqueVisitor("STATE_NAME");
+        MaxVisitor parallelMax = new MaxVisitor("PERSONS");
+        BoundsVisitor parallelBounds = new BoundsVisitor();
+        fs.getFeatures(query).accepts(parallelCount, null);
+        fs.getFeatures(query).accepts(parallelUnique, null);
+        fs.getFeatures(query).accepts(parallelMax, null);
+        fs.getFeatures(query).accepts(parallelBounds, null);
+
+        assertTrue(count.getCount() > 0);
+        assertEquals(count.getCount(), parallelCount.getCount());
+        assertEquals(unique.getUnique(), parallelUnique.getUnique());
+        assertEquals(max.getMax(), parallelMax.getMax());
+        assertEquals(bounds.getBounds(), parallelBounds.getBounds());
+
+        // the partition readers return each feature exactly once
+        List<FeatureReader<SimpleFeatureType, SimpleFeature>> readers = ds.getPartitionReaders(
+                query, 3);
+        assertEquals(3, readers.size());
+        Set<String> ids = new HashSet<String>();
+        for (FeatureReader<SimpleFeatureType, SimpleFeature> reader : readers) {
+            try {
+                while (reader.hasNext()) {
+                    assertTrue(ids.add(reader.next().getID()));
+                }
+            } finally {
+                reader.close();
+            }
+        }
+        assertEquals(count.getCount(), ids.size());
+        ds.dispose();
+    }
     
     
     /**
@@ -0,0 +1,148 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2013, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.shapefile.index.hilbert;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.geotools.data.shapefile.index.CloseableIterator;
+import org.geotools.data.shapefile.index.Data;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.vividsolutions.jts.geom.Envelope;
+
+/**
+ * Tests {@link HilbertRTree} and {@link HilbertRTreeBuilder}
+ *
+ * @source $URL$
+ */
+public class HilbertRTreeTest {
+
+    File file;
+
+    @Before
+    public void setUp() throws Exception {
+        file = File.createTempFile("hilbert", ".hrt");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        file.delete();
+    }
+
+    @Test
+    public void testSearch() throws Exception {
+        // skewed data, most items packed in a small corner
+        Random random = new Random(0);
+        List<Envelope> envelopes = new ArrayList<Envelope>();
+        HilbertRTreeBuilder builder = new HilbertRTreeBuilder(8);
+        for (int i = 0; i < 5000; i++) {
+            double scale = i % 10 == 0 ? 1000 : 10;
+            double x = random.nextDouble() * scale;
+            double y = random.nextDouble() * scale;
+            Envelope envelope = new Envelope(x, x + random.nextDouble(), y, y
+                    + random.nextDouble());
+            envelopes.add(envelope);
+            builder.add(i, i * 100, envelope);
+        }
+        builder.write(file);
+
+        HilbertRTree tree = new HilbertRTree(file);
+        try {
+            assertEquals(5000, tree.getCount());
+            for (Envelope envelope : envelopes) {
+                assertTrue(tree.getBounds().contains(envelope));
+            }
+
+            for (int i = 0; i < 100; i++) {
+                double x = random.nextDouble() * (i % 2 == 0 ? 1000 : 10);
+                double y = random.nextDouble() * (i % 2 == 0 ? 1000 : 10);
+                Envelope bbox = new Envelope(x, x + random.nextDouble() * 5, y, y
+                        + random.nextDouble() * 5);
+
+                List<Integer> expected = new ArrayList<Integer>();
+                for (int j = 0; j < envelopes.size(); j++) {
+                    if (envelopes.get(j).intersects(bbox)) {
+                        expected.add(j + 1);
+                    }
+                }
+
+                List<Integer> actual = new ArrayList<Integer>();
+                CloseableIterator<Data> hits = tree.search(bbox);
+                try {
+                    while (hits.hasNext()) {
+                        Data data = hits.next();
+                        int record = (Integer) data.getValue(0);
+                        assertEquals((record - 1) * 100L, data.getValue(1));
+                        actual.add(record);
+                    }
+                } finally {
+                    hits.close();
+                }
+                // the tree rounds the bounds outwards, it can only return more items
+                assertTrue(actual.containsAll(expected));
+                for (Integer record : actual) {
+                    Envelope envelope = new Envelope(envelopes.get(record - 1));
+                    envelope.expandBy(1e-3);
+                    assertTrue(envelope.intersects(bbox));
+                }
+            }
+        } finally {
+            tree.close();
+        }
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        new HilbertRTreeBuilder().write(file);
+
+        HilbertRTree tree = new HilbertRTree(file);
+        try {
+            assertEquals(0, tree.getCount());
+            assertTrue(tree.getBounds().isNull());
+            assertFalse(tree.search(new Envelope(-10, 10, -10, 10)).hasNext());
+        } finally {
+            tree.close();
+        }
+    }
+
+    @Test
+    public void testSingleItem() throws Exception {
+        HilbertRTreeBuilder builder = new HilbertRTreeBuilder();
+        builder.add(0, 100, new Envelope(0, 1, 0, 1));
+        builder.write(file);
+
+        HilbertRTree tree = new HilbertRTree(file);
+        try {
+            CloseableIterator<Data> hits = tree.search(new Envelope(0.5, 2, 0.5, 2));
+            assertTrue(hits.hasNext());
+            assertEquals(1, hits.next().getValue(0));
+            assertFalse(hits.hasNext());
+            assertFalse(tree.search(new Envelope(2, 3, 2, 3)).hasNext());
+        } finally {
+            tree.close();
+        }
+    }
+}
@@ -86,6 +86,68 @@ public class PolygonHandlerTest extends TestCaseSupport {
 
     }
 
+    @Test
+    public void testIndexedHoleAssignment() {
+        PrecisionModel precision = new PrecisionModel();
+        ArrayList shells = new ArrayList();
+        ArrayList holes = new ArrayList();
+
+        // a large shell containing a grid of smaller shells, each one with four holes
+        shells.add(copyTo(0, 0, 1000, 1000, rectangle(precision, 0)));
+        for (int i = 0; i < 10; i++) {
+            for (int j = 0; j < 10; j++) {
+                shells.add(copyTo(i * 20, j * 20, 15, 15, rectangle(precision, 0)));
+                for (int k = 0; k < 4; k++) {
+                    holes.add(copyTo(i * 20 + 1 + (k % 2) * 7, j * 20 + 1 + (k / 2) * 7, 5, 5,
+                            rectangle(precision, 0)));
+                }
+            }
+        }
+        // and a hole outside of any shell
+        LinearRing outside = (LinearRing) copyTo(2000, 2000, 5, 5, rectangle(precision, 0));
+        holes.add(outside);
+
+        PolygonHandler ph = new PolygonHandler(new GeometryFactory());
+        ArrayList assigned = ph.assignHolesToShells(shells, holes);
+        assertEquals(102, assigned.size());
+        assertEquals(102, shells.size());
+        assertEquals(0, ((ArrayList) assigned.get(0)).size());
+        for (int i = 1; i <= 100; i++) {
+            ArrayList shellHoles = (ArrayList) assigned.get(i);
+            assertEquals(4, shellHoles.size());
+            for (Object hole : shellHoles) {
+                assertTrue(((LinearRing) shells.get(i)).getEnvelopeInternal().contains(
+                        ((LinearRing) hole).getEnvelopeInternal()));
+            }
+        }
+        assertSame(outside, shells.get(101));
+        assertEquals(0, ((ArrayList) assigned.get(101)).size());
+    }
+
+    @Test
+    public void testTrustedWindingOrder() {
+        PrecisionModel precision = new PrecisionModel();
+        ArrayList shells = new ArrayList();
+        shells.add(copyTo(0, 0, 100, 100, rectangle(precision, 0)));
+        shells.add(copyTo(0, 0, 50, 50, rectangle(precision, 0)));
+        ArrayList holes = new ArrayList();
+        holes.add(copyTo(10, 10, 5, 5, rectangle(precision, 0)));
+        // outside of the preceding shell, has to be looked up
+        holes.add(copyTo(60, 60, 5, 5, rectangle(precision, 0)));
+        int[] precedingShells = new int[] { 0, 1 };
+
+        PolygonHandler ph = new PolygonHandler(new GeometryFactory());
+        ArrayList assigned = ph.assignHolesToShells(new ArrayList(shells), holes, precedingShells);
+        assertEquals(1, ((ArrayList) assigned.get(0)).size());
+        assertSame(holes.get(1), ((ArrayList) assigned.get(0)).get(0));
+        assertEquals(1, ((ArrayList) assigned.get(1)).size());
+
+        ph.setWindingOrderTrusted(true);
+        assigned = ph.assignHolesToShells(new ArrayList(shells), holes, precedingShells);
+        assertEquals(2, ((ArrayList) assigned.get(0)).size());
+        assertEquals(0, ((ArrayList) assigned.get(1)).size());
+    }
+
     public static Geometry rectangle(PrecisionModel pm, int SRID) {
         Coordinate[] coords = new Coordinate[5];
         for (int i = 0; i < coords.length; i++) {